@@ -0,0 +1,27 @@
+package dynamic.thread.pool.config;
+
+import dynamic.thread.pool.domain.metrics.ThreadPoolMetricsStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration
+@EnableConfigurationProperties(MetricsStoreConfigProperties.class)
+public class MetricsStoreConfig {
+
+    /**
+     * 线程池历史指标存储
+     * @param properties
+     * @return
+     * @throws IOException
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(value = "dynamic.thread.pool.config.metrics.enabled", havingValue = "true", matchIfMissing = true)
+    public ThreadPoolMetricsStore threadPoolMetricsStore(MetricsStoreConfigProperties properties) throws IOException {
+        return new ThreadPoolMetricsStore(properties);
+    }
+
+}
@@ -0,0 +1,50 @@
+package dynamic.thread.pool.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.metrics", ignoreInvalidFields = true)
+public class MetricsStoreConfigProperties {
+
+    /**
+     * 状态；true = 开启、false 关闭
+     */
+    private boolean enabled = true;
+
+    /**
+     * 段文件目录
+     */
+    private String dataDir = "data/metrics";
+
+    /**
+     * 采集周期（毫秒），与 SDK 上报周期保持一致
+     */
+    private long collectIntervalMillis = 10000;
+
+    /**
+     * 每个线程池内存中保留的原始采样数，默认 360 个（10秒采样约 1 小时）
+     */
+    private int ringBufferSize = 360;
+
+    /**
+     * 每个段文件的记录数，默认 100000 条（约 4MB）
+     */
+    private int segmentRecords = 100000;
+
+    /**
+     * 10秒分辨率保留时长（小时）
+     */
+    private int retention10sHours = 24;
+
+    /**
+     * 1分钟分辨率保留时长（天）
+     */
+    private int retention1mDays = 7;
+
+    /**
+     * 1小时分辨率保留时长（天）
+     */
+    private int retention1hDays = 90;
+
+}
@@ -0,0 +1,43 @@
+package dynamic.thread.pool.config;
+
+import dynamic.thread.pool.domain.notify.NotifySink;
+import dynamic.thread.pool.domain.notify.ThreadPoolNotifyService;
+import dynamic.thread.pool.domain.notify.sink.FeishuNotifySink;
+import dynamic.thread.pool.domain.notify.sink.LogNotifySink;
+import dynamic.thread.pool.domain.notify.sink.WebhookNotifySink;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(NotifyConfigProperties.class)
+public class NotifyConfig {
+
+    /**
+     * 线程池通知服务
+     * @param properties
+     * @param webHook 飞书机器人地址
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    public ThreadPoolNotifyService threadPoolNotifyService(NotifyConfigProperties properties,
+                                                           @Value("${feishu.config.web_hook:}") String webHook) {
+        List<NotifySink> sinks = new ArrayList<>();
+        if (properties.isFeishuEnabled() && StringUtils.isNotBlank(webHook)) {
+            sinks.add(new FeishuNotifySink(webHook, properties.getTimeoutMillis()));
+        }
+        if (StringUtils.isNotBlank(properties.getWebhookUrl())) {
+            sinks.add(new WebhookNotifySink(properties.getWebhookUrl(), properties.getTimeoutMillis()));
+        }
+        if (properties.isLogEnabled()) {
+            sinks.add(new LogNotifySink());
+        }
+        return new ThreadPoolNotifyService(sinks, properties);
+    }
+
+}
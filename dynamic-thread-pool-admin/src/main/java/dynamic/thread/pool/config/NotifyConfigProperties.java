@@ -0,0 +1,55 @@
+package dynamic.thread.pool.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.notify", ignoreInvalidFields = true)
+public class NotifyConfigProperties {
+
+    /**
+     * 待发送通知的队列容量，超过后丢弃新通知
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * 合并窗口（毫秒），同一线程池在窗口内的多次变更合并为一条通知
+     */
+    private long coalesceWindowMillis = 2000;
+
+    /**
+     * 单个渠道发送失败后的最大重试次数
+     */
+    private int maxRetries = 3;
+
+    /**
+     * 首次重试等待时间（毫秒），之后每次翻倍
+     */
+    private long retryBackoffMillis = 1000;
+
+    /**
+     * 重试等待时间上限（毫秒）
+     */
+    private long maxBackoffMillis = 30000;
+
+    /**
+     * 请求超时时间（毫秒）
+     */
+    private int timeoutMillis = 3000;
+
+    /**
+     * 飞书通知；true = 开启、false 关闭，机器人地址取 feishu.config.web_hook
+     */
+    private boolean feishuEnabled = true;
+
+    /**
+     * 通用 Webhook 地址，为空时不开启
+     */
+    private String webhookUrl;
+
+    /**
+     * 日志通知；true = 开启、false 关闭
+     */
+    private boolean logEnabled = true;
+
+}
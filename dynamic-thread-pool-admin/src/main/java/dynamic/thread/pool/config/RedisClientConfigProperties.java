@@ -51,5 +51,9 @@ public class RedisClientConfigProperties {
      * 设置是否保持长连接，默认为true
      */
     private boolean keepAlive = true;
+    /**
+     * 下发的线程池配置是否以紧凑二进制格式写入，默认关闭，所有 SDK 升级后再开启；读取时两种格式都支持
+     */
+    private boolean binaryCodecEnabled = false;
 }
 
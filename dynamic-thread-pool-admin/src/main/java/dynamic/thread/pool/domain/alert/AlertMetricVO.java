@@ -0,0 +1,49 @@
+package dynamic.thread.pool.domain.alert;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 告警指标
+ */
+@Getter
+@AllArgsConstructor
+public enum AlertMetricVO {
+
+    QUEUE_USAGE("队列使用率"),
+    ACTIVE_RATIO("活跃线程占最大线程数比例"),
+    ACTIVE_COUNT("活跃线程数"),
+    QUEUE_SIZE("队列任务数"),
+    QUEUE_WAIT_TIME_P99("排队耗时P99(μs)"),
+    EXECUTE_TIME_P99("执行耗时P99(μs)"),
+    ;
+
+    private final String desc;
+
+    /**
+     * 从线程池数据中取指标值
+     * @param entity
+     * @return 无法计算时返回 NaN
+     */
+    public double value(ThreadPoolConfigEntity entity) {
+        switch (this) {
+            case QUEUE_USAGE:
+                int capacity = entity.getQueueSize() + entity.getRemainingCapacity();
+                return capacity > 0 ? (double) entity.getQueueSize() / capacity : Double.NaN;
+            case ACTIVE_RATIO:
+                return entity.getMaximumPoolSize() > 0 ? (double) entity.getActiveCount() / entity.getMaximumPoolSize() : Double.NaN;
+            case ACTIVE_COUNT:
+                return entity.getActiveCount();
+            case QUEUE_SIZE:
+                return entity.getQueueSize();
+            case QUEUE_WAIT_TIME_P99:
+                return entity.getQueueWaitTimeP99();
+            case EXECUTE_TIME_P99:
+                return entity.getExecuteTimeP99();
+            default:
+                return Double.NaN;
+        }
+    }
+
+}
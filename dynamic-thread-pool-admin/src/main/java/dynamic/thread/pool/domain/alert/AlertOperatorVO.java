@@ -0,0 +1,42 @@
+package dynamic.thread.pool.domain.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 告警比较运算符
+ */
+@Getter
+@AllArgsConstructor
+public enum AlertOperatorVO {
+
+    GT(">"),
+    GE(">="),
+    LT("<"),
+    LE("<="),
+    EQ("=="),
+    ;
+
+    private final String symbol;
+
+    public boolean test(double value, double threshold) {
+        if (Double.isNaN(value)) {
+            return false;
+        }
+        switch (this) {
+            case GT:
+                return value > threshold;
+            case GE:
+                return value >= threshold;
+            case LT:
+                return value < threshold;
+            case LE:
+                return value <= threshold;
+            case EQ:
+                return value == threshold;
+            default:
+                return false;
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package dynamic.thread.pool.domain.alert;
+
+import dynamic.thread.pool.domain.notify.NotifyMessage;
+import dynamic.thread.pool.domain.notify.ThreadPoolNotifyService;
+import dynamic.thread.pool.domain.snapshot.ThreadPoolChangeListener;
+import dynamic.thread.pool.domain.stream.ThreadPoolStreamService;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 告警规则引擎
+ * 由推送服务转发注册中心推送的线程池数据（Redis 上报主题 / Zookeeper 节点变更），每收到一个线程池的数据逐条评估规则，
+ * 只维护每个 (规则, 线程池) 的增量状态：首次满足条件的时间、连续满足次数、是否处于告警中
+ * 不回溯历史数据；告警持续期间按静默时长去重，恢复时发送一次恢复通知
+ */
+@Slf4j
+@Service
+public class AlertRuleEngine implements ThreadPoolChangeListener {
+
+    @Resource
+    private AlertRuleService alertRuleService;
+
+    @Resource
+    private ThreadPoolNotifyService threadPoolNotifyService;
+
+    @Resource
+    private ThreadPoolStreamService threadPoolStreamService;
+
+    /** 规则刷新周期，多个管理端实例时依赖该周期同步其他实例修改的规则 */
+    @Value("${dynamic.thread.pool.config.alert.rule-refresh-millis:30000}")
+    private long ruleRefreshMillis;
+
+    private volatile List<AlertRuleEntity> rules = new ArrayList<>();
+
+    private volatile long lastRefreshTime;
+
+    /** key = appName_threadPoolName，value key = ruleId；仅由推送服务的监听线程访问 */
+    private final Map<String, Map<String, AlertState>> stateMap = new HashMap<>();
+
+    @PostConstruct
+    public void register() {
+        threadPoolStreamService.addUpdateListener(this);
+    }
+
+    /**
+     * 规则修改后立即刷新
+     */
+    public void refreshRules() {
+        try {
+            rules = alertRuleService.queryAlertRuleList();
+            lastRefreshTime = System.currentTimeMillis();
+        } catch (Exception e) {
+            log.error("加载告警规则异常", e);
+        }
+    }
+
+    @Override
+    public void onChange(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        long time = System.currentTimeMillis();
+        if (time - lastRefreshTime >= ruleRefreshMillis) {
+            refreshRules();
+        }
+        String poolKey = threadPoolConfigEntity.getAppName() + "_" + threadPoolConfigEntity.getThreadPoolName();
+        Map<String, AlertState> poolStateMap = stateMap.computeIfAbsent(poolKey, k -> new HashMap<>());
+        Set<String> activeRuleIds = new HashSet<>();
+        for (AlertRuleEntity rule : rules) {
+            if (!rule.isEnabled() || null == rule.getMetric() || null == rule.getOperator()) continue;
+            if (!rule.matches(threadPoolConfigEntity.getAppName(), threadPoolConfigEntity.getThreadPoolName())) continue;
+            activeRuleIds.add(rule.getRuleId());
+            evaluate(time, rule, threadPoolConfigEntity, poolStateMap.computeIfAbsent(rule.getRuleId(), k -> new AlertState()));
+        }
+        // 规则删除或停用后丢弃状态
+        poolStateMap.keySet().retainAll(activeRuleIds);
+        if (poolStateMap.isEmpty()) {
+            stateMap.remove(poolKey);
+        }
+    }
+
+    @Override
+    public void onRemove(String appName, String threadPoolName) {
+        // 线程池下线后丢弃状态
+        stateMap.remove(appName + "_" + threadPoolName);
+    }
+
+    private void evaluate(long time, AlertRuleEntity rule, ThreadPoolConfigEntity entity, AlertState state) {
+        double value = rule.getMetric().value(entity);
+        if (!rule.getOperator().test(value, rule.getThreshold())) {
+            if (state.firing) {
+                notify(rule, entity, "线程池告警恢复", value);
+            }
+            state.reset();
+            return;
+        }
+        if (0 == state.consecutive) {
+            state.firstBreachTime = time;
+        }
+        state.consecutive++;
+        if (state.consecutive < Math.max(1, rule.getConsecutiveCount()) || time - state.firstBreachTime < rule.getDurationMillis()) {
+            return;
+        }
+        // 首次触发立即通知；告警持续期间未配置静默时长时不重复通知
+        boolean shouldNotify = !state.firing || (rule.getSilenceMillis() > 0 && time - state.lastNotifyTime >= rule.getSilenceMillis());
+        state.firing = true;
+        if (shouldNotify) {
+            state.lastNotifyTime = time;
+            notify(rule, entity, "线程池告警", value);
+        }
+    }
+
+    private void notify(AlertRuleEntity rule, ThreadPoolConfigEntity entity, String title, double value) {
+        String content = "appName：".concat(entity.getAppName()).concat("，")
+                .concat("threadPoolName：").concat(entity.getThreadPoolName()).concat("，")
+                .concat("规则：").concat(null == rule.getDescription() ? rule.getRuleId() : rule.getDescription()).concat("，")
+                .concat(rule.getMetric().getDesc()).concat(" ").concat(rule.getOperator().getSymbol()).concat(" ")
+                .concat(String.valueOf(rule.getThreshold())).concat("，")
+                .concat("当前值：").concat(String.format("%.2f", value)).concat("。");
+        threadPoolNotifyService.submit(NotifyMessage.builder()
+                .appName(entity.getAppName())
+                .threadPoolName(entity.getThreadPoolName())
+                .category("alert_" + rule.getRuleId())
+                .title(title)
+                .content(content)
+                .build());
+    }
+
+    /**
+     * 单个 (规则, 线程池) 的评估状态
+     */
+    private static class AlertState {
+
+        /** 本轮首次满足条件的时间 */
+        private long firstBreachTime;
+
+        /** 连续满足条件的次数 */
+        private int consecutive;
+
+        /** 是否处于告警中 */
+        private boolean firing;
+
+        /** 最近一次发送告警的时间 */
+        private long lastNotifyTime;
+
+        private void reset() {
+            firstBreachTime = 0;
+            consecutive = 0;
+            firing = false;
+            lastNotifyTime = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package dynamic.thread.pool.domain.alert;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 告警规则
+ * 例如 队列使用率 > 0.8 持续 30 秒：metric = QUEUE_USAGE, operator = GT, threshold = 0.8, durationMillis = 30000
+ * 活跃线程数达到最大线程数连续 3 次上报：metric = ACTIVE_RATIO, operator = GE, threshold = 1, consecutiveCount = 3
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertRuleEntity {
+
+    /**
+     * 规则ID
+     */
+    private String ruleId;
+
+    /**
+     * 应用名称，为空或 * 表示全部应用
+     */
+    private String appName;
+
+    /**
+     * 线程池名称，为空或 * 表示全部线程池
+     */
+    private String threadPoolName;
+
+    /**
+     * 指标
+     */
+    private AlertMetricVO metric;
+
+    /**
+     * 比较运算符
+     */
+    private AlertOperatorVO operator;
+
+    /**
+     * 阈值
+     */
+    private double threshold;
+
+    /**
+     * 条件需持续满足的时长（毫秒），0 表示不要求
+     */
+    private long durationMillis;
+
+    /**
+     * 条件需连续满足的采集次数（采集周期与 SDK 上报周期一致时即为上报次数），小于等于 1 表示满足一次即可
+     */
+    private int consecutiveCount;
+
+    /**
+     * 告警持续期间重复通知的最小间隔（毫秒）
+     */
+    private long silenceMillis;
+
+    /**
+     * 状态；true = 开启、false 关闭
+     */
+    private boolean enabled;
+
+    /**
+     * 描述
+     */
+    private String description;
+
+    public boolean matches(String appName, String threadPoolName) {
+        return matchesPattern(this.appName, appName) && matchesPattern(this.threadPoolName, threadPoolName);
+    }
+
+    private static boolean matchesPattern(String pattern, String value) {
+        return null == pattern || pattern.isEmpty() || "*".equals(pattern) || pattern.equals(value);
+    }
+
+}
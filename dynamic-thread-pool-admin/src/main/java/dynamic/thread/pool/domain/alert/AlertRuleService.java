@@ -0,0 +1,93 @@
+package dynamic.thread.pool.domain.alert;
+
+import com.alibaba.fastjson.JSON;
+import org.apache.curator.framework.CuratorFramework;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 告警规则存储
+ * 与线程池配置存放在同一个注册中心：Redis 中为一个 Hash，field 为规则ID；Zookeeper 中每条规则一个节点
+ */
+@Service
+public class AlertRuleService {
+
+    public static final String ALERT_RULE_HASH_KEY = "THREAD_POOL_ALERT_RULE_HASH_KEY";
+
+    public static final String BASE_ALERT_RULE_PATH = "/dynamic/thread/pool/alert/rule";
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private CuratorFramework curatorFramework;
+
+    @Value("${dynamic.thread.pool.config.redis.enabled}")
+    private boolean redisIsEnabled;
+
+    @Value("${dynamic.thread.pool.config.zookeeper.enabled}")
+    private boolean zookeeperIsEnabled;
+
+    /**
+     * 查询全部告警规则
+     * @return
+     * @throws Exception
+     */
+    public List<AlertRuleEntity> queryAlertRuleList() throws Exception {
+        List<AlertRuleEntity> res = new ArrayList<>();
+        if (redisIsEnabled) {
+            res.addAll(redissonClient.<String, AlertRuleEntity>getMap(ALERT_RULE_HASH_KEY).readAllValues());
+        } else if (zookeeperIsEnabled) {
+            if (null == curatorFramework.checkExists().forPath(BASE_ALERT_RULE_PATH)) {
+                return res;
+            }
+            for (String ruleId : curatorFramework.getChildren().forPath(BASE_ALERT_RULE_PATH)) {
+                byte[] data = curatorFramework.getData().forPath(BASE_ALERT_RULE_PATH + "/" + ruleId);
+                res.add(JSON.parseObject(new String(data, StandardCharsets.UTF_8), AlertRuleEntity.class));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * 新增或修改告警规则
+     * @param alertRuleEntity
+     * @throws Exception
+     */
+    public void saveAlertRule(AlertRuleEntity alertRuleEntity) throws Exception {
+        if (redisIsEnabled) {
+            redissonClient.<String, AlertRuleEntity>getMap(ALERT_RULE_HASH_KEY).fastPut(alertRuleEntity.getRuleId(), alertRuleEntity);
+        } else if (zookeeperIsEnabled) {
+            String path = BASE_ALERT_RULE_PATH + "/" + alertRuleEntity.getRuleId();
+            byte[] data = JSON.toJSONString(alertRuleEntity).getBytes(StandardCharsets.UTF_8);
+            if (null == curatorFramework.checkExists().forPath(path)) {
+                curatorFramework.create().creatingParentsIfNeeded().forPath(path, data);
+            } else {
+                curatorFramework.setData().forPath(path, data);
+            }
+        }
+    }
+
+    /**
+     * 删除告警规则
+     * @param ruleId
+     * @throws Exception
+     */
+    public void deleteAlertRule(String ruleId) throws Exception {
+        if (redisIsEnabled) {
+            redissonClient.<String, AlertRuleEntity>getMap(ALERT_RULE_HASH_KEY).fastRemove(ruleId);
+        } else if (zookeeperIsEnabled) {
+            String path = BASE_ALERT_RULE_PATH + "/" + ruleId;
+            if (null != curatorFramework.checkExists().forPath(path)) {
+                curatorFramework.delete().forPath(path);
+            }
+        }
+    }
+
+}
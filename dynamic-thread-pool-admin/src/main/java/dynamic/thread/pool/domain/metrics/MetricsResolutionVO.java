@@ -0,0 +1,34 @@
+package dynamic.thread.pool.domain.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 指标分辨率
+ * 10秒原始数据逐级降采样为 1 分钟、1 小时
+ */
+@Getter
+@AllArgsConstructor
+public enum MetricsResolutionVO {
+
+    SECOND_10("10s", 10_000L),
+    MINUTE_1("1m", 60_000L),
+    HOUR_1("1h", 3_600_000L),
+    ;
+
+    /** 名称，同时作为段文件目录名 */
+    private final String name;
+
+    /** 时间桶长度（毫秒） */
+    private final long millis;
+
+    /**
+     * 时间对齐到所在时间桶的起点
+     * @param time
+     * @return
+     */
+    public long align(long time) {
+        return time - time % millis;
+    }
+
+}
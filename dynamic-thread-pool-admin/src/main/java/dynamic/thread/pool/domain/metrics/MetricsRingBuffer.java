@@ -0,0 +1,60 @@
+package dynamic.thread.pool.domain.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单个线程池的近期原始采样环形缓冲区
+ * 容量写满后覆盖最旧的数据点
+ */
+public class MetricsRingBuffer {
+
+    private final ThreadPoolMetricsPoint[] points;
+
+    /** 下一次写入位置 */
+    private int next;
+
+    /** 已写入数量，最大为容量 */
+    private int size;
+
+    public MetricsRingBuffer(int capacity) {
+        this.points = new ThreadPoolMetricsPoint[capacity];
+    }
+
+    public synchronized void add(ThreadPoolMetricsPoint point) {
+        points[next] = point;
+        next = (next + 1) % points.length;
+        if (size < points.length) {
+            size++;
+        }
+    }
+
+    /**
+     * 最旧数据点的时间，缓冲区为空时返回 Long.MAX_VALUE
+     * @return
+     */
+    public synchronized long oldestTime() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        return points[(next - size + points.length) % points.length].getTime();
+    }
+
+    /**
+     * 按时间顺序返回 [from, to] 内的数据点
+     * @param from
+     * @param to
+     * @return
+     */
+    public synchronized List<ThreadPoolMetricsPoint> query(long from, long to) {
+        List<ThreadPoolMetricsPoint> res = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ThreadPoolMetricsPoint point = points[(next - size + i + points.length) % points.length];
+            if (point.getTime() >= from && point.getTime() <= to) {
+                res.add(point);
+            }
+        }
+        return res;
+    }
+
+}
@@ -0,0 +1,74 @@
+package dynamic.thread.pool.domain.metrics;
+
+/**
+ * 单个线程池在某一分辨率下的降采样累加器
+ * 输入可以是原始采样，也可以是更细分辨率的汇总数据点（按样本数加权）；数据点落入新的时间桶时输出上一个时间桶的汇总数据点
+ */
+public class MetricsRollup {
+
+    private final MetricsResolutionVO resolution;
+
+    private long bucketTime = -1;
+    private int samples;
+    private double activeCountSum;
+    private int activeCountMax;
+    private double queueSizeSum;
+    private int queueSizeMax;
+    private double poolSizeSum;
+    private int poolSizeMax;
+
+    public MetricsRollup(MetricsResolutionVO resolution) {
+        this.resolution = resolution;
+    }
+
+    /**
+     * 累加一个数据点
+     * @param point 原始采样点或更细分辨率的汇总数据点
+     * @return 时间桶切换时返回上一个时间桶的汇总数据点，否则返回 null
+     */
+    public ThreadPoolMetricsPoint add(ThreadPoolMetricsPoint point) {
+        long time = resolution.align(point.getTime());
+        ThreadPoolMetricsPoint completed = null;
+        if (time != bucketTime) {
+            completed = flush();
+            bucketTime = time;
+        }
+        samples += point.getSamples();
+        activeCountSum += point.getActiveCount() * point.getSamples();
+        activeCountMax = Math.max(activeCountMax, point.getActiveCountMax());
+        queueSizeSum += point.getQueueSize() * point.getSamples();
+        queueSizeMax = Math.max(queueSizeMax, point.getQueueSizeMax());
+        poolSizeSum += point.getPoolSize() * point.getSamples();
+        poolSizeMax = Math.max(poolSizeMax, point.getPoolSizeMax());
+        return completed;
+    }
+
+    /**
+     * 输出当前时间桶的汇总数据点并清空
+     * @return 当前时间桶无数据时返回 null
+     */
+    public ThreadPoolMetricsPoint flush() {
+        if (samples == 0) {
+            return null;
+        }
+        ThreadPoolMetricsPoint point = ThreadPoolMetricsPoint.builder()
+                .time(bucketTime)
+                .samples(samples)
+                .activeCount(activeCountSum / samples)
+                .activeCountMax(activeCountMax)
+                .queueSize(queueSizeSum / samples)
+                .queueSizeMax(queueSizeMax)
+                .poolSize(poolSizeSum / samples)
+                .poolSizeMax(poolSizeMax)
+                .build();
+        samples = 0;
+        activeCountSum = 0;
+        activeCountMax = 0;
+        queueSizeSum = 0;
+        queueSizeMax = 0;
+        poolSizeSum = 0;
+        poolSizeMax = 0;
+        return point;
+    }
+
+}
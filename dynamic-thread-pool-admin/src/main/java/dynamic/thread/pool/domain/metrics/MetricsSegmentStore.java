@@ -0,0 +1,257 @@
+package dynamic.thread.pool.domain.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 单一分辨率的只追加段文件存储
+ * 每个段文件固定大小并通过内存映射写入，文件名为段内第一条记录的时间；写满后滚动到新段，并按保留时长删除过期段
+ * 记录定长 40 字节：poolId(4) samples(4) time(8) activeCount(4) activeCountMax(4) queueSize(4) queueSizeMax(4) poolSize(4) poolSizeMax(4)
+ * time 最后写入，time = 0 表示空槽位
+ */
+@Slf4j
+public class MetricsSegmentStore {
+
+    static final int RECORD_SIZE = 40;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final MetricsResolutionVO resolution;
+
+    private final File dir;
+
+    private final int segmentRecords;
+
+    private final long retentionMillis;
+
+    /** 段起始时间 -> 段文件 */
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+
+    /** 已写满的段，查询时按需只读映射 */
+    private final Map<Long, MappedByteBuffer> sealedBuffers = new HashMap<>();
+
+    /** 当前写入段 */
+    private MappedByteBuffer activeBuffer;
+
+    private long activeStart;
+
+    /** 当前写入段的下一个槽位 */
+    private int writeIndex;
+
+    public MetricsSegmentStore(File baseDir, MetricsResolutionVO resolution, int segmentRecords, long retentionMillis) throws IOException {
+        this.resolution = resolution;
+        this.dir = new File(baseDir, resolution.getName());
+        this.segmentRecords = segmentRecords;
+        this.retentionMillis = retentionMillis;
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("创建指标段目录失败 " + dir.getAbsolutePath());
+        }
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (null != files) {
+            for (File file : files) {
+                try {
+                    segments.put(Long.parseLong(file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    log.warn("忽略无法识别的指标段文件 {}", file.getAbsolutePath());
+                }
+            }
+        }
+        if (!segments.isEmpty()) {
+            // 继续写入最后一个段
+            Map.Entry<Long, File> last = segments.lastEntry();
+            activeStart = last.getKey();
+            activeBuffer = map(last.getValue(), FileChannel.MapMode.READ_WRITE);
+            writeIndex = findWriteIndex(activeBuffer);
+        }
+        log.info("指标段存储 {} 加载段文件:{}个", resolution.getName(), segments.size());
+    }
+
+    /**
+     * 追加一条记录
+     * @param poolId
+     * @param point
+     * @throws IOException
+     */
+    public synchronized void append(int poolId, ThreadPoolMetricsPoint point) throws IOException {
+        if (null == activeBuffer || writeIndex >= segmentRecords) {
+            roll(point.getTime());
+        }
+        int offset = writeIndex * RECORD_SIZE;
+        activeBuffer.putInt(offset, poolId);
+        activeBuffer.putInt(offset + 4, point.getSamples());
+        activeBuffer.putFloat(offset + 16, (float) point.getActiveCount());
+        activeBuffer.putInt(offset + 20, point.getActiveCountMax());
+        activeBuffer.putFloat(offset + 24, (float) point.getQueueSize());
+        activeBuffer.putInt(offset + 28, point.getQueueSizeMax());
+        activeBuffer.putFloat(offset + 32, (float) point.getPoolSize());
+        activeBuffer.putInt(offset + 36, point.getPoolSizeMax());
+        activeBuffer.putLong(offset + 8, point.getTime());
+        writeIndex++;
+    }
+
+    /**
+     * 查询 [from, to] 内某个线程池的记录
+     * @param poolId
+     * @param from
+     * @param to
+     * @return 按时间排序的数据点
+     * @throws IOException
+     */
+    public synchronized List<ThreadPoolMetricsPoint> query(int poolId, long from, long to) throws IOException {
+        List<ThreadPoolMetricsPoint> res = new ArrayList<>();
+        for (Map.Entry<Long, File> entry : segments.entrySet()) {
+            long start = entry.getKey();
+            Long next = segments.higherKey(start);
+            if (start > to || (null != next && next < from)) {
+                continue;
+            }
+            MappedByteBuffer buffer = start == activeStart ? activeBuffer : sealedBuffer(start, entry.getValue());
+            int limit = start == activeStart ? writeIndex : buffer.capacity() / RECORD_SIZE;
+            for (int i = 0; i < limit; i++) {
+                int offset = i * RECORD_SIZE;
+                long time = buffer.getLong(offset + 8);
+                if (time == 0) {
+                    break;
+                }
+                if (time < from || time > to || buffer.getInt(offset) != poolId) {
+                    continue;
+                }
+                res.add(ThreadPoolMetricsPoint.builder()
+                        .time(time)
+                        .samples(buffer.getInt(offset + 4))
+                        .activeCount(buffer.getFloat(offset + 16))
+                        .activeCountMax(buffer.getInt(offset + 20))
+                        .queueSize(buffer.getFloat(offset + 24))
+                        .queueSizeMax(buffer.getInt(offset + 28))
+                        .poolSize(buffer.getFloat(offset + 32))
+                        .poolSizeMax(buffer.getInt(offset + 36))
+                        .build());
+            }
+        }
+        res.sort((a, b) -> Long.compare(a.getTime(), b.getTime()));
+        return mergeSameBucket(res);
+    }
+
+    /**
+     * 保留时长内最早可查询的时间
+     * @param now
+     * @return
+     */
+    public long retentionStart(long now) {
+        return now - retentionMillis;
+    }
+
+    public MetricsResolutionVO getResolution() {
+        return resolution;
+    }
+
+    public synchronized void force() {
+        if (null != activeBuffer) {
+            activeBuffer.force();
+        }
+    }
+
+    /**
+     * 停机时写入的未结束时间桶在重启后可能再写入一条同一时间桶的记录，按样本数加权合并为一个数据点
+     */
+    private List<ThreadPoolMetricsPoint> mergeSameBucket(List<ThreadPoolMetricsPoint> points) {
+        List<ThreadPoolMetricsPoint> res = new ArrayList<>(points.size());
+        MetricsRollup rollup = new MetricsRollup(resolution);
+        for (ThreadPoolMetricsPoint point : points) {
+            ThreadPoolMetricsPoint completed = rollup.add(point);
+            if (null != completed) {
+                res.add(completed);
+            }
+        }
+        ThreadPoolMetricsPoint last = rollup.flush();
+        if (null != last) {
+            res.add(last);
+        }
+        return res;
+    }
+
+    private void roll(long time) throws IOException {
+        if (null != activeBuffer) {
+            activeBuffer.force();
+        }
+        // 同一毫秒内滚动时避免文件名冲突
+        long start = segments.isEmpty() ? time : Math.max(time, segments.lastKey() + 1);
+        File file = new File(dir, start + SEGMENT_SUFFIX);
+        activeBuffer = map(file, FileChannel.MapMode.READ_WRITE);
+        activeStart = start;
+        writeIndex = 0;
+        segments.put(start, file);
+        cleanExpired(time);
+    }
+
+    /**
+     * 删除整段都已超过保留时长的段文件（以下一个段的起始时间作为本段的结束时间）
+     */
+    private void cleanExpired(long now) {
+        long expireBefore = now - retentionMillis;
+        while (segments.size() > 1) {
+            Map.Entry<Long, File> first = segments.firstEntry();
+            Long next = segments.higherKey(first.getKey());
+            if (null == next || next >= expireBefore) {
+                break;
+            }
+            segments.remove(first.getKey());
+            sealedBuffers.remove(first.getKey());
+            if (!first.getValue().delete()) {
+                log.warn("删除过期指标段文件失败 {}", first.getValue().getAbsolutePath());
+            }
+        }
+    }
+
+    private MappedByteBuffer sealedBuffer(long start, File file) throws IOException {
+        MappedByteBuffer buffer = sealedBuffers.get(start);
+        if (null == buffer) {
+            buffer = map(file, FileChannel.MapMode.READ_ONLY);
+            sealedBuffers.put(start, buffer);
+        }
+        return buffer;
+    }
+
+    private MappedByteBuffer map(File file, FileChannel.MapMode mode) throws IOException {
+        Path path = file.toPath();
+        long size = (long) segmentRecords * RECORD_SIZE;
+        if (mode == FileChannel.MapMode.READ_ONLY) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(mode, 0, Math.min(size, Files.size(path)));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(mode, 0, size);
+        }
+    }
+
+    /**
+     * 记录按顺序追加，二分查找第一个空槽位
+     */
+    private int findWriteIndex(MappedByteBuffer buffer) {
+        int low = 0;
+        int high = Math.min(segmentRecords, buffer.capacity() / RECORD_SIZE);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(mid * RECORD_SIZE + 8) == 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,42 @@
+package dynamic.thread.pool.domain.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 线程池指标数据点
+ * 原始采样点 samples = 1；降采样后的数据点为时间桶内的均值与最大值
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadPoolMetricsPoint {
+
+    /** 时间（毫秒），降采样数据点为时间桶起点 */
+    private long time;
+
+    /** 样本数 */
+    private int samples;
+
+    /** 活跃线程数均值 */
+    private double activeCount;
+
+    /** 活跃线程数最大值 */
+    private int activeCountMax;
+
+    /** 队列任务数均值 */
+    private double queueSize;
+
+    /** 队列任务数最大值 */
+    private int queueSizeMax;
+
+    /** 当前线程数均值 */
+    private double poolSize;
+
+    /** 当前线程数最大值 */
+    private int poolSizeMax;
+
+}
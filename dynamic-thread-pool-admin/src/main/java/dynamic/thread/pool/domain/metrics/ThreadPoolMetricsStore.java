@@ -0,0 +1,228 @@
+package dynamic.thread.pool.domain.metrics;
+
+import dynamic.thread.pool.config.MetricsStoreConfigProperties;
+import dynamic.thread.pool.domain.snapshot.ThreadPoolSnapshotListener;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池历史指标存储
+ * 近期原始采样保存在每个线程池的内存环形缓冲区；同时逐级降采样为 10秒、1分钟、1小时 三种分辨率写入只追加的段文件，用于长时间范围的趋势查询
+ */
+@Slf4j
+public class ThreadPoolMetricsStore implements ThreadPoolSnapshotListener {
+
+    private static final String POOL_INDEX_FILE = "pools.idx";
+
+    private final int ringBufferSize;
+
+    private final File poolIndexFile;
+
+    /** appName_threadPoolName -> 段文件中的线程池编号 */
+    private final Map<String, Integer> poolIds = new ConcurrentHashMap<>();
+
+    private final Map<String, PoolSeries> seriesMap = new ConcurrentHashMap<>();
+
+    private final MetricsSegmentStore secondStore;
+
+    private final MetricsSegmentStore minuteStore;
+
+    private final MetricsSegmentStore hourStore;
+
+    private boolean closed;
+
+    public ThreadPoolMetricsStore(MetricsStoreConfigProperties properties) throws IOException {
+        File baseDir = new File(properties.getDataDir());
+        if (!baseDir.exists() && !baseDir.mkdirs()) {
+            throw new IOException("创建指标目录失败 " + baseDir.getAbsolutePath());
+        }
+        this.ringBufferSize = properties.getRingBufferSize();
+        this.poolIndexFile = new File(baseDir, POOL_INDEX_FILE);
+        loadPoolIndex();
+        this.secondStore = new MetricsSegmentStore(baseDir, MetricsResolutionVO.SECOND_10, properties.getSegmentRecords(),
+                TimeUnit.HOURS.toMillis(properties.getRetention10sHours()));
+        this.minuteStore = new MetricsSegmentStore(baseDir, MetricsResolutionVO.MINUTE_1, properties.getSegmentRecords(),
+                TimeUnit.DAYS.toMillis(properties.getRetention1mDays()));
+        this.hourStore = new MetricsSegmentStore(baseDir, MetricsResolutionVO.HOUR_1, properties.getSegmentRecords(),
+                TimeUnit.DAYS.toMillis(properties.getRetention1hDays()));
+        log.info("线程池指标存储启动 目录:{} 线程池:{}个", baseDir.getAbsolutePath(), poolIds.size());
+    }
+
+    @Override
+    public synchronized void onSnapshot(long time, List<ThreadPoolConfigEntity> threadPoolConfigEntities) {
+        if (closed) {
+            return;
+        }
+        for (ThreadPoolConfigEntity entity : threadPoolConfigEntities) {
+            if (null == entity.getAppName() || null == entity.getThreadPoolName()) continue;
+            String key = entity.getAppName() + "_" + entity.getThreadPoolName();
+            try {
+                int poolId = poolId(key, entity.getAppName(), entity.getThreadPoolName());
+                PoolSeries series = seriesMap.computeIfAbsent(key, k -> new PoolSeries(ringBufferSize));
+                ThreadPoolMetricsPoint raw = ThreadPoolMetricsPoint.builder()
+                        .time(time)
+                        .samples(1)
+                        .activeCount(entity.getActiveCount())
+                        .activeCountMax(entity.getActiveCount())
+                        .queueSize(entity.getQueueSize())
+                        .queueSizeMax(entity.getQueueSize())
+                        .poolSize(entity.getPoolSize())
+                        .poolSizeMax(entity.getPoolSize())
+                        .build();
+                series.ring.add(raw);
+                // 10s -> 1m -> 1h 逐级降采样，时间桶结束时落盘
+                ThreadPoolMetricsPoint second = series.secondRollup.add(raw);
+                if (null != second) {
+                    appendSecond(poolId, series, second);
+                }
+            } catch (IOException e) {
+                log.error("写入线程池指标异常 {}", key, e);
+            }
+        }
+    }
+
+    /**
+     * 查询 [from, to] 内的指标
+     * 范围落在内存环形缓冲区内时返回原始采样，否则选择保留时长能覆盖起始时间的最细分辨率
+     * @param appName
+     * @param threadPoolName
+     * @param from
+     * @param to
+     * @return
+     * @throws IOException
+     */
+    public List<ThreadPoolMetricsPoint> query(String appName, String threadPoolName, long from, long to) throws IOException {
+        String key = appName + "_" + threadPoolName;
+        PoolSeries series = seriesMap.get(key);
+        if (null != series && from >= series.ring.oldestTime()) {
+            return series.ring.query(from, to);
+        }
+        Integer poolId = poolIds.get(key);
+        if (null == poolId) {
+            return new ArrayList<>();
+        }
+        long now = System.currentTimeMillis();
+        for (MetricsSegmentStore store : new MetricsSegmentStore[]{secondStore, minuteStore}) {
+            if (from >= store.retentionStart(now)) {
+                return store.query(poolId, from, to);
+            }
+        }
+        return hourStore.query(poolId, from, to);
+    }
+
+    /**
+     * 关闭前将各线程池未结束的时间桶逐级写入段文件并刷盘，避免丢失最近一个 10秒/1分钟/1小时 桶的数据
+     * 重启后同一时间桶可能再写入一条记录，查询时按样本数合并
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Map.Entry<String, PoolSeries> entry : seriesMap.entrySet()) {
+            Integer poolId = poolIds.get(entry.getKey());
+            if (null == poolId) continue;
+            PoolSeries series = entry.getValue();
+            try {
+                // 先结束 10s 桶并入 1m 桶，再结束 1m 桶并入 1h 桶
+                ThreadPoolMetricsPoint second = series.secondRollup.flush();
+                if (null != second) {
+                    appendSecond(poolId, series, second);
+                }
+                ThreadPoolMetricsPoint minute = series.minuteRollup.flush();
+                if (null != minute) {
+                    appendMinute(poolId, series, minute);
+                }
+                ThreadPoolMetricsPoint hour = series.hourRollup.flush();
+                if (null != hour) {
+                    hourStore.append(poolId, hour);
+                }
+            } catch (IOException e) {
+                log.error("写入线程池指标异常 {}", entry.getKey(), e);
+            }
+        }
+        secondStore.force();
+        minuteStore.force();
+        hourStore.force();
+    }
+
+    private void appendSecond(int poolId, PoolSeries series, ThreadPoolMetricsPoint second) throws IOException {
+        secondStore.append(poolId, second);
+        ThreadPoolMetricsPoint minute = series.minuteRollup.add(second);
+        if (null != minute) {
+            appendMinute(poolId, series, minute);
+        }
+    }
+
+    private void appendMinute(int poolId, PoolSeries series, ThreadPoolMetricsPoint minute) throws IOException {
+        minuteStore.append(poolId, minute);
+        ThreadPoolMetricsPoint hour = series.hourRollup.add(minute);
+        if (null != hour) {
+            hourStore.append(poolId, hour);
+        }
+    }
+
+    private int poolId(String key, String appName, String threadPoolName) throws IOException {
+        Integer id = poolIds.get(key);
+        if (null != id) {
+            return id;
+        }
+        synchronized (poolIds) {
+            id = poolIds.get(key);
+            if (null == id) {
+                // 编号从 1 开始，持久化后重启保持不变
+                id = poolIds.size() + 1;
+                try (BufferedWriter writer = Files.newBufferedWriter(poolIndexFile.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(id + "\t" + appName + "\t" + threadPoolName);
+                    writer.newLine();
+                }
+                poolIds.put(key, id);
+            }
+            return id;
+        }
+    }
+
+    private void loadPoolIndex() throws IOException {
+        if (!poolIndexFile.exists()) {
+            return;
+        }
+        for (String line : Files.readAllLines(poolIndexFile.toPath(), StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t");
+            if (parts.length != 3) continue;
+            poolIds.put(parts[1] + "_" + parts[2], Integer.parseInt(parts[0]));
+        }
+    }
+
+    /**
+     * 单个线程池的内存数据
+     */
+    private static class PoolSeries {
+
+        private final MetricsRingBuffer ring;
+
+        private final MetricsRollup secondRollup = new MetricsRollup(MetricsResolutionVO.SECOND_10);
+
+        private final MetricsRollup minuteRollup = new MetricsRollup(MetricsResolutionVO.MINUTE_1);
+
+        private final MetricsRollup hourRollup = new MetricsRollup(MetricsResolutionVO.HOUR_1);
+
+        private PoolSeries(int ringBufferSize) {
+            this.ring = new MetricsRingBuffer(ringBufferSize);
+        }
+
+    }
+
+}
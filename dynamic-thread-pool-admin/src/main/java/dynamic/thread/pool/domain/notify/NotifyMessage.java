@@ -0,0 +1,61 @@
+package dynamic.thread.pool.domain.notify;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 通知消息
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotifyMessage {
+
+    /**
+     * 应用名称
+     */
+    private String appName;
+
+    /**
+     * 线程池名称
+     */
+    private String threadPoolName;
+
+    /**
+     * 类别，同一线程池同一类别的消息才会合并，例如 config、alert_{ruleId}
+     */
+    private String category;
+
+    /**
+     * 标题
+     */
+    private String title;
+
+    /**
+     * 内容，合并时保留最后一次
+     */
+    private String content;
+
+    /**
+     * 第一次变更时间
+     */
+    private long time;
+
+    /**
+     * 合并的变更次数
+     */
+    private int mergedCount;
+
+    /**
+     * 拼接为纯文本
+     * @return
+     */
+    public String toText() {
+        String text = title + "：" + content;
+        return mergedCount > 1 ? text + "（合并" + mergedCount + "次变更）" : text;
+    }
+
+}
@@ -0,0 +1,21 @@
+package dynamic.thread.pool.domain.notify;
+
+/**
+ * 通知渠道
+ */
+public interface NotifySink {
+
+    /**
+     * 渠道名称，用于日志
+     * @return
+     */
+    String name();
+
+    /**
+     * 发送通知，失败时抛出异常由发送线程重试
+     * @param message
+     * @throws Exception
+     */
+    void send(NotifyMessage message) throws Exception;
+
+}
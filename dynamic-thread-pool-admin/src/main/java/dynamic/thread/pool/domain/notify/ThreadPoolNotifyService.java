@@ -0,0 +1,185 @@
+package dynamic.thread.pool.domain.notify;
+
+import dynamic.thread.pool.config.NotifyConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池通知服务
+ * 调用方只把消息放入有界队列后立即返回，由独立的发送线程投递到各个通知渠道
+ * 同一线程池同一类别的消息在合并窗口内合并为一条消息；发送失败的渠道按指数退避单独重试，不影响其他渠道和其他消息
+ */
+@Slf4j
+public class ThreadPoolNotifyService {
+
+    private final List<NotifySink> sinks;
+
+    private final int queueCapacity;
+
+    private final long coalesceWindowMillis;
+
+    private final int maxRetries;
+
+    private final long retryBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    /** 合并窗口内等待发送的消息，key = appName_threadPoolName_category */
+    private final Map<String, NotifyMessage> pendingMap = new HashMap<>();
+
+    /** 到期后发送的任务，包括首次发送和重试 */
+    private final DelayQueue<NotifyTask> taskQueue = new DelayQueue<>();
+
+    private final Thread sender;
+
+    private volatile boolean running = true;
+
+    public ThreadPoolNotifyService(List<NotifySink> sinks, NotifyConfigProperties properties) {
+        this.sinks = sinks;
+        this.queueCapacity = properties.getQueueCapacity();
+        this.coalesceWindowMillis = properties.getCoalesceWindowMillis();
+        this.maxRetries = properties.getMaxRetries();
+        this.retryBackoffMillis = properties.getRetryBackoffMillis();
+        this.maxBackoffMillis = properties.getMaxBackoffMillis();
+        this.sender = new Thread(this::runSender, "thread-pool-notify-sender");
+        this.sender.setDaemon(true);
+        this.sender.start();
+        log.info("线程池通知服务启动 渠道:{}个 队列容量:{} 合并窗口:{}ms", sinks.size(), queueCapacity, coalesceWindowMillis);
+    }
+
+    /**
+     * 提交通知，不阻塞调用方
+     * @param message
+     * @return 队列已满被丢弃时返回 false
+     */
+    public boolean submit(NotifyMessage message) {
+        if (sinks.isEmpty()) {
+            return true;
+        }
+        String key = message.getAppName() + "_" + message.getThreadPoolName() + "_" + message.getCategory();
+        synchronized (pendingMap) {
+            NotifyMessage pending = pendingMap.get(key);
+            if (null != pending) {
+                // 窗口内再次变更，保留最新内容
+                pending.setTitle(message.getTitle());
+                pending.setContent(message.getContent());
+                pending.setMergedCount(pending.getMergedCount() + 1);
+                return true;
+            }
+            if (taskQueue.size() >= queueCapacity) {
+                log.warn("线程池通知队列已满，丢弃通知 {}", message.toText());
+                return false;
+            }
+            if (0 == message.getTime()) {
+                message.setTime(System.currentTimeMillis());
+            }
+            message.setMergedCount(1);
+            pendingMap.put(key, message);
+            taskQueue.add(new NotifyTask(key, message, null, 0, System.currentTimeMillis() + coalesceWindowMillis));
+        }
+        return true;
+    }
+
+    public void close() {
+        running = false;
+        sender.interrupt();
+        try {
+            sender.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 尽量发出合并窗口内尚未发送的消息，不再重试
+        for (Object item : taskQueue.toArray()) {
+            NotifyTask task = (NotifyTask) item;
+            if (null == task.sink) {
+                for (NotifySink sink : sinks) {
+                    send(sink, task.message, maxRetries);
+                }
+            }
+        }
+        taskQueue.clear();
+    }
+
+    private void runSender() {
+        while (running) {
+            try {
+                NotifyTask task = taskQueue.take();
+                if (null == task.sink) {
+                    // 合并窗口结束，之后的变更开始新的窗口
+                    synchronized (pendingMap) {
+                        pendingMap.remove(task.key);
+                    }
+                    for (NotifySink sink : sinks) {
+                        send(sink, task.message, 0);
+                    }
+                } else {
+                    send(task.sink, task.message, task.attempt);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("线程池通知发送线程异常", e);
+            }
+        }
+    }
+
+    private void send(NotifySink sink, NotifyMessage message, int attempt) {
+        try {
+            sink.send(message);
+            log.info("发送通知成功 渠道:{} {}", sink.name(), message.toText());
+        } catch (Exception e) {
+            if (attempt >= maxRetries) {
+                log.error("发送通知失败，已重试{}次 渠道:{} {}", attempt, sink.name(), message.toText(), e);
+                return;
+            }
+            long backoff = Math.min(maxBackoffMillis, retryBackoffMillis << Math.min(attempt, 30));
+            log.warn("发送通知失败，{}ms 后重试 渠道:{} 错误:{}", backoff, sink.name(), e.getMessage());
+            if (running) {
+                taskQueue.add(new NotifyTask(null, message, sink, attempt + 1, System.currentTimeMillis() + backoff));
+            }
+        }
+    }
+
+    /**
+     * 发送任务，sink 为空表示合并窗口结束后的首次发送（投递到全部渠道），否则为单个渠道的重试
+     */
+    private static class NotifyTask implements Delayed {
+
+        private final String key;
+
+        private final NotifyMessage message;
+
+        private final NotifySink sink;
+
+        private final int attempt;
+
+        private final long dueTime;
+
+        private NotifyTask(String key, NotifyMessage message, NotifySink sink, int attempt, long dueTime) {
+            this.key = key;
+            this.message = message;
+            this.sink = sink;
+            this.attempt = attempt;
+            this.dueTime = dueTime;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(dueTime, ((NotifyTask) o).dueTime);
+        }
+
+    }
+
+}
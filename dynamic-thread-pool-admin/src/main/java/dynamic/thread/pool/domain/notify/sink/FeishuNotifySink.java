@@ -0,0 +1,46 @@
+package dynamic.thread.pool.domain.notify.sink;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import dynamic.thread.pool.domain.notify.NotifyMessage;
+import dynamic.thread.pool.domain.notify.NotifySink;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 飞书机器人通知渠道
+ */
+public class FeishuNotifySink implements NotifySink {
+
+    private final String webHook;
+
+    private final int timeoutMillis;
+
+    public FeishuNotifySink(String webHook, int timeoutMillis) {
+        this.webHook = webHook;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String name() {
+        return "feishu";
+    }
+
+    @Override
+    public void send(NotifyMessage message) throws Exception {
+        Map<String, Object> json = new HashMap<>();
+        Map<String, Object> text = new HashMap<>();
+        json.put("msg_type", "text");
+        text.put("text", message.toText());
+        json.put("content", text);
+        String result = WebhookNotifySink.post(webHook, JSON.toJSONString(json), timeoutMillis);
+        // 飞书限流等业务错误同样返回 200，需要判断响应中的 code
+        JSONObject response = JSON.parseObject(result);
+        if (null != response && response.getIntValue("code") != 0) {
+            throw new IOException("飞书通知失败 " + result);
+        }
+    }
+
+}
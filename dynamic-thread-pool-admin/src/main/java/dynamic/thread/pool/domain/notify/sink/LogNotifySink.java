@@ -0,0 +1,23 @@
+package dynamic.thread.pool.domain.notify.sink;
+
+import dynamic.thread.pool.domain.notify.NotifyMessage;
+import dynamic.thread.pool.domain.notify.NotifySink;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 仅记录日志的通知渠道
+ */
+@Slf4j
+public class LogNotifySink implements NotifySink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void send(NotifyMessage message) {
+        log.info("线程池通知 appName:{} threadPoolName:{} {}", message.getAppName(), message.getThreadPoolName(), message.toText());
+    }
+
+}
@@ -0,0 +1,51 @@
+package dynamic.thread.pool.domain.notify.sink;
+
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import com.alibaba.fastjson.JSON;
+import dynamic.thread.pool.domain.notify.NotifyMessage;
+import dynamic.thread.pool.domain.notify.NotifySink;
+
+import java.io.IOException;
+
+/**
+ * 通用 Webhook 通知渠道，以 JSON 格式 POST 通知消息
+ */
+public class WebhookNotifySink implements NotifySink {
+
+    private final String url;
+
+    private final int timeoutMillis;
+
+    public WebhookNotifySink(String url, int timeoutMillis) {
+        this.url = url;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void send(NotifyMessage message) throws Exception {
+        post(url, JSON.toJSONString(message), timeoutMillis);
+    }
+
+    /**
+     * POST JSON 请求，非 2xx 响应视为失败
+     * @return 响应内容
+     */
+    static String post(String url, String body, int timeoutMillis) throws IOException {
+        try (HttpResponse response = HttpRequest.post(url)
+                .body(body, "application/json;charset=UTF-8")
+                .timeout(timeoutMillis)
+                .execute()) {
+            if (!response.isOk()) {
+                throw new IOException("通知请求失败 status:" + response.getStatus());
+            }
+            return response.body();
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package dynamic.thread.pool.domain.query;
+
+import dynamic.thread.pool.domain.zookeeper.ThreadPoolZookeeperReadModel;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 线程池数据查询服务
+ * 查询接口与后台采集任务共用，按注册中心类型读取全部线程池数据
+ */
+@Service
+public class ThreadPoolQueryService {
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Autowired(required = false)
+    private ThreadPoolZookeeperReadModel threadPoolZookeeperReadModel;
+
+    @Value("${dynamic.thread.pool.config.redis.enabled}")
+    private boolean redisIsEnabled;
+
+    @Value("${dynamic.thread.pool.config.zookeeper.enabled}")
+    private boolean zookeeperIsEnabled;
+
+    /**
+     * 查询全部线程池数据
+     * @return
+     */
+    public List<ThreadPoolConfigEntity> queryThreadPoolList() {
+        if (redisIsEnabled) {
+            return queryThreadPoolListFromRedis();
+        } else if (zookeeperIsEnabled) {
+            return threadPoolZookeeperReadModel.queryThreadPoolList();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 从 Redis 读取全部应用的线程池数据
+     * 每个应用一个 Hash，所有 Hash 在一个批处理中读取；旧版本 SDK 写入的列表一并读取，按应用名和线程池名去重
+     * @return
+     */
+    private List<ThreadPoolConfigEntity> queryThreadPoolListFromRedis() {
+        Set<String> appNames = redissonClient.<String>getSet("THREAD_POOL_CONFIG_APP_SET_KEY").readAll();
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<Collection<ThreadPoolConfigEntity>>> futures = new ArrayList<>(appNames.size());
+        for (String appName : appNames) {
+            futures.add(batch.<String, ThreadPoolConfigEntity>getMap("THREAD_POOL_CONFIG_HASH_KEY" + "_" + appName).readAllValuesAsync());
+        }
+        RFuture<List<ThreadPoolConfigEntity>> legacyFuture = batch.<ThreadPoolConfigEntity>getList("THREAD_POOL_CONFIG_LIST_KEY").readAllAsync();
+        // execute 返回时批处理内的 future 均已完成
+        batch.execute();
+
+        Map<String, ThreadPoolConfigEntity> res = new LinkedHashMap<>();
+        for (RFuture<Collection<ThreadPoolConfigEntity>> future : futures) {
+            for (ThreadPoolConfigEntity entity : future.toCompletableFuture().join()) {
+                res.put(entity.getAppName() + "_" + entity.getThreadPoolName(), entity);
+            }
+        }
+        for (ThreadPoolConfigEntity entity : legacyFuture.toCompletableFuture().join()) {
+            res.putIfAbsent(entity.getAppName() + "_" + entity.getThreadPoolName(), entity);
+        }
+        return new ArrayList<>(res.values());
+    }
+
+}
@@ -0,0 +1,24 @@
+package dynamic.thread.pool.domain.snapshot;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+
+/**
+ * 单个线程池数据变更监听
+ * 由能够感知单个节点变化的数据源（如 Zookeeper 内存视图）回调
+ */
+public interface ThreadPoolChangeListener {
+
+    /**
+     * 线程池数据新增或变化
+     * @param threadPoolConfigEntity 合并了配置与状态的最新数据
+     */
+    void onChange(ThreadPoolConfigEntity threadPoolConfigEntity);
+
+    /**
+     * 线程池被移除
+     * @param appName
+     * @param threadPoolName
+     */
+    void onRemove(String appName, String threadPoolName);
+
+}
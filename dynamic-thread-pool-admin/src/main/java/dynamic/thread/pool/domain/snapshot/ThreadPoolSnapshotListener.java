@@ -0,0 +1,20 @@
+package dynamic.thread.pool.domain.snapshot;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+
+import java.util.List;
+
+/**
+ * 线程池快照监听
+ * 采集任务每个周期拉取一次全部线程池数据后依次回调
+ */
+public interface ThreadPoolSnapshotListener {
+
+    /**
+     * 收到一次线程池快照
+     * @param time 采集时间（毫秒）
+     * @param threadPoolConfigEntities 全部线程池数据
+     */
+    void onSnapshot(long time, List<ThreadPoolConfigEntity> threadPoolConfigEntities);
+
+}
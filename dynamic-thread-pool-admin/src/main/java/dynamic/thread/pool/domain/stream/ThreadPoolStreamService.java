@@ -0,0 +1,420 @@
+package dynamic.thread.pool.domain.stream;
+
+import dynamic.thread.pool.domain.query.ThreadPoolQueryService;
+import dynamic.thread.pool.domain.snapshot.ThreadPoolChangeListener;
+import dynamic.thread.pool.domain.snapshot.ThreadPoolSnapshotListener;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 线程池数据推送服务
+ * 管理端只订阅一次注册中心的变更（Redis 上报主题 / Zookeeper 内存视图 / 定时采集兜底），与上次推送的数据比较后只把变化的线程池推送给所有看板连接
+ * 注册中心的访问量与打开的看板数量无关；推送来的每个线程池数据同时在独立的监听线程上转发给更新监听（如告警规则引擎）
+ * 待推送的数据按线程池合并，分发线程每次只取最新值；每个看板连接有独立的发送队列，慢连接不影响其他连接，积压或发送超时时断开
+ */
+@Slf4j
+@Service
+public class ThreadPoolStreamService implements ThreadPoolSnapshotListener {
+
+    /** 全量数据事件，连接建立时发送 */
+    public static final String EVENT_SNAPSHOT = "snapshot";
+
+    /** 增量数据事件，内容为发生变化的线程池列表 */
+    public static final String EVENT_DELTA = "delta";
+
+    /** 线程池移除事件，内容为 appName_threadPoolName 列表 */
+    public static final String EVENT_REMOVE = "remove";
+
+    /** 分发线程的任务队列上限，待推送数据已按线程池合并，队列中只有合并任务、建立连接和心跳 */
+    private static final int DISPATCH_QUEUE_CAPACITY = 256;
+
+    /** 更新监听的任务队列上限，超过时丢弃本批数据，告警评估等待下次上报 */
+    private static final int LISTENER_QUEUE_CAPACITY = 10_000;
+
+    /** 单个看板连接积压的事件上限，超过说明客户端消费过慢，断开该连接 */
+    private static final int CLIENT_QUEUE_CAPACITY = 256;
+
+    /** 单次发送超过该时间仍未返回视为慢连接，断开 */
+    private static final long SEND_TIMEOUT_MILLIS = 10_000L;
+
+    /** 发送线程数，每个连接同一时刻最多占用一个发送线程 */
+    private static final int SENDER_THREADS = 4;
+
+    @Resource
+    private ThreadPoolQueryService threadPoolQueryService;
+
+    /** 最近一次推送的数据，key = appName_threadPoolName；仅由分发线程修改 */
+    private final Map<String, ThreadPoolConfigEntity> lastSentMap = new ConcurrentHashMap<>();
+
+    /** 待推送的数据，同一线程池只保留最新值，key = appName_threadPoolName */
+    private final Map<String, ThreadPoolConfigEntity> pendingMap = new ConcurrentHashMap<>();
+
+    /** 待推送的移除事件，key = appName_threadPoolName */
+    private final Set<String> pendingRemoveKeys = ConcurrentHashMap.newKeySet();
+
+    /** 是否已提交合并推送任务 */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final List<StreamClient> clients = new CopyOnWriteArrayList<>();
+
+    /** 推送数据监听，不包含定时采集的兜底数据 */
+    private final List<ThreadPoolChangeListener> updateListeners = new CopyOnWriteArrayList<>();
+
+    /** 分发线程，计算变化并放入各连接的发送队列，避免阻塞注册中心的回调线程 */
+    private final ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(DISPATCH_QUEUE_CAPACITY), daemonThreadFactory("thread-pool-stream-dispatcher"));
+
+    /** 监听线程，更新监听的回调在此串行执行，不受看板推送影响 */
+    private final ThreadPoolExecutor listenerExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(LISTENER_QUEUE_CAPACITY), daemonThreadFactory("thread-pool-stream-listener"));
+
+    /** 发送线程，执行各连接的阻塞发送 */
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), daemonThreadFactory("thread-pool-stream-sender"));
+
+    private volatile boolean initialized;
+
+    /**
+     * 建立推送连接，先发送一次全量数据
+     * @return
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        StreamClient client = new StreamClient(emitter);
+        emitter.onCompletion(client::remove);
+        emitter.onTimeout(client::remove);
+        emitter.onError(e -> client.remove());
+        boolean accepted = dispatch(() -> {
+            try {
+                ensureInitialized();
+                client.enqueue(new StreamEvent(EVENT_SNAPSHOT, new ArrayList<>(lastSentMap.values())));
+                clients.add(client);
+            } catch (Exception e) {
+                log.warn("推送全量线程池数据失败", e);
+                emitter.completeWithError(e);
+            }
+        });
+        if (!accepted) {
+            emitter.completeWithError(new RejectedExecutionException("线程池推送服务繁忙"));
+        }
+        return emitter;
+    }
+
+    /**
+     * 注册推送数据监听，回调在独立的监听线程上串行执行
+     * @param listener
+     */
+    public void addUpdateListener(ThreadPoolChangeListener listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * 收到注册中心推送的线程池数据，转发给更新监听，合并后推送变化
+     * @param threadPoolConfigEntities
+     */
+    public void onUpdate(List<ThreadPoolConfigEntity> threadPoolConfigEntities) {
+        if (!updateListeners.isEmpty()) {
+            try {
+                listenerExecutor.execute(() -> {
+                    for (ThreadPoolConfigEntity entity : threadPoolConfigEntities) {
+                        for (ThreadPoolChangeListener listener : updateListeners) {
+                            try {
+                                listener.onChange(entity);
+                            } catch (Exception e) {
+                                log.error("线程池推送数据监听处理异常 {}", listener.getClass().getSimpleName(), e);
+                            }
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("线程池推送数据监听积压，丢弃本批数据:{}个", threadPoolConfigEntities.size());
+            }
+        }
+        submitChanged(threadPoolConfigEntities);
+    }
+
+    /**
+     * 线程池被移除
+     * @param appName
+     * @param threadPoolName
+     */
+    public void onRemove(String appName, String threadPoolName) {
+        if (!updateListeners.isEmpty()) {
+            try {
+                listenerExecutor.execute(() -> {
+                    for (ThreadPoolChangeListener listener : updateListeners) {
+                        try {
+                            listener.onRemove(appName, threadPoolName);
+                        } catch (Exception e) {
+                            log.error("线程池推送数据监听处理异常 {}", listener.getClass().getSimpleName(), e);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("线程池推送数据监听积压，丢弃移除事件 {} {}", appName, threadPoolName);
+            }
+        }
+        String key = appName + "_" + threadPoolName;
+        pendingMap.remove(key);
+        pendingRemoveKeys.add(key);
+        scheduleFlush();
+    }
+
+    /**
+     * 定时采集的全量数据，用于兜底未发布上报主题的旧版本 SDK；只推送看板，不转发给更新监听
+     */
+    @Override
+    public void onSnapshot(long time, List<ThreadPoolConfigEntity> threadPoolConfigEntities) {
+        initialized = true;
+        submitChanged(threadPoolConfigEntities);
+    }
+
+    private void submitChanged(List<ThreadPoolConfigEntity> threadPoolConfigEntities) {
+        for (ThreadPoolConfigEntity entity : threadPoolConfigEntities) {
+            pendingMap.put(entity.getAppName() + "_" + entity.getThreadPoolName(), entity);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * 分发线程上最多保留一个合并推送任务，期间到达的数据由该任务一并处理
+     */
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true) && !dispatch(this::flush)) {
+            flushScheduled.set(false);
+        }
+    }
+
+    private void flush() {
+        // 先清除标记，取数据期间到达的变更会重新提交任务
+        flushScheduled.set(false);
+        List<String> removed = new ArrayList<>();
+        for (String key : pendingRemoveKeys) {
+            pendingRemoveKeys.remove(key);
+            if (null != lastSentMap.remove(key)) {
+                removed.add(key);
+            }
+        }
+        if (!removed.isEmpty()) {
+            broadcast(new StreamEvent(EVENT_REMOVE, removed));
+        }
+        List<ThreadPoolConfigEntity> changed = new ArrayList<>();
+        for (String key : pendingMap.keySet()) {
+            ThreadPoolConfigEntity entity = pendingMap.remove(key);
+            if (null != entity && !entity.equals(lastSentMap.put(key, entity))) {
+                changed.add(entity);
+            }
+        }
+        if (!changed.isEmpty()) {
+            broadcast(new StreamEvent(EVENT_DELTA, changed));
+        }
+    }
+
+    /**
+     * 心跳，防止代理断开空闲连接，同时断开发送超时的连接
+     */
+    @Scheduled(fixedRate = 15000)
+    public void heartbeat() {
+        if (clients.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (StreamClient client : clients) {
+            if (client.isSendTimeout(now)) {
+                log.warn("看板连接发送超时，断开");
+                client.close();
+            } else {
+                client.enqueue(StreamEvent.PING);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (StreamClient client : clients) {
+            client.close();
+        }
+        dispatcher.shutdownNow();
+        listenerExecutor.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        for (ThreadPoolConfigEntity entity : threadPoolQueryService.queryThreadPoolList()) {
+            lastSentMap.putIfAbsent(entity.getAppName() + "_" + entity.getThreadPoolName(), entity);
+        }
+        initialized = true;
+    }
+
+    private void broadcast(StreamEvent event) {
+        for (StreamClient client : clients) {
+            client.enqueue(event);
+        }
+    }
+
+    private boolean dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("线程池推送分发队列已满");
+            return false;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 待发送的事件，每个连接发送时各自构造，data 为空时发送心跳注释
+     */
+    private static class StreamEvent {
+
+        private static final StreamEvent PING = new StreamEvent(null, null);
+
+        private final String name;
+
+        private final Object data;
+
+        private StreamEvent(String name, Object data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder build() {
+            if (null == name) {
+                return SseEmitter.event().comment("ping");
+            }
+            return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+
+    }
+
+    /**
+     * 单个看板连接：事件先进入连接自己的有界队列，由发送线程串行发送
+     */
+    private class StreamClient {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_CAPACITY);
+
+        /** 是否已提交发送任务，保证同一连接的事件按顺序发送 */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /** 当前发送开始的时间，0 表示空闲 */
+        private volatile long sendStartTime;
+
+        private volatile boolean closed;
+
+        private StreamClient(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.warn("看板连接积压事件超过{}个，断开", CLIENT_QUEUE_CAPACITY);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+                while (!closed && null != (event = queue.poll())) {
+                    sendStartTime = System.currentTimeMillis();
+                    try {
+                        emitter.send(event.build());
+                    } catch (Exception e) {
+                        // 客户端已断开
+                        remove();
+                    } finally {
+                        sendStartTime = 0;
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // 释放标记前入队的事件可能未被取走，重新提交
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private boolean isSendTimeout(long now) {
+            long start = sendStartTime;
+            return start > 0 && now - start > SEND_TIMEOUT_MILLIS;
+        }
+
+        /**
+         * 连接已结束，只移除不再发送
+         */
+        private void remove() {
+            closed = true;
+            clients.remove(this);
+            queue.clear();
+        }
+
+        /**
+         * 服务端主动断开连接
+         */
+        private void close() {
+            if (closed) {
+                return;
+            }
+            remove();
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                // 连接已结束
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,249 @@
+package dynamic.thread.pool.domain.zookeeper;
+
+import dynamic.thread.pool.domain.snapshot.ThreadPoolChangeListener;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.registry.codec.ThreadPoolConfigEntityCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.CuratorCache;
+import org.apache.curator.framework.recipes.cache.CuratorCacheListener;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Zookeeper 线程池数据内存视图
+ * 通过 CuratorCache 监听配置节点与状态节点，查询接口直接读内存，不再逐个节点访问 Zookeeper
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "dynamic.thread.pool.config.zookeeper.enabled", havingValue = "true")
+public class ThreadPoolZookeeperReadModel {
+
+    public static final String BASE_CONFIG_PATH = "/dynamic/thread/pool/config";
+
+    public static final String BASE_STATUS_PATH = "/dynamic/thread/pool/status";
+
+    @Resource
+    private CuratorFramework curatorFramework;
+
+    // 配置节点数据，key = appName_threadPoolName
+    private final Map<String, ThreadPoolConfigEntity> configMap = new ConcurrentHashMap<>();
+
+    // 状态节点数据，key = appName_threadPoolName
+    private final Map<String, ThreadPoolConfigEntity> statusMap = new ConcurrentHashMap<>();
+
+    // 状态节点已删除（线程池已注销）但配置仍保留的线程池，key = appName_threadPoolName
+    private final Set<String> unregisteredKeys = ConcurrentHashMap.newKeySet();
+
+    // 数据变更监听
+    private final List<ThreadPoolChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    private CuratorCache configCache;
+
+    private CuratorCache statusCache;
+
+    @PostConstruct
+    public void start() {
+        configCache = buildCache(BASE_CONFIG_PATH, configMap);
+        statusCache = buildCache(BASE_STATUS_PATH, statusMap);
+        log.info("Zookeeper 线程池内存视图启动 {} {}", BASE_CONFIG_PATH, BASE_STATUS_PATH);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (null != configCache) configCache.close();
+        if (null != statusCache) statusCache.close();
+    }
+
+    /**
+     * 注册数据变更监听，配置节点或状态节点变化时回调合并后的数据
+     * @param listener
+     */
+    public void addChangeListener(ThreadPoolChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * 查询全部线程池数据（配置合并状态）
+     * @return
+     */
+    public List<ThreadPoolConfigEntity> queryThreadPoolList() {
+        List<ThreadPoolConfigEntity> res = new ArrayList<>(configMap.size());
+        for (Map.Entry<String, ThreadPoolConfigEntity> entry : configMap.entrySet()) {
+            if (unregisteredKeys.contains(entry.getKey())) {
+                continue;
+            }
+            res.add(merge(entry.getValue(), statusMap.get(entry.getKey())));
+        }
+        return res;
+    }
+
+    /**
+     * 查询单个线程池数据（配置合并状态）
+     * @param appName
+     * @param threadPoolName
+     * @return 不存在时返回 null
+     */
+    public ThreadPoolConfigEntity queryThreadPoolConfig(String appName, String threadPoolName) {
+        String key = appName + "_" + threadPoolName;
+        ThreadPoolConfigEntity configEntity = configMap.get(key);
+        if (null == configEntity || unregisteredKeys.contains(key)) {
+            return null;
+        }
+        return merge(configEntity, statusMap.get(key));
+    }
+
+    private CuratorCache buildCache(String basePath, Map<String, ThreadPoolConfigEntity> target) {
+        CuratorCache cache = CuratorCache.build(curatorFramework, basePath);
+        cache.listenable().addListener(CuratorCacheListener.builder()
+                .forCreatesAndChanges((oldNode, node) -> onUpsert(basePath, node, target))
+                .forDeletes(node -> onDelete(basePath, node, target))
+                .build());
+        cache.start();
+        return cache;
+    }
+
+    private void onUpsert(String basePath, ChildData node, Map<String, ThreadPoolConfigEntity> target) {
+        String key = toKey(basePath, node.getPath());
+        if (null == key || null == node.getData() || node.getData().length == 0) {
+            return;
+        }
+        try {
+            ThreadPoolConfigEntity entity = ThreadPoolConfigEntityCodec.decodeEntity(node.getData());
+            if (null != entity) {
+                target.put(key, entity);
+                if (target == statusMap) {
+                    unregisteredKeys.remove(key);
+                }
+                notifyChange(key);
+            }
+        } catch (Exception e) {
+            // 节点刚创建尚未写入数据时内容无法解析，等待后续变更
+            log.warn("解析线程池节点数据失败 {}", node.getPath());
+        }
+    }
+
+    private void onDelete(String basePath, ChildData node, Map<String, ThreadPoolConfigEntity> target) {
+        String key = toKey(basePath, node.getPath());
+        if (null == key || null == target.remove(key)) {
+            return;
+        }
+        // 配置节点删除或线程池注销（状态节点删除，配置保留）都视为移除
+        if (target == statusMap && configMap.containsKey(key)) {
+            unregisteredKeys.add(key);
+        } else if (target == configMap) {
+            unregisteredKeys.remove(key);
+        } else {
+            return;
+        }
+        String[] parts = node.getPath().substring(basePath.length() + 1).split("/");
+        for (ThreadPoolChangeListener listener : changeListeners) {
+            listener.onRemove(parts[0], parts[1]);
+        }
+    }
+
+    private void notifyChange(String key) {
+        if (changeListeners.isEmpty()) {
+            return;
+        }
+        ThreadPoolConfigEntity configEntity = configMap.get(key);
+        if (null == configEntity || unregisteredKeys.contains(key)) {
+            return;
+        }
+        ThreadPoolConfigEntity merged = merge(configEntity, statusMap.get(key));
+        for (ThreadPoolChangeListener listener : changeListeners) {
+            try {
+                listener.onChange(merged);
+            } catch (Exception e) {
+                log.error("线程池数据变更回调异常 {}", key, e);
+            }
+        }
+    }
+
+    /**
+     * 线程池节点路径 {basePath}/{appName}/{threadPoolName} 转为 key，其他层级的节点返回 null
+     */
+    private String toKey(String basePath, String path) {
+        if (!path.startsWith(basePath + "/")) {
+            return null;
+        }
+        String[] parts = path.substring(basePath.length() + 1).split("/");
+        if (parts.length != 2) {
+            return null;
+        }
+        return parts[0] + "_" + parts[1];
+    }
+
+    /**
+     * 复制配置并合并状态字段，不修改缓存中的对象
+     * @param configEntity
+     * @param statusEntity
+     * @return
+     */
+    private ThreadPoolConfigEntity merge(ThreadPoolConfigEntity configEntity, ThreadPoolConfigEntity statusEntity) {
+        ThreadPoolConfigEntity res = new ThreadPoolConfigEntity();
+        BeanUtils.copyProperties(configEntity, res);
+        if (null != statusEntity) {
+            mergeStatus(res, statusEntity);
+        }
+        return res;
+    }
+
+    /**
+     * 将状态节点数据合并到配置节点数据
+     * @param configEntity
+     * @param statusEntity
+     */
+    private static void mergeStatus(ThreadPoolConfigEntity configEntity, ThreadPoolConfigEntity statusEntity) {
+        // 运行时配置（自动扩缩容调整后的线程数等）以状态节点为准；旧版本 SDK 的状态节点不含这些字段，保留配置节点的值
+        if (statusEntity.getCorePoolSize() > 0) {
+            configEntity.setCorePoolSize(statusEntity.getCorePoolSize());
+            configEntity.setMaximumPoolSize(statusEntity.getMaximumPoolSize());
+            configEntity.setQueueCapacity(statusEntity.getQueueCapacity());
+            configEntity.setAutoScaleEnabled(statusEntity.isAutoScaleEnabled());
+            configEntity.setAutoScaleMinPoolSize(statusEntity.getAutoScaleMinPoolSize());
+            configEntity.setAutoScaleMaxPoolSize(statusEntity.getAutoScaleMaxPoolSize());
+        }
+        configEntity.setActiveCount(statusEntity.getActiveCount());
+        configEntity.setQueueSize(statusEntity.getQueueSize());
+        configEntity.setPoolSize(statusEntity.getPoolSize());
+        configEntity.setQueueType(statusEntity.getQueueType());
+        configEntity.setRemainingCapacity(statusEntity.getRemainingCapacity());
+        configEntity.setQueueWaitTimeP50(statusEntity.getQueueWaitTimeP50());
+        configEntity.setQueueWaitTimeP90(statusEntity.getQueueWaitTimeP90());
+        configEntity.setQueueWaitTimeP99(statusEntity.getQueueWaitTimeP99());
+        configEntity.setQueueWaitTimeMax(statusEntity.getQueueWaitTimeMax());
+        configEntity.setExecuteTimeP50(statusEntity.getExecuteTimeP50());
+        configEntity.setExecuteTimeP90(statusEntity.getExecuteTimeP90());
+        configEntity.setExecuteTimeP99(statusEntity.getExecuteTimeP99());
+        configEntity.setExecuteTimeMax(statusEntity.getExecuteTimeMax());
+        configEntity.setStuckTaskCount(statusEntity.getStuckTaskCount());
+        configEntity.setCpuUsage(statusEntity.getCpuUsage());
+        configEntity.setContentionRatio(statusEntity.getContentionRatio());
+        configEntity.setAllocationRate(statusEntity.getAllocationRate());
+        configEntity.setConfigVersion(statusEntity.getConfigVersion());
+        configEntity.setExecutorType(statusEntity.getExecutorType());
+        configEntity.setStealCount(statusEntity.getStealCount());
+        configEntity.setQueuedSubmissionCount(statusEntity.getQueuedSubmissionCount());
+        configEntity.setRunningThreadCount(statusEntity.getRunningThreadCount());
+        configEntity.setScheduleLag(statusEntity.getScheduleLag());
+        configEntity.setLaneDequeueMode(statusEntity.getLaneDequeueMode());
+        configEntity.setLaneWeights(statusEntity.getLaneWeights());
+        configEntity.setLaneCapacities(statusEntity.getLaneCapacities());
+        configEntity.setLaneQueueSizes(statusEntity.getLaneQueueSizes());
+        configEntity.setLaneQueueWaitTimeP99(statusEntity.getLaneQueueWaitTimeP99());
+    }
+
+}
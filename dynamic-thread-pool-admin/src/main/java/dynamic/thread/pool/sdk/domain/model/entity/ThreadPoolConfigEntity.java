@@ -49,6 +49,146 @@ public class ThreadPoolConfigEntity {
      */
     private int remainingCapacity;
 
+    /**
+     * 队列容量
+     */
+    private int queueCapacity;
+
+    /**
+     * 已完成任务数
+     */
+    private long completedTaskCount;
+
+    /**
+     * 是否开启自动扩缩容
+     */
+    private boolean autoScaleEnabled;
+
+    /**
+     * 自动扩缩容下界
+     */
+    private int autoScaleMinPoolSize;
+
+    /**
+     * 自动扩缩容上界
+     */
+    private int autoScaleMaxPoolSize;
+
+    /**
+     * 排队耗时 P50（微秒）
+     */
+    private long queueWaitTimeP50;
+
+    /**
+     * 排队耗时 P90（微秒）
+     */
+    private long queueWaitTimeP90;
+
+    /**
+     * 排队耗时 P99（微秒）
+     */
+    private long queueWaitTimeP99;
+
+    /**
+     * 排队耗时最大值（微秒）
+     */
+    private long queueWaitTimeMax;
+
+    /**
+     * 执行耗时 P50（微秒）
+     */
+    private long executeTimeP50;
+
+    /**
+     * 执行耗时 P90（微秒）
+     */
+    private long executeTimeP90;
+
+    /**
+     * 执行耗时 P99（微秒）
+     */
+    private long executeTimeP99;
+
+    /**
+     * 执行耗时最大值（微秒）
+     */
+    private long executeTimeMax;
+
+    /**
+     * 运行时间超过阈值的任务数
+     */
+    private int stuckTaskCount;
+
+    /**
+     * 工作线程 CPU 使用率（%），以单核为 100%
+     */
+    private double cpuUsage;
+
+    /**
+     * 任务执行时间中未占用 CPU 的比例（阻塞、等待锁、I/O），接近 0 为 CPU 密集，接近 1 为 I/O 密集
+     */
+    private double contentionRatio;
+
+    /**
+     * 工作线程内存分配速率（字节/秒）
+     */
+    private double allocationRate;
+
+    /**
+     * 配置版本，由管理端下发时生成并单调递增，客户端上报已应用的版本
+     */
+    private long configVersion;
+
+    /**
+     * 线程池类型：ThreadPoolExecutor、ScheduledThreadPoolExecutor、ForkJoinPool
+     */
+    private String executorType;
+
+    /**
+     * ForkJoinPool 累计窃取任务数
+     */
+    private long stealCount;
+
+    /**
+     * ForkJoinPool 外部提交尚未执行的任务数
+     */
+    private int queuedSubmissionCount;
+
+    /**
+     * ForkJoinPool 未阻塞（未在 join 或 ManagedBlocker 中等待）的工作线程数
+     */
+    private int runningThreadCount;
+
+    /**
+     * ScheduledThreadPoolExecutor 已到期仍在延迟队列中等待的任务的最大延误（毫秒）
+     */
+    private long scheduleLag;
+
+    /**
+     * 多通道队列出队模式：STRICT 严格优先级、WEIGHTED 加权轮转；为空表示不调整
+     */
+    private String laneDequeueMode;
+
+    /**
+     * 多通道队列各通道权重，按高、中、低顺序逗号分隔，如 6,3,1；为空表示不调整
+     */
+    private String laneWeights;
+
+    /**
+     * 多通道队列各通道容量，按高、中、低顺序逗号分隔；为空表示不调整
+     */
+    private String laneCapacities;
+
+    /**
+     * 多通道队列各通道当前任务数，按高、中、低顺序逗号分隔
+     */
+    private String laneQueueSizes;
+
+    /**
+     * 多通道队列各通道上一统计周期排队耗时 P99（微秒），按高、中、低顺序逗号分隔
+     */
+    private String laneQueueWaitTimeP99;
+
     public ThreadPoolConfigEntity() {
     }
 
@@ -0,0 +1,76 @@
+package dynamic.thread.pool.sdk.domain.model.entity;
+
+import lombok.Data;
+
+/**
+ * 线程池扩缩容事件
+ */
+@Data
+public class ThreadPoolScaleEventEntity {
+
+    /**
+     * 应用名称
+     */
+    private String appName;
+
+    /**
+     * 线程池名称
+     */
+    private String threadPoolName;
+
+    /**
+     * 调整方向；UP = 扩容、DOWN = 缩容
+     */
+    private String direction;
+
+    /**
+     * 调整前核心线程数
+     */
+    private int beforeCorePoolSize;
+
+    /**
+     * 调整前最大线程数
+     */
+    private int beforeMaximumPoolSize;
+
+    /**
+     * 调整后核心线程数
+     */
+    private int afterCorePoolSize;
+
+    /**
+     * 调整后最大线程数
+     */
+    private int afterMaximumPoolSize;
+
+    /**
+     * 决策时活跃线程数
+     */
+    private int activeCount;
+
+    /**
+     * 决策时队列任务数
+     */
+    private int queueSize;
+
+    /**
+     * 决策时队列容量
+     */
+    private int queueCapacity;
+
+    /**
+     * 决策时吞吐量（任务数/秒）
+     */
+    private double throughput;
+
+    /**
+     * 调整原因
+     */
+    private String reason;
+
+    /**
+     * 决策时间
+     */
+    private long time;
+
+}
@@ -0,0 +1,501 @@
+package dynamic.thread.pool.sdk.registry.codec;
+
+import com.alibaba.fastjson.JSON;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ThreadPoolConfigEntity 紧凑二进制编解码
+ * <p>
+ * 格式：MAGIC(1) VERSION(1) KIND(1) 字符串表 实体...
+ * 字符串表：varint 个数，每个字符串为 varint 字节长度 + UTF-8 字节；同一报文中重复的应用名、队列类型只写一次
+ * 实体：若干字段，每个字段为 varint tag（字段号 << 2 | 线路类型）+ 值，tag = 0 表示实体结束；默认值（0、false、null）不写
+ * 线路类型：0 = varint（zigzag），1 = 字符串表下标，2 = varint 长度 + 字节，3 = 定长 8 字节
+ * 解码时跳过未知字段，新版本增加字段后旧版本仍可解码
+ * <p>
+ * 首字节不是 MAGIC 的数据按 JSON 解析，兼容迁移期间旧版本写入的数据
+ */
+public final class ThreadPoolConfigEntityCodec {
+
+    /** 魔数，JSON 报文不会以该字节开头 */
+    public static final byte MAGIC = (byte) 0xD7;
+
+    public static final byte VERSION = 1;
+
+    static final byte KIND_ENTITY = 1;
+
+    static final byte KIND_LIST = 2;
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_STRING = 1;
+    static final int WIRE_BYTES = 2;
+    static final int WIRE_FIXED64 = 3;
+
+    static final int FIELD_APP_NAME = 1;
+    static final int FIELD_THREAD_POOL_NAME = 2;
+    static final int FIELD_CORE_POOL_SIZE = 3;
+    static final int FIELD_MAXIMUM_POOL_SIZE = 4;
+    static final int FIELD_ACTIVE_COUNT = 5;
+    static final int FIELD_POOL_SIZE = 6;
+    static final int FIELD_QUEUE_TYPE = 7;
+    static final int FIELD_QUEUE_SIZE = 8;
+    static final int FIELD_REMAINING_CAPACITY = 9;
+    static final int FIELD_QUEUE_CAPACITY = 10;
+    static final int FIELD_COMPLETED_TASK_COUNT = 11;
+    static final int FIELD_AUTO_SCALE_ENABLED = 12;
+    static final int FIELD_AUTO_SCALE_MIN_POOL_SIZE = 13;
+    static final int FIELD_AUTO_SCALE_MAX_POOL_SIZE = 14;
+    static final int FIELD_QUEUE_WAIT_TIME_P50 = 15;
+    static final int FIELD_QUEUE_WAIT_TIME_P90 = 16;
+    static final int FIELD_QUEUE_WAIT_TIME_P99 = 17;
+    static final int FIELD_QUEUE_WAIT_TIME_MAX = 18;
+    static final int FIELD_EXECUTE_TIME_P50 = 19;
+    static final int FIELD_EXECUTE_TIME_P90 = 20;
+    static final int FIELD_EXECUTE_TIME_P99 = 21;
+    static final int FIELD_EXECUTE_TIME_MAX = 22;
+    static final int FIELD_STUCK_TASK_COUNT = 23;
+    static final int FIELD_CPU_USAGE = 24;
+    static final int FIELD_CONTENTION_RATIO = 25;
+    static final int FIELD_ALLOCATION_RATE = 26;
+    static final int FIELD_CONFIG_VERSION = 27;
+    static final int FIELD_EXECUTOR_TYPE = 28;
+    static final int FIELD_STEAL_COUNT = 29;
+    static final int FIELD_QUEUED_SUBMISSION_COUNT = 30;
+    static final int FIELD_RUNNING_THREAD_COUNT = 31;
+    static final int FIELD_SCHEDULE_LAG = 32;
+    static final int FIELD_LANE_DEQUEUE_MODE = 33;
+    static final int FIELD_LANE_WEIGHTS = 34;
+    static final int FIELD_LANE_CAPACITIES = 35;
+    static final int FIELD_LANE_QUEUE_SIZES = 36;
+    static final int FIELD_LANE_QUEUE_WAIT_TIME_P99 = 37;
+
+    /** 字符串缓存上限，超过后清空重建 */
+    private static final int STRING_CACHE_SIZE = 4096;
+
+    /** 编码侧缓存字符串的 UTF-8 字节 */
+    private static final Map<String, byte[]> UTF8_CACHE = new ConcurrentHashMap<>();
+
+    /** 解码侧驻留字符串，重复的应用名、线程池名共用同一实例 */
+    private static final Map<String, String> INTERNED = new ConcurrentHashMap<>();
+
+    private ThreadPoolConfigEntityCodec() {
+    }
+
+    /**
+     * 是否为二进制格式
+     * @param data
+     * @return
+     */
+    public static boolean isBinary(byte[] data) {
+        return null != data && data.length >= 3 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(ThreadPoolConfigEntity entity) {
+        StringTable table = new StringTable();
+        table.collect(entity);
+        Writer writer = new Writer(64);
+        writeHeader(writer, KIND_ENTITY, table);
+        writeEntity(writer, entity, table);
+        return writer.toByteArray();
+    }
+
+    public static byte[] encodeList(List<ThreadPoolConfigEntity> entities) {
+        StringTable table = new StringTable();
+        for (ThreadPoolConfigEntity entity : entities) {
+            table.collect(entity);
+        }
+        Writer writer = new Writer(32 + entities.size() * 48);
+        writeHeader(writer, KIND_LIST, table);
+        writer.writeVarint(entities.size());
+        for (ThreadPoolConfigEntity entity : entities) {
+            writeEntity(writer, entity, table);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * 解码二进制报文
+     * @param data
+     * @return ThreadPoolConfigEntity 或 List&lt;ThreadPoolConfigEntity&gt;
+     */
+    public static Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("not a binary thread pool payload");
+        }
+        Reader reader = new Reader(data);
+        reader.pos = 1;
+        int version = reader.readByte();
+        if (version < 1) {
+            throw new IllegalArgumentException("unsupported codec version " + version);
+        }
+        int kind = reader.readByte();
+        String[] strings = readStringTable(reader);
+        if (kind == KIND_ENTITY) {
+            return readEntity(reader, strings);
+        }
+        if (kind == KIND_LIST) {
+            int size = (int) reader.readVarint();
+            List<ThreadPoolConfigEntity> res = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                res.add(readEntity(reader, strings));
+            }
+            return res;
+        }
+        throw new IllegalArgumentException("unsupported payload kind " + kind);
+    }
+
+    /**
+     * 解码单个实体，兼容 JSON
+     * @param data
+     * @return
+     */
+    public static ThreadPoolConfigEntity decodeEntity(byte[] data) {
+        if (null == data || data.length == 0) {
+            return null;
+        }
+        if (isBinary(data)) {
+            Object res = decode(data);
+            if (res instanceof ThreadPoolConfigEntity) {
+                return (ThreadPoolConfigEntity) res;
+            }
+            throw new IllegalArgumentException("payload is not a single entity");
+        }
+        return JSON.parseObject(new String(data, StandardCharsets.UTF_8), ThreadPoolConfigEntity.class);
+    }
+
+    private static void writeHeader(Writer writer, byte kind, StringTable table) {
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+        writer.writeByte(kind);
+        writer.writeVarint(table.strings.size());
+        for (String s : table.strings) {
+            byte[] bytes = utf8(s);
+            writer.writeVarint(bytes.length);
+            writer.writeBytes(bytes);
+        }
+    }
+
+    private static void writeEntity(Writer writer, ThreadPoolConfigEntity e, StringTable table) {
+        writeString(writer, FIELD_APP_NAME, e.getAppName(), table);
+        writeString(writer, FIELD_THREAD_POOL_NAME, e.getThreadPoolName(), table);
+        writeLong(writer, FIELD_CORE_POOL_SIZE, e.getCorePoolSize());
+        writeLong(writer, FIELD_MAXIMUM_POOL_SIZE, e.getMaximumPoolSize());
+        writeLong(writer, FIELD_ACTIVE_COUNT, e.getActiveCount());
+        writeLong(writer, FIELD_POOL_SIZE, e.getPoolSize());
+        writeString(writer, FIELD_QUEUE_TYPE, e.getQueueType(), table);
+        writeLong(writer, FIELD_QUEUE_SIZE, e.getQueueSize());
+        writeLong(writer, FIELD_REMAINING_CAPACITY, e.getRemainingCapacity());
+        writeLong(writer, FIELD_QUEUE_CAPACITY, e.getQueueCapacity());
+        writeLong(writer, FIELD_COMPLETED_TASK_COUNT, e.getCompletedTaskCount());
+        writeLong(writer, FIELD_AUTO_SCALE_ENABLED, e.isAutoScaleEnabled() ? 1 : 0);
+        writeLong(writer, FIELD_AUTO_SCALE_MIN_POOL_SIZE, e.getAutoScaleMinPoolSize());
+        writeLong(writer, FIELD_AUTO_SCALE_MAX_POOL_SIZE, e.getAutoScaleMaxPoolSize());
+        writeLong(writer, FIELD_QUEUE_WAIT_TIME_P50, e.getQueueWaitTimeP50());
+        writeLong(writer, FIELD_QUEUE_WAIT_TIME_P90, e.getQueueWaitTimeP90());
+        writeLong(writer, FIELD_QUEUE_WAIT_TIME_P99, e.getQueueWaitTimeP99());
+        writeLong(writer, FIELD_QUEUE_WAIT_TIME_MAX, e.getQueueWaitTimeMax());
+        writeLong(writer, FIELD_EXECUTE_TIME_P50, e.getExecuteTimeP50());
+        writeLong(writer, FIELD_EXECUTE_TIME_P90, e.getExecuteTimeP90());
+        writeLong(writer, FIELD_EXECUTE_TIME_P99, e.getExecuteTimeP99());
+        writeLong(writer, FIELD_EXECUTE_TIME_MAX, e.getExecuteTimeMax());
+        writeLong(writer, FIELD_STUCK_TASK_COUNT, e.getStuckTaskCount());
+        writeDouble(writer, FIELD_CPU_USAGE, e.getCpuUsage());
+        writeDouble(writer, FIELD_CONTENTION_RATIO, e.getContentionRatio());
+        writeDouble(writer, FIELD_ALLOCATION_RATE, e.getAllocationRate());
+        writeLong(writer, FIELD_CONFIG_VERSION, e.getConfigVersion());
+        writeString(writer, FIELD_EXECUTOR_TYPE, e.getExecutorType(), table);
+        writeLong(writer, FIELD_STEAL_COUNT, e.getStealCount());
+        writeLong(writer, FIELD_QUEUED_SUBMISSION_COUNT, e.getQueuedSubmissionCount());
+        writeLong(writer, FIELD_RUNNING_THREAD_COUNT, e.getRunningThreadCount());
+        writeLong(writer, FIELD_SCHEDULE_LAG, e.getScheduleLag());
+        writeString(writer, FIELD_LANE_DEQUEUE_MODE, e.getLaneDequeueMode(), table);
+        writeString(writer, FIELD_LANE_WEIGHTS, e.getLaneWeights(), table);
+        writeString(writer, FIELD_LANE_CAPACITIES, e.getLaneCapacities(), table);
+        writeString(writer, FIELD_LANE_QUEUE_SIZES, e.getLaneQueueSizes(), table);
+        writeString(writer, FIELD_LANE_QUEUE_WAIT_TIME_P99, e.getLaneQueueWaitTimeP99(), table);
+        writer.writeVarint(0);
+    }
+
+    private static ThreadPoolConfigEntity readEntity(Reader reader, String[] strings) {
+        ThreadPoolConfigEntity e = new ThreadPoolConfigEntity();
+        while (true) {
+            int tag = (int) reader.readVarint();
+            if (tag == 0) {
+                return e;
+            }
+            int field = tag >>> 2;
+            int wireType = tag & 3;
+            if (wireType == WIRE_STRING) {
+                String value = strings[(int) reader.readVarint()];
+                switch (field) {
+                    case FIELD_APP_NAME: e.setAppName(value); break;
+                    case FIELD_THREAD_POOL_NAME: e.setThreadPoolName(value); break;
+                    case FIELD_QUEUE_TYPE: e.setQueueType(value); break;
+                    case FIELD_EXECUTOR_TYPE: e.setExecutorType(value); break;
+                    case FIELD_LANE_DEQUEUE_MODE: e.setLaneDequeueMode(value); break;
+                    case FIELD_LANE_WEIGHTS: e.setLaneWeights(value); break;
+                    case FIELD_LANE_CAPACITIES: e.setLaneCapacities(value); break;
+                    case FIELD_LANE_QUEUE_SIZES: e.setLaneQueueSizes(value); break;
+                    case FIELD_LANE_QUEUE_WAIT_TIME_P99: e.setLaneQueueWaitTimeP99(value); break;
+                    default: break;
+                }
+                continue;
+            }
+            if (wireType == WIRE_FIXED64) {
+                double value = Double.longBitsToDouble(reader.readFixed64());
+                switch (field) {
+                    case FIELD_CPU_USAGE: e.setCpuUsage(value); break;
+                    case FIELD_CONTENTION_RATIO: e.setContentionRatio(value); break;
+                    case FIELD_ALLOCATION_RATE: e.setAllocationRate(value); break;
+                    default: break;
+                }
+                continue;
+            }
+            if (wireType != WIRE_VARINT) {
+                reader.skip(wireType);
+                continue;
+            }
+            long value = zigzagDecode(reader.readVarint());
+            switch (field) {
+                case FIELD_CORE_POOL_SIZE: e.setCorePoolSize((int) value); break;
+                case FIELD_MAXIMUM_POOL_SIZE: e.setMaximumPoolSize((int) value); break;
+                case FIELD_ACTIVE_COUNT: e.setActiveCount((int) value); break;
+                case FIELD_POOL_SIZE: e.setPoolSize((int) value); break;
+                case FIELD_QUEUE_SIZE: e.setQueueSize((int) value); break;
+                case FIELD_REMAINING_CAPACITY: e.setRemainingCapacity((int) value); break;
+                case FIELD_QUEUE_CAPACITY: e.setQueueCapacity((int) value); break;
+                case FIELD_COMPLETED_TASK_COUNT: e.setCompletedTaskCount(value); break;
+                case FIELD_AUTO_SCALE_ENABLED: e.setAutoScaleEnabled(value != 0); break;
+                case FIELD_AUTO_SCALE_MIN_POOL_SIZE: e.setAutoScaleMinPoolSize((int) value); break;
+                case FIELD_AUTO_SCALE_MAX_POOL_SIZE: e.setAutoScaleMaxPoolSize((int) value); break;
+                case FIELD_QUEUE_WAIT_TIME_P50: e.setQueueWaitTimeP50(value); break;
+                case FIELD_QUEUE_WAIT_TIME_P90: e.setQueueWaitTimeP90(value); break;
+                case FIELD_QUEUE_WAIT_TIME_P99: e.setQueueWaitTimeP99(value); break;
+                case FIELD_QUEUE_WAIT_TIME_MAX: e.setQueueWaitTimeMax(value); break;
+                case FIELD_EXECUTE_TIME_P50: e.setExecuteTimeP50(value); break;
+                case FIELD_EXECUTE_TIME_P90: e.setExecuteTimeP90(value); break;
+                case FIELD_EXECUTE_TIME_P99: e.setExecuteTimeP99(value); break;
+                case FIELD_EXECUTE_TIME_MAX: e.setExecuteTimeMax(value); break;
+                case FIELD_STUCK_TASK_COUNT: e.setStuckTaskCount((int) value); break;
+                case FIELD_CONFIG_VERSION: e.setConfigVersion(value); break;
+                case FIELD_STEAL_COUNT: e.setStealCount(value); break;
+                case FIELD_QUEUED_SUBMISSION_COUNT: e.setQueuedSubmissionCount((int) value); break;
+                case FIELD_RUNNING_THREAD_COUNT: e.setRunningThreadCount((int) value); break;
+                case FIELD_SCHEDULE_LAG: e.setScheduleLag(value); break;
+                default: break;
+            }
+        }
+    }
+
+    private static String[] readStringTable(Reader reader) {
+        int size = (int) reader.readVarint();
+        String[] strings = new String[size];
+        for (int i = 0; i < size; i++) {
+            int length = (int) reader.readVarint();
+            strings[i] = intern(new String(reader.data, reader.pos, length, StandardCharsets.UTF_8));
+            reader.pos += length;
+        }
+        return strings;
+    }
+
+    private static void writeLong(Writer writer, int field, long value) {
+        if (value == 0) {
+            return;
+        }
+        writer.writeVarint((long) field << 2 | WIRE_VARINT);
+        writer.writeVarint(zigzagEncode(value));
+    }
+
+    private static void writeDouble(Writer writer, int field, double value) {
+        if (value == 0) {
+            return;
+        }
+        writer.writeVarint((long) field << 2 | WIRE_FIXED64);
+        writer.writeFixed64(Double.doubleToRawLongBits(value));
+    }
+
+    private static void writeString(Writer writer, int field, String value, StringTable table) {
+        if (null == value) {
+            return;
+        }
+        writer.writeVarint((long) field << 2 | WIRE_STRING);
+        writer.writeVarint(table.index(value));
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] bytes = UTF8_CACHE.get(s);
+        if (null == bytes) {
+            if (UTF8_CACHE.size() >= STRING_CACHE_SIZE) {
+                UTF8_CACHE.clear();
+            }
+            bytes = s.getBytes(StandardCharsets.UTF_8);
+            UTF8_CACHE.put(s, bytes);
+        }
+        return bytes;
+    }
+
+    private static String intern(String s) {
+        String cached = INTERNED.get(s);
+        if (null != cached) {
+            return cached;
+        }
+        if (INTERNED.size() >= STRING_CACHE_SIZE) {
+            INTERNED.clear();
+        }
+        INTERNED.put(s, s);
+        return s;
+    }
+
+    /**
+     * 报文内字符串表
+     */
+    private static class StringTable {
+
+        private final List<String> strings = new ArrayList<>();
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        void collect(ThreadPoolConfigEntity entity) {
+            add(entity.getAppName());
+            add(entity.getThreadPoolName());
+            add(entity.getQueueType());
+            add(entity.getExecutorType());
+            add(entity.getLaneDequeueMode());
+            add(entity.getLaneWeights());
+            add(entity.getLaneCapacities());
+            add(entity.getLaneQueueSizes());
+            add(entity.getLaneQueueWaitTimeP99());
+        }
+
+        int index(String s) {
+            return indexes.get(s);
+        }
+
+        private void add(String s) {
+            if (null != s && !indexes.containsKey(s)) {
+                indexes.put(s, strings.size());
+                strings.add(s);
+            }
+        }
+
+    }
+
+    private static class Writer {
+
+        private byte[] buf;
+
+        private int pos;
+
+        Writer(int initialCapacity) {
+            this.buf = new byte[initialCapacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeFixed64(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buf[pos++] = (byte) (value >>> (i << 3));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + n));
+            }
+        }
+
+    }
+
+    private static class Reader {
+
+        private final byte[] data;
+
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            return data[pos++];
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+        long readFixed64() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (long) (data[pos++] & 0xFF) << (i << 3);
+            }
+            return value;
+        }
+
+        void skip(int wireType) {
+            switch (wireType) {
+                case WIRE_VARINT:
+                case WIRE_STRING:
+                    readVarint();
+                    break;
+                case WIRE_BYTES:
+                    int length = (int) readVarint();
+                    pos += length;
+                    break;
+                case WIRE_FIXED64:
+                    pos += 8;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown wire type " + wireType);
+            }
+        }
+
+    }
+
+}
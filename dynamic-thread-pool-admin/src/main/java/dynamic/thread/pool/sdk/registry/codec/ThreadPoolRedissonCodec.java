@@ -0,0 +1,95 @@
+package dynamic.thread.pool.sdk.registry.codec;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import org.redisson.codec.JsonJacksonCodec;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Redisson 编解码器
+ * ThreadPoolConfigEntity 及其列表使用紧凑二进制格式，其余对象仍使用 JsonJacksonCodec
+ * 解码时根据首字节识别格式，迁移期间 JSON 与二进制数据可以共存
+ */
+public class ThreadPoolRedissonCodec extends BaseCodec {
+
+    private final JsonJacksonCodec jsonCodec;
+
+    /** 是否以二进制格式写入，关闭时只写 JSON，但仍可读取二进制数据 */
+    private final boolean binaryEnabled;
+
+    private final Encoder encoder = new Encoder() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public ByteBuf encode(Object in) throws IOException {
+            if (binaryEnabled) {
+                if (in instanceof ThreadPoolConfigEntity) {
+                    return Unpooled.wrappedBuffer(ThreadPoolConfigEntityCodec.encode((ThreadPoolConfigEntity) in));
+                }
+                if (isEntityList(in)) {
+                    return Unpooled.wrappedBuffer(ThreadPoolConfigEntityCodec.encodeList((List<ThreadPoolConfigEntity>) in));
+                }
+            }
+            return jsonCodec.getValueEncoder().encode(in);
+        }
+    };
+
+    private final Decoder<Object> decoder = new Decoder<Object>() {
+        @Override
+        public Object decode(ByteBuf buf, State state) throws IOException {
+            if (buf.readableBytes() >= 3 && buf.getByte(buf.readerIndex()) == ThreadPoolConfigEntityCodec.MAGIC) {
+                byte[] bytes = new byte[buf.readableBytes()];
+                buf.readBytes(bytes);
+                return ThreadPoolConfigEntityCodec.decode(bytes);
+            }
+            return jsonCodec.getValueDecoder().decode(buf, state);
+        }
+    };
+
+    public ThreadPoolRedissonCodec(boolean binaryEnabled) {
+        this(new JsonJacksonCodec(), binaryEnabled);
+    }
+
+    public ThreadPoolRedissonCodec(ClassLoader classLoader, ThreadPoolRedissonCodec codec) {
+        this(new JsonJacksonCodec(classLoader, codec.jsonCodec), codec.binaryEnabled);
+    }
+
+    private ThreadPoolRedissonCodec(JsonJacksonCodec jsonCodec, boolean binaryEnabled) {
+        this.jsonCodec = jsonCodec;
+        this.binaryEnabled = binaryEnabled;
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return jsonCodec.getClassLoader();
+    }
+
+    private static boolean isEntityList(Object in) {
+        if (!(in instanceof List) || ((List<?>) in).isEmpty()) {
+            return false;
+        }
+        for (Object item : (List<?>) in) {
+            if (!(item instanceof ThreadPoolConfigEntity)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -1,23 +1,39 @@
 package dynamic.thread.pool.trigger;
 
-import cn.hutool.http.HttpRequest;
+import cn.hutool.core.util.IdUtil;
 import com.alibaba.fastjson.JSON;
+import dynamic.thread.pool.domain.alert.AlertRuleEngine;
+import dynamic.thread.pool.domain.alert.AlertRuleEntity;
+import dynamic.thread.pool.domain.alert.AlertRuleService;
+import dynamic.thread.pool.domain.metrics.ThreadPoolMetricsPoint;
+import dynamic.thread.pool.domain.metrics.ThreadPoolMetricsStore;
+import dynamic.thread.pool.domain.notify.NotifyMessage;
+import dynamic.thread.pool.domain.notify.ThreadPoolNotifyService;
+import dynamic.thread.pool.domain.query.ThreadPoolQueryService;
+import dynamic.thread.pool.domain.stream.ThreadPoolStreamService;
+import dynamic.thread.pool.domain.zookeeper.ThreadPoolZookeeperReadModel;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolScaleEventEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckTaskEntity;
 import dynamic.thread.pool.types.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorOp;
 import org.redisson.api.RList;
 import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.annotation.Resource;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @RestController()
@@ -31,18 +47,41 @@ public class DynamicThreadPoolController {
     @Resource
     private CuratorFramework curatorFramework;
 
+    @Autowired(required = false)
+    private ThreadPoolZookeeperReadModel threadPoolZookeeperReadModel;
+
+    @Resource
+    private ThreadPoolQueryService threadPoolQueryService;
+
+    @Autowired(required = false)
+    private ThreadPoolMetricsStore threadPoolMetricsStore;
+
+    @Resource
+    private ThreadPoolStreamService threadPoolStreamService;
+
+    @Resource
+    private ThreadPoolNotifyService threadPoolNotifyService;
+
+    @Resource
+    private AlertRuleService alertRuleService;
+
+    @Resource
+    private AlertRuleEngine alertRuleEngine;
+
     @Value("${dynamic.thread.pool.config.redis.enabled}")
     private boolean redisIsEnabled;
 
     @Value("${dynamic.thread.pool.config.zookeeper.enabled}")
     private boolean zookeeperIsEnabled;
 
-    @Value("${feishu.config.web_hook}")
-    private String webHook;
-
     private final String BASE_CONFIG_PATH = "/dynamic/thread/pool/config";
 
-    private final String BASE_STATUS_PATH = "/dynamic/thread/pool/status";
+    private final String BASE_EVENT_PATH = "/dynamic/thread/pool/event";
+
+    private final String BASE_STUCK_PATH = "/dynamic/thread/pool/stuck";
+
+    // 最近一次下发的配置版本，版本取当前毫秒时间且严格递增，客户端据此跳过过期或重复的变更
+    private final AtomicLong lastConfigVersion = new AtomicLong();
 
     /**
      * 查询线程池列表
@@ -53,45 +92,8 @@ public class DynamicThreadPoolController {
     public Response<List<ThreadPoolConfigEntity>> queryThreadPoolList() {
         List<ThreadPoolConfigEntity> res = new ArrayList<>();
         try {
-            if (redisIsEnabled) {
-                log.info("redis配置中心，查询线程池数据");
-                RList<ThreadPoolConfigEntity> cacheList = redissonClient.getList("THREAD_POOL_CONFIG_LIST_KEY");
-                res = cacheList.readAll();
-            } else if (zookeeperIsEnabled) {
-                log.info("zookeeper配置中心，查询线程池数据");
-                // 查询配置节点
-                if (curatorFramework.checkExists().forPath(BASE_CONFIG_PATH) != null) {
-                    List<String> appNameList = curatorFramework.getChildren().forPath(BASE_CONFIG_PATH);
-                    for (String appName : appNameList) {
-                        String appConfigPath = BASE_CONFIG_PATH.concat("/").concat(appName);
-                        if (curatorFramework.checkExists().forPath(appConfigPath) != null) {
-                            List<String> threadPoolNameList = curatorFramework.getChildren().forPath(appConfigPath);
-                            for (String threadPoolName : threadPoolNameList) {
-                                // 读取配置节点数据
-                                String configPath = appConfigPath.concat("/").concat(threadPoolName);
-                                String configJson = new String(curatorFramework.getData().forPath(configPath), StandardCharsets.UTF_8);
-                                ThreadPoolConfigEntity configEntity = JSON.parseObject(configJson, ThreadPoolConfigEntity.class);
-
-                                // 读取状态节点数据
-                                String statusPath = BASE_STATUS_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
-                                ThreadPoolConfigEntity statusEntity = new ThreadPoolConfigEntity();
-                                if (curatorFramework.checkExists().forPath(statusPath) != null) {
-                                    String statusJson = new String(curatorFramework.getData().forPath(statusPath), StandardCharsets.UTF_8);
-                                    statusEntity = JSON.parseObject(statusJson, ThreadPoolConfigEntity.class);
-                                }
-
-                                // 合并数据
-                                configEntity.setActiveCount(statusEntity.getActiveCount());
-                                configEntity.setQueueSize(statusEntity.getQueueSize());
-                                configEntity.setPoolSize(statusEntity.getPoolSize());
-                                configEntity.setQueueType(statusEntity.getQueueType());
-                                configEntity.setRemainingCapacity(statusEntity.getRemainingCapacity());
-                                res.add(configEntity);
-                            }
-                        }
-                    }
-                }
-            }
+            log.info("{}配置中心，查询线程池数据", redisIsEnabled ? "redis" : "zookeeper");
+            res = threadPoolQueryService.queryThreadPoolList();
             return Response.<List<ThreadPoolConfigEntity>>builder()
                     .code(Response.Code.SUCCESS.getCode())
                     .info(Response.Code.SUCCESS.getInfo())
@@ -106,6 +108,16 @@ public class DynamicThreadPoolController {
         }
     }
 
+    /**
+     * 订阅线程池数据推送（SSE），连接建立后先推送 snapshot 全量数据，之后只推送 delta 变化数据和 remove 移除事件
+     * curl --request GET -N \
+     * --url 'http://localhost:8089/dynamic/thread/pool/stream_thread_pool_list'
+     */
+    @GetMapping(value = "/stream_thread_pool_list", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamThreadPoolList() {
+        return threadPoolStreamService.subscribe();
+    }
+
     /**
      * 根据应用名和线程池名称查询对应线程池配置
      * curl --request GET \
@@ -120,24 +132,9 @@ public class DynamicThreadPoolController {
                 String cacheKey = "THREAD_POOL_CONFIG_PARAMETER_LIST_KEY" + "_" + appName + "_" + threadPoolName;
                 threadPoolConfigEntity = redissonClient.<ThreadPoolConfigEntity>getBucket(cacheKey).get();
             } if (zookeeperIsEnabled) {
-                // 读取配置节点数据
-                String configPath = BASE_CONFIG_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
-                if (curatorFramework.checkExists().forPath(configPath) != null) {
-                    String configJson = new String(curatorFramework.getData().forPath(configPath), StandardCharsets.UTF_8);
-                    threadPoolConfigEntity = JSON.parseObject(configJson, ThreadPoolConfigEntity.class);
-                }
-
-                // 读取状态节点数据
-                String statusPath = BASE_STATUS_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
-                if (curatorFramework.checkExists().forPath(statusPath) != null) {
-                    String statusJson = new String(curatorFramework.getData().forPath(statusPath), StandardCharsets.UTF_8);
-                    ThreadPoolConfigEntity statusEntity = JSON.parseObject(statusJson, ThreadPoolConfigEntity.class);
-                    // 合并状态字段
-                    threadPoolConfigEntity.setActiveCount(statusEntity.getActiveCount());
-                    threadPoolConfigEntity.setQueueSize(statusEntity.getQueueSize());
-                    threadPoolConfigEntity.setPoolSize(statusEntity.getPoolSize());
-                    threadPoolConfigEntity.setQueueType(statusEntity.getQueueType());
-                    threadPoolConfigEntity.setRemainingCapacity(statusEntity.getRemainingCapacity());
+                ThreadPoolConfigEntity cached = threadPoolZookeeperReadModel.queryThreadPoolConfig(appName, threadPoolName);
+                if (null != cached) {
+                    threadPoolConfigEntity = cached;
                 }
             }
             log.info("appName:{}，threadPoolName:{} 配置:{}", appName, threadPoolName, JSON.toJSONString(threadPoolConfigEntity));
@@ -156,7 +153,110 @@ public class DynamicThreadPoolController {
     }
 
     /**
-     * 修改线程池配置 - 核心线程数和最大线程数
+     * 查询线程池扩缩容事件，展示自动扩缩容的原因
+     * curl --request GET \
+     * --url 'http://localhost:8089/dynamic/thread/pool/query_thread_pool_scale_event_list?appName=dynamic-thread-pool-test-app&threadPoolName=threadPoolExecutor01'
+     */
+    @GetMapping("/query_thread_pool_scale_event_list")
+    public Response<List<ThreadPoolScaleEventEntity>> queryThreadPoolScaleEventList(@RequestParam String appName, @RequestParam String threadPoolName) {
+        List<ThreadPoolScaleEventEntity> res = new ArrayList<>();
+        try {
+            if (redisIsEnabled) {
+                RList<ThreadPoolScaleEventEntity> cacheList = redissonClient.getList("THREAD_POOL_SCALE_EVENT_LIST_KEY" + "_" + appName + "_" + threadPoolName);
+                res = cacheList.readAll();
+            } else if (zookeeperIsEnabled) {
+                String eventPath = BASE_EVENT_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
+                if (curatorFramework.checkExists().forPath(eventPath) != null) {
+                    String eventJson = new String(curatorFramework.getData().forPath(eventPath), StandardCharsets.UTF_8);
+                    res = JSON.parseArray(eventJson, ThreadPoolScaleEventEntity.class);
+                }
+            }
+            return Response.<List<ThreadPoolScaleEventEntity>>builder()
+                    .code(Response.Code.SUCCESS.getCode())
+                    .info(Response.Code.SUCCESS.getInfo())
+                    .data(res)
+                    .build();
+        } catch (Exception e) {
+            log.error("查询线程池扩缩容事件异常", e);
+            return Response.<List<ThreadPoolScaleEventEntity>>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info(Response.Code.UN_ERROR.getInfo())
+                    .build();
+        }
+    }
+
+    /**
+     * 查询线程池卡住任务统计，包括当前卡住的任务数和采样次数最多的堆栈
+     * curl --request GET \
+     * --url 'http://localhost:8089/dynamic/thread/pool/query_thread_pool_stuck_task?appName=dynamic-thread-pool-test-app&threadPoolName=threadPoolExecutor01'
+     */
+    @GetMapping("/query_thread_pool_stuck_task")
+    public Response<ThreadPoolStuckTaskEntity> queryThreadPoolStuckTask(@RequestParam String appName, @RequestParam String threadPoolName) {
+        ThreadPoolStuckTaskEntity res = null;
+        try {
+            if (redisIsEnabled) {
+                res = redissonClient.<ThreadPoolStuckTaskEntity>getBucket("THREAD_POOL_STUCK_TASK_KEY" + "_" + appName + "_" + threadPoolName).get();
+            } else if (zookeeperIsEnabled) {
+                String stuckPath = BASE_STUCK_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
+                if (curatorFramework.checkExists().forPath(stuckPath) != null) {
+                    res = JSON.parseObject(new String(curatorFramework.getData().forPath(stuckPath), StandardCharsets.UTF_8), ThreadPoolStuckTaskEntity.class);
+                }
+            }
+            return Response.<ThreadPoolStuckTaskEntity>builder()
+                    .code(Response.Code.SUCCESS.getCode())
+                    .info(Response.Code.SUCCESS.getInfo())
+                    .data(res)
+                    .build();
+        } catch (Exception e) {
+            log.error("查询线程池卡住任务异常 {} {}", appName, threadPoolName, e);
+            return Response.<ThreadPoolStuckTaskEntity>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info(Response.Code.UN_ERROR.getInfo())
+                    .build();
+        }
+    }
+
+    /**
+     * 查询线程池历史指标（队列任务数、活跃线程数），用于绘制趋势图；from/to 为毫秒时间戳，默认最近 1 小时
+     * curl --request GET \
+     * --url 'http://localhost:8089/dynamic/thread/pool/query_thread_pool_metrics?appName=dynamic-thread-pool-test-app&threadPoolName=threadPoolExecutor01&from=1700000000000&to=1700003600000'
+     */
+    @GetMapping("/query_thread_pool_metrics")
+    public Response<List<ThreadPoolMetricsPoint>> queryThreadPoolMetrics(@RequestParam String appName, @RequestParam String threadPoolName,
+                                                                        @RequestParam(required = false) Long from, @RequestParam(required = false) Long to) {
+        if (null == threadPoolMetricsStore) {
+            return Response.<List<ThreadPoolMetricsPoint>>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info("指标存储未开启")
+                    .build();
+        }
+        long end = null == to ? System.currentTimeMillis() : to;
+        long start = null == from ? end - 3600_000L : from;
+        if (start > end) {
+            return Response.<List<ThreadPoolMetricsPoint>>builder()
+                    .code(Response.Code.ILLEGAL_PARAMETER.getCode())
+                    .info(Response.Code.ILLEGAL_PARAMETER.getInfo())
+                    .build();
+        }
+        try {
+            return Response.<List<ThreadPoolMetricsPoint>>builder()
+                    .code(Response.Code.SUCCESS.getCode())
+                    .info(Response.Code.SUCCESS.getInfo())
+                    .data(threadPoolMetricsStore.query(appName, threadPoolName, start, end))
+                    .build();
+        } catch (Exception e) {
+            log.error("查询线程池历史指标异常 {} {}", appName, threadPoolName, e);
+            return Response.<List<ThreadPoolMetricsPoint>>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info(Response.Code.UN_ERROR.getInfo())
+                    .build();
+        }
+    }
+
+    /**
+     * 修改线程池配置 - 核心线程数、最大线程数和队列容量（队列容量为0表示不调整）
+     * 不携带自动扩缩容字段时保持当前策略，关闭自动扩缩容时 autoScaleEnabled 为 false 并携带上下界
+     * 多通道队列的出队模式、通道权重、通道容量按高、中、低顺序逗号分隔，为空表示不调整
      * curl --request POST \
      * --url http://localhost:8089/dynamic/thread/pool/update_thread_pool_config \
      * --header 'content-type: application/json' \
@@ -164,12 +264,20 @@ public class DynamicThreadPoolController {
      * "appName":"dynamic-thread-pool-test-app",
      * "threadPoolName": "threadPoolExecutor01",
      * "corePoolSize": 1,
-     * "maximumPoolSize": 10
+     * "maximumPoolSize": 10,
+     * "queueCapacity": 1000,
+     * "autoScaleEnabled": true,
+     * "autoScaleMinPoolSize": 1,
+     * "autoScaleMaxPoolSize": 50,
+     * "laneDequeueMode": "WEIGHTED",
+     * "laneWeights": "6,3,1",
+     * "laneCapacities": "1000,2000,5000"
      * }'
      */
     @PostMapping("/update_thread_pool_config")
     public Response<Boolean> updateThreadPoolConfig(@RequestBody ThreadPoolConfigEntity request) {
         try {
+            request.setConfigVersion(nextConfigVersion());
             log.info("修改线程池配置开始 {} {} {}", request.getAppName(), request.getThreadPoolName(), JSON.toJSONString(request));
             if (redisIsEnabled) {
                 RTopic topic = redissonClient.getTopic("DYNAMIC_THREAD_POOL_REDIS_TOPIC" + "_" + request.getAppName());
@@ -180,19 +288,16 @@ public class DynamicThreadPoolController {
                 curatorFramework.setData().forPath(path, data.getBytes(StandardCharsets.UTF_8));
             }
             log.info("修改线程池配置完成 {} {}", request.getAppName(), request.getThreadPoolName());
-            // 发送消息到飞书
+            // 异步发送变更通知，不阻塞修改请求
             String msg = "appName：".concat(request.getAppName()).concat("，")
-                    .concat("threadPoolName：").concat(request.getThreadPoolName()).concat("，")
-                    .concat("核心参数发生变更：")
-                    .concat("corePoolSize：").concat(String.valueOf(request.getCorePoolSize())).concat("，")
-                    .concat("maximumPoolSize：").concat(String.valueOf(request.getMaximumPoolSize())).concat("。");
-            Map<String,Object> json=new HashMap();
-            Map<String,Object> text=new HashMap();
-            json.put("msg_type", "text");
-            text.put("text", "线程池核心参数变更通知：" + msg);
-            json.put("content", text);
-            String result = HttpRequest.post(webHook).body(JSON.toJSONString(json), "application/json;charset=UTF-8").execute().body();
-            log.info("发送通知:{}，请求结果:{}", msg, result);
+                    .concat(configChangeText(request)).concat("。");
+            threadPoolNotifyService.submit(NotifyMessage.builder()
+                    .appName(request.getAppName())
+                    .threadPoolName(request.getThreadPoolName())
+                    .category("config")
+                    .title("线程池核心参数变更通知")
+                    .content(msg)
+                    .build());
             return Response.<Boolean>builder()
                     .code(Response.Code.SUCCESS.getCode())
                     .info(Response.Code.SUCCESS.getInfo())
@@ -207,5 +312,224 @@ public class DynamicThreadPoolController {
                     .build();
         }
     }
-}
 
+    /**
+     * 批量修改同一应用下多个线程池的配置，客户端收到一条消息后一次性应用并只上报一次
+     * curl --request POST \
+     * --url http://localhost:8089/dynamic/thread/pool/update_thread_pool_config_batch \
+     * --header 'content-type: application/json' \
+     * --data '{
+     * "appName":"dynamic-thread-pool-test-app",
+     * "threadPoolConfigEntities": [
+     * {"threadPoolName": "threadPoolExecutor01", "corePoolSize": 5, "maximumPoolSize": 10, "queueCapacity": 1000},
+     * {"threadPoolName": "threadPoolExecutor02", "corePoolSize": 2, "maximumPoolSize": 4, "queueCapacity": 0}
+     * ]
+     * }'
+     */
+    @PostMapping("/update_thread_pool_config_batch")
+    public Response<Boolean> updateThreadPoolConfigBatch(@RequestBody ThreadPoolConfigBatchEntity request) {
+        if (StringUtils.isBlank(request.getAppName()) || null == request.getThreadPoolConfigEntities() || request.getThreadPoolConfigEntities().isEmpty()) {
+            return Response.<Boolean>builder()
+                    .code(Response.Code.ILLEGAL_PARAMETER.getCode())
+                    .info(Response.Code.ILLEGAL_PARAMETER.getInfo())
+                    .data(false)
+                    .build();
+        }
+        // 同一批次内线程池不能重复，也不能属于其他应用
+        Set<String> threadPoolNames = new LinkedHashSet<>();
+        for (ThreadPoolConfigEntity entity : request.getThreadPoolConfigEntities()) {
+            if (null == entity || StringUtils.isBlank(entity.getThreadPoolName())
+                    || (null != entity.getAppName() && !request.getAppName().equals(entity.getAppName()))
+                    || !threadPoolNames.add(entity.getThreadPoolName())) {
+                return Response.<Boolean>builder()
+                        .code(Response.Code.ILLEGAL_PARAMETER.getCode())
+                        .info(Response.Code.ILLEGAL_PARAMETER.getInfo())
+                        .data(false)
+                        .build();
+            }
+            entity.setAppName(request.getAppName());
+        }
+        if (StringUtils.isBlank(request.getBatchId())) {
+            request.setBatchId(IdUtil.fastSimpleUUID());
+        }
+        // 同一批次使用同一个版本
+        long configVersion = nextConfigVersion();
+        for (ThreadPoolConfigEntity entity : request.getThreadPoolConfigEntities()) {
+            entity.setConfigVersion(configVersion);
+        }
+        try {
+            log.info("批量修改线程池配置开始 {} {} {}", request.getAppName(), request.getBatchId(), threadPoolNames);
+            if (redisIsEnabled) {
+                RTopic topic = redissonClient.getTopic("DYNAMIC_THREAD_POOL_BATCH_TOPIC" + "_" + request.getAppName());
+                topic.publish(request);
+            } else if (zookeeperIsEnabled) {
+                // 应用节点写入整批配置，各线程池节点写入各自配置，同一事务提交
+                // 应用节点放在最前，客户端先按批次一次性应用，之后到达的线程池节点变更不再重复处理
+                String appPath = BASE_CONFIG_PATH.concat("/").concat(request.getAppName());
+                List<CuratorOp> operations = new ArrayList<>(request.getThreadPoolConfigEntities().size() + 1);
+                operations.add(curatorFramework.transactionOp().setData().forPath(appPath, JSON.toJSONString(request).getBytes(StandardCharsets.UTF_8)));
+                for (ThreadPoolConfigEntity entity : request.getThreadPoolConfigEntities()) {
+                    String path = appPath.concat("/").concat(entity.getThreadPoolName());
+                    operations.add(curatorFramework.transactionOp().setData().forPath(path, JSON.toJSONString(entity).getBytes(StandardCharsets.UTF_8)));
+                }
+                curatorFramework.transaction().forOperations(operations);
+            }
+            log.info("批量修改线程池配置完成 {} {}", request.getAppName(), request.getBatchId());
+            StringBuilder msg = new StringBuilder("appName：").append(request.getAppName()).append("，批量变更");
+            for (ThreadPoolConfigEntity entity : request.getThreadPoolConfigEntities()) {
+                msg.append("\n").append(configChangeText(entity));
+            }
+            threadPoolNotifyService.submit(NotifyMessage.builder()
+                    .appName(request.getAppName())
+                    .threadPoolName(String.join(",", threadPoolNames))
+                    .category("config")
+                    .title("线程池核心参数批量变更通知")
+                    .content(msg.toString())
+                    .build());
+            return Response.<Boolean>builder()
+                    .code(Response.Code.SUCCESS.getCode())
+                    .info(Response.Code.SUCCESS.getInfo())
+                    .data(true)
+                    .build();
+        } catch (Exception e) {
+            log.error("批量修改线程池配置异常 {}", JSON.toJSONString(request), e);
+            return Response.<Boolean>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info(Response.Code.UN_ERROR.getInfo())
+                    .data(false)
+                    .build();
+        }
+    }
+
+    /**
+     * 生成配置版本
+     * @return
+     */
+    private long nextConfigVersion() {
+        return lastConfigVersion.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+    }
+
+    /**
+     * 配置变更通知内容
+     * @param entity
+     * @return
+     */
+    private static String configChangeText(ThreadPoolConfigEntity entity) {
+        String text = "threadPoolName：".concat(entity.getThreadPoolName()).concat("，")
+                .concat("核心参数发生变更：")
+                .concat("corePoolSize：").concat(String.valueOf(entity.getCorePoolSize())).concat("，")
+                .concat("maximumPoolSize：").concat(String.valueOf(entity.getMaximumPoolSize())).concat("，")
+                .concat("queueCapacity：").concat(String.valueOf(entity.getQueueCapacity()));
+        // 自动扩缩容与多通道队列参数，未下发的项不展示
+        if (entity.isAutoScaleEnabled()) {
+            text = text.concat("，autoScale：[" + entity.getAutoScaleMinPoolSize() + ", " + entity.getAutoScaleMaxPoolSize() + "]");
+        } else if (entity.getAutoScaleMinPoolSize() > 0 || entity.getAutoScaleMaxPoolSize() > 0) {
+            text = text.concat("，autoScale：关闭");
+        }
+        if (null != entity.getLaneDequeueMode()) {
+            text = text.concat("，laneDequeueMode：").concat(entity.getLaneDequeueMode());
+        }
+        if (null != entity.getLaneWeights()) {
+            text = text.concat("，laneWeights：").concat(entity.getLaneWeights());
+        }
+        if (null != entity.getLaneCapacities()) {
+            text = text.concat("，laneCapacities：").concat(entity.getLaneCapacities());
+        }
+        return text;
+    }
+    /**
+     * 查询告警规则
+     * curl --request GET \
+     * --url 'http://localhost:8089/dynamic/thread/pool/query_alert_rule_list'
+     */
+    @GetMapping("/query_alert_rule_list")
+    public Response<List<AlertRuleEntity>> queryAlertRuleList() {
+        try {
+            return Response.<List<AlertRuleEntity>>builder()
+                    .code(Response.Code.SUCCESS.getCode())
+                    .info(Response.Code.SUCCESS.getInfo())
+                    .data(alertRuleService.queryAlertRuleList())
+                    .build();
+        } catch (Exception e) {
+            log.error("查询告警规则异常", e);
+            return Response.<List<AlertRuleEntity>>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info(Response.Code.UN_ERROR.getInfo())
+                    .build();
+        }
+    }
+
+    /**
+     * 新增或修改告警规则，ruleId 为空时新增
+     * curl --request POST \
+     * --url http://localhost:8089/dynamic/thread/pool/update_alert_rule \
+     * --header 'content-type: application/json' \
+     * --data '{
+     * "appName":"dynamic-thread-pool-test-app",
+     * "threadPoolName": "*",
+     * "metric": "QUEUE_USAGE",
+     * "operator": "GT",
+     * "threshold": 0.8,
+     * "durationMillis": 30000,
+     * "silenceMillis": 600000,
+     * "enabled": true,
+     * "description": "队列使用率超过80%持续30秒"
+     * }'
+     */
+    @PostMapping("/update_alert_rule")
+    public Response<String> updateAlertRule(@RequestBody AlertRuleEntity request) {
+        if (null == request.getMetric() || null == request.getOperator()
+                || request.getDurationMillis() < 0 || request.getSilenceMillis() < 0) {
+            return Response.<String>builder()
+                    .code(Response.Code.ILLEGAL_PARAMETER.getCode())
+                    .info(Response.Code.ILLEGAL_PARAMETER.getInfo())
+                    .build();
+        }
+        try {
+            if (StringUtils.isBlank(request.getRuleId())) {
+                request.setRuleId(IdUtil.fastSimpleUUID());
+            }
+            alertRuleService.saveAlertRule(request);
+            alertRuleEngine.refreshRules();
+            log.info("修改告警规则 {}", JSON.toJSONString(request));
+            return Response.<String>builder()
+                    .code(Response.Code.SUCCESS.getCode())
+                    .info(Response.Code.SUCCESS.getInfo())
+                    .data(request.getRuleId())
+                    .build();
+        } catch (Exception e) {
+            log.error("修改告警规则异常 {}", JSON.toJSONString(request), e);
+            return Response.<String>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info(Response.Code.UN_ERROR.getInfo())
+                    .build();
+        }
+    }
+
+    /**
+     * 删除告警规则
+     * curl --request POST \
+     * --url 'http://localhost:8089/dynamic/thread/pool/delete_alert_rule?ruleId=xxx'
+     */
+    @PostMapping("/delete_alert_rule")
+    public Response<Boolean> deleteAlertRule(@RequestParam String ruleId) {
+        try {
+            alertRuleService.deleteAlertRule(ruleId);
+            alertRuleEngine.refreshRules();
+            log.info("删除告警规则 {}", ruleId);
+            return Response.<Boolean>builder()
+                    .code(Response.Code.SUCCESS.getCode())
+                    .info(Response.Code.SUCCESS.getInfo())
+                    .data(true)
+                    .build();
+        } catch (Exception e) {
+            log.error("删除告警规则异常 {}", ruleId, e);
+            return Response.<Boolean>builder()
+                    .code(Response.Code.UN_ERROR.getCode())
+                    .info(Response.Code.UN_ERROR.getInfo())
+                    .data(false)
+                    .build();
+        }
+    }
+
+}
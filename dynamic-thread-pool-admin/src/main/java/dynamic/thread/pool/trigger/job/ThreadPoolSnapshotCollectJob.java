@@ -0,0 +1,52 @@
+package dynamic.thread.pool.trigger.job;
+
+import dynamic.thread.pool.domain.query.ThreadPoolQueryService;
+import dynamic.thread.pool.domain.snapshot.ThreadPoolSnapshotListener;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 线程池快照采集任务
+ * 按 SDK 上报周期拉取一次全部线程池数据，分发给各个快照监听
+ */
+@Slf4j
+@Component
+public class ThreadPoolSnapshotCollectJob {
+
+    @Resource
+    private ThreadPoolQueryService threadPoolQueryService;
+
+    @Autowired(required = false)
+    private List<ThreadPoolSnapshotListener> listeners = new ArrayList<>();
+
+    @Scheduled(fixedRateString = "${dynamic.thread.pool.config.metrics.collect-interval-millis:10000}")
+    public void execCollectThreadPoolSnapshot() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        List<ThreadPoolConfigEntity> threadPoolConfigEntities;
+        try {
+            threadPoolConfigEntities = threadPoolQueryService.queryThreadPoolList();
+        } catch (Exception e) {
+            log.error("采集线程池快照异常", e);
+            return;
+        }
+        long time = System.currentTimeMillis();
+        for (ThreadPoolSnapshotListener listener : listeners) {
+            try {
+                listener.onSnapshot(time, threadPoolConfigEntities);
+            } catch (Exception e) {
+                log.error("线程池快照监听处理异常 {}", listener.getClass().getSimpleName(), e);
+            }
+        }
+        log.debug("采集线程池快照:{}个", threadPoolConfigEntities.size());
+    }
+
+}
@@ -0,0 +1,58 @@
+package dynamic.thread.pool.trigger.listener;
+
+import dynamic.thread.pool.domain.stream.ThreadPoolStreamService;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 上报主题监听
+ * SDK 每次上报时发布线程池列表，管理端只订阅这一个主题，收到后交给推送服务计算变化
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "dynamic.thread.pool.config.redis.enabled", havingValue = "true")
+public class ThreadPoolReportTopicListener {
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private ThreadPoolStreamService threadPoolStreamService;
+
+    private RTopic topic;
+
+    private int listenerId;
+
+    @PostConstruct
+    public void subscribe() {
+        topic = redissonClient.getTopic("DYNAMIC_THREAD_POOL_REPORT_TOPIC");
+        listenerId = topic.addListener(List.class, (channel, msg) -> {
+            List<ThreadPoolConfigEntity> threadPoolConfigEntities = new ArrayList<>(msg.size());
+            for (Object item : msg) {
+                if (item instanceof ThreadPoolConfigEntity) {
+                    threadPoolConfigEntities.add((ThreadPoolConfigEntity) item);
+                }
+            }
+            threadPoolStreamService.onUpdate(threadPoolConfigEntities);
+        });
+        log.info("订阅线程池上报主题 {}", topic.getChannelNames());
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (null != topic) {
+            topic.removeListener(listenerId);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package dynamic.thread.pool.trigger.listener;
+
+import dynamic.thread.pool.domain.snapshot.ThreadPoolChangeListener;
+import dynamic.thread.pool.domain.stream.ThreadPoolStreamService;
+import dynamic.thread.pool.domain.zookeeper.ThreadPoolZookeeperReadModel;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Collections;
+
+/**
+ * Zookeeper 内存视图变更监听
+ * 配置节点或状态节点变化时，将合并后的数据交给推送服务
+ */
+@Component
+@ConditionalOnProperty(value = "dynamic.thread.pool.config.zookeeper.enabled", havingValue = "true")
+public class ThreadPoolZookeeperChangeListener implements ThreadPoolChangeListener {
+
+    @Resource
+    private ThreadPoolZookeeperReadModel threadPoolZookeeperReadModel;
+
+    @Resource
+    private ThreadPoolStreamService threadPoolStreamService;
+
+    @PostConstruct
+    public void register() {
+        threadPoolZookeeperReadModel.addChangeListener(this);
+    }
+
+    @Override
+    public void onChange(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        threadPoolStreamService.onUpdate(Collections.singletonList(threadPoolConfigEntity));
+    }
+
+    @Override
+    public void onRemove(String appName, String threadPoolName) {
+        threadPoolStreamService.onRemove(appName, threadPoolName);
+    }
+
+}
@@ -0,0 +1,201 @@
+package dynamic.thread.pool;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dynamic.thread.pool.config.NotifyConfigProperties;
+import dynamic.thread.pool.domain.notify.NotifyMessage;
+import dynamic.thread.pool.domain.notify.NotifySink;
+import dynamic.thread.pool.domain.notify.ThreadPoolNotifyService;
+import dynamic.thread.pool.domain.notify.sink.FeishuNotifySink;
+import dynamic.thread.pool.domain.notify.sink.LogNotifySink;
+import dynamic.thread.pool.domain.notify.sink.WebhookNotifySink;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 通知渠道测试，使用本地 HttpServer 模拟飞书机器人与 Webhook 服务
+ */
+@Slf4j
+public class ThreadPoolNotifyServiceTest {
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private final BlockingQueue<String> feishuRequests = new LinkedBlockingQueue<>();
+
+    private final BlockingQueue<String> webhookRequests = new LinkedBlockingQueue<>();
+
+    /** 模拟飞书前 N 次请求返回限流错误 */
+    private final AtomicInteger feishuFailures = new AtomicInteger();
+
+    private final List<ThreadPoolNotifyService> services = new ArrayList<>();
+
+    @Before
+    public void start() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feishu", exchange -> {
+            String body = read(exchange.getRequestBody());
+            String response = feishuFailures.getAndDecrement() > 0
+                    ? "{\"code\":11232,\"msg\":\"frequency limited\"}"
+                    : "{\"code\":0,\"msg\":\"success\"}";
+            if (response.contains("success")) {
+                feishuRequests.add(body);
+            }
+            write(exchange, 200, response);
+        });
+        server.createContext("/webhook", exchange -> {
+            webhookRequests.add(read(exchange.getRequestBody()));
+            write(exchange, 200, "ok");
+        });
+        server.createContext("/error", exchange -> write(exchange, 500, "error"));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stop() {
+        services.forEach(ThreadPoolNotifyService::close);
+        server.stop(0);
+    }
+
+    @Test
+    public void test_feishu_and_webhook() throws Exception {
+        ThreadPoolNotifyService service = newService(properties(100),
+                new FeishuNotifySink(baseUrl + "/feishu", 1000),
+                new WebhookNotifySink(baseUrl + "/webhook", 1000),
+                new LogNotifySink());
+        Assert.assertTrue(service.submit(message("pool01", "corePoolSize：10")));
+
+        JSONObject feishu = JSON.parseObject(feishuRequests.poll(3, TimeUnit.SECONDS));
+        Assert.assertEquals("text", feishu.getString("msg_type"));
+        Assert.assertEquals("线程池核心参数变更通知：corePoolSize：10", feishu.getJSONObject("content").getString("text"));
+
+        NotifyMessage webhook = JSON.parseObject(webhookRequests.poll(3, TimeUnit.SECONDS), NotifyMessage.class);
+        Assert.assertEquals("pool01", webhook.getThreadPoolName());
+        Assert.assertEquals(1, webhook.getMergedCount());
+    }
+
+    @Test
+    public void test_coalesce() throws Exception {
+        ThreadPoolNotifyService service = newService(properties(300),
+                new WebhookNotifySink(baseUrl + "/webhook", 1000));
+        for (int i = 1; i <= 5; i++) {
+            service.submit(message("pool01", "corePoolSize：" + i));
+        }
+        service.submit(message("pool02", "corePoolSize：20"));
+
+        List<NotifyMessage> received = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            received.add(JSON.parseObject(webhookRequests.poll(3, TimeUnit.SECONDS), NotifyMessage.class));
+        }
+        received.sort((a, b) -> a.getThreadPoolName().compareTo(b.getThreadPoolName()));
+        Assert.assertEquals("corePoolSize：5", received.get(0).getContent());
+        Assert.assertEquals(5, received.get(0).getMergedCount());
+        Assert.assertEquals(1, received.get(1).getMergedCount());
+        Assert.assertNull(webhookRequests.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void test_retry_with_backoff() throws Exception {
+        feishuFailures.set(2);
+        NotifyConfigProperties properties = properties(10);
+        properties.setRetryBackoffMillis(100);
+        ThreadPoolNotifyService service = newService(properties,
+                new FeishuNotifySink(baseUrl + "/feishu", 1000),
+                new WebhookNotifySink(baseUrl + "/webhook", 1000));
+        long start = System.currentTimeMillis();
+        service.submit(message("pool01", "corePoolSize：10"));
+
+        // Webhook 不受飞书重试影响
+        Assert.assertNotNull(webhookRequests.poll(1, TimeUnit.SECONDS));
+        Assert.assertNotNull(feishuRequests.poll(3, TimeUnit.SECONDS));
+        // 两次重试分别等待 100ms、200ms
+        Assert.assertTrue(System.currentTimeMillis() - start >= 300);
+    }
+
+    @Test
+    public void test_give_up_after_max_retries() throws Exception {
+        NotifyConfigProperties properties = properties(10);
+        properties.setRetryBackoffMillis(50);
+        properties.setMaxRetries(2);
+        ThreadPoolNotifyService service = newService(properties,
+                new WebhookNotifySink(baseUrl + "/error", 1000),
+                new WebhookNotifySink(baseUrl + "/webhook", 1000));
+        service.submit(message("pool01", "corePoolSize：10"));
+        Assert.assertNotNull(webhookRequests.poll(1, TimeUnit.SECONDS));
+        Thread.sleep(500);
+        Assert.assertNull(webhookRequests.poll());
+    }
+
+    @Test
+    public void test_queue_capacity() {
+        NotifyConfigProperties properties = properties(60000);
+        properties.setQueueCapacity(2);
+        ThreadPoolNotifyService service = newService(properties, new LogNotifySink());
+        Assert.assertTrue(service.submit(message("pool01", "a")));
+        Assert.assertTrue(service.submit(message("pool02", "b")));
+        // 已在窗口内的线程池仍可合并
+        Assert.assertTrue(service.submit(message("pool01", "c")));
+        Assert.assertFalse(service.submit(message("pool03", "d")));
+    }
+
+    private ThreadPoolNotifyService newService(NotifyConfigProperties properties, NotifySink... sinks) {
+        ThreadPoolNotifyService service = new ThreadPoolNotifyService(Arrays.asList(sinks), properties);
+        services.add(service);
+        return service;
+    }
+
+    private static NotifyConfigProperties properties(long coalesceWindowMillis) {
+        NotifyConfigProperties properties = new NotifyConfigProperties();
+        properties.setCoalesceWindowMillis(coalesceWindowMillis);
+        return properties;
+    }
+
+    private static NotifyMessage message(String threadPoolName, String content) {
+        return NotifyMessage.builder()
+                .appName("dynamic-thread-pool-test-app")
+                .threadPoolName(threadPoolName)
+                .title("线程池核心参数变更通知")
+                .content(content)
+                .build();
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void write(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+}
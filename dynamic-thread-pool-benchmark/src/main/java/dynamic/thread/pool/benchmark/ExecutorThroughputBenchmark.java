@@ -0,0 +1,84 @@
+package dynamic.thread.pool.benchmark;
+
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.executor.MpmcArrayBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.ResizableCapacityBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.TransferHandOffQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+/**
+ * 提交/执行吞吐基准
+ * 对比原生 ThreadPoolExecutor 与带耗时统计的 DynamicThreadPoolExecutor 在不同工作队列下的开销
+ * 每次调用提交一批空任务并等待全部执行完成
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorThroughputBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int POOL_SIZE = 4;
+
+    @Param({"RAW", "INSTRUMENTED"})
+    private String executorType;
+
+    @Param({"LinkedBlockingQueue", "ArrayBlockingQueue", "ResizableCapacityBlockingQueue", "MpmcArrayBlockingQueue", "TransferHandOffQueue", "SynchronousQueue"})
+    private String queueType;
+
+    private ThreadPoolExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BlockingQueue<Runnable> workQueue = newWorkQueue(queueType);
+        // 有界队列满时由调用线程执行，避免拒绝影响结果
+        RejectedExecutionHandler handler = new ThreadPoolExecutor.CallerRunsPolicy();
+        if ("RAW".equals(executorType)) {
+            executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS, workQueue, Executors.defaultThreadFactory(), handler);
+        } else {
+            executor = new DynamicThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS, workQueue, Executors.defaultThreadFactory(), handler);
+        }
+        executor.prestartAllCoreThreads();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void submitAndExecute() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            executor.execute(latch::countDown);
+        }
+        latch.await();
+    }
+
+    static BlockingQueue<Runnable> newWorkQueue(String queueType) {
+        switch (queueType) {
+            case "LinkedBlockingQueue":
+                return new LinkedBlockingQueue<>(BATCH_SIZE);
+            case "ArrayBlockingQueue":
+                return new ArrayBlockingQueue<>(BATCH_SIZE);
+            case "ResizableCapacityBlockingQueue":
+                return new ResizableCapacityBlockingQueue<>(BATCH_SIZE);
+            case "MpmcArrayBlockingQueue":
+                return new MpmcArrayBlockingQueue<>(BATCH_SIZE);
+            case "TransferHandOffQueue":
+                return new TransferHandOffQueue<>(BATCH_SIZE);
+            case "SynchronousQueue":
+                return new SynchronousQueue<>();
+            default:
+                throw new IllegalArgumentException("unknown queue type " + queueType);
+        }
+    }
+
+}
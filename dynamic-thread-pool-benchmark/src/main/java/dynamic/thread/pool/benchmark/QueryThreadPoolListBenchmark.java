@@ -0,0 +1,59 @@
+package dynamic.thread.pool.benchmark;
+
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.impl.DynamicThreadPoolServiceImpl;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池快照采集开销基准
+ * 测量 DynamicThreadPoolServiceImpl.queryThreadPoolList() 在不同线程池数量下的耗时，即每个上报周期的采集成本
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryThreadPoolListBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int poolCount;
+
+    private Map<String, ThreadPoolExecutor> threadPoolExecutorMap;
+
+    private DynamicThreadPoolServiceImpl dynamicThreadPoolService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        threadPoolExecutorMap = new HashMap<>(poolCount * 2);
+        for (int i = 0; i < poolCount; i++) {
+            ThreadPoolExecutor executor = new DynamicThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(1000), Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+            executor.prestartCoreThread();
+            threadPoolExecutorMap.put("threadPoolExecutor" + i, executor);
+        }
+        dynamicThreadPoolService = new DynamicThreadPoolServiceImpl("dynamic-thread-pool-benchmark", threadPoolExecutorMap);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (ThreadPoolExecutor executor : threadPoolExecutorMap.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public List<ThreadPoolConfigEntity> queryThreadPoolList() {
+        return dynamicThreadPoolService.queryThreadPoolList();
+    }
+
+}
@@ -0,0 +1,120 @@
+package dynamic.thread.pool.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.registry.codec.ThreadPoolConfigEntityCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.JsonJacksonCodec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThreadPoolConfigEntity 编解码基准
+ * fastjson 对应 Zookeeper 节点数据原有的编码方式，Jackson 对应 Redisson 原有的 JsonJacksonCodec，binary 为紧凑二进制格式
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadPoolConfigEntityCodecBenchmark {
+
+    private final Codec jacksonCodec = new JsonJacksonCodec();
+
+    private ThreadPoolConfigEntity entity;
+
+    private byte[] fastjsonBytes;
+
+    private byte[] jacksonBytes;
+
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        entity = sampleEntity();
+        fastjsonBytes = JSON.toJSONString(entity).getBytes(StandardCharsets.UTF_8);
+        ByteBuf buf = jacksonCodec.getValueEncoder().encode(entity);
+        jacksonBytes = new byte[buf.readableBytes()];
+        buf.readBytes(jacksonBytes);
+        buf.release();
+        binaryBytes = ThreadPoolConfigEntityCodec.encode(entity);
+    }
+
+    /**
+     * 编码后的字节数，作为辅助指标与耗时一起输出到结果中
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+
+        public long encodedBytes;
+
+    }
+
+    @Benchmark
+    public byte[] fastjsonEncode(EncodedSize size) {
+        byte[] bytes = JSON.toJSONString(entity).getBytes(StandardCharsets.UTF_8);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ThreadPoolConfigEntity fastjsonDecode() {
+        return JSON.parseObject(new String(fastjsonBytes, StandardCharsets.UTF_8), ThreadPoolConfigEntity.class);
+    }
+
+    @Benchmark
+    public int jacksonEncode(EncodedSize size) throws IOException {
+        ByteBuf buf = jacksonCodec.getValueEncoder().encode(entity);
+        int bytes = buf.readableBytes();
+        buf.release();
+        size.encodedBytes = bytes;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object jacksonDecode() throws IOException {
+        return jacksonCodec.getValueDecoder().decode(Unpooled.wrappedBuffer(jacksonBytes), null);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(EncodedSize size) {
+        byte[] bytes = ThreadPoolConfigEntityCodec.encode(entity);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return ThreadPoolConfigEntityCodec.decode(binaryBytes);
+    }
+
+    static ThreadPoolConfigEntity sampleEntity() {
+        ThreadPoolConfigEntity entity = new ThreadPoolConfigEntity("dynamic-thread-pool-test-app", "threadPoolExecutor01");
+        entity.setCorePoolSize(20);
+        entity.setMaximumPoolSize(50);
+        entity.setActiveCount(12);
+        entity.setPoolSize(20);
+        entity.setQueueType("ResizableCapacityBlockingQueue");
+        entity.setQueueSize(345);
+        entity.setRemainingCapacity(4655);
+        entity.setQueueCapacity(5000);
+        entity.setCompletedTaskCount(987654321L);
+        entity.setQueueWaitTimeP50(120);
+        entity.setQueueWaitTimeP90(860);
+        entity.setQueueWaitTimeP99(4300);
+        entity.setQueueWaitTimeMax(15000);
+        entity.setExecuteTimeP50(2300);
+        entity.setExecuteTimeP90(9100);
+        entity.setExecuteTimeP99(31000);
+        entity.setExecuteTimeMax(120000);
+        return entity;
+    }
+
+}
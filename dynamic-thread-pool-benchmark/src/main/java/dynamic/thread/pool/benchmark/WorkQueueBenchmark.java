@@ -0,0 +1,108 @@
+package dynamic.thread.pool.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工作队列多生产者多消费者吞吐基准
+ * 生产者组与消费者组并发访问同一个队列，按线程统计成功的 offer、poll 次数，队列满或空导致的失败单独计数
+ * offerPoll 组的消费者非阻塞轮询，测量入队出队本身的竞争开销；offerTimedPoll 组的消费者与工作线程一样限时等待，覆盖阻塞与唤醒路径
+ * 默认 4 个生产者、4 个消费者，可通过 -tg 调整，如 -tg 8,8；SynchronousQueue 没有容量，不参与对比
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkQueueBenchmark {
+
+    private static final Runnable TASK = () -> {
+    };
+
+    @Param({"LinkedBlockingQueue", "ArrayBlockingQueue", "ResizableCapacityBlockingQueue", "MpmcArrayBlockingQueue", "TransferHandOffQueue"})
+    private String queueType;
+
+    private BlockingQueue<Runnable> queue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = ExecutorThroughputBenchmark.newWorkQueue(queueType);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class OfferCounters {
+
+        public long offersMade;
+
+        public long offersFailed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            offersMade = 0;
+            offersFailed = 0;
+        }
+
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PollCounters {
+
+        public long pollsMade;
+
+        public long pollsFailed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pollsMade = 0;
+            pollsFailed = 0;
+        }
+
+    }
+
+    @Benchmark
+    @Group("offerPoll")
+    @GroupThreads(4)
+    public void offer(OfferCounters counters) {
+        if (queue.offer(TASK)) {
+            counters.offersMade++;
+        } else {
+            counters.offersFailed++;
+        }
+    }
+
+    @Benchmark
+    @Group("offerPoll")
+    @GroupThreads(4)
+    public void poll(PollCounters counters) {
+        if (null != queue.poll()) {
+            counters.pollsMade++;
+        } else {
+            counters.pollsFailed++;
+        }
+    }
+
+    @Benchmark
+    @Group("offerTimedPoll")
+    @GroupThreads(4)
+    public void timedOffer(OfferCounters counters) {
+        offer(counters);
+    }
+
+    @Benchmark
+    @Group("offerTimedPoll")
+    @GroupThreads(4)
+    public void timedPoll(PollCounters counters) throws InterruptedException {
+        // 限时等待，迭代结束时消费者不会一直阻塞
+        if (null != queue.poll(100, TimeUnit.MICROSECONDS)) {
+            counters.pollsMade++;
+        } else {
+            counters.pollsFailed++;
+        }
+    }
+
+}
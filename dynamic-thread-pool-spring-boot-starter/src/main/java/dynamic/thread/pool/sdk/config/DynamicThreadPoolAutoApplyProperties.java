@@ -0,0 +1,14 @@
+package dynamic.thread.pool.sdk.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 动态线程池配置 - 配置变更应用
+ */
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.apply", ignoreInvalidFields = true)
+@Data
+public class DynamicThreadPoolAutoApplyProperties {
+    /** 合并窗口（单位：毫秒），窗口内同一线程池只应用最新的配置，并只上报一次，默认为100 */
+    private long coalesceMillis = 100;
+}
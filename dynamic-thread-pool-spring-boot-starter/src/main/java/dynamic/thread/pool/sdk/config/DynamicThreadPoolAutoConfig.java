@@ -2,13 +2,25 @@ package dynamic.thread.pool.sdk.config;
 
 import com.alibaba.fastjson.JSON;
 import dynamic.thread.pool.sdk.domain.DynamicThreadPoolService;
+import dynamic.thread.pool.sdk.domain.apply.ThreadPoolConfigApplier;
 import dynamic.thread.pool.sdk.domain.impl.DynamicThreadPoolServiceImpl;
+import dynamic.thread.pool.sdk.domain.metrics.DynamicThreadPoolMeterBinder;
+import dynamic.thread.pool.sdk.domain.report.ThreadPoolReportScheduler;
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.scale.ThreadPoolAutoScaler;
+import dynamic.thread.pool.sdk.domain.snapshot.ThreadPoolConfigReconciler;
+import dynamic.thread.pool.sdk.domain.snapshot.ThreadPoolConfigSnapshotStore;
+import dynamic.thread.pool.sdk.domain.watchdog.ThreadPoolStuckTaskDetector;
 import dynamic.thread.pool.sdk.registry.RegistryService;
+import dynamic.thread.pool.sdk.registry.codec.ThreadPoolRedissonCodec;
 import dynamic.thread.pool.sdk.registry.redis.RedisRegistry;
 import dynamic.thread.pool.sdk.registry.zookeeper.ZookeeperRegistry;
+import dynamic.thread.pool.sdk.trigger.job.ThreadPoolAutoScaleJob;
 import dynamic.thread.pool.sdk.trigger.job.ThreadPoolDataReportJob;
+import dynamic.thread.pool.sdk.trigger.job.ThreadPoolStuckTaskJob;
+import dynamic.thread.pool.sdk.trigger.listener.ThreadPoolBatchRedissonListener;
 import dynamic.thread.pool.sdk.trigger.listener.ThreadPoolCuratorFrameworkListener;
+import dynamic.thread.pool.sdk.trigger.listener.ThreadPoolRedisTopicSubscriber;
 import dynamic.thread.pool.sdk.trigger.listener.ThreadPoolRedissonListener;
 import org.apache.commons.lang.StringUtils;
 import org.apache.curator.framework.CuratorFramework;
@@ -17,12 +29,12 @@ import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.redisson.Redisson;
 import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
-import org.redisson.codec.JsonJacksonCodec;
 import org.redisson.config.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
@@ -30,9 +42,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import static dynamic.thread.pool.sdk.domain.model.valobj.RegistryEnumVO.*;
@@ -43,13 +58,11 @@ import static dynamic.thread.pool.sdk.domain.model.valobj.RegistryEnumVO.*;
  */
 @Configuration
 @EnableScheduling
-@EnableConfigurationProperties({DynamicThreadPoolAutoRedisProperties.class, DynamicThreadPoolAutoZookeeperProperties.class})
+@EnableConfigurationProperties({DynamicThreadPoolAutoRedisProperties.class, DynamicThreadPoolAutoZookeeperProperties.class, DynamicThreadPoolAutoExecutorProperties.class, DynamicThreadPoolAutoScaleProperties.class, DynamicThreadPoolAutoStuckTaskProperties.class, DynamicThreadPoolAutoSnapshotProperties.class, DynamicThreadPoolAutoApplyProperties.class, DynamicThreadPoolAutoReportProperties.class})
 public class DynamicThreadPoolAutoConfig {
 
     private final Logger logger = LoggerFactory.getLogger(DynamicThreadPoolAutoConfig.class);
 
-    private final String BASE_CONFIG_PATH = "/dynamic/thread/pool/config";
-
     private String applicationName;
 
     @Value("${dynamic.thread.pool.config.redis.enabled}")
@@ -58,16 +71,28 @@ public class DynamicThreadPoolAutoConfig {
     @Value("${dynamic.thread.pool.config.zookeeper.enabled}")
     private boolean zookeeperIsEnabled;
 
+    /**
+     * 线程池增强，将 ThreadPoolExecutor Bean 替换为可观测的 DynamicThreadPoolExecutor
+     * @return
+     */
+    @Bean
+    public static DynamicThreadPoolExecutorBeanPostProcessor dynamicThreadPoolExecutorBeanPostProcessor() {
+        return new DynamicThreadPoolExecutorBeanPostProcessor();
+    }
+
     /**
      * 创建 Redis客户端
+     * 延迟连接：创建客户端时不连接 Redis，首次执行命令时才建立连接，
+     * Redis 不可达时应用照常启动，由对账、主题订阅和上报任务重试
      * @param properties
      * @return
      */
     @Bean("dynamicThreadRedissonClient")
     public RedissonClient redissonClient(DynamicThreadPoolAutoRedisProperties properties) {
         Config config = new Config();
-        // 根据需要可以设定编解码器；https://github.com/redisson/redisson/wiki/4.-%E6%95%B0%E6%8D%AE%E5%BA%8F%E5%88%97%E5%8C%96
-        config.setCodec(JsonJacksonCodec.INSTANCE);
+        // 线程池数据使用紧凑二进制格式，其余对象仍为 JSON；https://github.com/redisson/redisson/wiki/4.-%E6%95%B0%E6%8D%AE%E5%BA%8F%E5%88%97%E5%8C%96
+        config.setCodec(new ThreadPoolRedissonCodec(properties.isBinaryCodecEnabled()));
+        config.setLazyInitialization(true);
 
         config.useSingleServer()
                 .setAddress("redis://" + properties.getHost() + ":" + properties.getPort())
@@ -99,42 +124,153 @@ public class DynamicThreadPoolAutoConfig {
     }
 
     /**
-     * 创建 Redis主题，用于发布和订阅消息
+     * 订阅 Redis 配置变更主题和批量变更主题，后台重试直到订阅成功，不阻塞应用启动
+     * @param applicationContext
      * @param redissonClient
      * @param threadPoolRedissonListener
+     * @param threadPoolBatchRedissonListener
+     * @param snapshotProperties
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.redis.enabled", havingValue = "true", matchIfMissing = false)
+    public ThreadPoolRedisTopicSubscriber threadPoolRedisTopicSubscriber(ApplicationContext applicationContext, RedissonClient redissonClient,
+                                                                         ThreadPoolRedissonListener threadPoolRedissonListener,
+                                                                         ThreadPoolBatchRedissonListener threadPoolBatchRedissonListener,
+                                                                         DynamicThreadPoolAutoSnapshotProperties snapshotProperties) {
+        String appName = applicationContext.getEnvironment().getProperty("spring.application.name");
+        ThreadPoolRedisTopicSubscriber subscriber = new ThreadPoolRedisTopicSubscriber(redissonClient, StringUtils.isBlank(appName) ? "default" : appName,
+                threadPoolRedissonListener, threadPoolBatchRedissonListener,
+                snapshotProperties.getReconcileRetryMillis(), snapshotProperties.getReconcileMaxRetryMillis());
+        subscriber.start();
+        return subscriber;
+    }
+
+    /**
+     * Redis 配置变更主题，供发布变更消息使用；订阅由 ThreadPoolRedisTopicSubscriber 完成
+     * @param applicationContext
+     * @param redissonClient
      * @return
      */
     @Bean(name = "dynamicThreadPoolRedisTopic")
     @ConditionalOnProperty(name = "dynamic.thread.pool.config.redis.enabled", havingValue = "true", matchIfMissing = false)
-    public RTopic threadPoolListener(RedissonClient redissonClient, ThreadPoolRedissonListener threadPoolRedissonListener) {
-        // 根据应用名创建消息
-        RTopic topic = redissonClient.getTopic(DYNAMIC_THREAD_POOL_REDIS_TOPIC.getKey() + "_" + applicationName);
-        // 为消息添加监听器
-        topic.addListener(ThreadPoolConfigEntity.class, threadPoolRedissonListener);
-        return topic;
+    public RTopic threadPoolRedisTopic(ApplicationContext applicationContext, RedissonClient redissonClient) {
+        String appName = applicationContext.getEnvironment().getProperty("spring.application.name");
+        return redissonClient.getTopic(DYNAMIC_THREAD_POOL_REDIS_TOPIC.getKey() + "_" + (StringUtils.isBlank(appName) ? "default" : appName));
+    }
+
+    /**
+     * 创建线程池上报调度，按线程池负载决定上报间隔
+     * @param dynamicThreadPoolService
+     * @param properties
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.report.enabled", havingValue = "true", matchIfMissing = true)
+    public ThreadPoolReportScheduler threadPoolReportScheduler(DynamicThreadPoolService dynamicThreadPoolService, DynamicThreadPoolAutoReportProperties properties) {
+        return new ThreadPoolReportScheduler(dynamicThreadPoolService, dynamicThreadPoolService.getThreadPoolAdapterMap(), properties);
     }
 
     /**
-     * 创建线程池数据报告任务，用于定期向注册中心报告线程池的状态
+     * 创建线程池数据报告任务，用于向注册中心报告线程池的状态
+     * 只通过 Prometheus 拉取指标、不使用管理端看板时可关闭
+     * @param threadPoolReportScheduler
+     * @param registryService
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.report.enabled", havingValue = "true", matchIfMissing = true)
+    public ThreadPoolDataReportJob threadPoolDataReportJob(ThreadPoolReportScheduler threadPoolReportScheduler, RegistryService registryService) {
+        return new ThreadPoolDataReportJob(threadPoolReportScheduler, registryService);
+    }
+
+    /**
+     * 创建自动扩缩容控制器，根据线程池负载在管理端下发的上下界内调整核心线程数和最大线程数
      * @param dynamicThreadPoolService
+     * @param properties
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.auto-scale.enabled", havingValue = "true", matchIfMissing = false)
+    public ThreadPoolAutoScaler threadPoolAutoScaler(DynamicThreadPoolService dynamicThreadPoolService, DynamicThreadPoolAutoScaleProperties properties) {
+        return new ThreadPoolAutoScaler(dynamicThreadPoolService, properties);
+    }
+
+    /**
+     * 创建自动扩缩容任务，定期采样并上报扩缩容决策
+     * @param threadPoolAutoScaler
      * @param registryService
      * @return
      */
     @Bean
-    public ThreadPoolDataReportJob threadPoolDataReportJob(DynamicThreadPoolService dynamicThreadPoolService, RegistryService registryService) {
-        return new ThreadPoolDataReportJob(dynamicThreadPoolService, registryService);
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.auto-scale.enabled", havingValue = "true", matchIfMissing = false)
+    public ThreadPoolAutoScaleJob threadPoolAutoScaleJob(ThreadPoolAutoScaler threadPoolAutoScaler, RegistryService registryService) {
+        return new ThreadPoolAutoScaleJob(threadPoolAutoScaler, registryService);
     }
 
     /**
-     * 创建线程池配置调整监听器，用于监听 Redis主题上的消息，当收到消息时，调整线程池的配置
+     * 创建卡住任务检测，扫描运行时间超过阈值的任务并采样堆栈
+     * @param applicationContext
+     * @param dynamicThreadPoolService
+     * @param properties
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.stuck-task.enabled", havingValue = "true", matchIfMissing = true)
+    public ThreadPoolStuckTaskDetector threadPoolStuckTaskDetector(ApplicationContext applicationContext,
+                                                                   DynamicThreadPoolService dynamicThreadPoolService,
+                                                                   DynamicThreadPoolAutoStuckTaskProperties properties) {
+        String appName = applicationContext.getEnvironment().getProperty("spring.application.name");
+        return new ThreadPoolStuckTaskDetector(StringUtils.isBlank(appName) ? "default" : appName, dynamicThreadPoolService.getThreadPoolAdapterMap(), properties);
+    }
+
+    /**
+     * 创建卡住任务检测任务，定期扫描并上报卡住任务统计
+     * @param threadPoolStuckTaskDetector
+     * @param registryService
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.stuck-task.enabled", havingValue = "true", matchIfMissing = true)
+    public ThreadPoolStuckTaskJob threadPoolStuckTaskJob(ThreadPoolStuckTaskDetector threadPoolStuckTaskDetector, RegistryService registryService) {
+        return new ThreadPoolStuckTaskJob(threadPoolStuckTaskDetector, registryService);
+    }
+
+    /**
+     * 创建配置变更应用，监听器收到的变更在独立线程合并应用并上报，同时处理运行时注册和注销的线程池
      * @param dynamicThreadPoolService
      * @param registryService
+     * @param properties
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    public ThreadPoolConfigApplier threadPoolConfigApplier(DynamicThreadPoolService dynamicThreadPoolService, RegistryService registryService,
+                                                           DynamicThreadPoolAutoApplyProperties properties) {
+        ThreadPoolConfigApplier threadPoolConfigApplier = new ThreadPoolConfigApplier(dynamicThreadPoolService, registryService, properties.getCoalesceMillis());
+        dynamicThreadPoolService.addRegistrationListener(threadPoolConfigApplier);
+        return threadPoolConfigApplier;
+    }
+
+    /**
+     * 创建线程池配置调整监听器，用于监听 Redis主题上的消息，当收到消息时，调整线程池的配置
+     * @param threadPoolConfigApplier
+     * @return
+     */
+    @Bean
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.redis.enabled", havingValue = "true", matchIfMissing = false)
+    public ThreadPoolRedissonListener threadPoolRedissonListener(ThreadPoolConfigApplier threadPoolConfigApplier) {
+        return new ThreadPoolRedissonListener(threadPoolConfigApplier);
+    }
+
+    /**
+     * 创建线程池配置批量调整监听器，用于监听 Redis批量变更主题上的消息
+     * @param threadPoolConfigApplier
      * @return
      */
     @Bean
     @ConditionalOnProperty(name = "dynamic.thread.pool.config.redis.enabled", havingValue = "true", matchIfMissing = false)
-    public ThreadPoolRedissonListener threadPoolRedissonListener(DynamicThreadPoolService dynamicThreadPoolService, RegistryService registryService) {
-        return new ThreadPoolRedissonListener(dynamicThreadPoolService, registryService);
+    public ThreadPoolBatchRedissonListener threadPoolBatchRedissonListener(ThreadPoolConfigApplier threadPoolConfigApplier) {
+        return new ThreadPoolBatchRedissonListener(threadPoolConfigApplier);
     }
 
     /**
@@ -158,42 +294,42 @@ public class DynamicThreadPoolAutoConfig {
     /**
      * 创建 Zookeeper注册中心，报告线程池状态
      * @param client
+     * @param properties
      * @return
      */
     @Bean
     @ConditionalOnProperty(name = "dynamic.thread.pool.config.zookeeper.enabled", havingValue = "true", matchIfMissing = false)
-    public RegistryService zookeeperRegistry(CuratorFramework client) {
-        return new ZookeeperRegistry(client);
+    public RegistryService zookeeperRegistry(CuratorFramework client, DynamicThreadPoolAutoZookeeperProperties properties) {
+        return new ZookeeperRegistry(client, properties.isBinaryCodecEnabled());
     }
 
     /**
      * 创建线程池配置调整监听器，用于监听Zookeeper节点的消息
-     * @param dynamicThreadPoolService
-     * @param registryService
+     * @param threadPoolConfigApplier
      * @param client
      * @return
      * @throws Exception
      */
     @Bean
     @ConditionalOnProperty(name = "dynamic.thread.pool.config.zookeeper.enabled", havingValue = "true", matchIfMissing = false)
-    public ThreadPoolCuratorFrameworkListener threadPoolCuratorFrameworkListener(DynamicThreadPoolService dynamicThreadPoolService, RegistryService registryService, CuratorFramework client) throws Exception {
-        return new ThreadPoolCuratorFrameworkListener(dynamicThreadPoolService, registryService, client);
+    public ThreadPoolCuratorFrameworkListener threadPoolCuratorFrameworkListener(ThreadPoolConfigApplier threadPoolConfigApplier, CuratorFramework client) throws Exception {
+        return new ThreadPoolCuratorFrameworkListener(threadPoolConfigApplier, client);
     }
 
     /**
      * 根据配置创建动态线程池服务，用于管理线程池
+     * 管理 ThreadPoolExecutor（含 ScheduledThreadPoolExecutor）与 ForkJoinPool 类型的 Bean
      * @param applicationContext
      * @param threadPoolExecutorMap
-     * @param curatorFramework
-     * @param redissonClient
+     * @param registryService
+     * @param snapshotProperties
      * @return
-     * @throws Exception
      */
     @Bean("dynamicThreadPoolService")
     public DynamicThreadPoolServiceImpl dynamicThreadPoolService(ApplicationContext applicationContext,
                                                                            Map<String, ThreadPoolExecutor> threadPoolExecutorMap,
-                                                                           @Autowired(required = false) CuratorFramework curatorFramework,
-                                                                           @Autowired(required = false) RedissonClient redissonClient) throws Exception {
+                                                                           @Autowired(required = false) RegistryService registryService,
+                                                                           DynamicThreadPoolAutoSnapshotProperties snapshotProperties) {
         // 通过配置信息获取应用名
         applicationName = applicationContext.getEnvironment().getProperty("spring.application.name");
         if (StringUtils.isBlank(applicationName)) {
@@ -201,43 +337,64 @@ public class DynamicThreadPoolAutoConfig {
             logger.error("动态线程池启动提示：应用未配置spring.application.name");
         }
         logger.info("应用名：{}", applicationName);
-        logger.info("动态线程池信息：{}", JSON.toJSONString(threadPoolExecutorMap.keySet()));
-        if (redisIsEnabled) {
-            logger.info("使用redis作为配置中心，获取缓存数据");
-            // 获取缓存数据，设置本地线程池配置
-            // 防止应用重启后使用配置文件的配置
-            Set<String> threadPoolKeys = threadPoolExecutorMap.keySet();
-            for (String threadPoolKey : threadPoolKeys) {
-                ThreadPoolConfigEntity threadPoolConfigEntity = redissonClient.<ThreadPoolConfigEntity>getBucket(THREAD_POOL_CONFIG_PARAMETER_LIST_KEY.getKey() + "_" + applicationName + "_" + threadPoolKey).get();
-                if (null == threadPoolConfigEntity) {
-                    logger.info("未缓存数据:{} {}", applicationName, threadPoolKey);
-                    continue;
-                }
-                ThreadPoolExecutor threadPoolExecutor = threadPoolExecutorMap.get(threadPoolKey);
-                threadPoolExecutor.setCorePoolSize(threadPoolConfigEntity.getCorePoolSize());
-                threadPoolExecutor.setMaximumPoolSize(threadPoolConfigEntity.getMaximumPoolSize());
+        Map<String, ExecutorService> executorMap = new LinkedHashMap<>(threadPoolExecutorMap);
+        executorMap.putAll(applicationContext.getBeansOfType(ForkJoinPool.class));
+        logger.info("动态线程池信息：{}", JSON.toJSONString(executorMap.keySet()));
+        ThreadPoolConfigSnapshotStore snapshotStore = snapshotProperties.isEnabled()
+                ? new ThreadPoolConfigSnapshotStore(Paths.get(snapshotProperties.getDir(), applicationName + ".json"))
+                : null;
+        DynamicThreadPoolServiceImpl dynamicThreadPoolService = new DynamicThreadPoolServiceImpl(applicationName, executorMap, snapshotStore);
+        if (executorMap.isEmpty()) {
+            return dynamicThreadPoolService;
+        }
+        if (null != snapshotStore) {
+            // 先应用本地快照，启动耗时不依赖注册中心；再异步与注册中心对账
+            long start = System.currentTimeMillis();
+            int restored = dynamicThreadPoolService.restoreThreadPoolConfig(snapshotStore.load(), start);
+            logger.info("动态线程池，恢复本地配置快照 {}/{}个线程池 耗时:{}ms", restored, executorMap.size(), System.currentTimeMillis() - start);
+            if (null != registryService) {
+                new ThreadPoolConfigReconciler(applicationName, dynamicThreadPoolService, registryService, executorMap.keySet(),
+                        snapshotProperties.getReconcileRetryMillis(), snapshotProperties.getReconcileMaxRetryMillis()).start();
             }
-        } else if (zookeeperIsEnabled) {
-            logger.info("使用zookeeper作为配置中心，获取节点数据");
-            // 获取Zookeeper的节点数据，设置本地线程池配置
+        } else if (null != registryService) {
+            // 获取注册中心持久化的配置，设置本地线程池配置
             // 防止应用重启后使用配置文件的配置
-            Set<String> threadPoolKeys = threadPoolExecutorMap.keySet();
-            for (String threadPoolKey : threadPoolKeys) {
-                String path = BASE_CONFIG_PATH.concat("/").concat(applicationName).concat("/").concat(threadPoolKey);
-                if (curatorFramework.checkExists().forPath(path) != null) {
-                    String jsonStr = new String(curatorFramework.getData().forPath(path), StandardCharsets.UTF_8);
-                    ThreadPoolConfigEntity threadPoolConfigEntity = JSON.parseObject(jsonStr, ThreadPoolConfigEntity.class);
-                    if (null == threadPoolConfigEntity) {
-                        logger.info("无节点数据:{} {}", applicationName, threadPoolKey);
-                        continue;
-                    }
-                    ThreadPoolExecutor threadPoolExecutor = threadPoolExecutorMap.get(threadPoolKey);
-                    threadPoolExecutor.setCorePoolSize(threadPoolConfigEntity.getCorePoolSize());
-                    threadPoolExecutor.setMaximumPoolSize(threadPoolConfigEntity.getMaximumPoolSize());
-                }
+            // 全部线程池一次批量读取，启动耗时不随线程池数量增加
+            long start = System.currentTimeMillis();
+            try {
+                List<ThreadPoolConfigEntity> threadPoolConfigEntities = registryService.queryThreadPoolConfigList(applicationName, executorMap.keySet());
+                dynamicThreadPoolService.restoreThreadPoolConfig(threadPoolConfigEntities, start);
+                logger.info("动态线程池，恢复注册中心配置 {}/{}个线程池 耗时:{}ms", threadPoolConfigEntities.size(), executorMap.size(), System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                logger.error("动态线程池，恢复注册中心配置失败，使用本地配置 耗时:{}ms", System.currentTimeMillis() - start, e);
             }
         }
-        return new DynamicThreadPoolServiceImpl(applicationName, threadPoolExecutorMap);
+        return dynamicThreadPoolService;
+    }
+
+    /**
+     * Micrometer 指标，应用引入 micrometer-core 时生效，由 Spring Boot Actuator 自动绑定到 MeterRegistry
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    @ConditionalOnProperty(name = "dynamic.thread.pool.config.metrics.enabled", havingValue = "true", matchIfMissing = true)
+    static class DynamicThreadPoolMetricsConfig {
+
+        /**
+         * 创建线程池指标，覆盖全部线程池，包括运行时注册的线程池
+         * @param applicationContext
+         * @param dynamicThreadPoolService
+         * @return
+         */
+        @Bean
+        public DynamicThreadPoolMeterBinder dynamicThreadPoolMeterBinder(ApplicationContext applicationContext, DynamicThreadPoolService dynamicThreadPoolService) {
+            String appName = applicationContext.getEnvironment().getProperty("spring.application.name");
+            DynamicThreadPoolMeterBinder dynamicThreadPoolMeterBinder = new DynamicThreadPoolMeterBinder(StringUtils.isBlank(appName) ? "default" : appName,
+                    dynamicThreadPoolService.getThreadPoolAdapterMap());
+            dynamicThreadPoolService.addRegistrationListener(dynamicThreadPoolMeterBinder);
+            return dynamicThreadPoolMeterBinder;
+        }
+
     }
 
 }
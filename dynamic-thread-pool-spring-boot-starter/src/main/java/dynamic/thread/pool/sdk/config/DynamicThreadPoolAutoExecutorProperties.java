@@ -0,0 +1,52 @@
+package dynamic.thread.pool.sdk.config;
+
+import dynamic.thread.pool.sdk.domain.executor.MultiLaneBlockingQueue;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 动态线程池配置 - 执行器增强
+ */
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.executor", ignoreInvalidFields = true)
+@Data
+public class DynamicThreadPoolAutoExecutorProperties {
+    /** 是否将所有 ThreadPoolExecutor Bean 替换为可观测的 DynamicThreadPoolExecutor，默认关闭，只替换 pools 中开启的线程池 */
+    private boolean enabled = false;
+    /** 排队耗时、执行耗时直方图的统计周期（单位：毫秒），默认为10000 */
+    private long metricsIntervalMillis = 10000;
+    /** 是否将被替换线程池的 LinkedBlockingQueue 替换为容量可动态调整的 ResizableCapacityBlockingQueue，默认关闭 */
+    private boolean resizableQueueEnabled = false;
+    /** 按线程池开启替换并指定工作队列，key = 线程池 Bean 名称，未配置的线程池按 enabled、resizableQueueEnabled 处理 */
+    private Map<String, QueuePolicy> pools = new HashMap<>();
+
+    /**
+     * 工作队列类型
+     */
+    public enum QueueType {
+        /** 容量可动态调整的先进先出队列 */
+        RESIZABLE,
+        /** 按任务优先级分通道的多通道队列 */
+        MULTI_LANE,
+        /** 填充下标的有界数组 MPMC 无锁队列，容量向上取整为 2 的幂且不可调整 */
+        MPMC_ARRAY,
+        /** 基于 LinkedTransferQueue 的有界移交队列，容量可调整 */
+        TRANSFER
+    }
+
+    @Data
+    public static class QueuePolicy {
+        /** 是否替换该线程池，默认开启，配置为 false 时即使全局开启也不替换 */
+        private boolean enabled = true;
+        /** 工作队列类型，不配置时保留原队列，resizableQueueEnabled 开启时为 RESIZABLE */
+        private QueueType queueType;
+        /** 多通道队列出队模式，默认为 WEIGHTED */
+        private MultiLaneBlockingQueue.DequeueMode laneDequeueMode = MultiLaneBlockingQueue.DequeueMode.WEIGHTED;
+        /** 多通道队列各通道权重，按高、中、低顺序，默认为 6,3,1 */
+        private int[] laneWeights = MultiLaneBlockingQueue.DEFAULT_WEIGHTS.clone();
+        /** 多通道队列各通道容量，按高、中、低顺序，默认每个通道与原队列容量相同 */
+        private int[] laneCapacities;
+    }
+}
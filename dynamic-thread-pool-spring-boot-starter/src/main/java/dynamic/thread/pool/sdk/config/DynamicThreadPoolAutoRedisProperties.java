@@ -35,4 +35,6 @@ public class DynamicThreadPoolAutoRedisProperties {
     private int pingInterval = 0;
     /** 设置是否保持⻓连接，默认为true */
     private boolean keepAlive = true;
+    /** 线程池数据是否以紧凑二进制格式写入，关闭时写 JSON；读取时两种格式都支持 */
+    private boolean binaryCodecEnabled = true;
 }
@@ -0,0 +1,42 @@
+package dynamic.thread.pool.sdk.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 动态线程池配置 - 上报
+ * 本地高频采样线程池状态，接近饱和时快速上报，空闲时逐步退避到心跳间隔
+ */
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.report", ignoreInvalidFields = true)
+@Data
+public class DynamicThreadPoolAutoReportProperties {
+    /** 状态；true = 开启、false 关闭，默认开启 */
+    private boolean enabled = true;
+    /** 本地采样间隔（单位：毫秒），采样只读取线程池内存状态，不访问注册中心，默认为500 */
+    private long sampleIntervalMillis = 500;
+    /** 接近饱和时的上报间隔（单位：毫秒），默认为1000 */
+    private long hotIntervalMillis = 1000;
+    /** 正常负载时的上报间隔（单位：毫秒），默认为10000 */
+    private long normalIntervalMillis = 10000;
+    /** 空闲时逐步退避的最大上报间隔，即心跳间隔（单位：毫秒），默认为60000 */
+    private long heartbeatIntervalMillis = 60000;
+    /** 饱和度水位，活跃线程数/最大线程数 或 队列使用率达到即视为接近饱和，默认为0.8 */
+    private double saturationWatermark = 0.8;
+    /** 按线程池覆盖上报策略，key = 线程池名称，未配置的字段使用上面的默认值 */
+    private Map<String, ReportPolicy> pools = new HashMap<>();
+
+    @Data
+    public static class ReportPolicy {
+        /** 接近饱和时的上报间隔（单位：毫秒） */
+        private Long hotIntervalMillis;
+        /** 正常负载时的上报间隔（单位：毫秒） */
+        private Long normalIntervalMillis;
+        /** 心跳间隔（单位：毫秒） */
+        private Long heartbeatIntervalMillis;
+        /** 饱和度水位 */
+        private Double saturationWatermark;
+    }
+}
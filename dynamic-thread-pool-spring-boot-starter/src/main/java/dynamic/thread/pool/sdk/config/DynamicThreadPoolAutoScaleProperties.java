@@ -0,0 +1,29 @@
+package dynamic.thread.pool.sdk.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 动态线程池配置 - 自动扩缩容
+ * 扩缩容的上下界由管理端按线程池下发，这里只配置控制器本身的灵敏度
+ */
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.auto-scale", ignoreInvalidFields = true)
+@Data
+public class DynamicThreadPoolAutoScaleProperties {
+    /** 状态；true = 开启、false 关闭，默认关闭 */
+    private boolean enabled = false;
+    /** 采样间隔（单位：毫秒），默认为2000 */
+    private long sampleIntervalMillis = 2000;
+    /** 队列使用率高水位，达到即视为压力过高，默认为0.7 */
+    private double queueHighWatermark = 0.7;
+    /** 平均排队耗时高水位（单位：毫秒），两次采样之间开始执行的任务平均排队耗时达到即视为压力过高，默认为1000 */
+    private long queueWaitHighMillis = 1000;
+    /** 活跃线程数/核心线程数 低水位，队列为空且低于该值视为压力过低，默认为0.3 */
+    private double activeLowWatermark = 0.3;
+    /** 连续多少次采样命中同一方向才执行扩缩容（滞回），默认为3 */
+    private int consecutiveSamples = 3;
+    /** 两次扩缩容之间的冷却时间（单位：毫秒），默认为30000 */
+    private long cooldownMillis = 30000;
+    /** 每次调整的步长占当前核心线程数的比例，至少调整1个线程，默认为0.25 */
+    private double stepRatio = 0.25;
+}
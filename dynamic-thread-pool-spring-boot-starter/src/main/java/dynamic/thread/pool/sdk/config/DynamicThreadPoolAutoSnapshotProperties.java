@@ -0,0 +1,20 @@
+package dynamic.thread.pool.sdk.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 动态线程池配置 - 本地配置快照
+ */
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.snapshot", ignoreInvalidFields = true)
+@Data
+public class DynamicThreadPoolAutoSnapshotProperties {
+    /** 状态；true = 开启、false 关闭，默认开启 */
+    private boolean enabled = true;
+    /** 快照目录，文件名为 {应用名}.json，默认为用户目录下的 .dynamic-thread-pool */
+    private String dir = System.getProperty("user.home") + "/.dynamic-thread-pool";
+    /** 启动后与注册中心对账失败时的初始重试间隔（单位：毫秒），默认为1000 */
+    private long reconcileRetryMillis = 1000;
+    /** 对账重试的最大间隔（单位：毫秒），默认为30000 */
+    private long reconcileMaxRetryMillis = 30000;
+}
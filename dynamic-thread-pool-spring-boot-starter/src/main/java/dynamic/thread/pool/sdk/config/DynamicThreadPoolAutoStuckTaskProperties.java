@@ -0,0 +1,29 @@
+package dynamic.thread.pool.sdk.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 动态线程池配置 - 卡住任务检测
+ */
+@ConfigurationProperties(prefix = "dynamic.thread.pool.config.stuck-task", ignoreInvalidFields = true)
+@Data
+public class DynamicThreadPoolAutoStuckTaskProperties {
+    /** 状态；true = 开启、false 关闭，默认开启 */
+    private boolean enabled = true;
+    /** 扫描间隔（单位：毫秒），默认为5000 */
+    private long scanIntervalMillis = 5000;
+    /** 卡住阈值（单位：毫秒），任务运行时间超过该值视为卡住，默认为10000 */
+    private long thresholdMillis = 10000;
+    /** 按线程池单独设置的卡住阈值（单位：毫秒），key 为线程池名称 */
+    private Map<String, Long> poolThresholdMillis = new HashMap<>();
+    /** 每个线程池每次扫描最多采样的堆栈数，默认为3 */
+    private int maxSamplesPerScan = 3;
+    /** 采样堆栈保留的栈帧数，默认为20 */
+    private int stackDepth = 20;
+    /** 上报的堆栈数，按采样次数取前 N 个，默认为5 */
+    private int topStacks = 5;
+}
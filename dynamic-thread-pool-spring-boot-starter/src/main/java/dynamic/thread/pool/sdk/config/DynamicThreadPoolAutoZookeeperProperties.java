@@ -21,4 +21,7 @@ public class DynamicThreadPoolAutoZookeeperProperties {
     private int sessionTimeoutMs = 18000;
 
     private int connectionTimeoutMs = 30000;
+
+    /** 线程池节点数据是否以紧凑二进制格式写入，关闭时写 JSON；读取时两种格式都支持 */
+    private boolean binaryCodecEnabled = true;
 }
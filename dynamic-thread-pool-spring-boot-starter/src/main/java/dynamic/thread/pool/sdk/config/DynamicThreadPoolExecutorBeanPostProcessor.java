@@ -0,0 +1,129 @@
+package dynamic.thread.pool.sdk.config;
+
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.executor.MpmcArrayBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.MultiLaneBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.ResizableCapacityBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.TransferHandOffQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池增强
+ * 将业务声明的 ThreadPoolExecutor Bean 替换为参数一致的 DynamicThreadPoolExecutor，以便采集排队耗时和执行耗时
+ * 替换需要显式开启：全局开启 enabled，或在 pools 中按线程池开启
+ */
+@Slf4j
+public class DynamicThreadPoolExecutorBeanPostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private DynamicThreadPoolAutoExecutorProperties properties = new DynamicThreadPoolAutoExecutorProperties();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        // BeanPostProcessor 创建较早，直接从环境中绑定配置
+        this.properties = Binder.get(environment)
+                .bind("dynamic.thread.pool.config.executor", DynamicThreadPoolAutoExecutorProperties.class)
+                .orElseGet(DynamicThreadPoolAutoExecutorProperties::new);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        // 只处理原生 ThreadPoolExecutor，业务自定义的子类可能重写了钩子，不做替换
+        if (bean.getClass() != ThreadPoolExecutor.class || !isEnabled(beanName)) {
+            return bean;
+        }
+        ThreadPoolExecutor origin = (ThreadPoolExecutor) bean;
+        // 已经有线程或任务的线程池无法无损替换
+        if (origin.getPoolSize() > 0 || !origin.getQueue().isEmpty()) {
+            log.warn("动态线程池，线程池:{} 已有运行中的线程或任务，跳过增强", beanName);
+            return bean;
+        }
+        DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(origin.getCorePoolSize(),
+                origin.getMaximumPoolSize(),
+                origin.getKeepAliveTime(TimeUnit.NANOSECONDS),
+                TimeUnit.NANOSECONDS,
+                resolveWorkQueue(beanName, origin.getQueue()),
+                origin.getThreadFactory(),
+                origin.getRejectedExecutionHandler(),
+                properties.getMetricsIntervalMillis());
+        executor.allowCoreThreadTimeOut(origin.allowsCoreThreadTimeOut());
+        origin.shutdown();
+        log.info("动态线程池，线程池:{} 已增强为 {}", beanName, DynamicThreadPoolExecutor.class.getSimpleName());
+        return executor;
+    }
+
+    private boolean isEnabled(String beanName) {
+        DynamicThreadPoolAutoExecutorProperties.QueuePolicy queuePolicy = properties.getPools().get(beanName);
+        return null != queuePolicy ? queuePolicy.isEnabled() : properties.isEnabled();
+    }
+
+    /**
+     * 队列为空的 LinkedBlockingQueue 按配置替换为同容量的可调整容量队列、多通道队列、数组 MPMC 队列或移交队列
+     * @param beanName
+     * @param workQueue
+     * @return
+     */
+    private BlockingQueue<Runnable> resolveWorkQueue(String beanName, BlockingQueue<Runnable> workQueue) {
+        DynamicThreadPoolAutoExecutorProperties.QueuePolicy queuePolicy = properties.getPools().get(beanName);
+        DynamicThreadPoolAutoExecutorProperties.QueueType queueType = null != queuePolicy && null != queuePolicy.getQueueType()
+                ? queuePolicy.getQueueType()
+                : properties.isResizableQueueEnabled() ? DynamicThreadPoolAutoExecutorProperties.QueueType.RESIZABLE : null;
+        if (workQueue.getClass() != LinkedBlockingQueue.class || null == queueType) {
+            return workQueue;
+        }
+        int capacity = workQueue.remainingCapacity();
+        switch (queueType) {
+            case MULTI_LANE:
+                return newMultiLaneQueue(beanName, capacity, queuePolicy);
+            case MPMC_ARRAY:
+                // 数组队列按容量预分配，无界队列不做替换
+                if (capacity == Integer.MAX_VALUE) {
+                    log.warn("动态线程池，线程池:{} 原队列无界，不能替换为数组队列，使用可调整容量队列", beanName);
+                    return new ResizableCapacityBlockingQueue<>(capacity);
+                }
+                MpmcArrayBlockingQueue<Runnable> mpmcQueue = new MpmcArrayBlockingQueue<>(Math.min(capacity, 1 << 30));
+                if (mpmcQueue.getCapacity() != capacity) {
+                    log.info("动态线程池，线程池:{} 数组队列容量 {} 调整为 2 的幂 {}", beanName, capacity, mpmcQueue.getCapacity());
+                }
+                return mpmcQueue;
+            case TRANSFER:
+                return new TransferHandOffQueue<>(capacity);
+            default:
+                return new ResizableCapacityBlockingQueue<>(capacity);
+        }
+    }
+
+    /**
+     * 多通道队列，配置非法时退回可调整容量队列
+     * @param beanName
+     * @param capacity 原队列容量
+     * @param queuePolicy
+     * @return
+     */
+    private BlockingQueue<Runnable> newMultiLaneQueue(String beanName, int capacity, DynamicThreadPoolAutoExecutorProperties.QueuePolicy queuePolicy) {
+        int[] laneCapacities = queuePolicy.getLaneCapacities();
+        if (null == laneCapacities) {
+            laneCapacities = new int[MultiLaneBlockingQueue.LANE_COUNT];
+            Arrays.fill(laneCapacities, capacity);
+        }
+        if (!MultiLaneBlockingQueue.isValidCapacities(laneCapacities) || !MultiLaneBlockingQueue.isValidWeights(queuePolicy.getLaneWeights())
+                || null == queuePolicy.getLaneDequeueMode()) {
+            log.warn("动态线程池，线程池:{} 多通道队列配置非法 通道容量:{} 通道权重:{}，使用可调整容量队列", beanName,
+                    Arrays.toString(laneCapacities), Arrays.toString(queuePolicy.getLaneWeights()));
+            return new ResizableCapacityBlockingQueue<>(capacity);
+        }
+        return new MultiLaneBlockingQueue<>(laneCapacities, queuePolicy.getLaneWeights(), queuePolicy.getLaneDequeueMode(),
+                properties.getMetricsIntervalMillis());
+    }
+
+}
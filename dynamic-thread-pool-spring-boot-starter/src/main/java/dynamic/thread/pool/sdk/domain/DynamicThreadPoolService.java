@@ -1,8 +1,13 @@
 package dynamic.thread.pool.sdk.domain;
 
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.valobj.AutoScalePolicyVO;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 public interface DynamicThreadPoolService {
 
@@ -22,6 +27,55 @@ public interface DynamicThreadPoolService {
     /**
      * 更新线程池配置信息
      * @param threadPoolConfigEntity
+     * @return 是否已应用，过期或重复的版本、非法配置返回 false
      */
-    void updateThreadPoolConfig(ThreadPoolConfigEntity threadPoolConfigEntity);
+    boolean updateThreadPoolConfig(ThreadPoolConfigEntity threadPoolConfigEntity);
+
+    /**
+     * 批量更新线程池配置信息，全部校验通过后才会应用，过期或重复版本的线程池跳过
+     * @param threadPoolConfigBatchEntity
+     * @return 是否有线程池应用了新配置
+     */
+    boolean updateThreadPoolConfigBatch(ThreadPoolConfigBatchEntity threadPoolConfigBatchEntity);
+
+    /**
+     * 运行时注册线程池，注册后参与上报、指标采集和配置变更
+     * 支持 ThreadPoolExecutor、ScheduledThreadPoolExecutor、ForkJoinPool
+     * @param threadPoolName
+     * @param executor
+     * @return 同名线程池已存在时返回 false
+     */
+    boolean registerThreadPool(String threadPoolName, ExecutorService executor);
+
+    /**
+     * 运行时注销线程池，并清理注册中心中的运行数据，持久化的配置保留；线程池本身由调用方关闭
+     * @param threadPoolName
+     * @return 被注销的线程池，不存在时返回 null
+     */
+    ExecutorService unregisterThreadPool(String threadPoolName);
+
+    /**
+     * 应用名
+     * @return
+     */
+    String getApplicationName();
+
+    /**
+     * 获取线程池的自动扩缩容策略
+     * @param threadPoolName
+     * @return 未下发策略时返回关闭状态
+     */
+    AutoScalePolicyVO getAutoScalePolicy(String threadPoolName);
+
+    /**
+     * 获取全部线程池的适配器，返回只读的实时视图，遍历期间可以并发注册和注销
+     * @return
+     */
+    Map<String, ThreadPoolAdapter> getThreadPoolAdapterMap();
+
+    /**
+     * 添加线程池注册监听
+     * @param listener
+     */
+    void addRegistrationListener(ThreadPoolRegistrationListener listener);
 }
@@ -0,0 +1,27 @@
+package dynamic.thread.pool.sdk.domain;
+
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+
+/**
+ * 线程池运行时注册监听
+ * 回调在调用注册 / 注销接口的线程中执行，实现方不应阻塞，访问注册中心等耗时操作需要交给独立线程
+ */
+public interface ThreadPoolRegistrationListener {
+
+    /**
+     * 线程池已注册
+     * @param applicationName
+     * @param threadPoolName
+     * @param threadPoolAdapter
+     */
+    void onRegister(String applicationName, String threadPoolName, ThreadPoolAdapter threadPoolAdapter);
+
+    /**
+     * 线程池已注销
+     * @param applicationName
+     * @param threadPoolName
+     * @param threadPoolAdapter
+     */
+    void onUnregister(String applicationName, String threadPoolName, ThreadPoolAdapter threadPoolAdapter);
+
+}
@@ -0,0 +1,148 @@
+package dynamic.thread.pool.sdk.domain.adapter;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ForkJoinPool 适配器
+ * 核心线程数与最大线程数均对应并行度；任务队列为各工作线程的双端队列加外部提交队列
+ * 并行度通过 ForkJoinPool#setParallelism 调整，该方法 JDK 19 起提供，低版本 JDK 只采集不调整
+ */
+public class ForkJoinPoolAdapter implements ThreadPoolAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForkJoinPoolAdapter.class);
+
+    /** 工作线程数上限，与 ForkJoinPool 内部的 MAX_CAP 一致 */
+    private static final int MAX_PARALLELISM = 0x7fff;
+
+    private static final MethodHandle SET_PARALLELISM = findSetParallelism();
+
+    private final ForkJoinPool executor;
+
+    public ForkJoinPoolAdapter(ForkJoinPool executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public ForkJoinPool getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public String getExecutorType() {
+        return ForkJoinPool.class.getSimpleName();
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return executor.getParallelism();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return executor.getParallelism();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveThreadCount();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return (int) Math.min(Integer.MAX_VALUE, executor.getQueuedTaskCount() + executor.getQueuedSubmissionCount());
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getRemainingCapacity() {
+        return Integer.MAX_VALUE - getQueueSize();
+    }
+
+    @Override
+    public String getQueueType() {
+        return "WorkQueue";
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return 0;
+    }
+
+    /**
+     * 累计窃取任务数
+     * @return
+     */
+    public long getStealCount() {
+        return executor.getStealCount();
+    }
+
+    /**
+     * 外部提交尚未执行的任务数
+     * @return
+     */
+    public int getQueuedSubmissionCount() {
+        return executor.getQueuedSubmissionCount();
+    }
+
+    /**
+     * 未阻塞的工作线程数
+     * @return
+     */
+    public int getRunningThreadCount() {
+        return executor.getRunningThreadCount();
+    }
+
+    @Override
+    public void collect(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        threadPoolConfigEntity.setStealCount(getStealCount());
+        threadPoolConfigEntity.setQueuedSubmissionCount(getQueuedSubmissionCount());
+        threadPoolConfigEntity.setRunningThreadCount(getRunningThreadCount());
+    }
+
+    @Override
+    public boolean isValidConfig(int corePoolSize, int maximumPoolSize) {
+        return corePoolSize > 0 && corePoolSize <= MAX_PARALLELISM;
+    }
+
+    @Override
+    public void applyConfig(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        int parallelism = threadPoolConfigEntity.getCorePoolSize();
+        if (parallelism == executor.getParallelism()) {
+            return;
+        }
+        if (null == SET_PARALLELISM || executor == ForkJoinPool.commonPool()) {
+            logger.warn("动态线程池，线程池:{} 当前 JDK 或公共线程池不支持调整并行度，保持 {}", threadPoolConfigEntity.getThreadPoolName(), executor.getParallelism());
+            return;
+        }
+        try {
+            SET_PARALLELISM.invoke(executor, parallelism);
+        } catch (Throwable e) {
+            logger.warn("动态线程池，线程池:{} 调整并行度失败", threadPoolConfigEntity.getThreadPoolName(), e);
+        }
+    }
+
+    private static MethodHandle findSetParallelism() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(ForkJoinPool.class, "setParallelism", MethodType.methodType(int.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+}
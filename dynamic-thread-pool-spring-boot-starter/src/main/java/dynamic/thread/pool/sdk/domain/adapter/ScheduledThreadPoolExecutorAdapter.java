@@ -0,0 +1,66 @@
+package dynamic.thread.pool.sdk.domain.adapter;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScheduledThreadPoolExecutor 适配器
+ * 线程数固定为核心线程数，最大线程数不生效；延迟队列无界，队列深度即已安排尚未执行的任务数
+ */
+public class ScheduledThreadPoolExecutorAdapter extends ThreadPoolExecutorAdapter {
+
+    public ScheduledThreadPoolExecutorAdapter(ScheduledThreadPoolExecutor executor) {
+        super(executor);
+    }
+
+    @Override
+    public String getExecutorType() {
+        return ScheduledThreadPoolExecutor.class.getSimpleName();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 调度延误：已到期仍在延迟队列中等待线程的任务，取最大的超期时间
+     * 延误持续增长说明核心线程数不足或有任务执行过久
+     * @return 毫秒
+     */
+    public long getScheduleLag() {
+        long lagNanos = 0;
+        // toArray 在队列锁内复制，遍历期间不阻塞调度
+        for (Object task : executor.getQueue().toArray()) {
+            if (task instanceof Delayed) {
+                lagNanos = Math.max(lagNanos, -((Delayed) task).getDelay(TimeUnit.NANOSECONDS));
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(lagNanos);
+    }
+
+    @Override
+    public void collect(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        super.collect(threadPoolConfigEntity);
+        threadPoolConfigEntity.setScheduleLag(getScheduleLag());
+    }
+
+    @Override
+    public boolean isValidConfig(int corePoolSize, int maximumPoolSize) {
+        return corePoolSize > 0;
+    }
+
+    @Override
+    public void applyConfig(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        executor.setCorePoolSize(threadPoolConfigEntity.getCorePoolSize());
+    }
+
+}
@@ -0,0 +1,120 @@
+package dynamic.thread.pool.sdk.domain.adapter;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 线程池适配器
+ * 屏蔽 ThreadPoolExecutor、ScheduledThreadPoolExecutor、ForkJoinPool 的差异，统一读取运行数据和应用配置
+ */
+public interface ThreadPoolAdapter {
+
+    /**
+     * 根据线程池类型创建适配器
+     * @param executor
+     * @return
+     */
+    static ThreadPoolAdapter of(ExecutorService executor) {
+        if (executor instanceof ScheduledThreadPoolExecutor) {
+            return new ScheduledThreadPoolExecutorAdapter((ScheduledThreadPoolExecutor) executor);
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return new ThreadPoolExecutorAdapter((ThreadPoolExecutor) executor);
+        }
+        if (executor instanceof ForkJoinPool) {
+            return new ForkJoinPoolAdapter((ForkJoinPool) executor);
+        }
+        throw new IllegalArgumentException("不支持的线程池类型 " + executor.getClass().getName());
+    }
+
+    /**
+     * 被适配的线程池
+     * @return
+     */
+    ExecutorService getExecutor();
+
+    /**
+     * 线程池类型
+     * @return
+     */
+    String getExecutorType();
+
+    /**
+     * 核心线程数，ForkJoinPool 为并行度
+     * @return
+     */
+    int getCorePoolSize();
+
+    /**
+     * 最大线程数，ScheduledThreadPoolExecutor 与 ForkJoinPool 与核心线程数相同
+     * @return
+     */
+    int getMaximumPoolSize();
+
+    /**
+     * 当前线程数
+     * @return
+     */
+    int getPoolSize();
+
+    /**
+     * 活跃线程数
+     * @return
+     */
+    int getActiveCount();
+
+    /**
+     * 队列中的任务数
+     * @return
+     */
+    int getQueueSize();
+
+    /**
+     * 队列容量，无界队列为 Integer.MAX_VALUE
+     * @return
+     */
+    int getQueueCapacity();
+
+    /**
+     * 队列剩余容量
+     * @return
+     */
+    int getRemainingCapacity();
+
+    /**
+     * 队列类型
+     * @return
+     */
+    String getQueueType();
+
+    /**
+     * 已完成任务数，ForkJoinPool 不统计，返回 0
+     * @return
+     */
+    long getCompletedTaskCount();
+
+    /**
+     * 采集类型特有的运行数据
+     * @param threadPoolConfigEntity
+     */
+    void collect(ThreadPoolConfigEntity threadPoolConfigEntity);
+
+    /**
+     * 校验核心线程数与最大线程数
+     * @param corePoolSize
+     * @param maximumPoolSize
+     * @return
+     */
+    boolean isValidConfig(int corePoolSize, int maximumPoolSize);
+
+    /**
+     * 应用已校验的配置，不支持的参数忽略
+     * @param threadPoolConfigEntity
+     */
+    void applyConfig(ThreadPoolConfigEntity threadPoolConfigEntity);
+
+}
@@ -0,0 +1,216 @@
+package dynamic.thread.pool.sdk.domain.adapter;
+
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.executor.MultiLaneBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.ResizableCapacityBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.TaskPriority;
+import dynamic.thread.pool.sdk.domain.executor.TransferHandOffQueue;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.valobj.LatencySnapshotVO;
+import dynamic.thread.pool.sdk.domain.model.valobj.ResourceUsageVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * ThreadPoolExecutor 适配器
+ */
+public class ThreadPoolExecutorAdapter implements ThreadPoolAdapter {
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected final ThreadPoolExecutor executor;
+
+    public ThreadPoolExecutorAdapter(ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public String getExecutorType() {
+        return ThreadPoolExecutor.class.getSimpleName();
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (queue instanceof ResizableCapacityBlockingQueue) {
+            return ((ResizableCapacityBlockingQueue<Runnable>) queue).getCapacity();
+        }
+        if (queue instanceof MultiLaneBlockingQueue) {
+            return ((MultiLaneBlockingQueue<Runnable>) queue).getCapacity();
+        }
+        if (queue instanceof TransferHandOffQueue) {
+            return ((TransferHandOffQueue<Runnable>) queue).getCapacity();
+        }
+        // 无界队列的剩余容量为 Integer.MAX_VALUE，相加时防止溢出
+        return (int) Math.min(Integer.MAX_VALUE, (long) queue.size() + queue.remainingCapacity());
+    }
+
+    @Override
+    public int getRemainingCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+
+    @Override
+    public String getQueueType() {
+        return executor.getQueue().getClass().getSimpleName();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    @Override
+    public void collect(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        // 多通道队列 - 通道配置、各通道任务数与排队耗时
+        if (executor.getQueue() instanceof MultiLaneBlockingQueue) {
+            collectLanes(threadPoolConfigEntity, (MultiLaneBlockingQueue<Runnable>) executor.getQueue());
+        }
+        // 增强后的线程池 - 排队耗时与执行耗时分布
+        if (!(executor instanceof DynamicThreadPoolExecutor)) {
+            return;
+        }
+        DynamicThreadPoolExecutor dynamicThreadPoolExecutor = (DynamicThreadPoolExecutor) executor;
+        LatencySnapshotVO queueWait = dynamicThreadPoolExecutor.getQueueWaitSnapshot();
+        threadPoolConfigEntity.setQueueWaitTimeP50(queueWait.getP50());
+        threadPoolConfigEntity.setQueueWaitTimeP90(queueWait.getP90());
+        threadPoolConfigEntity.setQueueWaitTimeP99(queueWait.getP99());
+        threadPoolConfigEntity.setQueueWaitTimeMax(queueWait.getMax());
+        LatencySnapshotVO executeTime = dynamicThreadPoolExecutor.getExecuteTimeSnapshot();
+        threadPoolConfigEntity.setExecuteTimeP50(executeTime.getP50());
+        threadPoolConfigEntity.setExecuteTimeP90(executeTime.getP90());
+        threadPoolConfigEntity.setExecuteTimeP99(executeTime.getP99());
+        threadPoolConfigEntity.setExecuteTimeMax(executeTime.getMax());
+        threadPoolConfigEntity.setStuckTaskCount(dynamicThreadPoolExecutor.getStuckTaskCount());
+        ResourceUsageVO resourceUsage = dynamicThreadPoolExecutor.getResourceUsage();
+        threadPoolConfigEntity.setCpuUsage(resourceUsage.getCpuUsage());
+        threadPoolConfigEntity.setContentionRatio(resourceUsage.getContentionRatio());
+        threadPoolConfigEntity.setAllocationRate(resourceUsage.getAllocationRate());
+    }
+
+    private void collectLanes(ThreadPoolConfigEntity threadPoolConfigEntity, MultiLaneBlockingQueue<Runnable> queue) {
+        TaskPriority[] priorities = TaskPriority.values();
+        long[] waitTimeP99 = new long[priorities.length];
+        for (TaskPriority priority : priorities) {
+            waitTimeP99[priority.ordinal()] = queue.getLaneQueueWaitSnapshot(priority).getP99();
+        }
+        threadPoolConfigEntity.setLaneDequeueMode(queue.getDequeueMode().name());
+        threadPoolConfigEntity.setLaneWeights(MultiLaneBlockingQueue.formatLaneValues(queue.getLaneWeights()));
+        threadPoolConfigEntity.setLaneCapacities(MultiLaneBlockingQueue.formatLaneValues(queue.getLaneCapacities()));
+        threadPoolConfigEntity.setLaneQueueSizes(MultiLaneBlockingQueue.formatLaneValues(queue.getLaneSizes()));
+        threadPoolConfigEntity.setLaneQueueWaitTimeP99(MultiLaneBlockingQueue.formatLaneValues(waitTimeP99));
+    }
+
+    @Override
+    public boolean isValidConfig(int corePoolSize, int maximumPoolSize) {
+        return corePoolSize >= 0 && maximumPoolSize > 0 && maximumPoolSize >= corePoolSize;
+    }
+
+    @Override
+    public void applyConfig(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        int corePoolSize = threadPoolConfigEntity.getCorePoolSize();
+        int maximumPoolSize = threadPoolConfigEntity.getMaximumPoolSize();
+        // 设置参数 调整核心线程数和最大线程数
+        // 核心线程数不能大于最大线程数，扩大时先调最大线程数，缩小时先调核心线程数
+        if (corePoolSize > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(maximumPoolSize);
+            executor.setCorePoolSize(corePoolSize);
+        } else {
+            executor.setCorePoolSize(corePoolSize);
+            executor.setMaximumPoolSize(maximumPoolSize);
+        }
+        applyQueueCapacity(threadPoolConfigEntity);
+    }
+
+    /**
+     * 调整队列容量 - 仅支持可调整容量的队列和多通道队列，已入队的任务不受影响
+     * @param threadPoolConfigEntity
+     */
+    protected void applyQueueCapacity(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (queue instanceof MultiLaneBlockingQueue) {
+            applyLaneConfig(threadPoolConfigEntity, (MultiLaneBlockingQueue<Runnable>) queue);
+            return;
+        }
+        if (threadPoolConfigEntity.getQueueCapacity() <= 0) {
+            return;
+        }
+        if (queue instanceof ResizableCapacityBlockingQueue) {
+            ((ResizableCapacityBlockingQueue<Runnable>) queue).setCapacity(threadPoolConfigEntity.getQueueCapacity());
+        } else if (queue instanceof TransferHandOffQueue) {
+            ((TransferHandOffQueue<Runnable>) queue).setCapacity(threadPoolConfigEntity.getQueueCapacity());
+        } else if (threadPoolConfigEntity.getQueueCapacity() != getQueueCapacity()) {
+            logger.warn("动态线程池，线程池:{} 队列类型:{} 不支持调整容量", threadPoolConfigEntity.getThreadPoolName(), queue.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 调整多通道队列 - 出队模式、通道权重、通道容量，为空的项不调整，非法的项跳过
+     * 多通道队列的总容量为各通道容量之和，只能通过通道容量调整
+     * @param threadPoolConfigEntity
+     * @param queue
+     */
+    private void applyLaneConfig(ThreadPoolConfigEntity threadPoolConfigEntity, MultiLaneBlockingQueue<Runnable> queue) {
+        String threadPoolName = threadPoolConfigEntity.getThreadPoolName();
+        String dequeueMode = threadPoolConfigEntity.getLaneDequeueMode();
+        if (null != dequeueMode) {
+            try {
+                queue.setDequeueMode(MultiLaneBlockingQueue.DequeueMode.valueOf(dequeueMode.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("动态线程池，线程池:{} 通道出队模式非法:{}", threadPoolName, dequeueMode);
+            }
+        }
+        if (null != threadPoolConfigEntity.getLaneWeights()) {
+            int[] weights = MultiLaneBlockingQueue.parseLaneValues(threadPoolConfigEntity.getLaneWeights());
+            if (MultiLaneBlockingQueue.isValidWeights(weights)) {
+                queue.setLaneWeights(weights);
+            } else {
+                logger.warn("动态线程池，线程池:{} 通道权重非法:{}", threadPoolName, threadPoolConfigEntity.getLaneWeights());
+            }
+        }
+        if (null != threadPoolConfigEntity.getLaneCapacities()) {
+            int[] capacities = MultiLaneBlockingQueue.parseLaneValues(threadPoolConfigEntity.getLaneCapacities());
+            if (MultiLaneBlockingQueue.isValidCapacities(capacities)) {
+                queue.setLaneCapacities(capacities);
+            } else {
+                logger.warn("动态线程池，线程池:{} 通道容量非法:{}", threadPoolName, threadPoolConfigEntity.getLaneCapacities());
+            }
+        } else if (threadPoolConfigEntity.getQueueCapacity() > 0 && threadPoolConfigEntity.getQueueCapacity() != queue.getCapacity()) {
+            logger.warn("动态线程池，线程池:{} 多通道队列请通过通道容量调整队列容量", threadPoolName);
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package dynamic.thread.pool.sdk.domain.apply;
+
+import dynamic.thread.pool.sdk.domain.DynamicThreadPoolService;
+import dynamic.thread.pool.sdk.domain.ThreadPoolRegistrationListener;
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.registry.RegistryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 配置变更应用
+ * 监听器只把变更交给本类后立即返回，Redisson / Curator 的事件线程不再执行线程池调整和注册中心写入
+ * 合并窗口内同一线程池只保留最新的配置，窗口结束后在独立线程统一应用，有变更时只上报一次
+ * 运行时注册的线程池在同一线程读取注册中心已持久化的配置，注销的线程池在同一线程清理本实例的上报缓存
+ */
+public class ThreadPoolConfigApplier implements ThreadPoolRegistrationListener {
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadPoolConfigApplier.class);
+
+    private final DynamicThreadPoolService dynamicThreadPoolService;
+
+    private final RegistryService registryService;
+
+    private final long coalesceMillis;
+
+    // 等待应用的单个线程池配置，key = threadPoolName
+    private final Map<String, ThreadPoolConfigEntity> pendingMap = new LinkedHashMap<>();
+
+    // 等待应用的批量变更，按到达顺序应用
+    private final List<ThreadPoolConfigBatchEntity> pendingBatches = new ArrayList<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dynamic-thread-pool-config-applier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 是否已安排应用，由 this 保护
+    private boolean scheduled;
+
+    public ThreadPoolConfigApplier(DynamicThreadPoolService dynamicThreadPoolService, RegistryService registryService, long coalesceMillis) {
+        this.dynamicThreadPoolService = dynamicThreadPoolService;
+        this.registryService = registryService;
+        this.coalesceMillis = Math.max(0, coalesceMillis);
+    }
+
+    /**
+     * 提交单个线程池配置，窗口内已有更新版本的配置时丢弃
+     * @param threadPoolConfigEntity
+     */
+    public synchronized void submit(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        ThreadPoolConfigEntity pending = pendingMap.get(threadPoolConfigEntity.getThreadPoolName());
+        if (null != pending && threadPoolConfigEntity.getConfigVersion() > 0 && threadPoolConfigEntity.getConfigVersion() < pending.getConfigVersion()) {
+            return;
+        }
+        pendingMap.put(threadPoolConfigEntity.getThreadPoolName(), threadPoolConfigEntity);
+        scheduleApply();
+    }
+
+    /**
+     * 提交批量变更，批量变更整体校验，不与单个配置合并
+     * @param threadPoolConfigBatchEntity
+     */
+    public synchronized void submitBatch(ThreadPoolConfigBatchEntity threadPoolConfigBatchEntity) {
+        pendingBatches.add(threadPoolConfigBatchEntity);
+        scheduleApply();
+    }
+
+    @Override
+    public void onRegister(String applicationName, String threadPoolName, ThreadPoolAdapter threadPoolAdapter) {
+        executor.execute(() -> {
+            try {
+                // 恢复管理端此前为该线程池下发的配置，与实时变更一样经过版本校验
+                for (ThreadPoolConfigEntity threadPoolConfigEntity : registryService.queryThreadPoolConfigList(applicationName, Collections.singletonList(threadPoolName))) {
+                    submit(threadPoolConfigEntity);
+                }
+            } catch (Exception e) {
+                logger.error("读取线程池配置失败，使用本地配置 线程池:{}", threadPoolName, e);
+            }
+        });
+    }
+
+    @Override
+    public void onUnregister(String applicationName, String threadPoolName, ThreadPoolAdapter threadPoolAdapter) {
+        synchronized (this) {
+            pendingMap.remove(threadPoolName);
+        }
+        executor.execute(() -> {
+            try {
+                registryService.removeThreadPool(applicationName, threadPoolName);
+                logger.info("清理已注销线程池的上报缓存 线程池:{}", threadPoolName);
+            } catch (Exception e) {
+                logger.error("清理已注销线程池的上报缓存失败 线程池:{}", threadPoolName, e);
+            }
+        });
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void scheduleApply() {
+        if (scheduled) {
+            return;
+        }
+        scheduled = true;
+        executor.schedule(this::apply, coalesceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void apply() {
+        List<ThreadPoolConfigBatchEntity> batches;
+        List<ThreadPoolConfigEntity> threadPoolConfigEntities;
+        synchronized (this) {
+            batches = new ArrayList<>(pendingBatches);
+            threadPoolConfigEntities = new ArrayList<>(pendingMap.values());
+            pendingBatches.clear();
+            pendingMap.clear();
+            scheduled = false;
+        }
+        try {
+            int applied = 0;
+            // 单个配置与批量变更之间的先后由配置版本保证，过期的一方会被跳过
+            for (ThreadPoolConfigBatchEntity batch : batches) {
+                if (dynamicThreadPoolService.updateThreadPoolConfigBatch(batch)) {
+                    applied++;
+                }
+            }
+            for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigEntities) {
+                if (dynamicThreadPoolService.updateThreadPoolConfig(threadPoolConfigEntity)) {
+                    applied++;
+                    logger.info("调整线程池配置，线程池名称：{} 核心线程数：{} 最大线程数：{} 队列容量：{} 版本:{}",
+                            threadPoolConfigEntity.getThreadPoolName(),
+                            threadPoolConfigEntity.getCorePoolSize(),
+                            threadPoolConfigEntity.getMaximumPoolSize(),
+                            threadPoolConfigEntity.getQueueCapacity(),
+                            threadPoolConfigEntity.getConfigVersion());
+                } else {
+                    logger.info("调整线程池配置，线程池名称：{} 版本:{} 已应用、已过期或非法，跳过", threadPoolConfigEntity.getThreadPoolName(), threadPoolConfigEntity.getConfigVersion());
+                }
+            }
+            if (0 == applied) {
+                return;
+            }
+            // 上报线程池列表时会同时刷新每个线程池的配置参数
+            registryService.reportThreadPool(dynamicThreadPoolService.queryThreadPoolList());
+            logger.info("调整线程池配置完成，批量变更:{}个 单个变更:{}个 已上报", batches.size(), threadPoolConfigEntities.size());
+        } catch (Exception e) {
+            logger.error("调整线程池配置失败", e);
+        }
+    }
+
+}
@@ -0,0 +1,402 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import dynamic.thread.pool.sdk.domain.model.valobj.LatencySnapshotVO;
+import dynamic.thread.pool.sdk.domain.model.valobj.ResourceUsageVO;
+import dynamic.thread.pool.sdk.domain.model.valobj.RunningTaskVO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 可观测的动态线程池
+ * 提交时为任务打上入队时间戳，借助 beforeExecute/afterExecute 钩子记录排队耗时与执行耗时
+ * 每个工作线程持有一个运行槽位，记录当前执行的任务和开始时间，供卡住任务检测扫描
+ * 队列中保存的是带时间戳的包装任务，remove、purge、shutdownNow 与拒绝策略对外仍按提交的原任务处理
+ */
+public class DynamicThreadPoolExecutor extends ThreadPoolExecutor {
+
+    /** 默认统计周期，与上报周期保持一致 */
+    public static final long DEFAULT_METRICS_INTERVAL_MILLIS = 10_000L;
+
+    /** 排队耗时直方图 */
+    private final LatencyHistogram queueWaitHistogram;
+
+    /** 执行耗时直方图 */
+    private final LatencyHistogram executeTimeHistogram;
+
+    /** 工作线程 -> 运行槽位，槽位随线程创建一次，之后每个任务只有两次 volatile 写 */
+    private final Map<Thread, RunningSlot> runningSlots = new ConcurrentHashMap<>();
+
+    /** 累计任务执行时间（纳秒） */
+    private final LongAdder busyNanos = new LongAdder();
+
+    /** 累计执行完成的任务数 */
+    private final LongAdder executeCount = new LongAdder();
+
+    /** 累计任务排队时间（纳秒） */
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    /** 累计开始执行的任务数 */
+    private final LongAdder queueWaitCount = new LongAdder();
+
+    /** 累计拒绝的任务数 */
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /** 工作线程资源采样 */
+    private final ThreadResourceSampler resourceSampler;
+
+    /** 最近一次检测到的卡住任务数，由卡住任务检测写入 */
+    private volatile int stuckTaskCount;
+
+    public DynamicThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                     BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler, DEFAULT_METRICS_INTERVAL_MILLIS);
+    }
+
+    public DynamicThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                     BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory, RejectedExecutionHandler handler,
+                                     long metricsIntervalMillis) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(metricsIntervalMillis);
+        this.queueWaitHistogram = new LatencyHistogram(intervalNanos);
+        this.executeTimeHistogram = new LatencyHistogram(intervalNanos);
+        this.resourceSampler = new ThreadResourceSampler(metricsIntervalMillis / 2);
+        setRejectedExecutionHandler(handler);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (null == command) {
+            throw new NullPointerException();
+        }
+        super.execute(command instanceof TimedRunnable ? command : new TimedRunnable(command));
+    }
+
+    /**
+     * submit 提交的带优先级任务包装后保留优先级，多通道队列据此选择通道
+     */
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return runnable instanceof PrioritizedTask
+                ? new PrioritizedFutureTask<>(runnable, value, ((PrioritizedTask) runnable).getPriority())
+                : super.newTaskFor(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return callable instanceof PrioritizedTask
+                ? new PrioritizedFutureTask<>(callable, ((PrioritizedTask) callable).getPriority())
+                : super.newTaskFor(callable);
+    }
+
+    /**
+     * 队列中是包装后的任务，按原任务查找后移除
+     */
+    @Override
+    public boolean remove(Runnable task) {
+        if (!(task instanceof TimedRunnable)) {
+            for (Runnable r : getQueue()) {
+                if (r instanceof TimedRunnable && ((TimedRunnable) r).delegate == task) {
+                    return super.remove(r);
+                }
+            }
+        }
+        return super.remove(task);
+    }
+
+    /**
+     * 包装后的任务不是 Future，先按原任务移除已取消的任务，再由父类清理并尝试终止
+     */
+    @Override
+    public void purge() {
+        BlockingQueue<Runnable> queue = getQueue();
+        for (Object r : queue.toArray()) {
+            if (r instanceof TimedRunnable) {
+                Runnable task = ((TimedRunnable) r).delegate;
+                if (task instanceof Future && ((Future<?>) task).isCancelled()) {
+                    queue.remove(r);
+                }
+            }
+        }
+        super.purge();
+    }
+
+    /**
+     * 返回提交的原任务
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = super.shutdownNow();
+        ListIterator<Runnable> iterator = tasks.listIterator();
+        while (iterator.hasNext()) {
+            iterator.set(unwrap(iterator.next()));
+        }
+        return tasks;
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        if (r instanceof TimedRunnable) {
+            TimedRunnable task = (TimedRunnable) r;
+            task.startNanos = System.nanoTime();
+            long waitNanos = task.startNanos - task.submitNanos;
+            queueWaitHistogram.record(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+            queueWaitNanos.add(waitNanos);
+            queueWaitCount.increment();
+            RunningSlot slot = runningSlots.get(t);
+            if (null == slot) {
+                slot = new RunningSlot(t);
+                runningSlots.put(t, slot);
+            }
+            slot.startNanos = task.startNanos;
+            slot.task = task;
+        }
+        super.beforeExecute(t, r);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if (r instanceof TimedRunnable) {
+            TimedRunnable task = (TimedRunnable) r;
+            long elapsedNanos = System.nanoTime() - task.startNanos;
+            executeTimeHistogram.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+            busyNanos.add(elapsedNanos);
+            executeCount.increment();
+            RunningSlot slot = runningSlots.get(Thread.currentThread());
+            if (null != slot) {
+                slot.task = null;
+            }
+        }
+    }
+
+    @Override
+    protected void terminated() {
+        runningSlots.clear();
+        super.terminated();
+    }
+
+    /**
+     * 拒绝策略包装一层计数，对外仍返回原拒绝策略
+     * @param handler
+     */
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(handler instanceof CountingRejectedExecutionHandler ? handler : new CountingRejectedExecutionHandler(handler));
+    }
+
+    @Override
+    public RejectedExecutionHandler getRejectedExecutionHandler() {
+        RejectedExecutionHandler handler = super.getRejectedExecutionHandler();
+        return handler instanceof CountingRejectedExecutionHandler ? ((CountingRejectedExecutionHandler) handler).delegate : handler;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getQueueWaitCount() {
+        return queueWaitCount.sum();
+    }
+
+    public long getQueueWaitTotalNanos() {
+        return queueWaitNanos.sum();
+    }
+
+    public long getExecuteCount() {
+        return executeCount.sum();
+    }
+
+    public long getExecuteTotalNanos() {
+        return busyNanos.sum();
+    }
+
+    /**
+     * 上一统计周期的排队耗时分布
+     * @return
+     */
+    public LatencySnapshotVO getQueueWaitSnapshot() {
+        return queueWaitHistogram.snapshot();
+    }
+
+    /**
+     * 上一统计周期的执行耗时分布
+     * @return
+     */
+    public LatencySnapshotVO getExecuteTimeSnapshot() {
+        return executeTimeHistogram.snapshot();
+    }
+
+    /**
+     * 当前正在执行的任务
+     * @return 每个元素为一次快照，不持有槽位引用
+     */
+    public List<RunningTaskVO> getRunningTasks() {
+        List<RunningTaskVO> res = new ArrayList<>();
+        long now = System.nanoTime();
+        Iterator<RunningSlot> iterator = runningSlots.values().iterator();
+        while (iterator.hasNext()) {
+            RunningSlot slot = iterator.next();
+            // 回收线程已退出的槽位
+            if (!slot.thread.isAlive()) {
+                iterator.remove();
+                continue;
+            }
+            TimedRunnable task = slot.task;
+            long startNanos = slot.startNanos;
+            // 读取期间任务已切换，本次跳过
+            if (null == task || task != slot.task) {
+                continue;
+            }
+            Runnable delegate = task.delegate instanceof PriorityRunnable ? ((PriorityRunnable) task.delegate).getDelegate() : task.delegate;
+            res.add(new RunningTaskVO(slot.thread, task, delegate.getClass().getName(), TimeUnit.NANOSECONDS.toMillis(now - startNanos)));
+        }
+        return res;
+    }
+
+    /**
+     * 自上次读取以来工作线程的 CPU、非 CPU 时间占比与内存分配速率
+     * @return
+     */
+    public ResourceUsageVO getResourceUsage() {
+        List<Thread> workers = new ArrayList<>(runningSlots.size());
+        // 已完成任务的执行时间加上执行中任务已运行的时间，长任务执行期间也能反映真实的占比
+        long busy = busyNanos.sum();
+        long now = System.nanoTime();
+        Iterator<RunningSlot> iterator = runningSlots.values().iterator();
+        while (iterator.hasNext()) {
+            RunningSlot slot = iterator.next();
+            // 回收线程已退出的槽位，未开启卡住任务检测时也不会累积
+            if (!slot.thread.isAlive()) {
+                iterator.remove();
+                continue;
+            }
+            workers.add(slot.thread);
+            if (null != slot.task) {
+                busy += Math.max(0, now - slot.startNanos);
+            }
+        }
+        return resourceSampler.sample(workers, busy);
+    }
+
+    public int getStuckTaskCount() {
+        return stuckTaskCount;
+    }
+
+    public void setStuckTaskCount(int stuckTaskCount) {
+        this.stuckTaskCount = stuckTaskCount;
+    }
+
+    private static Runnable unwrap(Runnable r) {
+        return r instanceof TimedRunnable ? ((TimedRunnable) r).delegate : r;
+    }
+
+    /**
+     * 计数的拒绝策略，原拒绝策略收到的是提交的原任务
+     */
+    private class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+        private final RejectedExecutionHandler delegate;
+
+        private CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            rejectedCount.increment();
+            delegate.rejectedExecution(unwrap(r), executor);
+        }
+
+    }
+
+    /**
+     * 工作线程运行槽位
+     */
+    private static class RunningSlot {
+
+        private final Thread thread;
+
+        private volatile TimedRunnable task;
+
+        private volatile long startNanos;
+
+        private RunningSlot(Thread thread) {
+            this.thread = thread;
+        }
+
+    }
+
+    /**
+     * 保留优先级的 FutureTask
+     */
+    private static class PrioritizedFutureTask<T> extends FutureTask<T> implements PrioritizedTask {
+
+        private final TaskPriority priority;
+
+        private PrioritizedFutureTask(Runnable runnable, T value, TaskPriority priority) {
+            super(runnable, value);
+            this.priority = priority;
+        }
+
+        private PrioritizedFutureTask(Callable<T> callable, TaskPriority priority) {
+            super(callable);
+            this.priority = priority;
+        }
+
+        @Override
+        public TaskPriority getPriority() {
+            return priority;
+        }
+
+    }
+
+    /**
+     * 带时间戳的任务包装，透传原任务的优先级
+     */
+    static class TimedRunnable implements Runnable, PrioritizedTask {
+
+        private final Runnable delegate;
+
+        private final long submitNanos;
+
+        /** 仅由执行该任务的工作线程读写 */
+        private long startNanos;
+
+        TimedRunnable(Runnable delegate) {
+            this.delegate = delegate;
+            this.submitNanos = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+
+        @Override
+        public TaskPriority getPriority() {
+            return delegate instanceof PrioritizedTask ? ((PrioritizedTask) delegate).getPriority() : null;
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import dynamic.thread.pool.sdk.domain.model.valobj.LatencySnapshotVO;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁延迟直方图
+ * 按 2 的幂分段，每段再线性切分为 8 个子桶（相对误差不超过 12.5%），记录只做一次原子自增
+ * 统计周期到期后由读取方惰性切换：逐桶 getAndSet(0) 取出计数，周期内的记录不会丢失
+ */
+public class LatencyHistogram {
+
+    /** 每段子桶位数 */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** 最大可区分的量级 2^40 微秒（约 12 天），更大的值计入最后一个桶 */
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong max = new AtomicLong();
+
+    /** 统计周期（纳秒） */
+    private final long intervalNanos;
+
+    /** 当前周期开始时间 */
+    private final AtomicLong intervalStart;
+
+    /** 上一个完整周期的快照 */
+    private volatile LatencySnapshotVO lastSnapshot = LatencySnapshotVO.EMPTY;
+
+    public LatencyHistogram(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+        this.intervalStart = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 记录一次耗时
+     * @param micros 耗时（微秒）
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(micros));
+        long current = max.get();
+        while (micros > current && !max.compareAndSet(current, micros)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * 获取上一个完整统计周期的快照，周期到期时顺带切换周期
+     * @return
+     */
+    public LatencySnapshotVO snapshot() {
+        long start = intervalStart.get();
+        long now = System.nanoTime();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            lastSnapshot = drain();
+        }
+        return lastSnapshot;
+    }
+
+    private LatencySnapshotVO drain() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.getAndSet(i, 0);
+            total += counts[i];
+        }
+        long maxValue = max.getAndSet(0);
+        if (total == 0) {
+            return LatencySnapshotVO.EMPTY;
+        }
+        return new LatencySnapshotVO(total,
+                Math.min(percentile(counts, total, 0.50), maxValue),
+                Math.min(percentile(counts, total, 0.90), maxValue),
+                Math.min(percentile(counts, total, 0.99), maxValue),
+                maxValue);
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+}
@@ -0,0 +1,434 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界数组多生产者多消费者队列
+ * 每个槽位带一个序号，生产者、消费者各自 CAS 推进自己的下标，入队出队不加锁、不分配节点（Vyukov 有界 MPMC 算法）
+ * 生产者下标与消费者下标前后填充缓存行，提交线程与工作线程不会因伪共享互相拖慢
+ * 队列为空时工作线程短暂自旋后在条件队列上等待，只有存在等待的工作线程时生产者才加锁唤醒
+ * <p>
+ * 容量向上取整为 2 的幂且不可调整
+ * 从队列中间移除元素时将槽位替换为墓碑，消费者出队时跳过；墓碑在被消费前仍占用槽位，不计入 size
+ */
+public class MpmcArrayBlockingQueue<E> extends MpmcArrayQueueConsumerIndexPad<E> implements BlockingQueue<E> {
+
+    /** 最大容量 */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /** 队列为空时等待前的自旋次数 */
+    private static final int SPIN_TRIES = 64;
+
+    /** 队列满时 put、offer(timeout) 的退避时间（纳秒） */
+    private static final long BACKOFF_NANOS = 50_000L;
+
+    private final int capacity;
+
+    private final int mask;
+
+    /** 已移除元素的占位 */
+    private static final Object TOMBSTONE = new Object();
+
+    /** 槽位元素，消费者以 getAndSet 取出，与移除的 CAS 互斥 */
+    private final AtomicReferenceArray<Object> buffer;
+
+    /** 槽位序号：等于下标时可写入，等于下标 + 1 时可读取 */
+    private final AtomicLongArray sequences;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    /** 尚未被消费者跳过的墓碑数 */
+    private final AtomicLong tombstoneCount = new AtomicLong();
+
+    /** 在条件队列上等待的消费者数，仅在持锁时修改 */
+    private volatile int waitingConsumers;
+
+    public MpmcArrayBlockingQueue(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be in (0, " + MAX_CAPACITY + "]");
+        }
+        this.capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.lazySet(i, i);
+        }
+    }
+
+    /**
+     * 实际容量，为构造参数向上取整的 2 的幂
+     * @return
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        long pos;
+        int index;
+        while (true) {
+            pos = producerIndex;
+            index = (int) (pos & mask);
+            long dif = sequences.get(index) - pos;
+            if (dif == 0) {
+                if (casProducerIndex(pos, pos + 1)) {
+                    break;
+                }
+            } else if (dif < 0) {
+                // 槽位还未被消费，队列已满
+                return false;
+            }
+        }
+        buffer.lazySet(index, e);
+        // 序号的 volatile 写发布元素
+        sequences.set(index, pos + 1);
+        if (waitingConsumers > 0) {
+            signalNotEmpty();
+        }
+        return true;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(this, BACKOFF_NANOS);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, Math.min(nanos, BACKOFF_NANOS));
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long pos = consumerIndex;
+            int index = (int) (pos & mask);
+            long dif = sequences.get(index) - (pos + 1);
+            if (dif < 0) {
+                // 槽位还未写入，队列为空
+                return null;
+            }
+            if (dif > 0 || !casConsumerIndex(pos, pos + 1)) {
+                continue;
+            }
+            Object e = buffer.getAndSet(index, null);
+            // 槽位留给下一轮的生产者
+            sequences.set(index, pos + mask + 1);
+            if (e != TOMBSTONE) {
+                return (E) e;
+            }
+            tombstoneCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e = poll();
+        return null != e ? e : awaitNotEmpty(false, 0L);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        return null != e ? e : awaitNotEmpty(true, unit.toNanos(timeout));
+    }
+
+    /**
+     * 先自旋，仍为空时登记为等待者再阻塞；登记后重新检查队列，生产者发布元素后读取等待者数，两者至少有一方能看到对方
+     */
+    private E awaitNotEmpty(boolean timed, long nanos) throws InterruptedException {
+        for (int i = 0; i < SPIN_TRIES; i++) {
+            Thread.yield();
+            E e = poll();
+            if (null != e) {
+                return e;
+            }
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            waitingConsumers = waitingConsumers + 1;
+            try {
+                while (true) {
+                    E e = poll();
+                    if (null != e) {
+                        return e;
+                    }
+                    if (!timed) {
+                        notEmpty.await();
+                    } else {
+                        if (nanos <= 0) {
+                            return null;
+                        }
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                }
+            } finally {
+                waitingConsumers = waitingConsumers - 1;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalNotEmpty() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 弱一致，返回读取期间队列中第一个未被移除的元素
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        Object[] snapshot = toArray();
+        return snapshot.length > 0 ? (E) snapshot[0] : null;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, occupied() - tombstoneCount.get());
+    }
+
+    /**
+     * 已占用的槽位数，包括尚未被跳过的墓碑
+     */
+    private int occupied() {
+        long after = consumerIndex;
+        while (true) {
+            long before = after;
+            long producer = producerIndex;
+            after = consumerIndex;
+            if (before == after) {
+                return (int) Math.max(0, Math.min(capacity, producer - after));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - occupied();
+    }
+
+    /**
+     * 将元素所在槽位替换为墓碑，与消费者出队互斥，同一元素只会被移除或被消费一次
+     * ThreadPoolExecutor 的 remove、purge 与关闭期间提交任务的回滚依赖此方法
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (null == o) {
+            return false;
+        }
+        long producer = producerIndex;
+        for (long pos = consumerIndex; pos < producer; pos++) {
+            int index = (int) (pos & mask);
+            Object e = buffer.get(index);
+            if (null != e && e != TOMBSTONE && o.equals(e) && buffer.compareAndSet(index, e, TOMBSTONE)) {
+                tombstoneCount.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (null == o) {
+            return false;
+        }
+        for (Object e : toArray()) {
+            if (o.equals(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 弱一致快照，只包含读取期间未被消费、未被移除的元素
+     */
+    @Override
+    public Object[] toArray() {
+        List<Object> res = new ArrayList<>();
+        long consumer = consumerIndex;
+        long producer = producerIndex;
+        for (long pos = consumer; pos < producer; pos++) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                continue;
+            }
+            Object e = buffer.get(index);
+            if (null != e && e != TOMBSTONE && sequences.get(index) == pos + 1) {
+                res.add(e);
+            }
+        }
+        return res.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return Arrays.asList(toArray()).toArray(a);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        checkNotNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        E e;
+        while (n < maxElements && null != (e = poll())) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * 弱一致迭代器，基于快照遍历，remove 移除队列中的同一元素
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final Object[] snapshot = toArray();
+        return new Iterator<E>() {
+            private int cursor;
+
+            private int lastRet = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (cursor >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                lastRet = cursor;
+                return (E) snapshot[cursor++];
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet < 0) {
+                    throw new IllegalStateException();
+                }
+                MpmcArrayBlockingQueue.this.remove(snapshot[lastRet]);
+                lastRet = -1;
+            }
+        };
+    }
+
+    private static void checkNotNull(Object o) {
+        if (null == o) {
+            throw new NullPointerException();
+        }
+    }
+
+}
+
+/**
+ * 缓存行填充，父类字段排在子类字段之前，前后各填充 128 字节（覆盖相邻缓存行预取）
+ */
+abstract class MpmcArrayQueueHeadPad<E> extends AbstractQueue<E> {
+    long p01, p02, p03, p04, p05, p06, p07, p08;
+    long p09, p10, p11, p12, p13, p14, p15, p16;
+}
+
+/**
+ * 生产者下标
+ */
+abstract class MpmcArrayQueueProducerIndex<E> extends MpmcArrayQueueHeadPad<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpmcArrayQueueProducerIndex> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(MpmcArrayQueueProducerIndex.class, "producerIndex");
+
+    volatile long producerIndex;
+
+    final boolean casProducerIndex(long expect, long update) {
+        return PRODUCER_INDEX.compareAndSet(this, expect, update);
+    }
+}
+
+abstract class MpmcArrayQueueProducerIndexPad<E> extends MpmcArrayQueueProducerIndex<E> {
+    long p17, p18, p19, p20, p21, p22, p23, p24;
+    long p25, p26, p27, p28, p29, p30, p31, p32;
+}
+
+/**
+ * 消费者下标
+ */
+abstract class MpmcArrayQueueConsumerIndex<E> extends MpmcArrayQueueProducerIndexPad<E> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpmcArrayQueueConsumerIndex> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(MpmcArrayQueueConsumerIndex.class, "consumerIndex");
+
+    volatile long consumerIndex;
+
+    final boolean casConsumerIndex(long expect, long update) {
+        return CONSUMER_INDEX.compareAndSet(this, expect, update);
+    }
+}
+
+abstract class MpmcArrayQueueConsumerIndexPad<E> extends MpmcArrayQueueConsumerIndex<E> {
+    long p33, p34, p35, p36, p37, p38, p39, p40;
+    long p41, p42, p43, p44, p45, p46, p47, p48;
+}
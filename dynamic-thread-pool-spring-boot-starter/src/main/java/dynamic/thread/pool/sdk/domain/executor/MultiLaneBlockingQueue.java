@@ -0,0 +1,781 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import dynamic.thread.pool.sdk.domain.model.valobj.LatencySnapshotVO;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 多通道优先级阻塞队列
+ * 按 TaskPriority 分为高、中、低三个通道，每个通道独立容量，某个通道满时只拒绝该通道的新任务，批量任务积压不会挤占延迟敏感任务的位置
+ * 出队支持两种模式：STRICT 总是先取高优先级通道；WEIGHTED 按权重平滑轮转，低优先级通道不会饿死
+ * 通道内先进先出，记录每个任务的入队时间，出队时统计各通道的排队耗时
+ */
+public class MultiLaneBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /** 通道数 */
+    public static final int LANE_COUNT = TaskPriority.values().length;
+
+    /** 默认通道权重：高、中、低 */
+    public static final int[] DEFAULT_WEIGHTS = {6, 3, 1};
+
+    /**
+     * 出队模式
+     */
+    public enum DequeueMode {
+        /** 严格优先级，高优先级通道为空时才取低优先级通道 */
+        STRICT,
+        /** 平滑加权轮转，只在非空通道之间分配，权重为 0 的通道只在其他通道都为空时出队 */
+        WEIGHTED
+    }
+
+    private final Lane[] lanes = new Lane[LANE_COUNT];
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private volatile DequeueMode dequeueMode;
+
+    /** 元素总数，仅在持锁时修改，便于 size() 无锁读取 */
+    private volatile int count;
+
+    /**
+     * @param capacities 各通道容量，按高、中、低顺序
+     * @param weights 各通道权重，按高、中、低顺序
+     * @param dequeueMode 出队模式
+     * @param metricsIntervalMillis 排队耗时直方图的统计周期
+     */
+    public MultiLaneBlockingQueue(int[] capacities, int[] weights, DequeueMode dequeueMode, long metricsIntervalMillis) {
+        if (!isValidCapacities(capacities) || !isValidWeights(weights) || null == dequeueMode) {
+            throw new IllegalArgumentException("invalid lane config");
+        }
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(metricsIntervalMillis);
+        for (int i = 0; i < LANE_COUNT; i++) {
+            lanes[i] = new Lane(capacities[i], weights[i], lock.newCondition(), intervalNanos);
+        }
+        this.dequeueMode = dequeueMode;
+    }
+
+    /**
+     * 各通道容量相同，默认权重，加权出队
+     * @param laneCapacity
+     */
+    public MultiLaneBlockingQueue(int laneCapacity) {
+        this(filled(laneCapacity), DEFAULT_WEIGHTS, DequeueMode.WEIGHTED, DynamicThreadPoolExecutor.DEFAULT_METRICS_INTERVAL_MILLIS);
+    }
+
+    /**
+     * 调整各通道容量，调小时不丢弃已入队的任务
+     * @param capacities
+     */
+    public void setLaneCapacities(int[] capacities) {
+        if (!isValidCapacities(capacities)) {
+            throw new IllegalArgumentException("invalid lane capacities " + Arrays.toString(capacities));
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (int i = 0; i < LANE_COUNT; i++) {
+                Lane lane = lanes[i];
+                lane.capacity = capacities[i];
+                if (lane.count < lane.capacity) {
+                    lane.notFull.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 调整各通道权重
+     * @param weights
+     */
+    public void setLaneWeights(int[] weights) {
+        if (!isValidWeights(weights)) {
+            throw new IllegalArgumentException("invalid lane weights " + Arrays.toString(weights));
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (int i = 0; i < LANE_COUNT; i++) {
+                lanes[i].weight = weights[i];
+                lanes[i].currentWeight = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setDequeueMode(DequeueMode dequeueMode) {
+        if (null == dequeueMode) {
+            throw new NullPointerException();
+        }
+        this.dequeueMode = dequeueMode;
+    }
+
+    public DequeueMode getDequeueMode() {
+        return dequeueMode;
+    }
+
+    public int[] getLaneCapacities() {
+        int[] res = new int[LANE_COUNT];
+        for (int i = 0; i < LANE_COUNT; i++) {
+            res[i] = lanes[i].capacity;
+        }
+        return res;
+    }
+
+    public int[] getLaneWeights() {
+        int[] res = new int[LANE_COUNT];
+        for (int i = 0; i < LANE_COUNT; i++) {
+            res[i] = lanes[i].weight;
+        }
+        return res;
+    }
+
+    /**
+     * 各通道当前任务数
+     * @return
+     */
+    public int[] getLaneSizes() {
+        int[] res = new int[LANE_COUNT];
+        for (int i = 0; i < LANE_COUNT; i++) {
+            res[i] = lanes[i].count;
+        }
+        return res;
+    }
+
+    public int getLaneSize(TaskPriority priority) {
+        return lanes[priority.ordinal()].count;
+    }
+
+    public int getLaneCapacity(TaskPriority priority) {
+        return lanes[priority.ordinal()].capacity;
+    }
+
+    /**
+     * 通道上一统计周期的排队耗时分布（微秒）
+     * @param priority
+     * @return
+     */
+    public LatencySnapshotVO getLaneQueueWaitSnapshot(TaskPriority priority) {
+        return lanes[priority.ordinal()].waitHistogram.snapshot();
+    }
+
+    /**
+     * 通道累计出队任务数
+     * @param priority
+     * @return
+     */
+    public long getLaneDequeueCount(TaskPriority priority) {
+        return lanes[priority.ordinal()].dequeueCount.sum();
+    }
+
+    /**
+     * 通道累计排队时间（纳秒）
+     * @param priority
+     * @return
+     */
+    public long getLaneQueueWaitTotalNanos(TaskPriority priority) {
+        return lanes[priority.ordinal()].waitNanos.sum();
+    }
+
+    /**
+     * 各通道容量之和
+     * @return
+     */
+    public int getCapacity() {
+        long capacity = 0;
+        for (Lane lane : lanes) {
+            capacity += lane.capacity;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        Lane lane = laneOf(e);
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (lane.count >= lane.capacity) {
+                return false;
+            }
+            enqueue(lane, e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        checkNotNull(e);
+        Lane lane = laneOf(e);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (lane.count >= lane.capacity) {
+                lane.notFull.await();
+            }
+            enqueue(lane, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(e);
+        Lane lane = laneOf(e);
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (lane.count >= lane.capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = lane.notFull.awaitNanos(nanos);
+            }
+            enqueue(lane, e);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 返回下一个将出队的元素；加权模式下不推进轮转，结果为优先级最高的非空通道的队首
+     */
+    @Override
+    public E peek() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                if (lane.count > 0) {
+                    return lane.get(0);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        long remaining = 0;
+        for (Lane lane : lanes) {
+            remaining += Math.max(0, lane.capacity - lane.count);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (null == o) {
+            return false;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                for (int i = 0; i < lane.count; i++) {
+                    if (o.equals(lane.get(i))) {
+                        removeAt(lane, i);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (null == o) {
+            return false;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                for (int i = 0; i < lane.count; i++) {
+                    if (o.equals(lane.get(i))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按通道优先级从高到低、通道内先进先出的顺序返回
+     */
+    @Override
+    public Object[] toArray() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Object[] res = new Object[count];
+            int k = 0;
+            for (Lane lane : lanes) {
+                for (int i = 0; i < lane.count; i++) {
+                    res[k++] = lane.get(i);
+                }
+            }
+            return res;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Object[] snapshot = toArray();
+            if (a.length < snapshot.length) {
+                return (T[]) Arrays.copyOf(snapshot, snapshot.length, a.getClass());
+            }
+            System.arraycopy(snapshot, 0, a, 0, snapshot.length);
+            if (a.length > snapshot.length) {
+                a[snapshot.length] = null;
+            }
+            return a;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                lane.clear();
+                lane.notFull.signalAll();
+            }
+            count = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 按出队顺序转移元素
+     */
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        checkNotNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int n = Math.min(maxElements, count);
+            for (int i = 0; i < n; i++) {
+                c.add(dequeue());
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 弱一致迭代器，基于快照遍历，remove 时按对象身份从队列中移除
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final Object[] snapshot = toArray();
+        return new Iterator<E>() {
+            private int cursor;
+            private int lastRet = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (cursor >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                lastRet = cursor;
+                return (E) snapshot[cursor++];
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet < 0) {
+                    throw new IllegalStateException();
+                }
+                removeIdentity(snapshot[lastRet]);
+                lastRet = -1;
+            }
+        };
+    }
+
+    private void removeIdentity(Object o) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                for (int i = 0; i < lane.count; i++) {
+                    if (lane.get(i) == o) {
+                        removeAt(lane, i);
+                        return;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lane laneOf(Object e) {
+        return lanes[TaskPriority.of(e).ordinal()];
+    }
+
+    private void enqueue(Lane lane, E e) {
+        lane.add(e, System.nanoTime());
+        count = count + 1;
+        notEmpty.signal();
+    }
+
+    /**
+     * 选择出队通道并取出队首，调用方保证 count > 0
+     */
+    private E dequeue() {
+        Lane lane = dequeueMode == DequeueMode.STRICT ? firstNonEmpty() : nextWeighted();
+        long enqueueNanos = lane.headEnqueueNanos();
+        E e = lane.poll();
+        count = count - 1;
+        long waitNanos = System.nanoTime() - enqueueNanos;
+        lane.waitHistogram.record(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+        lane.waitNanos.add(waitNanos);
+        lane.dequeueCount.increment();
+        if (lane.count < lane.capacity) {
+            lane.notFull.signal();
+        }
+        return e;
+    }
+
+    private Lane firstNonEmpty() {
+        for (Lane lane : lanes) {
+            if (lane.count > 0) {
+                return lane;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 平滑加权轮转：每个非空通道的当前权重加上自身权重，选当前权重最大的通道，再减去参与通道的权重之和
+     */
+    private Lane nextWeighted() {
+        Lane selected = null;
+        int total = 0;
+        for (Lane lane : lanes) {
+            if (lane.count == 0 || lane.weight == 0) {
+                continue;
+            }
+            lane.currentWeight += lane.weight;
+            total += lane.weight;
+            if (null == selected || lane.currentWeight > selected.currentWeight) {
+                selected = lane;
+            }
+        }
+        if (null == selected) {
+            // 非空通道的权重都为 0
+            return firstNonEmpty();
+        }
+        selected.currentWeight -= total;
+        return selected;
+    }
+
+    private void removeAt(Lane lane, int index) {
+        lane.removeAt(index);
+        count = count - 1;
+        if (lane.count < lane.capacity) {
+            lane.notFull.signal();
+        }
+    }
+
+    private static void checkNotNull(Object o) {
+        if (null == o) {
+            throw new NullPointerException();
+        }
+    }
+
+    private static int[] filled(int value) {
+        int[] res = new int[LANE_COUNT];
+        Arrays.fill(res, value);
+        return res;
+    }
+
+    public static boolean isValidCapacities(int[] capacities) {
+        if (null == capacities || capacities.length != LANE_COUNT) {
+            return false;
+        }
+        for (int capacity : capacities) {
+            if (capacity <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidWeights(int[] weights) {
+        if (null == weights || weights.length != LANE_COUNT) {
+            return false;
+        }
+        for (int weight : weights) {
+            if (weight < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解析按高、中、低顺序以逗号分隔的通道参数，如 "6,3,1"
+     * @param value
+     * @return 格式不正确或个数不等于通道数时返回 null
+     */
+    public static int[] parseLaneValues(String value) {
+        if (null == value) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        if (parts.length != LANE_COUNT) {
+            return null;
+        }
+        int[] res = new int[LANE_COUNT];
+        try {
+            for (int i = 0; i < LANE_COUNT; i++) {
+                res[i] = Integer.parseInt(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return res;
+    }
+
+    /**
+     * 通道参数格式化为逗号分隔的字符串
+     * @param values
+     * @return
+     */
+    public static String formatLaneValues(long[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    public static String formatLaneValues(int[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 通道，环形数组保存元素和入队时间，入队不额外分配节点
+     */
+    private static class Lane {
+
+        private static final int INITIAL_SIZE = 16;
+
+        private Object[] items = new Object[INITIAL_SIZE];
+
+        private long[] enqueueNanos = new long[INITIAL_SIZE];
+
+        private int head;
+
+        private volatile int count;
+
+        private volatile int capacity;
+
+        private int weight;
+
+        /** 平滑加权轮转的当前权重，仅在持锁时读写 */
+        private int currentWeight;
+
+        private final Condition notFull;
+
+        private final LatencyHistogram waitHistogram;
+
+        private final LongAdder waitNanos = new LongAdder();
+
+        private final LongAdder dequeueCount = new LongAdder();
+
+        private Lane(int capacity, int weight, Condition notFull, long intervalNanos) {
+            this.capacity = capacity;
+            this.weight = weight;
+            this.notFull = notFull;
+            this.waitHistogram = new LatencyHistogram(intervalNanos);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E> E get(int index) {
+            return (E) items[(head + index) & (items.length - 1)];
+        }
+
+        private long headEnqueueNanos() {
+            return enqueueNanos[head];
+        }
+
+        private void add(Object e, long nanos) {
+            if (count == items.length) {
+                grow();
+            }
+            int tail = (head + count) & (items.length - 1);
+            items[tail] = e;
+            enqueueNanos[tail] = nanos;
+            count = count + 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E> E poll() {
+            E e = (E) items[head];
+            items[head] = null;
+            head = (head + 1) & (items.length - 1);
+            count = count - 1;
+            return e;
+        }
+
+        /**
+         * 移除指定位置的元素，后面的元素前移
+         */
+        private void removeAt(int index) {
+            int mask = items.length - 1;
+            for (int i = index; i < count - 1; i++) {
+                int to = (head + i) & mask;
+                int from = (head + i + 1) & mask;
+                items[to] = items[from];
+                enqueueNanos[to] = enqueueNanos[from];
+            }
+            items[(head + count - 1) & mask] = null;
+            count = count - 1;
+        }
+
+        private void clear() {
+            Arrays.fill(items, null);
+            head = 0;
+            count = 0;
+        }
+
+        /**
+         * 容量翻倍并把环形数组展开到新数组的开头，长度保持 2 的幂
+         */
+        private void grow() {
+            int size = items.length;
+            if (size >= 1 << 30) {
+                throw new IllegalStateException("lane is too large");
+            }
+            Object[] newItems = new Object[size << 1];
+            long[] newEnqueueNanos = new long[size << 1];
+            for (int i = 0; i < count; i++) {
+                int from = (head + i) & (size - 1);
+                newItems[i] = items[from];
+                newEnqueueNanos[i] = enqueueNanos[from];
+            }
+            items = newItems;
+            enqueueNanos = newEnqueueNanos;
+            head = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,15 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+/**
+ * 带优先级的任务标记
+ * 任务（Runnable 或 Callable）实现该接口后，提交到多通道队列的线程池时进入对应优先级的通道
+ */
+public interface PrioritizedTask {
+
+    /**
+     * 任务优先级
+     * @return 为空时按 NORMAL 处理
+     */
+    TaskPriority getPriority();
+
+}
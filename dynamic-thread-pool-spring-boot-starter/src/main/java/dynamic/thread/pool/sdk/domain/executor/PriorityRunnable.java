@@ -0,0 +1,55 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+/**
+ * 带优先级的任务包装，用于无法直接实现 PrioritizedTask 的任务
+ * <pre>
+ * executor.execute(PriorityRunnable.high(() -> handleRequest()));
+ * executor.execute(PriorityRunnable.low(() -> rebuildReport()));
+ * </pre>
+ */
+public final class PriorityRunnable implements Runnable, PrioritizedTask {
+
+    private final TaskPriority priority;
+
+    private final Runnable delegate;
+
+    private PriorityRunnable(TaskPriority priority, Runnable delegate) {
+        if (null == priority || null == delegate) {
+            throw new NullPointerException();
+        }
+        this.priority = priority;
+        this.delegate = delegate;
+    }
+
+    public static PriorityRunnable of(TaskPriority priority, Runnable task) {
+        return new PriorityRunnable(priority, task);
+    }
+
+    public static PriorityRunnable high(Runnable task) {
+        return new PriorityRunnable(TaskPriority.HIGH, task);
+    }
+
+    public static PriorityRunnable low(Runnable task) {
+        return new PriorityRunnable(TaskPriority.LOW, task);
+    }
+
+    @Override
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public Runnable getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void run() {
+        delegate.run();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+}
@@ -0,0 +1,32 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+/**
+ * 任务优先级，对应多通道队列的通道，按声明顺序从高到低
+ */
+public enum TaskPriority {
+
+    /** 延迟敏感任务，如用户请求 */
+    HIGH,
+
+    /** 未标记优先级的任务 */
+    NORMAL,
+
+    /** 批量任务，如报表、补偿 */
+    LOW;
+
+    /**
+     * 解析任务优先级，未实现 PrioritizedTask 或优先级为空时为 NORMAL
+     * @param task
+     * @return
+     */
+    public static TaskPriority of(Object task) {
+        if (task instanceof PrioritizedTask) {
+            TaskPriority priority = ((PrioritizedTask) task).getPriority();
+            if (null != priority) {
+                return priority;
+            }
+        }
+        return NORMAL;
+    }
+
+}
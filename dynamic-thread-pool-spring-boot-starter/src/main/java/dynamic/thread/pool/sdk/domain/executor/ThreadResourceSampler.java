@@ -0,0 +1,139 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import dynamic.thread.pool.sdk.domain.model.valobj.ResourceUsageVO;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池资源采样
+ * 按线程池记录每个工作线程上次采样时的 CPU 时间和已分配字节数，读取时与上次采样做差得到区间内的使用率，
+ * 只在上报读取时计算，两次读取间隔过短时返回上次结果
+ */
+public class ThreadResourceSampler {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    /** HotSpot 扩展接口，支持批量读取 CPU 时间与线程分配字节数 */
+    private static final com.sun.management.ThreadMXBean SUN_THREAD_MX_BEAN;
+
+    private static final boolean CPU_TIME_ENABLED;
+
+    private static final boolean ALLOCATED_MEMORY_ENABLED;
+
+    static {
+        com.sun.management.ThreadMXBean sunThreadMXBean = null;
+        boolean cpuTimeEnabled = false;
+        boolean allocatedMemoryEnabled = false;
+        try {
+            if (THREAD_MX_BEAN.isThreadCpuTimeSupported()) {
+                if (!THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+                    THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+                }
+                cpuTimeEnabled = true;
+            }
+            if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+                sunThreadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+                if (sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+                    if (!sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                        sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+                    }
+                    allocatedMemoryEnabled = true;
+                }
+            }
+        } catch (Throwable ignore) {
+            // 非 HotSpot 虚拟机或安全管理器禁止时不采样对应指标
+        }
+        SUN_THREAD_MX_BEAN = sunThreadMXBean;
+        CPU_TIME_ENABLED = cpuTimeEnabled;
+        ALLOCATED_MEMORY_ENABLED = allocatedMemoryEnabled;
+    }
+
+    private final long minIntervalNanos;
+
+    /** 线程ID -> {CPU 时间(纳秒), 已分配字节数} */
+    private Map<Long, long[]> lastThreadValues = new HashMap<>();
+
+    private long lastSampleNanos;
+
+    private long lastBusyNanos;
+
+    private ResourceUsageVO last = ResourceUsageVO.EMPTY;
+
+    public ThreadResourceSampler(long minIntervalMillis) {
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+    }
+
+    /**
+     * 计算自上次采样以来的资源占用
+     * @param workers 当前工作线程
+     * @param busyNanos 累计任务执行时间
+     * @return
+     */
+    public synchronized ResourceUsageVO sample(List<Thread> workers, long busyNanos) {
+        long now = System.nanoTime();
+        if (0 != lastSampleNanos && now - lastSampleNanos < minIntervalNanos) {
+            return last;
+        }
+        int n = workers.size();
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = workers.get(i).getId();
+        }
+        long[] cpuTimes = cpuTimes(ids);
+        long[] allocatedBytes = allocatedBytes(ids);
+
+        long cpuDelta = 0;
+        long allocatedDelta = 0;
+        Map<Long, long[]> threadValues = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            long[] values = {cpuTimes[i], allocatedBytes[i]};
+            // 已退出的线程返回 -1
+            if (values[0] < 0 || values[1] < 0) continue;
+            threadValues.put(ids[i], values);
+            // 上次采样后新建的线程从 0 开始计算
+            long[] previous = lastThreadValues.get(ids[i]);
+            cpuDelta += values[0] - (null == previous ? 0 : previous[0]);
+            allocatedDelta += values[1] - (null == previous ? 0 : previous[1]);
+        }
+
+        if (0 != lastSampleNanos) {
+            long wallDelta = now - lastSampleNanos;
+            long busyDelta = busyNanos - lastBusyNanos;
+            double cpuUsage = CPU_TIME_ENABLED ? cpuDelta * 100.0 / wallDelta : 0;
+            double contentionRatio = CPU_TIME_ENABLED && busyDelta > 0 ? Math.max(0, Math.min(1, 1 - (double) cpuDelta / busyDelta)) : 0;
+            double allocationRate = ALLOCATED_MEMORY_ENABLED ? allocatedDelta * 1e9 / wallDelta : 0;
+            last = new ResourceUsageVO(cpuUsage, contentionRatio, allocationRate);
+        }
+        lastThreadValues = threadValues;
+        lastSampleNanos = now;
+        lastBusyNanos = busyNanos;
+        return last;
+    }
+
+    private static long[] cpuTimes(long[] ids) {
+        if (!CPU_TIME_ENABLED) {
+            return new long[ids.length];
+        }
+        if (null != SUN_THREAD_MX_BEAN) {
+            return SUN_THREAD_MX_BEAN.getThreadCpuTime(ids);
+        }
+        long[] res = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            res[i] = THREAD_MX_BEAN.getThreadCpuTime(ids[i]);
+        }
+        return res;
+    }
+
+    private static long[] allocatedBytes(long[] ids) {
+        if (!ALLOCATED_MEMORY_ENABLED) {
+            return new long[ids.length];
+        }
+        return SUN_THREAD_MX_BEAN.getThreadAllocatedBytes(ids);
+    }
+
+}
@@ -0,0 +1,213 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基于 LinkedTransferQueue 的有界移交队列
+ * 有工作线程在 take/poll 上等待时，任务直接移交给该线程而不经过队列；没有时无锁入队，生产者与消费者之间没有 put/take 锁
+ * LinkedTransferQueue 本身无界，这里用计数限制容量，容量可动态调整；计数在入队前增加、出队后减少，短暂偏大但不会超过容量
+ */
+public class TransferHandOffQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /** 队列满时 put、offer(timeout) 的退避时间（纳秒） */
+    private static final long BACKOFF_NANOS = 50_000L;
+
+    private final LinkedTransferQueue<E> queue = new LinkedTransferQueue<>();
+
+    /** 元素个数，包含正在移交的元素 */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /** 队列容量 */
+    private volatile int capacity;
+
+    public TransferHandOffQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 调整队列容量，调小时不丢弃已入队的任务
+     * @param capacity
+     */
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        checkNotNull(e);
+        // CAS 占位，队列满时不修改计数，被拒绝的入队不会让计数短暂超过容量
+        int current;
+        do {
+            current = count.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!count.compareAndSet(current, current + 1));
+        // 有等待的消费者时直接匹配移交，否则追加到队尾
+        queue.offer(e);
+        return true;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(this, BACKOFF_NANOS);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, Math.min(nanos, BACKOFF_NANOS));
+        }
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        return afterTake(queue.poll());
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return afterTake(queue.take());
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return afterTake(queue.poll(timeout, unit));
+    }
+
+    @Override
+    public E peek() {
+        return queue.peek();
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, count.get());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - count.get());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (queue.remove(o)) {
+            count.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return queue.contains(o);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return queue.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return queue.toArray(a);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        checkNotNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = queue.drainTo(c, maxElements);
+        count.addAndGet(-n);
+        return n;
+    }
+
+    /**
+     * 弱一致迭代器，remove 时按相等性从队列中移除并更新计数
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<E> iterator = queue.iterator();
+        return new Iterator<E>() {
+            private E lastRet;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                lastRet = iterator.next();
+                return lastRet;
+            }
+
+            @Override
+            public void remove() {
+                if (null == lastRet) {
+                    throw new IllegalStateException();
+                }
+                TransferHandOffQueue.this.remove(lastRet);
+                lastRet = null;
+            }
+        };
+    }
+
+    private E afterTake(E e) {
+        if (null != e) {
+            count.decrementAndGet();
+        }
+        return e;
+    }
+
+    private static void checkNotNull(Object o) {
+        if (null == o) {
+            throw new NullPointerException();
+        }
+    }
+
+}
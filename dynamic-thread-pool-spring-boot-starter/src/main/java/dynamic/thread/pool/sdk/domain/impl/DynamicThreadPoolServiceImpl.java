@@ -2,12 +2,19 @@ package dynamic.thread.pool.sdk.domain.impl;
 
 import com.alibaba.fastjson.JSON;
 import dynamic.thread.pool.sdk.domain.DynamicThreadPoolService;
+import dynamic.thread.pool.sdk.domain.ThreadPoolRegistrationListener;
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.valobj.AutoScalePolicyVO;
+import dynamic.thread.pool.sdk.domain.snapshot.ThreadPoolConfigSnapshotStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 
 public class DynamicThreadPoolServiceImpl implements DynamicThreadPoolService {
 
@@ -16,36 +23,56 @@ public class DynamicThreadPoolServiceImpl implements DynamicThreadPoolService {
     // 应用名
     private final String applicationName;
 
-    // 线程池Map集合 - 在注册为Bean时已自动注入到Map中
-    private final Map<String, ThreadPoolExecutor> threadPoolExecutorMap;
+    // 线程池Map集合 - 启动时为注入的线程池Bean，运行时可注册和注销，遍历期间允许并发修改
+    private final Map<String, ThreadPoolAdapter> threadPoolAdapterMap = new ConcurrentHashMap<>();
+
+    // 线程池Map集合的只读视图
+    private final Map<String, ThreadPoolAdapter> threadPoolAdapterView = Collections.unmodifiableMap(threadPoolAdapterMap);
+
+    // 线程池注册监听
+    private final List<ThreadPoolRegistrationListener> registrationListeners = new CopyOnWriteArrayList<>();
+
+    // 自动扩缩容策略 - 由管理端随配置下发
+    private final Map<String, AutoScalePolicyVO> autoScalePolicyMap = new ConcurrentHashMap<>();
+
+    // 已应用的配置版本 - 过期或重复的变更直接跳过
+    private final Map<String, Long> appliedVersionMap = new ConcurrentHashMap<>();
+
+    // 实时变更的应用时间 - 启动对账时不覆盖对账开始后收到的变更
+    private final Map<String, Long> updateTimeMap = new ConcurrentHashMap<>();
+
+    // 本地配置快照 - 可为空
+    private final ThreadPoolConfigSnapshotStore snapshotStore;
 
     // 构造注入
-    public DynamicThreadPoolServiceImpl(String applicationName, Map<String, ThreadPoolExecutor> threadPoolExecutorMap) {
+    public DynamicThreadPoolServiceImpl(String applicationName, Map<String, ? extends ExecutorService> threadPoolExecutorMap) {
+        this(applicationName, threadPoolExecutorMap, null);
+    }
+
+    public DynamicThreadPoolServiceImpl(String applicationName, Map<String, ? extends ExecutorService> threadPoolExecutorMap, ThreadPoolConfigSnapshotStore snapshotStore) {
         this.applicationName = applicationName;
-        this.threadPoolExecutorMap = threadPoolExecutorMap;
+        for (Map.Entry<String, ? extends ExecutorService> entry : threadPoolExecutorMap.entrySet()) {
+            threadPoolAdapterMap.put(entry.getKey(), ThreadPoolAdapter.of(entry.getValue()));
+        }
+        this.snapshotStore = snapshotStore;
         logger.info("threadPoolExecutorMap大小: {}", threadPoolExecutorMap.size());
     }
 
     @Override
     public List<ThreadPoolConfigEntity> queryThreadPoolList() {
         // 线程池名称集合
-        Set<String> threadPoolBeanNames = threadPoolExecutorMap.keySet();
+        Set<String> threadPoolBeanNames = threadPoolAdapterMap.keySet();
         // 线程池列表
         List<ThreadPoolConfigEntity> threadPoolVOS = new ArrayList<>(threadPoolBeanNames.size());
         // 遍历列表
         for (String threadPoolName : threadPoolBeanNames) {
-            // 根据线程名获取线程池信息
-            ThreadPoolExecutor threadPoolExecutor = threadPoolExecutorMap.get(threadPoolName);
+            // 根据线程名获取线程池信息，遍历期间可能已被注销
+            ThreadPoolAdapter threadPoolAdapter = threadPoolAdapterMap.get(threadPoolName);
+            if (null == threadPoolAdapter) {
+                continue;
+            }
             // 构建线程池实体对象
-            ThreadPoolConfigEntity threadPoolConfigVO = new ThreadPoolConfigEntity(applicationName, threadPoolName);
-            // 配置数据
-            threadPoolConfigVO.setCorePoolSize(threadPoolExecutor.getCorePoolSize());
-            threadPoolConfigVO.setMaximumPoolSize(threadPoolExecutor.getMaximumPoolSize());
-            threadPoolConfigVO.setActiveCount(threadPoolExecutor.getActiveCount());
-            threadPoolConfigVO.setPoolSize(threadPoolExecutor.getPoolSize());
-            threadPoolConfigVO.setQueueType(threadPoolExecutor.getQueue().getClass().getSimpleName());
-            threadPoolConfigVO.setQueueSize(threadPoolExecutor.getQueue().size());
-            threadPoolConfigVO.setRemainingCapacity(threadPoolExecutor.getQueue().remainingCapacity());
+            ThreadPoolConfigEntity threadPoolConfigVO = buildThreadPoolConfigEntity(threadPoolName, threadPoolAdapter);
             // 加入列表
             threadPoolVOS.add(threadPoolConfigVO);
         }
@@ -55,20 +82,13 @@ public class DynamicThreadPoolServiceImpl implements DynamicThreadPoolService {
     @Override
     public ThreadPoolConfigEntity queryThreadPoolConfigByName(String threadPoolName) {
         // 根据线程池名称获取线程池
-        ThreadPoolExecutor threadPoolExecutor = threadPoolExecutorMap.get(threadPoolName);
+        ThreadPoolAdapter threadPoolAdapter = threadPoolAdapterMap.get(threadPoolName);
         // 线程池为空 - 没有该线程池，返回新线程池
-        if (null == threadPoolExecutor) {
+        if (null == threadPoolAdapter) {
             return new ThreadPoolConfigEntity(applicationName, threadPoolName);
         }
         // 配置数据
-        ThreadPoolConfigEntity threadPoolConfigVO = new ThreadPoolConfigEntity(applicationName, threadPoolName);
-        threadPoolConfigVO.setCorePoolSize(threadPoolExecutor.getCorePoolSize());
-        threadPoolConfigVO.setMaximumPoolSize(threadPoolExecutor.getMaximumPoolSize());
-        threadPoolConfigVO.setActiveCount(threadPoolExecutor.getActiveCount());
-        threadPoolConfigVO.setPoolSize(threadPoolExecutor.getPoolSize());
-        threadPoolConfigVO.setQueueType(threadPoolExecutor.getQueue().getClass().getSimpleName());
-        threadPoolConfigVO.setQueueSize(threadPoolExecutor.getQueue().size());
-        threadPoolConfigVO.setRemainingCapacity(threadPoolExecutor.getQueue().remainingCapacity());
+        ThreadPoolConfigEntity threadPoolConfigVO = buildThreadPoolConfigEntity(threadPoolName, threadPoolAdapter);
 
         if (logger.isDebugEnabled()) {
             logger.info("动态线程池，配置查询 应用名:{} 线程池名称:{} 池化配置:{}", applicationName, threadPoolName, JSON.toJSONString(threadPoolConfigVO));
@@ -79,16 +99,237 @@ public class DynamicThreadPoolServiceImpl implements DynamicThreadPoolService {
     }
 
     @Override
-    public void updateThreadPoolConfig(ThreadPoolConfigEntity threadPoolConfigEntity) {
+    public synchronized boolean updateThreadPoolConfig(ThreadPoolConfigEntity threadPoolConfigEntity) {
         if (null == threadPoolConfigEntity || !applicationName.equals(threadPoolConfigEntity.getAppName())) {
-            return;
+            return false;
+        }
+        ThreadPoolAdapter threadPoolAdapter = threadPoolAdapterMap.get(threadPoolConfigEntity.getThreadPoolName());
+        if (null == threadPoolAdapter || isStaleVersion(threadPoolConfigEntity) || !isValidConfig(threadPoolAdapter, threadPoolConfigEntity)) {
+            return false;
+        }
+        applyThreadPoolConfig(threadPoolAdapter, threadPoolConfigEntity);
+        updateTimeMap.put(threadPoolConfigEntity.getThreadPoolName(), System.currentTimeMillis());
+        saveSnapshot(Collections.singletonList(threadPoolConfigEntity));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean updateThreadPoolConfigBatch(ThreadPoolConfigBatchEntity threadPoolConfigBatchEntity) {
+        if (null == threadPoolConfigBatchEntity || !applicationName.equals(threadPoolConfigBatchEntity.getAppName())
+                || null == threadPoolConfigBatchEntity.getThreadPoolConfigEntities()) {
+            return false;
+        }
+        // 先校验全部配置，任意一个非法则整批不应用，避免部分线程池已调整、部分未调整
+        Map<ThreadPoolAdapter, ThreadPoolConfigEntity> applyMap = new LinkedHashMap<>();
+        for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigBatchEntity.getThreadPoolConfigEntities()) {
+            if (null == threadPoolConfigEntity || !applicationName.equals(threadPoolConfigEntity.getAppName())) {
+                logger.warn("动态线程池，批次:{} 包含其他应用的配置，整批忽略", threadPoolConfigBatchEntity.getBatchId());
+                return false;
+            }
+            ThreadPoolAdapter threadPoolAdapter = threadPoolAdapterMap.get(threadPoolConfigEntity.getThreadPoolName());
+            if (!isValidConfig(threadPoolAdapter, threadPoolConfigEntity)) {
+                logger.warn("动态线程池，批次:{} 线程池:{} 配置非法，整批忽略", threadPoolConfigBatchEntity.getBatchId(), threadPoolConfigEntity.getThreadPoolName());
+                return false;
+            }
+            if (null == threadPoolAdapter || isStaleVersion(threadPoolConfigEntity)) {
+                // 其他实例的线程池或已应用的版本，本实例跳过
+                continue;
+            }
+            applyMap.put(threadPoolAdapter, threadPoolConfigEntity);
+        }
+        if (applyMap.isEmpty()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<ThreadPoolAdapter, ThreadPoolConfigEntity> entry : applyMap.entrySet()) {
+            applyThreadPoolConfig(entry.getKey(), entry.getValue());
+            updateTimeMap.put(entry.getValue().getThreadPoolName(), now);
+        }
+        saveSnapshot(applyMap.values());
+        logger.info("动态线程池，批次:{} 应用配置 {}个线程池", threadPoolConfigBatchEntity.getBatchId(), applyMap.size());
+        return true;
+    }
+
+    @Override
+    public boolean registerThreadPool(String threadPoolName, ExecutorService executor) {
+        if (null == threadPoolName || threadPoolName.trim().isEmpty() || null == executor) {
+            throw new IllegalArgumentException("线程池名称和线程池不能为空");
+        }
+        ThreadPoolAdapter threadPoolAdapter = ThreadPoolAdapter.of(executor);
+        if (null != threadPoolAdapterMap.putIfAbsent(threadPoolName, threadPoolAdapter)) {
+            logger.warn("动态线程池，线程池:{} 已存在，注册失败", threadPoolName);
+            return false;
+        }
+        logger.info("动态线程池，注册线程池:{} 类型:{} 当前线程池数量:{}", threadPoolName, threadPoolAdapter.getExecutorType(), threadPoolAdapterMap.size());
+        for (ThreadPoolRegistrationListener listener : registrationListeners) {
+            try {
+                listener.onRegister(applicationName, threadPoolName, threadPoolAdapter);
+            } catch (Exception e) {
+                logger.error("动态线程池，线程池:{} 注册回调异常", threadPoolName, e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ExecutorService unregisterThreadPool(String threadPoolName) {
+        if (null == threadPoolName) {
+            return null;
+        }
+        ThreadPoolAdapter threadPoolAdapter;
+        synchronized (this) {
+            // 与配置应用互斥，避免注销后仍记录该线程池的配置版本
+            threadPoolAdapter = threadPoolAdapterMap.remove(threadPoolName);
+            if (null == threadPoolAdapter) {
+                return null;
+            }
+            appliedVersionMap.remove(threadPoolName);
+            updateTimeMap.remove(threadPoolName);
+            autoScalePolicyMap.remove(threadPoolName);
+        }
+        logger.info("动态线程池，注销线程池:{} 当前线程池数量:{}", threadPoolName, threadPoolAdapterMap.size());
+        for (ThreadPoolRegistrationListener listener : registrationListeners) {
+            try {
+                listener.onUnregister(applicationName, threadPoolName, threadPoolAdapter);
+            } catch (Exception e) {
+                logger.error("动态线程池，线程池:{} 注销回调异常", threadPoolName, e);
+            }
+        }
+        return threadPoolAdapter.getExecutor();
+    }
+
+    @Override
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    @Override
+    public AutoScalePolicyVO getAutoScalePolicy(String threadPoolName) {
+        return autoScalePolicyMap.getOrDefault(threadPoolName, AutoScalePolicyVO.DISABLED);
+    }
+
+    @Override
+    public Map<String, ThreadPoolAdapter> getThreadPoolAdapterMap() {
+        return threadPoolAdapterView;
+    }
+
+    @Override
+    public void addRegistrationListener(ThreadPoolRegistrationListener listener) {
+        registrationListeners.add(listener);
+    }
+
+    /**
+     * 恢复持久化的配置（本地快照或注册中心），逐个校验应用，快照只写一次
+     * @param threadPoolConfigEntities
+     * @param startMillis 读取开始时间，之后已收到实时变更的线程池不再覆盖
+     * @return 应用的线程池数量
+     */
+    public synchronized int restoreThreadPoolConfig(List<ThreadPoolConfigEntity> threadPoolConfigEntities, long startMillis) {
+        List<ThreadPoolConfigEntity> applied = new ArrayList<>(threadPoolConfigEntities.size());
+        for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigEntities) {
+            if (null == threadPoolConfigEntity || !applicationName.equals(threadPoolConfigEntity.getAppName())) {
+                continue;
+            }
+            ThreadPoolAdapter threadPoolAdapter = threadPoolAdapterMap.get(threadPoolConfigEntity.getThreadPoolName());
+            if (null == threadPoolAdapter || isStaleVersion(threadPoolConfigEntity) || !isValidConfig(threadPoolAdapter, threadPoolConfigEntity)
+                    || updateTimeMap.getOrDefault(threadPoolConfigEntity.getThreadPoolName(), 0L) >= startMillis) {
+                continue;
+            }
+            applyThreadPoolConfig(threadPoolAdapter, threadPoolConfigEntity);
+            applied.add(threadPoolConfigEntity);
         }
-        ThreadPoolExecutor threadPoolExecutor = threadPoolExecutorMap.get(threadPoolConfigEntity.getThreadPoolName());
-        if (null == threadPoolExecutor) {
-            return;
+        saveSnapshot(applied);
+        return applied.size();
+    }
+
+    private void saveSnapshot(Collection<ThreadPoolConfigEntity> threadPoolConfigEntities) {
+        if (null != snapshotStore && !threadPoolConfigEntities.isEmpty()) {
+            snapshotStore.save(threadPoolConfigEntities);
         }
-        // 设置参数 调整核心线程数和最大线程数
-        threadPoolExecutor.setCorePoolSize(threadPoolConfigEntity.getCorePoolSize());
-        threadPoolExecutor.setMaximumPoolSize(threadPoolConfigEntity.getMaximumPoolSize());
+    }
+
+    /**
+     * 版本不大于已应用版本的变更为过期或重复变更；版本为 0 表示旧版本管理端下发的变更，总是应用
+     * @param threadPoolConfigEntity
+     * @return
+     */
+    private boolean isStaleVersion(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        long configVersion = threadPoolConfigEntity.getConfigVersion();
+        return configVersion > 0 && configVersion <= appliedVersionMap.getOrDefault(threadPoolConfigEntity.getThreadPoolName(), 0L);
+    }
+
+    /**
+     * 校验核心线程数与最大线程数，不属于本实例的线程池按 ThreadPoolExecutor 的规则校验
+     * @param threadPoolAdapter 可为空
+     * @param threadPoolConfigEntity
+     * @return
+     */
+    private boolean isValidConfig(ThreadPoolAdapter threadPoolAdapter, ThreadPoolConfigEntity threadPoolConfigEntity) {
+        int corePoolSize = threadPoolConfigEntity.getCorePoolSize();
+        int maximumPoolSize = threadPoolConfigEntity.getMaximumPoolSize();
+        boolean valid = null == threadPoolAdapter
+                ? corePoolSize >= 0 && maximumPoolSize > 0 && maximumPoolSize >= corePoolSize
+                : threadPoolAdapter.isValidConfig(corePoolSize, maximumPoolSize);
+        if (!valid) {
+            logger.warn("动态线程池，线程池:{} 配置非法 核心线程数:{} 最大线程数:{}", threadPoolConfigEntity.getThreadPoolName(), corePoolSize, maximumPoolSize);
+        }
+        return valid;
+    }
+
+    /**
+     * 应用已校验的配置
+     * @param threadPoolAdapter
+     * @param threadPoolConfigEntity
+     */
+    private void applyThreadPoolConfig(ThreadPoolAdapter threadPoolAdapter, ThreadPoolConfigEntity threadPoolConfigEntity) {
+        if (threadPoolConfigEntity.getConfigVersion() > 0) {
+            appliedVersionMap.put(threadPoolConfigEntity.getThreadPoolName(), threadPoolConfigEntity.getConfigVersion());
+        }
+        // 核心线程数、最大线程数、队列容量，按线程池类型应用
+        threadPoolAdapter.applyConfig(threadPoolConfigEntity);
+        // 自动扩缩容策略 - 变更携带策略字段时才替换，只调整线程数、队列的变更保持当前策略
+        if (hasAutoScalePolicy(threadPoolConfigEntity)) {
+            autoScalePolicyMap.put(threadPoolConfigEntity.getThreadPoolName(), new AutoScalePolicyVO(threadPoolConfigEntity.isAutoScaleEnabled(),
+                    threadPoolConfigEntity.getAutoScaleMinPoolSize(), threadPoolConfigEntity.getAutoScaleMaxPoolSize()));
+        }
+    }
+
+    /**
+     * 开启或携带上下界视为下发了自动扩缩容策略，关闭时需携带上下界
+     * @param threadPoolConfigEntity
+     * @return
+     */
+    private static boolean hasAutoScalePolicy(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        return threadPoolConfigEntity.isAutoScaleEnabled()
+                || threadPoolConfigEntity.getAutoScaleMinPoolSize() > 0
+                || threadPoolConfigEntity.getAutoScaleMaxPoolSize() > 0;
+    }
+
+    /**
+     * 采集线程池运行数据
+     * @param threadPoolName
+     * @param threadPoolAdapter
+     * @return
+     */
+    private ThreadPoolConfigEntity buildThreadPoolConfigEntity(String threadPoolName, ThreadPoolAdapter threadPoolAdapter) {
+        ThreadPoolConfigEntity threadPoolConfigVO = new ThreadPoolConfigEntity(applicationName, threadPoolName);
+        threadPoolConfigVO.setExecutorType(threadPoolAdapter.getExecutorType());
+        threadPoolConfigVO.setCorePoolSize(threadPoolAdapter.getCorePoolSize());
+        threadPoolConfigVO.setMaximumPoolSize(threadPoolAdapter.getMaximumPoolSize());
+        threadPoolConfigVO.setActiveCount(threadPoolAdapter.getActiveCount());
+        threadPoolConfigVO.setPoolSize(threadPoolAdapter.getPoolSize());
+        threadPoolConfigVO.setQueueType(threadPoolAdapter.getQueueType());
+        threadPoolConfigVO.setQueueSize(threadPoolAdapter.getQueueSize());
+        threadPoolConfigVO.setRemainingCapacity(threadPoolAdapter.getRemainingCapacity());
+        threadPoolConfigVO.setQueueCapacity(threadPoolAdapter.getQueueCapacity());
+        threadPoolConfigVO.setCompletedTaskCount(threadPoolAdapter.getCompletedTaskCount());
+        AutoScalePolicyVO autoScalePolicy = autoScalePolicyMap.getOrDefault(threadPoolName, AutoScalePolicyVO.DISABLED);
+        threadPoolConfigVO.setAutoScaleEnabled(autoScalePolicy.isEnabled());
+        threadPoolConfigVO.setAutoScaleMinPoolSize(autoScalePolicy.getMinPoolSize());
+        threadPoolConfigVO.setAutoScaleMaxPoolSize(autoScalePolicy.getMaxPoolSize());
+        threadPoolConfigVO.setConfigVersion(appliedVersionMap.getOrDefault(threadPoolName, 0L));
+        // 类型特有的运行数据：排队耗时与执行耗时分布、窃取任务数、调度延误等
+        threadPoolAdapter.collect(threadPoolConfigVO);
+        return threadPoolConfigVO;
     }
 }
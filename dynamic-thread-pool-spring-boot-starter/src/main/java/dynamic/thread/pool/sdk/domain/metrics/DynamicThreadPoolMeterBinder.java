@@ -0,0 +1,188 @@
+package dynamic.thread.pool.sdk.domain.metrics;
+
+import dynamic.thread.pool.sdk.domain.ThreadPoolRegistrationListener;
+import dynamic.thread.pool.sdk.domain.adapter.ForkJoinPoolAdapter;
+import dynamic.thread.pool.sdk.domain.adapter.ScheduledThreadPoolExecutorAdapter;
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.executor.MultiLaneBlockingQueue;
+import dynamic.thread.pool.sdk.domain.executor.TaskPriority;
+import dynamic.thread.pool.sdk.domain.model.valobj.LatencySnapshotVO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 线程池 Micrometer 指标
+ * 全部使用函数式指标，注册时只保存线程池引用，指标值在 Prometheus 等拉取时才计算，不占用业务线程
+ * 标签：app = 应用名，pool = 线程池名称；运行时注册的线程池同步注册指标，注销时移除
+ */
+public class DynamicThreadPoolMeterBinder implements MeterBinder, ThreadPoolRegistrationListener {
+
+    private static final String PREFIX = "dynamic.thread.pool";
+
+    private final String applicationName;
+
+    private final Map<String, ThreadPoolAdapter> threadPoolAdapterMap;
+
+    /** 已绑定的指标注册表 */
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    public DynamicThreadPoolMeterBinder(String applicationName, Map<String, ThreadPoolAdapter> threadPoolAdapterMap) {
+        this.applicationName = applicationName;
+        this.threadPoolAdapterMap = threadPoolAdapterMap;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        for (Map.Entry<String, ThreadPoolAdapter> entry : threadPoolAdapterMap.entrySet()) {
+            bindTo(registry, entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void onRegister(String applicationName, String threadPoolName, ThreadPoolAdapter threadPoolAdapter) {
+        for (MeterRegistry registry : registries) {
+            bindTo(registry, threadPoolName, threadPoolAdapter);
+        }
+    }
+
+    @Override
+    public void onUnregister(String applicationName, String threadPoolName, ThreadPoolAdapter threadPoolAdapter) {
+        for (MeterRegistry registry : registries) {
+            for (Meter meter : registry.getMeters()) {
+                Meter.Id id = meter.getId();
+                if (id.getName().startsWith(PREFIX + ".") && threadPoolName.equals(id.getTag("pool")) && this.applicationName.equals(id.getTag("app"))) {
+                    registry.remove(meter);
+                }
+            }
+        }
+    }
+
+    private void bindTo(MeterRegistry registry, String threadPoolName, ThreadPoolAdapter adapter) {
+        Tags tags = Tags.of("app", applicationName, "pool", threadPoolName);
+        gauge(registry, "core.size", "核心线程数（ForkJoinPool 为并行度）", tags, adapter, ThreadPoolAdapter::getCorePoolSize);
+        gauge(registry, "max.size", "最大线程数", tags, adapter, ThreadPoolAdapter::getMaximumPoolSize);
+        gauge(registry, "pool.size", "当前线程数", tags, adapter, ThreadPoolAdapter::getPoolSize);
+        gauge(registry, "active", "活跃线程数", tags, adapter, ThreadPoolAdapter::getActiveCount);
+        gauge(registry, "queue.size", "队列任务数", tags, adapter, ThreadPoolAdapter::getQueueSize);
+        gauge(registry, "queue.remaining", "队列剩余容量", tags, adapter, ThreadPoolAdapter::getRemainingCapacity);
+
+        if (adapter instanceof ForkJoinPoolAdapter) {
+            ForkJoinPoolAdapter forkJoinPoolAdapter = (ForkJoinPoolAdapter) adapter;
+            FunctionCounter.builder(PREFIX + ".steal", forkJoinPoolAdapter, ForkJoinPoolAdapter::getStealCount)
+                    .description("窃取任务数")
+                    .tags(tags)
+                    .register(registry);
+            gauge(registry, "queued.submissions", "外部提交尚未执行的任务数", tags, forkJoinPoolAdapter, ForkJoinPoolAdapter::getQueuedSubmissionCount);
+            gauge(registry, "running", "未阻塞的工作线程数", tags, forkJoinPoolAdapter, ForkJoinPoolAdapter::getRunningThreadCount);
+            return;
+        }
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) adapter.getExecutor();
+        gauge(registry, "largest.size", "历史最大线程数", tags, executor, ThreadPoolExecutor::getLargestPoolSize);
+        FunctionCounter.builder(PREFIX + ".completed", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                .description("已完成任务数")
+                .tags(tags)
+                .register(registry);
+        if (executor.getQueue() instanceof MultiLaneBlockingQueue) {
+            lanes(registry, tags, (MultiLaneBlockingQueue<Runnable>) executor.getQueue());
+        }
+        if (adapter instanceof ScheduledThreadPoolExecutorAdapter) {
+            Gauge.builder(PREFIX + ".schedule.lag", (ScheduledThreadPoolExecutorAdapter) adapter, a -> a.getScheduleLag() / 1000.0)
+                    .description("已到期任务的最大调度延误")
+                    .baseUnit("seconds")
+                    .tags(tags)
+                    .register(registry);
+        }
+
+        if (!(executor instanceof DynamicThreadPoolExecutor)) {
+            return;
+        }
+        DynamicThreadPoolExecutor dynamicExecutor = (DynamicThreadPoolExecutor) executor;
+        FunctionCounter.builder(PREFIX + ".rejected", dynamicExecutor, DynamicThreadPoolExecutor::getRejectedCount)
+                .description("拒绝任务数")
+                .tags(tags)
+                .register(registry);
+        FunctionTimer.builder(PREFIX + ".queue.wait", dynamicExecutor,
+                        DynamicThreadPoolExecutor::getQueueWaitCount, DynamicThreadPoolExecutor::getQueueWaitTotalNanos, TimeUnit.NANOSECONDS)
+                .description("任务排队耗时")
+                .tags(tags)
+                .register(registry);
+        FunctionTimer.builder(PREFIX + ".execute", dynamicExecutor,
+                        DynamicThreadPoolExecutor::getExecuteCount, DynamicThreadPoolExecutor::getExecuteTotalNanos, TimeUnit.NANOSECONDS)
+                .description("任务执行耗时")
+                .tags(tags)
+                .register(registry);
+        latency(registry, "queue.wait.percentile", "上一统计周期的排队耗时分位数", tags, dynamicExecutor, true);
+        latency(registry, "execute.percentile", "上一统计周期的执行耗时分位数", tags, dynamicExecutor, false);
+        gauge(registry, "stuck.tasks", "卡住任务数", tags, dynamicExecutor, DynamicThreadPoolExecutor::getStuckTaskCount);
+        gauge(registry, "cpu.usage", "工作线程 CPU 使用率（%，相对单核）", tags, dynamicExecutor, e -> e.getResourceUsage().getCpuUsage());
+        gauge(registry, "contention.ratio", "任务执行时间中不在 CPU 上的占比", tags, dynamicExecutor, e -> e.getResourceUsage().getContentionRatio());
+        Gauge.builder(PREFIX + ".allocation.rate", dynamicExecutor, e -> e.getResourceUsage().getAllocationRate())
+                .description("工作线程内存分配速率")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, String description, Tags tags, T executor, ToDoubleFunction<T> function) {
+        Gauge.builder(PREFIX + "." + name, executor, function)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * 多通道队列按 lane 标签区分通道：任务数、容量、累计排队耗时、上一统计周期的排队耗时 P99
+     */
+    private static void lanes(MeterRegistry registry, Tags tags, MultiLaneBlockingQueue<Runnable> queue) {
+        for (TaskPriority priority : TaskPriority.values()) {
+            Tags laneTags = tags.and(Tag.of("lane", priority.name().toLowerCase()));
+            gauge(registry, "lane.queue.size", "通道任务数", laneTags, queue, q -> q.getLaneSize(priority));
+            gauge(registry, "lane.queue.capacity", "通道容量", laneTags, queue, q -> q.getLaneCapacity(priority));
+            FunctionTimer.builder(PREFIX + ".lane.queue.wait", queue,
+                            q -> q.getLaneDequeueCount(priority), q -> q.getLaneQueueWaitTotalNanos(priority), TimeUnit.NANOSECONDS)
+                    .description("通道排队耗时")
+                    .tags(laneTags)
+                    .register(registry);
+            Gauge.builder(PREFIX + ".lane.queue.wait.percentile", queue, q -> q.getLaneQueueWaitSnapshot(priority).getP99() / 1_000_000.0)
+                    .description("通道上一统计周期的排队耗时分位数")
+                    .baseUnit("seconds")
+                    .tags(laneTags.and(Tag.of("quantile", "0.99")))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 分位数按 quantile 标签区分，1.0 为最大值，单位秒
+     */
+    private static void latency(MeterRegistry registry, String name, String description, Tags tags, DynamicThreadPoolExecutor executor, boolean queueWait) {
+        String[] quantiles = {"0.5", "0.9", "0.99", "1.0"};
+        for (int i = 0; i < quantiles.length; i++) {
+            int index = i;
+            Gauge.builder(PREFIX + "." + name, executor, e -> {
+                        LatencySnapshotVO snapshot = queueWait ? e.getQueueWaitSnapshot() : e.getExecuteTimeSnapshot();
+                        long micros = index == 0 ? snapshot.getP50() : index == 1 ? snapshot.getP90() : index == 2 ? snapshot.getP99() : snapshot.getMax();
+                        return micros / 1_000_000.0;
+                    })
+                    .description(description)
+                    .baseUnit("seconds")
+                    .tags(tags.and(Tag.of("quantile", quantiles[i])))
+                    .register(registry);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package dynamic.thread.pool.sdk.domain.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 线程池配置批量变更
+ * 一条消息携带同一应用下多个线程池的配置，客户端校验全部通过后一次性应用，并只上报一次
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ThreadPoolConfigBatchEntity {
+
+    /**
+     * 应用名称
+     */
+    private String appName;
+
+    /**
+     * 批次号
+     */
+    private String batchId;
+
+    /**
+     * 线程池配置列表
+     */
+    private List<ThreadPoolConfigEntity> threadPoolConfigEntities;
+
+}
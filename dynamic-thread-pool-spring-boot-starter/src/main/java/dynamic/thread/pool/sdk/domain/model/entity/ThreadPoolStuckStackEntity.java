@@ -0,0 +1,47 @@
+package dynamic.thread.pool.sdk.domain.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 卡住任务的采样堆栈
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ThreadPoolStuckStackEntity {
+
+    /**
+     * 任务类名
+     */
+    private String taskName;
+
+    /**
+     * 最近一次采样的工作线程名称
+     */
+    private String threadName;
+
+    /**
+     * 堆栈
+     */
+    private String stackTrace;
+
+    /**
+     * 该堆栈累计采样到的次数
+     */
+    private long count;
+
+    /**
+     * 最近一次采样时的运行时间（毫秒）
+     */
+    private long runningMillis;
+
+    /**
+     * 最近一次采样时间
+     */
+    private long lastSeenTime;
+
+}
@@ -0,0 +1,59 @@
+package dynamic.thread.pool.sdk.domain.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 线程池卡住任务统计
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ThreadPoolStuckTaskEntity {
+
+    /**
+     * 应用名称
+     */
+    private String appName;
+
+    /**
+     * 线程池名称
+     */
+    private String threadPoolName;
+
+    /**
+     * 卡住阈值（毫秒），运行时间超过该值的任务视为卡住
+     */
+    private long thresholdMillis;
+
+    /**
+     * 当前卡住的任务数
+     */
+    private int stuckCount;
+
+    /**
+     * 当前卡住任务中最长的运行时间（毫秒）
+     */
+    private long maxRunningMillis;
+
+    /**
+     * 累计检测到的卡住任务数
+     */
+    private long totalStuckCount;
+
+    /**
+     * 卡住次数最多的堆栈，按次数倒序
+     */
+    private List<ThreadPoolStuckStackEntity> topStacks;
+
+    /**
+     * 检测时间
+     */
+    private long time;
+
+}
@@ -0,0 +1,44 @@
+package dynamic.thread.pool.sdk.domain.model.valobj;
+
+/**
+ * 自动扩缩容策略值对象
+ * 由管理端随线程池配置下发
+ */
+public class AutoScalePolicyVO {
+
+    public static final AutoScalePolicyVO DISABLED = new AutoScalePolicyVO(false, 0, 0);
+
+    /** 是否开启 */
+    private final boolean enabled;
+    /** 线程数下界 */
+    private final int minPoolSize;
+    /** 线程数上界 */
+    private final int maxPoolSize;
+
+    public AutoScalePolicyVO(boolean enabled, int minPoolSize, int maxPoolSize) {
+        this.enabled = enabled;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * 开启且上下界合法时才生效
+     * @return
+     */
+    public boolean isEffective() {
+        return enabled && minPoolSize > 0 && maxPoolSize >= minPoolSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+}
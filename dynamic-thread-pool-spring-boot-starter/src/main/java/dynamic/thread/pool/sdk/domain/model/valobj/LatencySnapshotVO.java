@@ -0,0 +1,46 @@
+package dynamic.thread.pool.sdk.domain.model.valobj;
+
+/**
+ * 延迟分布快照值对象
+ * 单位：微秒
+ */
+public class LatencySnapshotVO {
+
+    public static final LatencySnapshotVO EMPTY = new LatencySnapshotVO(0, 0, 0, 0, 0);
+
+    /** 统计周期内样本数 */
+    private final long count;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    public LatencySnapshotVO(long count, long p50, long p90, long p99, long max) {
+        this.count = count;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+}
@@ -4,9 +4,15 @@ package dynamic.thread.pool.sdk.domain.model.valobj;
  * 注冊中心枚举值对象
  */
 public enum RegistryEnumVO {
-    THREAD_POOL_CONFIG_LIST_KEY("THREAD_POOL_CONFIG_LIST_KEY", "池化配置列表"),
+    THREAD_POOL_CONFIG_LIST_KEY("THREAD_POOL_CONFIG_LIST_KEY", "池化配置列表（已废弃，仅供旧版本兼容读取）"),
+    THREAD_POOL_CONFIG_HASH_KEY("THREAD_POOL_CONFIG_HASH_KEY", "池化配置列表，按应用分片的 Hash，field 为线程池名称"),
+    THREAD_POOL_CONFIG_APP_SET_KEY("THREAD_POOL_CONFIG_APP_SET_KEY", "已上报的应用名集合"),
     THREAD_POOL_CONFIG_PARAMETER_LIST_KEY("THREAD_POOL_CONFIG_PARAMETER_LIST_KEY", "池化配置参数"),
-    DYNAMIC_THREAD_POOL_REDIS_TOPIC("DYNAMIC_THREAD_POOL_REDIS_TOPIC", "动态线程池监听主题配置");
+    DYNAMIC_THREAD_POOL_REDIS_TOPIC("DYNAMIC_THREAD_POOL_REDIS_TOPIC", "动态线程池监听主题配置"),
+    DYNAMIC_THREAD_POOL_BATCH_TOPIC("DYNAMIC_THREAD_POOL_BATCH_TOPIC", "动态线程池批量变更主题配置"),
+    DYNAMIC_THREAD_POOL_REPORT_TOPIC("DYNAMIC_THREAD_POOL_REPORT_TOPIC", "线程池上报主题，管理端订阅后向看板推送变更"),
+    THREAD_POOL_SCALE_EVENT_LIST_KEY("THREAD_POOL_SCALE_EVENT_LIST_KEY", "池化扩缩容事件列表"),
+    THREAD_POOL_STUCK_TASK_KEY("THREAD_POOL_STUCK_TASK_KEY", "池化卡住任务统计");
 
     private final String key;
     private final String desc;
@@ -0,0 +1,35 @@
+package dynamic.thread.pool.sdk.domain.model.valobj;
+
+/**
+ * 线程池资源占用值对象
+ */
+public class ResourceUsageVO {
+
+    public static final ResourceUsageVO EMPTY = new ResourceUsageVO(0, 0, 0);
+
+    /** CPU 使用率（%），以单核为 100% */
+    private final double cpuUsage;
+    /** 任务执行时间中未占用 CPU 的比例 */
+    private final double contentionRatio;
+    /** 内存分配速率（字节/秒） */
+    private final double allocationRate;
+
+    public ResourceUsageVO(double cpuUsage, double contentionRatio, double allocationRate) {
+        this.cpuUsage = cpuUsage;
+        this.contentionRatio = contentionRatio;
+        this.allocationRate = allocationRate;
+    }
+
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    public double getContentionRatio() {
+        return contentionRatio;
+    }
+
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+}
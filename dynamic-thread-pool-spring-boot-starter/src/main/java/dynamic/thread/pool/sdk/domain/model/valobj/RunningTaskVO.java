@@ -0,0 +1,40 @@
+package dynamic.thread.pool.sdk.domain.model.valobj;
+
+/**
+ * 正在执行的任务值对象
+ */
+public class RunningTaskVO {
+
+    /** 执行任务的工作线程 */
+    private final Thread thread;
+    /** 任务对象，用于识别同一次执行 */
+    private final Object task;
+    /** 任务类名 */
+    private final String taskName;
+    /** 已运行时间（单位：毫秒） */
+    private final long runningMillis;
+
+    public RunningTaskVO(Thread thread, Object task, String taskName, long runningMillis) {
+        this.thread = thread;
+        this.task = task;
+        this.taskName = taskName;
+        this.runningMillis = runningMillis;
+    }
+
+    public Thread getThread() {
+        return thread;
+    }
+
+    public Object getTask() {
+        return task;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public long getRunningMillis() {
+        return runningMillis;
+    }
+
+}
@@ -0,0 +1,118 @@
+package dynamic.thread.pool.sdk.domain.report;
+
+import dynamic.thread.pool.sdk.config.DynamicThreadPoolAutoReportProperties;
+import dynamic.thread.pool.sdk.config.DynamicThreadPoolAutoReportProperties.ReportPolicy;
+import dynamic.thread.pool.sdk.domain.DynamicThreadPoolService;
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 线程池上报调度
+ * 每次采样只读取线程池内存状态，按负载决定每个线程池的上报间隔：
+ * 接近饱和或出现拒绝时按 hot 间隔上报；正常负载按 normal 间隔上报；空闲时从 normal 间隔开始每次翻倍，直到心跳间隔。
+ * 饱和状态切换、核心参数变化时立即上报
+ */
+public class ThreadPoolReportScheduler {
+
+    private final DynamicThreadPoolService dynamicThreadPoolService;
+
+    private final Map<String, ThreadPoolAdapter> threadPoolAdapterMap;
+
+    private final DynamicThreadPoolAutoReportProperties properties;
+
+    /** 每个线程池的上报状态 */
+    private final Map<String, ReportState> reportStateMap = new ConcurrentHashMap<>();
+
+    public ThreadPoolReportScheduler(DynamicThreadPoolService dynamicThreadPoolService, Map<String, ThreadPoolAdapter> threadPoolAdapterMap, DynamicThreadPoolAutoReportProperties properties) {
+        this.dynamicThreadPoolService = dynamicThreadPoolService;
+        this.threadPoolAdapterMap = threadPoolAdapterMap;
+        this.properties = properties;
+    }
+
+    /**
+     * 采样一次
+     * @return 本次需要上报的线程池数据
+     */
+    public List<ThreadPoolConfigEntity> sample() {
+        return sample(System.currentTimeMillis());
+    }
+
+    List<ThreadPoolConfigEntity> sample(long now) {
+        // 已移除的线程池不再保留状态
+        reportStateMap.keySet().retainAll(threadPoolAdapterMap.keySet());
+        List<ThreadPoolConfigEntity> res = new ArrayList<>();
+        for (Map.Entry<String, ThreadPoolAdapter> entry : threadPoolAdapterMap.entrySet()) {
+            if (isDue(entry.getKey(), entry.getValue(), now)) {
+                res.add(dynamicThreadPoolService.queryThreadPoolConfigByName(entry.getKey()));
+            }
+        }
+        return res;
+    }
+
+    private boolean isDue(String threadPoolName, ThreadPoolAdapter adapter, long now) {
+        ReportState state = reportStateMap.computeIfAbsent(threadPoolName, k -> new ReportState());
+        long hotIntervalMillis = policy(threadPoolName, ReportPolicy::getHotIntervalMillis, properties.getHotIntervalMillis());
+        long normalIntervalMillis = policy(threadPoolName, ReportPolicy::getNormalIntervalMillis, properties.getNormalIntervalMillis());
+        long heartbeatIntervalMillis = policy(threadPoolName, ReportPolicy::getHeartbeatIntervalMillis, properties.getHeartbeatIntervalMillis());
+        double saturationWatermark = policy(threadPoolName, ReportPolicy::getSaturationWatermark, properties.getSaturationWatermark());
+
+        int activeCount = adapter.getActiveCount();
+        int queueSize = adapter.getQueueSize();
+        int queueCapacity = adapter.getQueueCapacity();
+        double saturation = adapter.getMaximumPoolSize() > 0 ? (double) activeCount / adapter.getMaximumPoolSize() : 0;
+        if (queueCapacity > 0) {
+            saturation = Math.max(saturation, (double) queueSize / queueCapacity);
+        }
+        long rejectedCount = adapter.getExecutor() instanceof DynamicThreadPoolExecutor ? ((DynamicThreadPoolExecutor) adapter.getExecutor()).getRejectedCount() : 0;
+        boolean hot = saturation >= saturationWatermark || rejectedCount > state.rejectedCount;
+        boolean idle = activeCount == 0 && queueSize == 0;
+        String configKey = adapter.getCorePoolSize() + "/" + adapter.getMaximumPoolSize() + "/" + queueCapacity;
+
+        long intervalMillis = hot ? hotIntervalMillis : idle ? Math.max(state.idleIntervalMillis, normalIntervalMillis) : normalIntervalMillis;
+        boolean due = hot != state.hot
+                || !configKey.equals(state.configKey)
+                || now - state.lastReportTime >= Math.min(intervalMillis, heartbeatIntervalMillis);
+        state.hot = hot;
+        state.configKey = configKey;
+        state.rejectedCount = rejectedCount;
+        if (!idle || hot) {
+            state.idleIntervalMillis = 0;
+        }
+        if (due) {
+            state.lastReportTime = now;
+            if (idle && !hot) {
+                // 空闲时每上报一次间隔翻倍
+                state.idleIntervalMillis = 0 == state.idleIntervalMillis ? normalIntervalMillis : Math.min(state.idleIntervalMillis * 2, heartbeatIntervalMillis);
+            }
+        }
+        return due;
+    }
+
+    private <T> T policy(String threadPoolName, Function<ReportPolicy, T> getter, T defaultValue) {
+        ReportPolicy policy = properties.getPools().get(threadPoolName);
+        T value = null == policy ? null : getter.apply(policy);
+        return null == value ? defaultValue : value;
+    }
+
+    private static class ReportState {
+
+        private long lastReportTime;
+
+        private long idleIntervalMillis;
+
+        private boolean hot;
+
+        private String configKey;
+
+        private long rejectedCount;
+
+    }
+
+}
@@ -0,0 +1,220 @@
+package dynamic.thread.pool.sdk.domain.scale;
+
+import dynamic.thread.pool.sdk.config.DynamicThreadPoolAutoScaleProperties;
+import dynamic.thread.pool.sdk.domain.DynamicThreadPoolService;
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolScaleEventEntity;
+import dynamic.thread.pool.sdk.domain.model.valobj.AutoScalePolicyVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池自动扩缩容控制器
+ * 根据队列深度、排队耗时和活跃线程数判断压力方向，连续命中同一方向（滞回）且过了冷却期才调整，
+ * 调整幅度受管理端下发的上下界约束
+ * 只读取适配器的实时计数，不切换排队耗时直方图的统计周期、不做线程资源采样，不影响上报与指标读取的数据
+ */
+public class ThreadPoolAutoScaler {
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadPoolAutoScaler.class);
+
+    public static final String DIRECTION_UP = "UP";
+
+    public static final String DIRECTION_DOWN = "DOWN";
+
+    private final DynamicThreadPoolService dynamicThreadPoolService;
+
+    private final DynamicThreadPoolAutoScaleProperties properties;
+
+    /** 每个线程池的采样状态 */
+    private final Map<String, ScaleState> scaleStateMap = new ConcurrentHashMap<>();
+
+    public ThreadPoolAutoScaler(DynamicThreadPoolService dynamicThreadPoolService, DynamicThreadPoolAutoScaleProperties properties) {
+        this.dynamicThreadPoolService = dynamicThreadPoolService;
+        this.properties = properties;
+    }
+
+    /**
+     * 采样一次并对需要调整的线程池执行扩缩容
+     * @return 本次产生的扩缩容事件
+     */
+    public List<ThreadPoolScaleEventEntity> scale() {
+        List<ThreadPoolScaleEventEntity> events = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        // 已注销的线程池不再保留状态
+        scaleStateMap.keySet().retainAll(dynamicThreadPoolService.getThreadPoolAdapterMap().keySet());
+        for (Map.Entry<String, ThreadPoolAdapter> entry : dynamicThreadPoolService.getThreadPoolAdapterMap().entrySet()) {
+            String threadPoolName = entry.getKey();
+            ThreadPoolAdapter adapter = entry.getValue();
+            ScaleState state = scaleStateMap.computeIfAbsent(threadPoolName, k -> new ScaleState());
+            double throughput = state.throughput(adapter.getCompletedTaskCount(), now);
+            long queueWaitMillis = adapter.getExecutor() instanceof DynamicThreadPoolExecutor
+                    ? state.queueWaitMillis((DynamicThreadPoolExecutor) adapter.getExecutor()) : 0;
+            AutoScalePolicyVO policy = dynamicThreadPoolService.getAutoScalePolicy(threadPoolName);
+            if (!policy.isEffective()) {
+                state.reset();
+                continue;
+            }
+            ThreadPoolScaleEventEntity event = evaluate(threadPoolName, adapter, policy, state, throughput, queueWaitMillis, now);
+            if (null != event) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * @param queueWaitMillis 上次采样以来开始执行的任务的平均排队耗时
+     */
+    private ThreadPoolScaleEventEntity evaluate(String threadPoolName, ThreadPoolAdapter adapter, AutoScalePolicyVO policy, ScaleState state,
+                                                double throughput, long queueWaitMillis, long now) {
+        int corePoolSize = adapter.getCorePoolSize();
+        int maximumPoolSize = adapter.getMaximumPoolSize();
+        int activeCount = adapter.getActiveCount();
+        int queueSize = adapter.getQueueSize();
+        int queueCapacity = adapter.getQueueCapacity();
+        double queueUsage = queueCapacity > 0 ? (double) queueSize / queueCapacity : 0;
+
+        // 压力判断
+        String direction = null;
+        String reason = null;
+        if (queueUsage >= properties.getQueueHighWatermark()) {
+            direction = DIRECTION_UP;
+            reason = String.format("队列使用率 %.0f%% ≥ %.0f%%", queueUsage * 100, properties.getQueueHighWatermark() * 100);
+        } else if (queueSize > 0 && queueWaitMillis >= properties.getQueueWaitHighMillis()) {
+            direction = DIRECTION_UP;
+            reason = String.format("平均排队耗时 %dms ≥ %dms", queueWaitMillis, properties.getQueueWaitHighMillis());
+        } else if (queueSize == 0 && corePoolSize > 0
+                && activeCount <= corePoolSize * properties.getActiveLowWatermark()) {
+            direction = DIRECTION_DOWN;
+            reason = String.format("队列为空且活跃线程 %d ≤ 核心线程 %d × %.0f%%", activeCount, corePoolSize, properties.getActiveLowWatermark() * 100);
+        }
+
+        // 滞回：连续命中同一方向才调整
+        if (!state.hit(direction) || state.consecutive < properties.getConsecutiveSamples()) {
+            return null;
+        }
+        // 冷却期内不调整
+        if (now - state.lastScaleTime < properties.getCooldownMillis()) {
+            return null;
+        }
+
+        int min = policy.getMinPoolSize();
+        int max = policy.getMaxPoolSize();
+        int step = Math.max(1, (int) Math.ceil(corePoolSize * properties.getStepRatio()));
+        int spread = Math.max(0, maximumPoolSize - corePoolSize);
+        int newCorePoolSize = clamp(DIRECTION_UP.equals(direction) ? corePoolSize + step : corePoolSize - step, min, max);
+        // 保持核心线程数与最大线程数的差值
+        int newMaximumPoolSize = Math.max(newCorePoolSize, clamp(newCorePoolSize + spread, min, max));
+        if (newCorePoolSize == corePoolSize && newMaximumPoolSize == maximumPoolSize) {
+            return null;
+        }
+
+        ThreadPoolConfigEntity target = ThreadPoolConfigEntity.builder()
+                .appName(dynamicThreadPoolService.getApplicationName())
+                .threadPoolName(threadPoolName)
+                .corePoolSize(newCorePoolSize)
+                .maximumPoolSize(newMaximumPoolSize)
+                .queueCapacity(queueCapacity)
+                .autoScaleEnabled(policy.isEnabled())
+                .autoScaleMinPoolSize(min)
+                .autoScaleMaxPoolSize(max)
+                .build();
+        dynamicThreadPoolService.updateThreadPoolConfig(target);
+        state.scaled(now);
+
+        String fullReason = reason + String.format("，连续 %d 次采样，吞吐量 %.1f/s", properties.getConsecutiveSamples(), throughput);
+        logger.info("动态线程池，自动扩缩容 线程池:{} 方向:{} 核心线程数:{}->{} 最大线程数:{}->{} 原因:{}", threadPoolName, direction,
+                corePoolSize, newCorePoolSize, maximumPoolSize, newMaximumPoolSize, fullReason);
+        return ThreadPoolScaleEventEntity.builder()
+                .appName(target.getAppName())
+                .threadPoolName(threadPoolName)
+                .direction(direction)
+                .beforeCorePoolSize(corePoolSize)
+                .beforeMaximumPoolSize(maximumPoolSize)
+                .afterCorePoolSize(newCorePoolSize)
+                .afterMaximumPoolSize(newMaximumPoolSize)
+                .activeCount(activeCount)
+                .queueSize(queueSize)
+                .queueCapacity(queueCapacity)
+                .throughput(throughput)
+                .reason(fullReason)
+                .time(now)
+                .build();
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * 单个线程池的采样状态，仅由调度线程访问
+     */
+    private static class ScaleState {
+
+        /** 上次命中的方向 */
+        private String direction;
+        /** 连续命中次数 */
+        private int consecutive;
+        /** 上次调整时间 */
+        private long lastScaleTime;
+        /** 上次采样的已完成任务数 */
+        private long lastCompletedTaskCount = -1;
+        /** 上次采样时间 */
+        private long lastSampleTime;
+        /** 上次采样的累计排队次数与排队耗时 */
+        private long lastQueueWaitCount;
+        private long lastQueueWaitNanos;
+
+        long queueWaitMillis(DynamicThreadPoolExecutor executor) {
+            long count = executor.getQueueWaitCount();
+            long nanos = executor.getQueueWaitTotalNanos();
+            long deltaCount = count - lastQueueWaitCount;
+            long deltaNanos = nanos - lastQueueWaitNanos;
+            lastQueueWaitCount = count;
+            lastQueueWaitNanos = nanos;
+            return deltaCount > 0 ? TimeUnit.NANOSECONDS.toMillis(deltaNanos / deltaCount) : 0;
+        }
+
+        double throughput(long completedTaskCount, long now) {
+            double throughput = 0;
+            if (lastCompletedTaskCount >= 0 && now > lastSampleTime) {
+                throughput = (completedTaskCount - lastCompletedTaskCount) * 1000D / (now - lastSampleTime);
+            }
+            lastCompletedTaskCount = completedTaskCount;
+            lastSampleTime = now;
+            return throughput;
+        }
+
+        boolean hit(String direction) {
+            if (null == direction) {
+                reset();
+                return false;
+            }
+            consecutive = direction.equals(this.direction) ? consecutive + 1 : 1;
+            this.direction = direction;
+            return true;
+        }
+
+        void scaled(long now) {
+            lastScaleTime = now;
+            direction = null;
+            consecutive = 0;
+        }
+
+        void reset() {
+            direction = null;
+            consecutive = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package dynamic.thread.pool.sdk.domain.snapshot;
+
+import dynamic.thread.pool.sdk.domain.impl.DynamicThreadPoolServiceImpl;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.registry.RegistryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 启动后与注册中心对账
+ * 本地快照已在启动时应用，后台线程读取注册中心配置并覆盖快照；注册中心不可达时按指数退避重试，直到成功一次
+ */
+public class ThreadPoolConfigReconciler {
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadPoolConfigReconciler.class);
+
+    private final String applicationName;
+
+    private final DynamicThreadPoolServiceImpl dynamicThreadPoolService;
+
+    private final RegistryService registryService;
+
+    private final List<String> threadPoolNames;
+
+    private final long retryMillis;
+
+    private final long maxRetryMillis;
+
+    public ThreadPoolConfigReconciler(String applicationName, DynamicThreadPoolServiceImpl dynamicThreadPoolService, RegistryService registryService,
+                                      Collection<String> threadPoolNames, long retryMillis, long maxRetryMillis) {
+        this.applicationName = applicationName;
+        this.dynamicThreadPoolService = dynamicThreadPoolService;
+        this.registryService = registryService;
+        this.threadPoolNames = new ArrayList<>(threadPoolNames);
+        this.retryMillis = Math.max(1, retryMillis);
+        this.maxRetryMillis = Math.max(this.retryMillis, maxRetryMillis);
+    }
+
+    public void start() {
+        Thread thread = new Thread(this::reconcile, "dynamic-thread-pool-reconciler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void reconcile() {
+        long backoff = retryMillis;
+        for (int attempt = 1; ; attempt++) {
+            long start = System.currentTimeMillis();
+            try {
+                List<ThreadPoolConfigEntity> threadPoolConfigEntities = registryService.queryThreadPoolConfigList(applicationName, threadPoolNames);
+                int applied = dynamicThreadPoolService.restoreThreadPoolConfig(threadPoolConfigEntities, start);
+                logger.info("动态线程池，注册中心对账完成 第{}次 应用:{}/{}个线程池 耗时:{}ms", attempt, applied, threadPoolNames.size(), System.currentTimeMillis() - start);
+                return;
+            } catch (Exception e) {
+                logger.warn("动态线程池，注册中心对账失败 第{}次，{}ms 后重试 错误:{}", attempt, backoff, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = Math.min(maxRetryMillis, backoff * 2);
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package dynamic.thread.pool.sdk.domain.snapshot;
+
+import com.alibaba.fastjson.JSON;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地配置快照
+ * 保存最近一次成功应用的线程池配置，启动时先恢复快照，启动耗时不依赖注册中心
+ * 每次写入先写临时文件并刷盘，再原子替换快照文件，进程中途退出不会留下半个文件
+ */
+public class ThreadPoolConfigSnapshotStore {
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadPoolConfigSnapshotStore.class);
+
+    private final Path file;
+
+    // 快照内容，key = threadPoolName
+    private final Map<String, ThreadPoolConfigEntity> configMap = new LinkedHashMap<>();
+
+    public ThreadPoolConfigSnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 读取快照，文件不存在或内容损坏时返回空列表
+     * @return
+     */
+    public synchronized List<ThreadPoolConfigEntity> load() {
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+        try {
+            List<ThreadPoolConfigEntity> threadPoolConfigEntities = JSON.parseArray(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), ThreadPoolConfigEntity.class);
+            if (null == threadPoolConfigEntities) {
+                return Collections.emptyList();
+            }
+            for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigEntities) {
+                configMap.put(threadPoolConfigEntity.getThreadPoolName(), threadPoolConfigEntity);
+            }
+            return threadPoolConfigEntities;
+        } catch (Exception e) {
+            logger.warn("动态线程池，读取本地配置快照失败 {}", file, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 记录已应用的配置并写入快照，只保存配置字段
+     * @param threadPoolConfigEntities
+     */
+    public synchronized void save(Collection<ThreadPoolConfigEntity> threadPoolConfigEntities) {
+        boolean changed = false;
+        for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigEntities) {
+            ThreadPoolConfigEntity config = toConfig(threadPoolConfigEntity);
+            if (!config.equals(configMap.put(config.getThreadPoolName(), config))) {
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return;
+        }
+        try {
+            write(JSON.toJSONString(new ArrayList<>(configMap.values())).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            logger.warn("动态线程池，写入本地配置快照失败 {}", file, e);
+        }
+    }
+
+    private void write(byte[] data) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static ThreadPoolConfigEntity toConfig(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        return ThreadPoolConfigEntity.builder()
+                .appName(threadPoolConfigEntity.getAppName())
+                .threadPoolName(threadPoolConfigEntity.getThreadPoolName())
+                .corePoolSize(threadPoolConfigEntity.getCorePoolSize())
+                .maximumPoolSize(threadPoolConfigEntity.getMaximumPoolSize())
+                .queueCapacity(threadPoolConfigEntity.getQueueCapacity())
+                .autoScaleEnabled(threadPoolConfigEntity.isAutoScaleEnabled())
+                .autoScaleMinPoolSize(threadPoolConfigEntity.getAutoScaleMinPoolSize())
+                .autoScaleMaxPoolSize(threadPoolConfigEntity.getAutoScaleMaxPoolSize())
+                .configVersion(threadPoolConfigEntity.getConfigVersion())
+                .laneDequeueMode(threadPoolConfigEntity.getLaneDequeueMode())
+                .laneWeights(threadPoolConfigEntity.getLaneWeights())
+                .laneCapacities(threadPoolConfigEntity.getLaneCapacities())
+                .build();
+    }
+
+}
@@ -0,0 +1,182 @@
+package dynamic.thread.pool.sdk.domain.watchdog;
+
+import dynamic.thread.pool.sdk.config.DynamicThreadPoolAutoStuckTaskProperties;
+import dynamic.thread.pool.sdk.domain.adapter.ThreadPoolAdapter;
+import dynamic.thread.pool.sdk.domain.executor.DynamicThreadPoolExecutor;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckStackEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckTaskEntity;
+import dynamic.thread.pool.sdk.domain.model.valobj.RunningTaskVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 卡住任务检测
+ * 定期扫描每个线程池工作线程的运行槽位，运行时间超过阈值的任务视为卡住；每个卡住的任务只采样一次堆栈，
+ * 相同任务类型和堆栈的采样合并计数，上报次数最多的堆栈
+ */
+public class ThreadPoolStuckTaskDetector {
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadPoolStuckTaskDetector.class);
+
+    /** 每个线程池最多保留的不同堆栈数 */
+    private static final int MAX_STACKS_PER_POOL = 64;
+
+    private final String applicationName;
+
+    private final Map<String, ThreadPoolAdapter> threadPoolAdapterMap;
+
+    private final DynamicThreadPoolAutoStuckTaskProperties properties;
+
+    /** 每个线程池的检测状态，仅由扫描线程访问 */
+    private final Map<String, DetectState> detectStateMap = new HashMap<>();
+
+    public ThreadPoolStuckTaskDetector(String applicationName, Map<String, ThreadPoolAdapter> threadPoolAdapterMap,
+                                       DynamicThreadPoolAutoStuckTaskProperties properties) {
+        this.applicationName = applicationName;
+        this.threadPoolAdapterMap = threadPoolAdapterMap;
+        this.properties = properties;
+    }
+
+    /**
+     * 扫描一次
+     * @return 存在卡住任务或刚恢复的线程池
+     */
+    public List<ThreadPoolStuckTaskEntity> scan() {
+        List<ThreadPoolStuckTaskEntity> res = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        // 已注销的线程池不再保留状态
+        detectStateMap.keySet().retainAll(threadPoolAdapterMap.keySet());
+        for (Map.Entry<String, ThreadPoolAdapter> entry : threadPoolAdapterMap.entrySet()) {
+            if (!(entry.getValue().getExecutor() instanceof DynamicThreadPoolExecutor)) continue;
+            String threadPoolName = entry.getKey();
+            DynamicThreadPoolExecutor executor = (DynamicThreadPoolExecutor) entry.getValue().getExecutor();
+            DetectState state = detectStateMap.computeIfAbsent(threadPoolName, k -> new DetectState());
+            long thresholdMillis = properties.getPoolThresholdMillis().getOrDefault(threadPoolName, properties.getThresholdMillis());
+
+            Set<Object> stuckTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+            long maxRunningMillis = 0;
+            int samples = 0;
+            for (RunningTaskVO runningTask : executor.getRunningTasks()) {
+                if (runningTask.getRunningMillis() < thresholdMillis) continue;
+                stuckTasks.add(runningTask.getTask());
+                maxRunningMillis = Math.max(maxRunningMillis, runningTask.getRunningMillis());
+                // 同一次执行只计数一次、采样一次，超过本次采样上限的留到下次扫描
+                if (state.countedTasks.add(runningTask.getTask())) {
+                    state.totalStuckCount++;
+                }
+                if (samples >= properties.getMaxSamplesPerScan() || !state.sampledTasks.add(runningTask.getTask())) continue;
+                samples++;
+                sample(threadPoolName, state, runningTask, now);
+            }
+            // 已结束的任务不再跟踪
+            state.countedTasks.retainAll(stuckTasks);
+            state.sampledTasks.retainAll(stuckTasks);
+            executor.setStuckTaskCount(stuckTasks.size());
+
+            if (stuckTasks.isEmpty() && !state.stuck) continue;
+            state.stuck = !stuckTasks.isEmpty();
+            res.add(ThreadPoolStuckTaskEntity.builder()
+                    .appName(applicationName)
+                    .threadPoolName(threadPoolName)
+                    .thresholdMillis(thresholdMillis)
+                    .stuckCount(stuckTasks.size())
+                    .maxRunningMillis(maxRunningMillis)
+                    .totalStuckCount(state.totalStuckCount)
+                    .topStacks(state.topStacks(properties.getTopStacks()))
+                    .time(now)
+                    .build());
+        }
+        return res;
+    }
+
+    private void sample(String threadPoolName, DetectState state, RunningTaskVO runningTask, long now) {
+        StackTraceElement[] frames = runningTask.getThread().getStackTrace();
+        if (frames.length == 0) {
+            return;
+        }
+        StringBuilder stackTrace = new StringBuilder();
+        int depth = Math.min(frames.length, properties.getStackDepth());
+        for (int i = 0; i < depth; i++) {
+            stackTrace.append("\tat ").append(frames[i]).append('\n');
+        }
+        if (frames.length > depth) {
+            stackTrace.append("\t... ").append(frames.length - depth).append(" more\n");
+        }
+        String key = runningTask.getTaskName() + '\n' + stackTrace;
+        ThreadPoolStuckStackEntity stack = state.stacks.get(key);
+        if (null == stack) {
+            if (state.stacks.size() >= MAX_STACKS_PER_POOL) {
+                state.evictLeastSeen();
+            }
+            stack = ThreadPoolStuckStackEntity.builder()
+                    .taskName(runningTask.getTaskName())
+                    .stackTrace(stackTrace.toString())
+                    .build();
+            state.stacks.put(key, stack);
+        }
+        stack.setCount(stack.getCount() + 1);
+        stack.setThreadName(runningTask.getThread().getName());
+        stack.setRunningMillis(runningTask.getRunningMillis());
+        stack.setLastSeenTime(now);
+        logger.warn("动态线程池，线程池:{} 任务运行超过阈值 任务:{} 线程:{} 运行时间:{}ms\n{}", threadPoolName, runningTask.getTaskName(),
+                runningTask.getThread().getName(), runningTask.getRunningMillis(), stackTrace);
+    }
+
+    /**
+     * 单个线程池的检测状态
+     */
+    private static class DetectState {
+
+        /** 已计数的卡住任务（按对象身份） */
+        private final Set<Object> countedTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /** 已采样过堆栈的卡住任务（按对象身份） */
+        private final Set<Object> sampledTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /** 任务类名 + 堆栈 -> 采样统计 */
+        private final Map<String, ThreadPoolStuckStackEntity> stacks = new HashMap<>();
+
+        /** 累计卡住任务数 */
+        private long totalStuckCount;
+
+        /** 上次扫描是否存在卡住任务 */
+        private boolean stuck;
+
+        private List<ThreadPoolStuckStackEntity> topStacks(int limit) {
+            List<ThreadPoolStuckStackEntity> res = new ArrayList<>(stacks.values());
+            res.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+            List<ThreadPoolStuckStackEntity> top = new ArrayList<>(Math.min(limit, res.size()));
+            for (int i = 0; i < res.size() && i < limit; i++) {
+                ThreadPoolStuckStackEntity stack = res.get(i);
+                // 上报副本，避免序列化期间被扫描线程修改
+                top.add(new ThreadPoolStuckStackEntity(stack.getTaskName(), stack.getThreadName(), stack.getStackTrace(),
+                        stack.getCount(), stack.getRunningMillis(), stack.getLastSeenTime()));
+            }
+            return top;
+        }
+
+        private void evictLeastSeen() {
+            String evictKey = null;
+            ThreadPoolStuckStackEntity evict = null;
+            for (Map.Entry<String, ThreadPoolStuckStackEntity> entry : stacks.entrySet()) {
+                ThreadPoolStuckStackEntity stack = entry.getValue();
+                if (null == evict || stack.getCount() < evict.getCount()
+                        || (stack.getCount() == evict.getCount() && stack.getLastSeenTime() < evict.getLastSeenTime())) {
+                    evictKey = entry.getKey();
+                    evict = stack;
+                }
+            }
+            stacks.remove(evictKey);
+        }
+
+    }
+
+}
@@ -1,7 +1,10 @@
 package dynamic.thread.pool.sdk.registry;
 
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolScaleEventEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckTaskEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -10,7 +13,7 @@ import java.util.List;
 public interface RegistryService {
 
     /**
-     * 上报线程池列表
+     * 上报线程池列表，同时刷新每个线程池的配置参数
      * @param threadPoolConfigEntities
      */
     void reportThreadPool(List<ThreadPoolConfigEntity> threadPoolConfigEntities) throws Exception;
@@ -20,4 +23,32 @@ public interface RegistryService {
      * @param threadPoolConfigEntity
      */
     void reportThreadPoolConfigParameter(ThreadPoolConfigEntity threadPoolConfigEntity);
+
+    /**
+     * 上报线程池扩缩容事件
+     * @param threadPoolScaleEventEntity
+     */
+    void reportThreadPoolScaleEvent(ThreadPoolScaleEventEntity threadPoolScaleEventEntity) throws Exception;
+
+    /**
+     * 上报线程池卡住任务统计
+     * @param threadPoolStuckTaskEntities
+     */
+    void reportThreadPoolStuckTask(List<ThreadPoolStuckTaskEntity> threadPoolStuckTaskEntities) throws Exception;
+
+    /**
+     * 批量查询已持久化的线程池配置，一次网络往返
+     * @param appName
+     * @param threadPoolNames
+     * @return 只包含存在配置的线程池
+     */
+    List<ThreadPoolConfigEntity> queryThreadPoolConfigList(String appName, Collection<String> threadPoolNames) throws Exception;
+
+    /**
+     * 线程池注销时清理本实例的上报缓存
+     * 状态、卡住任务统计等运行数据由同一应用的所有实例共用，不删除，其他实例仍在运行时继续更新；持久化的配置与扩缩容事件同样保留
+     * @param appName
+     * @param threadPoolName
+     */
+    void removeThreadPool(String appName, String threadPoolName) throws Exception;
 }
@@ -1,10 +1,15 @@
 package dynamic.thread.pool.sdk.registry.redis;
 
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolScaleEventEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckTaskEntity;
 import dynamic.thread.pool.sdk.registry.RegistryService;
-import lombok.extern.flogger.Flogger;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
 import org.redisson.api.RBucket;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RList;
+import org.redisson.api.RMapAsync;
 import org.redisson.api.RedissonClient;
 
 import java.time.Duration;
@@ -19,6 +24,9 @@ import static dynamic.thread.pool.sdk.domain.model.valobj.RegistryEnumVO.*;
 @Slf4j
 public class RedisRegistry implements RegistryService {
 
+    // 每个线程池保留的扩缩容事件数
+    private static final int MAX_SCALE_EVENT_SIZE = 100;
+
     // Redis 客户端
     private final RedissonClient redissonClient;
 
@@ -28,38 +36,82 @@ public class RedisRegistry implements RegistryService {
 
     @Override
     public void reportThreadPool(List<ThreadPoolConfigEntity> threadPoolConfigEntities) {
-        // 获取线程池列表
-        List<ThreadPoolConfigEntity> list = redissonClient.getList(THREAD_POOL_CONFIG_LIST_KEY.getKey());
-        // 首次缓存 将全部线程池缓存
-        if (list.isEmpty()) {
-            log.info("首次缓存数据");
-            list.addAll(threadPoolConfigEntities);
+        if (threadPoolConfigEntities.isEmpty()) {
             return;
         }
-        Map<String, ThreadPoolConfigEntity> map = new HashMap<>();
+        // 所有写操作放入同一个批处理，管道化发送，一次网络往返
+        RBatch batch = redissonClient.createBatch();
+        Set<String> appNames = new HashSet<>();
         for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigEntities) {
-            map.put(threadPoolConfigEntity.getThreadPoolName(), threadPoolConfigEntity);
-        }
-        for (int i = 0; i < list.size(); i++) {
-            ThreadPoolConfigEntity cacheThreadPoolConfigEntity = list.get(i);
-            ThreadPoolConfigEntity newThreadPoolConfigEntity = map.get(cacheThreadPoolConfigEntity.getThreadPoolName());
-            // 缓存存在 - 更新
-            // 缓存不存在 - 写入
-            if (newThreadPoolConfigEntity != null) {
-                list.set(i, newThreadPoolConfigEntity);
-            } else {
-                list.add(threadPoolConfigEntities.get(i));
-            }
+            String appName = threadPoolConfigEntity.getAppName();
+            // 按应用分片的 Hash，field 为线程池名称，存在则更新、不存在则写入
+            RMapAsync<String, ThreadPoolConfigEntity> map = batch.getMap(THREAD_POOL_CONFIG_HASH_KEY.getKey() + "_" + appName);
+            map.fastPutAsync(threadPoolConfigEntity.getThreadPoolName(), threadPoolConfigEntity);
+            // 线程池配置参数，设置有效期为30天
+            RBucketAsync<ThreadPoolConfigEntity> bucket = batch.getBucket(parameterCacheKey(threadPoolConfigEntity));
+            bucket.setAsync(threadPoolConfigEntity, Duration.ofDays(30));
+            appNames.add(appName);
         }
+        batch.getSet(THREAD_POOL_CONFIG_APP_SET_KEY.getKey()).addAllAsync(appNames);
+        // 本次上报同时发布到上报主题，管理端只需订阅一次即可获得变更
+        batch.getTopic(DYNAMIC_THREAD_POOL_REPORT_TOPIC.getKey()).publishAsync(threadPoolConfigEntities);
+        batch.execute();
     }
 
     @Override
     public void reportThreadPoolConfigParameter(ThreadPoolConfigEntity threadPoolConfigEntity) {
-        // 拼接缓存key
-        String cacheKey = THREAD_POOL_CONFIG_PARAMETER_LIST_KEY.getKey() + "_" + threadPoolConfigEntity.getAppName() + "_" + threadPoolConfigEntity.getThreadPoolName();
         // 根据key获取对应的线程池配置
-        RBucket<ThreadPoolConfigEntity> bucket = redissonClient.getBucket(cacheKey);
+        RBucket<ThreadPoolConfigEntity> bucket = redissonClient.getBucket(parameterCacheKey(threadPoolConfigEntity));
         // 设置有效期为30天
         bucket.set(threadPoolConfigEntity, Duration.ofDays(30));
     }
+
+    @Override
+    public void reportThreadPoolScaleEvent(ThreadPoolScaleEventEntity threadPoolScaleEventEntity) {
+        String cacheKey = THREAD_POOL_SCALE_EVENT_LIST_KEY.getKey() + "_" + threadPoolScaleEventEntity.getAppName() + "_" + threadPoolScaleEventEntity.getThreadPoolName();
+        RList<ThreadPoolScaleEventEntity> list = redissonClient.getList(cacheKey);
+        list.add(threadPoolScaleEventEntity);
+        // 只保留最近的事件
+        list.trim(-MAX_SCALE_EVENT_SIZE, -1);
+        list.expire(Duration.ofDays(30));
+    }
+
+    @Override
+    public void reportThreadPoolStuckTask(List<ThreadPoolStuckTaskEntity> threadPoolStuckTaskEntities) {
+        RBatch batch = redissonClient.createBatch();
+        for (ThreadPoolStuckTaskEntity threadPoolStuckTaskEntity : threadPoolStuckTaskEntities) {
+            String cacheKey = THREAD_POOL_STUCK_TASK_KEY.getKey() + "_" + threadPoolStuckTaskEntity.getAppName() + "_" + threadPoolStuckTaskEntity.getThreadPoolName();
+            batch.<ThreadPoolStuckTaskEntity>getBucket(cacheKey).setAsync(threadPoolStuckTaskEntity, Duration.ofDays(1));
+        }
+        batch.execute();
+    }
+
+    @Override
+    public List<ThreadPoolConfigEntity> queryThreadPoolConfigList(String appName, Collection<String> threadPoolNames) {
+        if (threadPoolNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String[] keys = new String[threadPoolNames.size()];
+        int i = 0;
+        for (String threadPoolName : threadPoolNames) {
+            keys[i++] = THREAD_POOL_CONFIG_PARAMETER_LIST_KEY.getKey() + "_" + appName + "_" + threadPoolName;
+        }
+        // MGET 一次读取全部线程池配置，不存在的 key 不在结果中
+        Map<String, ThreadPoolConfigEntity> buckets = redissonClient.getBuckets().get(keys);
+        return new ArrayList<>(buckets.values());
+    }
+
+    @Override
+    public void removeThreadPool(String appName, String threadPoolName) {
+        // 应用 Hash 与卡住任务统计由同一应用的所有实例共用，不删除也不发布移除消息，避免其他实例仍在运行的线程池从管理端消失；卡住任务统计按有效期自然过期
+    }
+
+    /**
+     * 拼接线程池配置参数缓存key
+     * @param threadPoolConfigEntity
+     * @return
+     */
+    private String parameterCacheKey(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        return THREAD_POOL_CONFIG_PARAMETER_LIST_KEY.getKey() + "_" + threadPoolConfigEntity.getAppName() + "_" + threadPoolConfigEntity.getThreadPoolName();
+    }
 }
@@ -2,12 +2,28 @@ package dynamic.thread.pool.sdk.registry.zookeeper;
 
 import com.alibaba.fastjson.JSON;
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolScaleEventEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckTaskEntity;
 import dynamic.thread.pool.sdk.registry.RegistryService;
+import dynamic.thread.pool.sdk.registry.codec.ThreadPoolConfigEntityCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.zookeeper.KeeperException;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 使用 Zookeeper作为注册中心
@@ -22,58 +38,384 @@ public class ZookeeperRegistry implements RegistryService {
 
     private static final String BASE_STATUS_PATH = "/dynamic/thread/pool/status";
 
-    public ZookeeperRegistry(CuratorFramework curatorFramework) {
+    private static final String BASE_EVENT_PATH = "/dynamic/thread/pool/event";
+
+    private static final String BASE_STUCK_PATH = "/dynamic/thread/pool/stuck";
+
+    // 每个线程池保留的扩缩容事件数
+    private static final int MAX_SCALE_EVENT_SIZE = 20;
+
+    // 状态节点内容未变化时，超过该时间仍强制刷新一次
+    private static final long STATUS_REFRESH_INTERVAL_MILLIS = 60_000L;
+
+    // 波动指标的变化阈值：相对变化比例，以及耗时（微秒）、CPU 使用率（百分点）、未占用 CPU 比例、分配速率（字节/秒）、调度延误（毫秒）的绝对下限
+    private static final double NOISY_RELATIVE_THRESHOLD = 0.2;
+
+    private static final long LATENCY_THRESHOLD_MICROS = 1000L;
+
+    private static final double CPU_USAGE_THRESHOLD = 5;
+
+    private static final double CONTENTION_RATIO_THRESHOLD = 0.05;
+
+    private static final double ALLOCATION_RATE_THRESHOLD = 1024 * 1024;
+
+    private static final long SCHEDULE_LAG_THRESHOLD_MILLIS = 10L;
+
+    // 已确认存在的节点路径，避免每次上报都 checkExists
+    private final Set<String> knownPaths = ConcurrentHashMap.newKeySet();
+
+    // 状态节点最近一次写入的内容
+    private final Map<String, ThreadPoolConfigEntity> lastStatusMap = new ConcurrentHashMap<>();
+
+    // 状态节点最近一次写入的时间
+    private final Map<String, Long> lastStatusWriteTimeMap = new ConcurrentHashMap<>();
+
+    // 节点数据是否使用紧凑二进制格式
+    private final boolean binaryCodecEnabled;
+
+    public ZookeeperRegistry(CuratorFramework curatorFramework, boolean binaryCodecEnabled) {
         this.curatorFramework = curatorFramework;
+        this.binaryCodecEnabled = binaryCodecEnabled;
     }
 
     @Override
     public void reportThreadPool(List<ThreadPoolConfigEntity> threadPoolConfigEntities) throws Exception {
+        long now = System.currentTimeMillis();
+        // 本次需要写入的状态节点，统一放入一个事务提交
+        List<CuratorOp> operations = new ArrayList<>();
+        Map<String, ThreadPoolConfigEntity> pendingStatusMap = new HashMap<>();
         for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigEntities) {
             String appName = threadPoolConfigEntity.getAppName();
             String threadPoolName = threadPoolConfigEntity.getThreadPoolName();
-            if (appName == null || threadPoolName == null) return;
-            String configPath = BASE_CONFIG_PATH.concat("/").concat(appName);
-            String statusPath = BASE_STATUS_PATH.concat("/").concat(appName);
-            if (curatorFramework.checkExists().forPath(configPath) == null) {
-                log.info("新增配置节点:{}", configPath);
-                log.info("新建状态节点:{}", statusPath);
-                curatorFramework.create().creatingParentsIfNeeded().forPath(configPath);
-                curatorFramework.create().creatingParentsIfNeeded().forPath(statusPath);
-            }
-            String configChildren = configPath.concat("/").concat(threadPoolName);
-            String statusChildren = statusPath.concat("/").concat(threadPoolName);
-            if (curatorFramework.checkExists().forPath(configChildren) == null) {
-                log.info("新建配置节点:{}的子节点:{}", configPath, threadPoolName);
-                log.info("新建状态节点:{}的子节点:{}", statusPath, threadPoolName);
-                curatorFramework.create().creatingParentsIfNeeded().forPath(configChildren);
-                curatorFramework.create().creatingParentsIfNeeded().forPath(statusChildren);
+            if (appName == null || threadPoolName == null) continue;
+            String configChildren = BASE_CONFIG_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
+            String statusChildren = BASE_STATUS_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
+
+            // 配置节点只在首次创建时写入，自动扩缩容调整后的核心线程数、最大线程数等运行时配置随状态节点上报
+            ThreadPoolConfigEntity status = ThreadPoolConfigEntity.builder()
+                    .corePoolSize(threadPoolConfigEntity.getCorePoolSize())
+                    .maximumPoolSize(threadPoolConfigEntity.getMaximumPoolSize())
+                    .queueCapacity(threadPoolConfigEntity.getQueueCapacity())
+                    .autoScaleEnabled(threadPoolConfigEntity.isAutoScaleEnabled())
+                    .autoScaleMinPoolSize(threadPoolConfigEntity.getAutoScaleMinPoolSize())
+                    .autoScaleMaxPoolSize(threadPoolConfigEntity.getAutoScaleMaxPoolSize())
+                    .poolSize(threadPoolConfigEntity.getPoolSize())
+                    .remainingCapacity(threadPoolConfigEntity.getRemainingCapacity())
+                    .queueType(threadPoolConfigEntity.getQueueType())
+                    .queueSize(threadPoolConfigEntity.getQueueSize())
+                    .activeCount(threadPoolConfigEntity.getActiveCount())
+                    .queueWaitTimeP50(threadPoolConfigEntity.getQueueWaitTimeP50())
+                    .queueWaitTimeP90(threadPoolConfigEntity.getQueueWaitTimeP90())
+                    .queueWaitTimeP99(threadPoolConfigEntity.getQueueWaitTimeP99())
+                    .queueWaitTimeMax(threadPoolConfigEntity.getQueueWaitTimeMax())
+                    .executeTimeP50(threadPoolConfigEntity.getExecuteTimeP50())
+                    .executeTimeP90(threadPoolConfigEntity.getExecuteTimeP90())
+                    .executeTimeP99(threadPoolConfigEntity.getExecuteTimeP99())
+                    .executeTimeMax(threadPoolConfigEntity.getExecuteTimeMax())
+                    .stuckTaskCount(threadPoolConfigEntity.getStuckTaskCount())
+                    .cpuUsage(threadPoolConfigEntity.getCpuUsage())
+                    .contentionRatio(threadPoolConfigEntity.getContentionRatio())
+                    .allocationRate(threadPoolConfigEntity.getAllocationRate())
+                    .configVersion(threadPoolConfigEntity.getConfigVersion())
+                    .executorType(threadPoolConfigEntity.getExecutorType())
+                    .stealCount(threadPoolConfigEntity.getStealCount())
+                    .queuedSubmissionCount(threadPoolConfigEntity.getQueuedSubmissionCount())
+                    .runningThreadCount(threadPoolConfigEntity.getRunningThreadCount())
+                    .scheduleLag(threadPoolConfigEntity.getScheduleLag())
+                    .laneDequeueMode(threadPoolConfigEntity.getLaneDequeueMode())
+                    .laneWeights(threadPoolConfigEntity.getLaneWeights())
+                    .laneCapacities(threadPoolConfigEntity.getLaneCapacities())
+                    .laneQueueSizes(threadPoolConfigEntity.getLaneQueueSizes())
+                    .laneQueueWaitTimeP99(threadPoolConfigEntity.getLaneQueueWaitTimeP99())
+                    .build();
 
+            // 配置节点只在首次创建时写入，之后由管理端维护
+            if (!knownPaths.contains(configChildren)) {
                 ThreadPoolConfigEntity config = ThreadPoolConfigEntity.builder()
                         .appName(threadPoolConfigEntity.getAppName())
                         .threadPoolName(threadPoolConfigEntity.getThreadPoolName())
                         .corePoolSize(threadPoolConfigEntity.getCorePoolSize())
                         .maximumPoolSize(threadPoolConfigEntity.getMaximumPoolSize())
+                        .queueCapacity(threadPoolConfigEntity.getQueueCapacity())
+                        .laneDequeueMode(threadPoolConfigEntity.getLaneDequeueMode())
+                        .laneWeights(threadPoolConfigEntity.getLaneWeights())
+                        .laneCapacities(threadPoolConfigEntity.getLaneCapacities())
                         .build();
-                String configData = JSON.toJSONString(config);
-                log.info("配置节点写入:{} {}", configChildren, configData);
-                curatorFramework.setData().forPath(configChildren, configData.getBytes(StandardCharsets.UTF_8));
+                createIfAbsent(configChildren, encode(config));
+            }
+            // 状态节点不存在时直接带数据创建
+            if (!knownPaths.contains(statusChildren) && createIfAbsent(statusChildren, encode(status))) {
+                lastStatusMap.put(statusChildren, status);
+                lastStatusWriteTimeMap.put(statusChildren, now);
+                continue;
             }
 
-            ThreadPoolConfigEntity status = ThreadPoolConfigEntity.builder()
-                    .poolSize(threadPoolConfigEntity.getPoolSize())
-                    .remainingCapacity(threadPoolConfigEntity.getRemainingCapacity())
-                    .queueType(threadPoolConfigEntity.getQueueType())
-                    .queueSize(threadPoolConfigEntity.getQueueSize())
-                    .activeCount(threadPoolConfigEntity.getActiveCount())
-                    .build();
-            String statusData = JSON.toJSONString(status);
-            log.info("状态节点写入:{} {}", statusChildren, status);
-            curatorFramework.setData().forPath(statusChildren, statusData.getBytes(StandardCharsets.UTF_8));
+            // 内容无明显变化且未到强制刷新时间，跳过写入
+            ThreadPoolConfigEntity lastStatus = lastStatusMap.get(statusChildren);
+            if (null != lastStatus && !isStatusChanged(lastStatus, status)
+                    && now - lastStatusWriteTimeMap.getOrDefault(statusChildren, 0L) < STATUS_REFRESH_INTERVAL_MILLIS) {
+                continue;
+            }
+            operations.add(curatorFramework.transactionOp().setData().forPath(statusChildren, encode(status)));
+            pendingStatusMap.put(statusChildren, status);
+        }
+
+        if (operations.isEmpty()) {
+            return;
+        }
+        try {
+            curatorFramework.transaction().forOperations(operations);
+        } catch (KeeperException.NoNodeException e) {
+            // 部分状态节点已被删除，事务整体未生效；逐个写入并重建缺失的节点，不丢弃其他线程池的本次状态
+            log.warn("状态节点不存在，逐个写入并重建:{}", e.getPath());
+            writeStatusIndividually(pendingStatusMap, now);
+            return;
+        } catch (Exception e) {
+            // 连接异常等，清空本地缓存，下次上报重新校验
+            knownPaths.clear();
+            lastStatusMap.clear();
+            lastStatusWriteTimeMap.clear();
+            throw e;
+        }
+        for (Map.Entry<String, ThreadPoolConfigEntity> entry : pendingStatusMap.entrySet()) {
+            lastStatusMap.put(entry.getKey(), entry.getValue());
+            lastStatusWriteTimeMap.put(entry.getKey(), now);
+        }
+        log.debug("状态节点批量写入:{}个", operations.size());
+    }
+
+    /**
+     * 逐个写入状态节点，节点不存在时带数据重建
+     * @param pendingStatusMap 待写入的状态节点
+     * @param now 本次上报时间
+     * @throws Exception
+     */
+    private void writeStatusIndividually(Map<String, ThreadPoolConfigEntity> pendingStatusMap, long now) throws Exception {
+        for (Map.Entry<String, ThreadPoolConfigEntity> entry : pendingStatusMap.entrySet()) {
+            String path = entry.getKey();
+            byte[] data = encode(entry.getValue());
+            try {
+                curatorFramework.setData().forPath(path, data);
+            } catch (KeeperException.NoNodeException e) {
+                knownPaths.remove(path);
+                if (!createIfAbsent(path, data)) {
+                    // 其他实例已抢先重建，覆盖为本实例的状态
+                    curatorFramework.setData().forPath(path, data);
+                }
+            }
+            lastStatusMap.put(path, entry.getValue());
+            lastStatusWriteTimeMap.put(path, now);
         }
     }
 
+    /**
+     * 状态是否有明显变化：线程数、任务数、配置等精确比较；耗时分位数、资源占用、调度延误、窃取数等每次上报都会波动的指标超过阈值才算变化
+     * @param last 上次写入的状态
+     * @param current 本次状态
+     * @return
+     */
+    static boolean isStatusChanged(ThreadPoolConfigEntity last, ThreadPoolConfigEntity current) {
+        if (last.getCorePoolSize() != current.getCorePoolSize()
+                || last.getMaximumPoolSize() != current.getMaximumPoolSize()
+                || last.getQueueCapacity() != current.getQueueCapacity()
+                || last.isAutoScaleEnabled() != current.isAutoScaleEnabled()
+                || last.getAutoScaleMinPoolSize() != current.getAutoScaleMinPoolSize()
+                || last.getAutoScaleMaxPoolSize() != current.getAutoScaleMaxPoolSize()
+                || last.getPoolSize() != current.getPoolSize()
+                || last.getActiveCount() != current.getActiveCount()
+                || last.getQueueSize() != current.getQueueSize()
+                || last.getRemainingCapacity() != current.getRemainingCapacity()
+                || last.getStuckTaskCount() != current.getStuckTaskCount()
+                || last.getConfigVersion() != current.getConfigVersion()
+                || last.getQueuedSubmissionCount() != current.getQueuedSubmissionCount()
+                || last.getRunningThreadCount() != current.getRunningThreadCount()
+                || !Objects.equals(last.getQueueType(), current.getQueueType())
+                || !Objects.equals(last.getExecutorType(), current.getExecutorType())
+                || !Objects.equals(last.getLaneDequeueMode(), current.getLaneDequeueMode())
+                || !Objects.equals(last.getLaneWeights(), current.getLaneWeights())
+                || !Objects.equals(last.getLaneCapacities(), current.getLaneCapacities())
+                || !Objects.equals(last.getLaneQueueSizes(), current.getLaneQueueSizes())) {
+            return true;
+        }
+        return isLatencyChanged(last.getQueueWaitTimeP50(), current.getQueueWaitTimeP50())
+                || isLatencyChanged(last.getQueueWaitTimeP90(), current.getQueueWaitTimeP90())
+                || isLatencyChanged(last.getQueueWaitTimeP99(), current.getQueueWaitTimeP99())
+                || isLatencyChanged(last.getQueueWaitTimeMax(), current.getQueueWaitTimeMax())
+                || isLatencyChanged(last.getExecuteTimeP50(), current.getExecuteTimeP50())
+                || isLatencyChanged(last.getExecuteTimeP90(), current.getExecuteTimeP90())
+                || isLatencyChanged(last.getExecuteTimeP99(), current.getExecuteTimeP99())
+                || isLatencyChanged(last.getExecuteTimeMax(), current.getExecuteTimeMax())
+                || isLaneLatencyChanged(last.getLaneQueueWaitTimeP99(), current.getLaneQueueWaitTimeP99())
+                || isNoisyChanged(last.getCpuUsage(), current.getCpuUsage(), CPU_USAGE_THRESHOLD)
+                || isNoisyChanged(last.getContentionRatio(), current.getContentionRatio(), CONTENTION_RATIO_THRESHOLD)
+                || isNoisyChanged(last.getAllocationRate(), current.getAllocationRate(), ALLOCATION_RATE_THRESHOLD)
+                || isNoisyChanged(last.getScheduleLag(), current.getScheduleLag(), SCHEDULE_LAG_THRESHOLD_MILLIS)
+                || isNoisyChanged(last.getStealCount(), current.getStealCount(), 0);
+    }
+
+    private static boolean isLatencyChanged(long last, long current) {
+        return isNoisyChanged(last, current, LATENCY_THRESHOLD_MICROS);
+    }
+
+    /**
+     * 变化量超过绝对下限，且超过两者较大值的相对阈值
+     */
+    private static boolean isNoisyChanged(double last, double current, double absoluteThreshold) {
+        double delta = Math.abs(current - last);
+        return delta > absoluteThreshold && delta > NOISY_RELATIVE_THRESHOLD * Math.max(Math.abs(last), Math.abs(current));
+    }
+
+    /**
+     * 各通道排队耗时 P99，逗号分隔，逐项按耗时阈值比较
+     */
+    private static boolean isLaneLatencyChanged(String last, String current) {
+        if (null == last || null == current) {
+            return !Objects.equals(last, current);
+        }
+        String[] lastValues = last.split(",");
+        String[] currentValues = current.split(",");
+        if (lastValues.length != currentValues.length) {
+            return true;
+        }
+        try {
+            for (int i = 0; i < lastValues.length; i++) {
+                if (isLatencyChanged(Long.parseLong(lastValues[i].trim()), Long.parseLong(currentValues[i].trim()))) {
+                    return true;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return !last.equals(current);
+        }
+        return false;
+    }
+
+    /**
+     * 节点不存在时带数据创建
+     * @param path
+     * @param data
+     * @return 是否由本次调用创建
+     * @throws Exception
+     */
+    private boolean createIfAbsent(String path, byte[] data) throws Exception {
+        boolean created = false;
+        if (curatorFramework.checkExists().forPath(path) == null) {
+            try {
+                curatorFramework.create().creatingParentsIfNeeded().forPath(path, data);
+                log.info("新建节点:{}", path);
+                created = true;
+            } catch (KeeperException.NodeExistsException e) {
+                // 同一应用的其他实例已创建
+            }
+        }
+        knownPaths.add(path);
+        return created;
+    }
+
     @Override
     public void reportThreadPoolConfigParameter(ThreadPoolConfigEntity threadPoolConfigEntity) {
         log.info("------");
     }
+
+    @Override
+    public void reportThreadPoolScaleEvent(ThreadPoolScaleEventEntity threadPoolScaleEventEntity) throws Exception {
+        String eventPath = BASE_EVENT_PATH.concat("/").concat(threadPoolScaleEventEntity.getAppName())
+                .concat("/").concat(threadPoolScaleEventEntity.getThreadPoolName());
+        log.info("扩缩容事件节点写入:{} {}", eventPath, threadPoolScaleEventEntity.getReason());
+        // 节点数据为最近的事件列表
+        List<ThreadPoolScaleEventEntity> events = new ArrayList<>();
+        if (curatorFramework.checkExists().forPath(eventPath) == null) {
+            events.add(threadPoolScaleEventEntity);
+            curatorFramework.create().creatingParentsIfNeeded().forPath(eventPath, JSON.toJSONString(events).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        List<ThreadPoolScaleEventEntity> cached = JSON.parseArray(new String(curatorFramework.getData().forPath(eventPath), StandardCharsets.UTF_8), ThreadPoolScaleEventEntity.class);
+        if (null != cached) {
+            events.addAll(cached);
+        }
+        events.add(threadPoolScaleEventEntity);
+        if (events.size() > MAX_SCALE_EVENT_SIZE) {
+            events = new ArrayList<>(events.subList(events.size() - MAX_SCALE_EVENT_SIZE, events.size()));
+        }
+        curatorFramework.setData().forPath(eventPath, JSON.toJSONString(events).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void reportThreadPoolStuckTask(List<ThreadPoolStuckTaskEntity> threadPoolStuckTaskEntities) throws Exception {
+        for (ThreadPoolStuckTaskEntity threadPoolStuckTaskEntity : threadPoolStuckTaskEntities) {
+            String stuckPath = BASE_STUCK_PATH.concat("/").concat(threadPoolStuckTaskEntity.getAppName())
+                    .concat("/").concat(threadPoolStuckTaskEntity.getThreadPoolName());
+            byte[] data = JSON.toJSONString(threadPoolStuckTaskEntity).getBytes(StandardCharsets.UTF_8);
+            if (!knownPaths.contains(stuckPath) && createIfAbsent(stuckPath, data)) {
+                continue;
+            }
+            try {
+                curatorFramework.setData().forPath(stuckPath, data);
+            } catch (KeeperException.NoNodeException e) {
+                // 节点已被删除，重建
+                knownPaths.remove(stuckPath);
+                if (!createIfAbsent(stuckPath, data)) {
+                    curatorFramework.setData().forPath(stuckPath, data);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<ThreadPoolConfigEntity> queryThreadPoolConfigList(String appName, Collection<String> threadPoolNames) throws Exception {
+        if (threadPoolNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 异步并发读取全部配置节点，请求在同一会话上流水线发送
+        List<ThreadPoolConfigEntity> res = Collections.synchronizedList(new ArrayList<>(threadPoolNames.size()));
+        CountDownLatch latch = new CountDownLatch(threadPoolNames.size());
+        for (String threadPoolName : threadPoolNames) {
+            String configChildren = BASE_CONFIG_PATH.concat("/").concat(appName).concat("/").concat(threadPoolName);
+            curatorFramework.getData().inBackground((client, event) -> {
+                try {
+                    if (event.getResultCode() == KeeperException.Code.OK.intValue()) {
+                        ThreadPoolConfigEntity threadPoolConfigEntity = ThreadPoolConfigEntityCodec.decodeEntity(event.getData());
+                        if (null != threadPoolConfigEntity) {
+                            res.add(threadPoolConfigEntity);
+                        }
+                    } else if (event.getResultCode() != KeeperException.Code.NONODE.intValue()) {
+                        log.warn("读取配置节点失败:{} {}", configChildren, KeeperException.Code.get(event.getResultCode()));
+                    }
+                } catch (Exception e) {
+                    log.warn("解析配置节点失败:{}", configChildren, e);
+                } finally {
+                    latch.countDown();
+                }
+            }).forPath(configChildren);
+        }
+        // 未连接时 Curator 会在连接超时后回调失败，这里再留出一倍余量
+        long timeoutMillis = 2L * curatorFramework.getZookeeperClient().getConnectionTimeoutMs();
+        if (!latch.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("读取配置节点超时 " + appName);
+        }
+        return new ArrayList<>(res);
+    }
+
+    @Override
+    public void removeThreadPool(String appName, String threadPoolName) {
+        // 状态、卡住任务节点由同一应用的所有实例共用，不删除，只清理本实例的缓存；其他实例仍在上报时节点照常更新，全部实例注销后保留最后一次上报的数据
+        for (String basePath : new String[]{BASE_STATUS_PATH, BASE_STUCK_PATH}) {
+            String path = basePath.concat("/").concat(appName).concat("/").concat(threadPoolName);
+            knownPaths.remove(path);
+            lastStatusMap.remove(path);
+            lastStatusWriteTimeMap.remove(path);
+        }
+    }
+
+    /**
+     * 编码线程池节点数据
+     * @param threadPoolConfigEntity
+     * @return
+     */
+    private byte[] encode(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        if (binaryCodecEnabled) {
+            return ThreadPoolConfigEntityCodec.encode(threadPoolConfigEntity);
+        }
+        return JSON.toJSONString(threadPoolConfigEntity).getBytes(StandardCharsets.UTF_8);
+    }
+
 }
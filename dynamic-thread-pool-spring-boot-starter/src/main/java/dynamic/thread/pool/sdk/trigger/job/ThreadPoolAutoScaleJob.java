@@ -0,0 +1,41 @@
+package dynamic.thread.pool.sdk.trigger.job;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolScaleEventEntity;
+import dynamic.thread.pool.sdk.domain.scale.ThreadPoolAutoScaler;
+import dynamic.thread.pool.sdk.registry.RegistryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * 自动扩缩容任务
+ */
+public class ThreadPoolAutoScaleJob {
+
+    private Logger logger = LoggerFactory.getLogger(ThreadPoolAutoScaleJob.class);
+
+    private final ThreadPoolAutoScaler threadPoolAutoScaler;
+
+    private final RegistryService registryService;
+
+    public ThreadPoolAutoScaleJob(ThreadPoolAutoScaler threadPoolAutoScaler, RegistryService registryService) {
+        this.threadPoolAutoScaler = threadPoolAutoScaler;
+        this.registryService = registryService;
+    }
+
+    @Scheduled(fixedDelayString = "${dynamic.thread.pool.config.auto-scale.sample-interval-millis:2000}")
+    public void execAutoScale() {
+        List<ThreadPoolScaleEventEntity> events = threadPoolAutoScaler.scale();
+        // 将每次扩缩容决策上报到注册中心，供管理端展示原因
+        for (ThreadPoolScaleEventEntity event : events) {
+            try {
+                registryService.reportThreadPoolScaleEvent(event);
+            } catch (Exception e) {
+                logger.error("上报扩缩容事件失败 线程池:{}", event.getThreadPoolName(), e);
+            }
+        }
+    }
+
+}
@@ -1,8 +1,8 @@
 package dynamic.thread.pool.sdk.trigger.job;
 
 import com.alibaba.fastjson.JSON;
-import dynamic.thread.pool.sdk.domain.DynamicThreadPoolService;
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.report.ThreadPoolReportScheduler;
 import dynamic.thread.pool.sdk.registry.RegistryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,27 +17,27 @@ public class ThreadPoolDataReportJob {
 
     private Logger logger = LoggerFactory.getLogger(ThreadPoolDataReportJob.class);
 
-    private final DynamicThreadPoolService dynamicThreadPoolService;
+    private final ThreadPoolReportScheduler threadPoolReportScheduler;
 
     private final RegistryService registryService;
 
-    public ThreadPoolDataReportJob(DynamicThreadPoolService dynamicThreadPoolService, RegistryService registryService) {
-        this.dynamicThreadPoolService = dynamicThreadPoolService;
+    public ThreadPoolDataReportJob(ThreadPoolReportScheduler threadPoolReportScheduler, RegistryService registryService) {
+        this.threadPoolReportScheduler = threadPoolReportScheduler;
         this.registryService = registryService;
     }
 
-    @Scheduled(cron = "0/10 * * * * ?")
+    @Scheduled(fixedDelayString = "${dynamic.thread.pool.config.report.sample-interval-millis:500}")
     public void execReportThreadPoolList() throws Exception {
-        logger.info("获取线程池配置列表并上报到注册中心");
-        // 获取线程池配置列表
-        List<ThreadPoolConfigEntity> threadPoolConfigEntities = dynamicThreadPoolService.queryThreadPoolList();
-        // 将列表上报到注册中心
+        // 本地采样，只取出到达上报时间的线程池
+        List<ThreadPoolConfigEntity> threadPoolConfigEntities = threadPoolReportScheduler.sample();
+        if (threadPoolConfigEntities.isEmpty()) {
+            return;
+        }
+        // 将列表上报到注册中心，每个线程池的配置参数随列表一并上报
         registryService.reportThreadPool(threadPoolConfigEntities);
-        logger.info("上报线程池信息：{}", JSON.toJSONString(threadPoolConfigEntities));
-        // 将每个线程池的配置信息上报到注册中心
-        for (ThreadPoolConfigEntity threadPoolConfigEntity : threadPoolConfigEntities) {
-            registryService.reportThreadPoolConfigParameter(threadPoolConfigEntity);
-            logger.info("上报线程池配置：{}", JSON.toJSONString(threadPoolConfigEntity));
+        // 上报频率高，完整内容只在调试时序列化输出
+        if (logger.isDebugEnabled()) {
+            logger.debug("上报线程池信息：{}", JSON.toJSONString(threadPoolConfigEntities));
         }
     }
 
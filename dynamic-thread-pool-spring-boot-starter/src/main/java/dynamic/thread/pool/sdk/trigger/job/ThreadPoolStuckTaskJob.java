@@ -0,0 +1,42 @@
+package dynamic.thread.pool.sdk.trigger.job;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckTaskEntity;
+import dynamic.thread.pool.sdk.domain.watchdog.ThreadPoolStuckTaskDetector;
+import dynamic.thread.pool.sdk.registry.RegistryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * 卡住任务检测任务
+ */
+public class ThreadPoolStuckTaskJob {
+
+    private Logger logger = LoggerFactory.getLogger(ThreadPoolStuckTaskJob.class);
+
+    private final ThreadPoolStuckTaskDetector threadPoolStuckTaskDetector;
+
+    private final RegistryService registryService;
+
+    public ThreadPoolStuckTaskJob(ThreadPoolStuckTaskDetector threadPoolStuckTaskDetector, RegistryService registryService) {
+        this.threadPoolStuckTaskDetector = threadPoolStuckTaskDetector;
+        this.registryService = registryService;
+    }
+
+    @Scheduled(fixedDelayString = "${dynamic.thread.pool.config.stuck-task.scan-interval-millis:5000}")
+    public void execScan() {
+        List<ThreadPoolStuckTaskEntity> threadPoolStuckTaskEntities = threadPoolStuckTaskDetector.scan();
+        if (threadPoolStuckTaskEntities.isEmpty()) {
+            return;
+        }
+        // 将卡住任务统计上报到注册中心，供管理端展示
+        try {
+            registryService.reportThreadPoolStuckTask(threadPoolStuckTaskEntities);
+        } catch (Exception e) {
+            logger.error("上报卡住任务统计失败", e);
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package dynamic.thread.pool.sdk.trigger.listener;
+
+import dynamic.thread.pool.sdk.domain.apply.ThreadPoolConfigApplier;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
+import org.redisson.api.listener.MessageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 动态线程池批量变更监听器
+ * 一条消息应用多个线程池的配置，交给配置变更应用后立即返回，应用完成后只上报一次线程池列表
+ */
+public class ThreadPoolBatchRedissonListener implements MessageListener<ThreadPoolConfigBatchEntity> {
+
+    private Logger logger = LoggerFactory.getLogger(ThreadPoolBatchRedissonListener.class);
+
+    private final ThreadPoolConfigApplier threadPoolConfigApplier;
+
+    public ThreadPoolBatchRedissonListener(ThreadPoolConfigApplier threadPoolConfigApplier) {
+        this.threadPoolConfigApplier = threadPoolConfigApplier;
+    }
+
+    @Override
+    public void onMessage(CharSequence charSequence, ThreadPoolConfigBatchEntity threadPoolConfigBatchEntity) {
+        int size = null == threadPoolConfigBatchEntity.getThreadPoolConfigEntities() ? 0 : threadPoolConfigBatchEntity.getThreadPoolConfigEntities().size();
+        logger.info("收到线程池配置批量变更，批次:{} 线程池数量:{}", threadPoolConfigBatchEntity.getBatchId(), size);
+        threadPoolConfigApplier.submitBatch(threadPoolConfigBatchEntity);
+    }
+
+}
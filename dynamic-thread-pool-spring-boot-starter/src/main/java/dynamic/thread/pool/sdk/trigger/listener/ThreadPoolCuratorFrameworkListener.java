@@ -1,35 +1,37 @@
 package dynamic.thread.pool.sdk.trigger.listener;
 
 import com.alibaba.fastjson.JSON;
-import dynamic.thread.pool.sdk.domain.DynamicThreadPoolService;
+import dynamic.thread.pool.sdk.domain.apply.ThreadPoolConfigApplier;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
 import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
-import dynamic.thread.pool.sdk.registry.RegistryService;
+import dynamic.thread.pool.sdk.registry.codec.ThreadPoolConfigEntityCodec;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.CuratorCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.apache.curator.framework.recipes.cache.CuratorCacheListener.Type.NODE_CHANGED;
 
 /**
  * Zookeeper监听器
- * 只监听配置变化
+ * 只监听配置变化，解析后交给配置变更应用，不阻塞 Curator 的事件线程
+ * 线程池节点 {base}/{appName}/{threadPoolName} 为单个线程池配置，应用节点 {base}/{appName} 的数据为批量变更
+ * 管理端在同一事务中先写应用节点再写各线程池节点，批量应用后，随后到达的同版本线程池节点变更按重复变更跳过
  */
 public class ThreadPoolCuratorFrameworkListener {
 
     private Logger logger = LoggerFactory.getLogger(ThreadPoolCuratorFrameworkListener.class);
 
-    private final DynamicThreadPoolService dynamicThreadPoolService;
-
-    private final RegistryService registryService;
+    private final ThreadPoolConfigApplier threadPoolConfigApplier;
 
     private final CuratorFramework client;
 
     private static final String BASE_CONFIG_PATH = "/dynamic/thread/pool/config";
 
-    public ThreadPoolCuratorFrameworkListener(DynamicThreadPoolService dynamicThreadPoolService, RegistryService registryService, CuratorFramework client) throws Exception {
-        this.dynamicThreadPoolService = dynamicThreadPoolService;
-        this.registryService = registryService;
+    public ThreadPoolCuratorFrameworkListener(ThreadPoolConfigApplier threadPoolConfigApplier, CuratorFramework client) throws Exception {
+        this.threadPoolConfigApplier = threadPoolConfigApplier;
         this.client = client;
 
         if (null == client.checkExists().forPath(BASE_CONFIG_PATH)) {
@@ -49,41 +51,38 @@ public class ThreadPoolCuratorFrameworkListener {
 
     private void handleNodeChanged(String path, byte[] dataBytes) {
         try {
-            logger.info("监听到节点变更，路径：{}，数据：{}", path, new String(dataBytes));
+            logger.info("监听到节点变更，路径：{}，数据长度：{}", path, null == dataBytes ? 0 : dataBytes.length);
             String relativePath = path.substring(BASE_CONFIG_PATH.length() + 1);
             String[] pathSegments = relativePath.split("/");
+            if (pathSegments.length == 1) {
+                handleBatchChanged(dataBytes);
+                return;
+            }
             if (pathSegments.length != 2) {
                 logger.warn("Invalid zookeeper node path: {}", path);
                 return;
             }
             // 解析配置
-            ThreadPoolConfigEntity configEntity = JSON.parseObject(
-                    new String(dataBytes),
-                    ThreadPoolConfigEntity.class);
-            // 更新线程池配置
-            dynamicThreadPoolService.updateThreadPoolConfig(configEntity);
-            logger.info("调整线程池配置，线程池名称：{} 核心线程数：{} 最大线程数：{}",
-                    configEntity.getThreadPoolName(),
-                    configEntity.getCorePoolSize(),
-                    configEntity.getMaximumPoolSize());
-            // 上报最新配置到注册中心
-            reportUpdatedConfig(configEntity.getThreadPoolName());
+            ThreadPoolConfigEntity configEntity = ThreadPoolConfigEntityCodec.decodeEntity(dataBytes);
+            if (null == configEntity) {
+                return;
+            }
+            // 过期或重复的版本（包括批量变更已应用的线程池）在应用时跳过，不再上报
+            threadPoolConfigApplier.submit(configEntity);
         } catch (Exception e) {
             logger.error("处理Zookeeper节点变更失败", e);
         }
     }
 
-    private void reportUpdatedConfig(String threadPoolName) {
-        try {
-            // 上报完整线程池列表
-            registryService.reportThreadPool(dynamicThreadPoolService.queryThreadPoolList());
-            // 上报当前线程池详细配置
-            ThreadPoolConfigEntity currentConfig = dynamicThreadPoolService.queryThreadPoolConfigByName(threadPoolName);
-            registryService.reportThreadPoolConfigParameter(currentConfig);
-            logger.info("调整线程池配置，线程池名称：{} 更新完成", threadPoolName);
-        } catch (Exception e) {
-            logger.error("配置上报失败", e);
+    private void handleBatchChanged(byte[] dataBytes) {
+        if (null == dataBytes || dataBytes.length == 0) {
+            return;
+        }
+        ThreadPoolConfigBatchEntity batchEntity = JSON.parseObject(new String(dataBytes, StandardCharsets.UTF_8), ThreadPoolConfigBatchEntity.class);
+        if (null == batchEntity) {
+            return;
         }
+        threadPoolConfigApplier.submitBatch(batchEntity);
     }
 
 }
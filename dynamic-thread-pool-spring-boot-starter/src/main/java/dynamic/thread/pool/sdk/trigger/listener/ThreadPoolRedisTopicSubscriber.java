@@ -0,0 +1,110 @@
+package dynamic.thread.pool.sdk.trigger.listener;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static dynamic.thread.pool.sdk.domain.model.valobj.RegistryEnumVO.DYNAMIC_THREAD_POOL_BATCH_TOPIC;
+import static dynamic.thread.pool.sdk.domain.model.valobj.RegistryEnumVO.DYNAMIC_THREAD_POOL_REDIS_TOPIC;
+
+/**
+ * Redis 配置变更主题订阅
+ * 在后台线程订阅单个变更主题和批量变更主题，Redis 不可达时按指数退避重试，直到订阅成功；应用启动不等待 Redis 连接
+ * 订阅成功后的断线重连由 Redisson 自动重新订阅
+ */
+public class ThreadPoolRedisTopicSubscriber {
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadPoolRedisTopicSubscriber.class);
+
+    private final RedissonClient redissonClient;
+
+    private final String applicationName;
+
+    private final ThreadPoolRedissonListener threadPoolRedissonListener;
+
+    private final ThreadPoolBatchRedissonListener threadPoolBatchRedissonListener;
+
+    private final long retryMillis;
+
+    private final long maxRetryMillis;
+
+    private volatile Thread thread;
+
+    private volatile RTopic topic;
+
+    private volatile int listenerId;
+
+    private volatile RTopic batchTopic;
+
+    private volatile int batchListenerId;
+
+    /**
+     * @param redissonClient 延迟创建的客户端，首次调用时才连接 Redis
+     */
+    public ThreadPoolRedisTopicSubscriber(RedissonClient redissonClient, String applicationName,
+                                          ThreadPoolRedissonListener threadPoolRedissonListener,
+                                          ThreadPoolBatchRedissonListener threadPoolBatchRedissonListener,
+                                          long retryMillis, long maxRetryMillis) {
+        this.redissonClient = redissonClient;
+        this.applicationName = applicationName;
+        this.threadPoolRedissonListener = threadPoolRedissonListener;
+        this.threadPoolBatchRedissonListener = threadPoolBatchRedissonListener;
+        this.retryMillis = Math.max(1, retryMillis);
+        this.maxRetryMillis = Math.max(this.retryMillis, maxRetryMillis);
+    }
+
+    public void start() {
+        Thread thread = new Thread(this::subscribe, "dynamic-thread-pool-redis-subscriber");
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    private void subscribe() {
+        long backoff = retryMillis;
+        for (int attempt = 1; !Thread.currentThread().isInterrupted(); attempt++) {
+            try {
+                if (null == topic) {
+                    RTopic rTopic = redissonClient.getTopic(DYNAMIC_THREAD_POOL_REDIS_TOPIC.getKey() + "_" + applicationName);
+                    listenerId = rTopic.addListener(ThreadPoolConfigEntity.class, threadPoolRedissonListener);
+                    topic = rTopic;
+                }
+                if (null == batchTopic) {
+                    RTopic rTopic = redissonClient.getTopic(DYNAMIC_THREAD_POOL_BATCH_TOPIC.getKey() + "_" + applicationName);
+                    batchListenerId = rTopic.addListener(ThreadPoolConfigBatchEntity.class, threadPoolBatchRedissonListener);
+                    batchTopic = rTopic;
+                }
+                logger.info("动态线程池，订阅配置变更主题完成 第{}次 {} {}", attempt, topic.getChannelNames(), batchTopic.getChannelNames());
+                return;
+            } catch (Exception e) {
+                logger.warn("动态线程池，订阅配置变更主题失败 第{}次，{}ms 后重试 错误:{}", attempt, backoff, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(maxRetryMillis, backoff * 2);
+        }
+    }
+
+    public void close() {
+        if (null != thread) {
+            thread.interrupt();
+        }
+        try {
+            if (null != topic) {
+                topic.removeListener(listenerId);
+            }
+            if (null != batchTopic) {
+                batchTopic.removeListener(batchListenerId);
+            }
+        } catch (Exception e) {
+            logger.warn("动态线程池，取消订阅配置变更主题失败 错误:{}", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package dynamic.thread.pool.sdk.domain.apply;
+
+import dynamic.thread.pool.sdk.domain.impl.DynamicThreadPoolServiceImpl;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolScaleEventEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolStuckTaskEntity;
+import dynamic.thread.pool.sdk.registry.RegistryService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class ThreadPoolConfigApplierTest {
+
+    private static final String APP_NAME = "app";
+
+    private static final long COALESCE_MILLIS = 300;
+
+    private final Map<String, ThreadPoolExecutor> executorMap = new LinkedHashMap<>();
+
+    private RecordingService dynamicThreadPoolService;
+
+    private RecordingRegistry registryService;
+
+    private ThreadPoolConfigApplier threadPoolConfigApplier;
+
+    @Before
+    public void init() {
+        executorMap.put("pool1", newExecutor());
+        executorMap.put("pool2", newExecutor());
+        dynamicThreadPoolService = new RecordingService(executorMap);
+        registryService = new RecordingRegistry();
+        threadPoolConfigApplier = new ThreadPoolConfigApplier(dynamicThreadPoolService, registryService, COALESCE_MILLIS);
+    }
+
+    @After
+    public void destroy() {
+        threadPoolConfigApplier.close();
+        for (ThreadPoolExecutor executor : executorMap.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_staleSkippedInWindow() throws InterruptedException {
+        threadPoolConfigApplier.submit(config("pool1", 3, 8, 3));
+        threadPoolConfigApplier.submit(config("pool1", 5, 8, 2));
+        // 窗口内已有更新版本，过期变更在提交时丢弃，不会交给线程池服务
+        Assert.assertEquals(Collections.singletonList("pool1:3:true"), dynamicThreadPoolService.await(1));
+        Assert.assertEquals(3, executorMap.get("pool1").getCorePoolSize());
+        Assert.assertEquals(1, registryService.awaitReports());
+    }
+
+    @Test
+    public void test_staleSkippedAcrossWindows() throws InterruptedException {
+        threadPoolConfigApplier.submit(config("pool1", 3, 8, 3));
+        Assert.assertEquals(Collections.singletonList("pool1:3:true"), dynamicThreadPoolService.await(1));
+        threadPoolConfigApplier.submit(config("pool1", 5, 8, 2));
+        Assert.assertEquals(Collections.singletonList("pool1:2:false"), dynamicThreadPoolService.await(1));
+        Assert.assertEquals(3, executorMap.get("pool1").getCorePoolSize());
+        // 没有应用任何变更的窗口不上报
+        Assert.assertEquals(1, registryService.awaitReports());
+    }
+
+    @Test
+    public void test_duplicateSkipped() throws InterruptedException {
+        threadPoolConfigApplier.submit(config("pool1", 3, 8, 3));
+        Assert.assertEquals(Collections.singletonList("pool1:3:true"), dynamicThreadPoolService.await(1));
+        // 同一版本重复投递
+        threadPoolConfigApplier.submit(config("pool1", 3, 8, 3));
+        Assert.assertEquals(Collections.singletonList("pool1:3:false"), dynamicThreadPoolService.await(1));
+        Assert.assertEquals(1, registryService.awaitReports());
+    }
+
+    @Test
+    public void test_versionZeroAlwaysApplied() throws InterruptedException {
+        threadPoolConfigApplier.submit(config("pool1", 3, 8, 5));
+        Assert.assertEquals(Collections.singletonList("pool1:5:true"), dynamicThreadPoolService.await(1));
+        threadPoolConfigApplier.submit(config("pool1", 4, 8, 0));
+        Assert.assertEquals(Collections.singletonList("pool1:0:true"), dynamicThreadPoolService.await(1));
+        Assert.assertEquals(4, executorMap.get("pool1").getCorePoolSize());
+
+        // 窗口内版本为 0 的变更同样覆盖已提交的带版本变更
+        threadPoolConfigApplier.submit(config("pool2", 3, 8, 7));
+        threadPoolConfigApplier.submit(config("pool2", 6, 8, 0));
+        Assert.assertEquals(Collections.singletonList("pool2:0:true"), dynamicThreadPoolService.await(1));
+        Assert.assertEquals(6, executorMap.get("pool2").getCorePoolSize());
+        Assert.assertEquals(3, registryService.awaitReports());
+    }
+
+    @Test
+    public void test_batchMixedWithSinglesInOneWindow() throws InterruptedException {
+        threadPoolConfigApplier.submit(config("pool1", 5, 8, 5));
+        threadPoolConfigApplier.submitBatch(batch(config("pool1", 4, 8, 4), config("pool2", 4, 8, 4)));
+        threadPoolConfigApplier.submit(config("pool2", 3, 8, 3));
+        // 批量变更先应用，之后的单个变更按版本决定：pool1 更新版本照常应用，pool2 已过期跳过
+        Assert.assertEquals(Arrays.asList("batch:true", "pool1:5:true", "pool2:3:false"), dynamicThreadPoolService.await(3));
+        Assert.assertEquals(5, executorMap.get("pool1").getCorePoolSize());
+        Assert.assertEquals(4, executorMap.get("pool2").getCorePoolSize());
+        // 同一窗口只上报一次
+        Assert.assertEquals(1, registryService.awaitReports());
+    }
+
+    private static ThreadPoolConfigEntity config(String threadPoolName, int corePoolSize, int maximumPoolSize, long configVersion) {
+        ThreadPoolConfigEntity entity = new ThreadPoolConfigEntity(APP_NAME, threadPoolName);
+        entity.setCorePoolSize(corePoolSize);
+        entity.setMaximumPoolSize(maximumPoolSize);
+        entity.setConfigVersion(configVersion);
+        return entity;
+    }
+
+    private static ThreadPoolConfigBatchEntity batch(ThreadPoolConfigEntity... threadPoolConfigEntities) {
+        return new ThreadPoolConfigBatchEntity(APP_NAME, "batch", Arrays.asList(threadPoolConfigEntities));
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        return new ThreadPoolExecutor(2, 8, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10));
+    }
+
+    /**
+     * 记录每次应用的线程池、版本与结果
+     */
+    private static class RecordingService extends DynamicThreadPoolServiceImpl {
+
+        private final BlockingQueue<String> results = new LinkedBlockingQueue<>();
+
+        private RecordingService(Map<String, ThreadPoolExecutor> executorMap) {
+            super(APP_NAME, executorMap);
+        }
+
+        @Override
+        public synchronized boolean updateThreadPoolConfig(ThreadPoolConfigEntity threadPoolConfigEntity) {
+            boolean applied = super.updateThreadPoolConfig(threadPoolConfigEntity);
+            results.add(threadPoolConfigEntity.getThreadPoolName() + ":" + threadPoolConfigEntity.getConfigVersion() + ":" + applied);
+            return applied;
+        }
+
+        @Override
+        public synchronized boolean updateThreadPoolConfigBatch(ThreadPoolConfigBatchEntity threadPoolConfigBatchEntity) {
+            boolean applied = super.updateThreadPoolConfigBatch(threadPoolConfigBatchEntity);
+            results.add(threadPoolConfigBatchEntity.getBatchId() + ":" + applied);
+            return applied;
+        }
+
+        private List<String> await(int n) throws InterruptedException {
+            List<String> res = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                String result = results.poll(5, TimeUnit.SECONDS);
+                Assert.assertNotNull("等待配置应用超时", result);
+                res.add(result);
+            }
+            return res;
+        }
+
+    }
+
+    /**
+     * 记录上报次数，其余方法不做处理
+     */
+    private static class RecordingRegistry implements RegistryService {
+
+        private final BlockingQueue<List<ThreadPoolConfigEntity>> reports = new LinkedBlockingQueue<>();
+
+        private int reportCount;
+
+        @Override
+        public void reportThreadPool(List<ThreadPoolConfigEntity> threadPoolConfigEntities) {
+            reports.add(threadPoolConfigEntities);
+        }
+
+        @Override
+        public void reportThreadPoolConfigParameter(ThreadPoolConfigEntity threadPoolConfigEntity) {
+        }
+
+        @Override
+        public void reportThreadPoolScaleEvent(ThreadPoolScaleEventEntity threadPoolScaleEventEntity) {
+        }
+
+        @Override
+        public void reportThreadPoolStuckTask(List<ThreadPoolStuckTaskEntity> threadPoolStuckTaskEntities) {
+        }
+
+        @Override
+        public List<ThreadPoolConfigEntity> queryThreadPoolConfigList(String appName, Collection<String> threadPoolNames) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void removeThreadPool(String appName, String threadPoolName) {
+        }
+
+        /**
+         * 等待一个合并窗口后返回累计上报次数，应用结果在上报之前记录
+         */
+        private int awaitReports() throws InterruptedException {
+            List<ThreadPoolConfigEntity> report;
+            while (null != (report = reports.poll(2 * COALESCE_MILLIS, TimeUnit.MILLISECONDS))) {
+                Assert.assertFalse(report.isEmpty());
+                reportCount++;
+            }
+            return reportCount;
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 队列并发校验
+ * 多个生产者非阻塞入队、多个消费者出队，同时有线程从队列中间移除和观察计数；校验每个元素恰好被消费或移除一次，计数不超过容量
+ */
+class BlockingQueueStress {
+
+    private final BlockingQueue<Integer> queue;
+
+    private final int capacity;
+
+    private final int producers;
+
+    private final int perProducer;
+
+    private final int consumers;
+
+    private final boolean removing;
+
+    BlockingQueueStress(BlockingQueue<Integer> queue, int capacity, int producers, int perProducer, int consumers, boolean removing) {
+        this.queue = queue;
+        this.capacity = capacity;
+        this.producers = producers;
+        this.perProducer = perProducer;
+        this.consumers = consumers;
+        this.removing = removing;
+    }
+
+    void run() throws InterruptedException {
+        int total = producers * perProducer;
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicLong handled = new AtomicLong();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        AtomicBoolean overCapacity = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producerThreads = new ArrayList<>();
+        List<Thread> otherThreads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            producerThreads.add(new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    Integer item = base + i;
+                    while (!queue.offer(item)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            otherThreads.add(new Thread(() -> {
+                await(start);
+                while (handled.get() < total) {
+                    Integer item;
+                    try {
+                        item = queue.poll(1, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (null != item) {
+                        seen.incrementAndGet(item);
+                        handled.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        if (removing) {
+            // 按编号尝试移除，只有仍在队列中的元素会成功
+            otherThreads.add(new Thread(() -> {
+                await(start);
+                for (int i = 0; i < total && handled.get() < total; i += 7) {
+                    if (queue.remove(i)) {
+                        seen.incrementAndGet(i);
+                        handled.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        otherThreads.add(new Thread(() -> {
+            await(start);
+            while (producing.get() || handled.get() < total) {
+                int size = queue.size();
+                if (size < 0 || size > capacity || queue.remainingCapacity() < 0 || queue.remainingCapacity() > capacity) {
+                    overCapacity.set(true);
+                }
+                Thread.yield();
+            }
+        }));
+
+        for (Thread thread : producerThreads) {
+            thread.start();
+        }
+        for (Thread thread : otherThreads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : producerThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(60));
+        }
+        producing.set(false);
+        for (Thread thread : otherThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(60));
+        }
+
+        Assert.assertEquals(total, handled.get());
+        for (int i = 0; i < total; i++) {
+            Assert.assertEquals("元素 " + i + " 应恰好被消费或移除一次", 1, seen.get(i));
+        }
+        Assert.assertFalse("计数超出容量", overCapacity.get());
+        Assert.assertEquals(0, queue.size());
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals(capacity, queue.remainingCapacity());
+        Assert.assertNull(queue.poll());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
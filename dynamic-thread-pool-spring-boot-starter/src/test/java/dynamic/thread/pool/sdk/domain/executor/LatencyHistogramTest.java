@@ -0,0 +1,106 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import dynamic.thread.pool.sdk.domain.model.valobj.LatencySnapshotVO;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void test_bucketBounds() {
+        for (long value = 0; value < 8; value++) {
+            Assert.assertEquals(value, LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value)));
+        }
+        int lastIndex = -1;
+        for (long value = 8; value < (1L << 30); value += value / 7 + 1) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            Assert.assertTrue("桶索引应随数值单调递增 " + value, index >= lastIndex);
+            Assert.assertTrue("桶上界不小于数值 " + value, upper >= value);
+            Assert.assertTrue("相对误差不超过 12.5% " + value, upper - value <= value / 8);
+            lastIndex = index;
+        }
+        // 超过最大量级的值计入最后一个桶
+        Assert.assertEquals(LatencyHistogram.bucketIndex(1L << 41), LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void test_snapshotPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(0);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        LatencySnapshotVO snapshot = histogram.snapshot();
+        Assert.assertEquals(1000, snapshot.getCount());
+        Assert.assertEquals(1000, snapshot.getMax());
+        assertWithin(500, snapshot.getP50());
+        assertWithin(900, snapshot.getP90());
+        assertWithin(990, snapshot.getP99());
+        Assert.assertTrue(snapshot.getP99() <= snapshot.getMax());
+
+        // 周期切换后计数清零
+        Assert.assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void test_negativeRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram(0);
+        histogram.record(-5);
+        LatencySnapshotVO snapshot = histogram.snapshot();
+        Assert.assertEquals(1, snapshot.getCount());
+        Assert.assertEquals(0, snapshot.getMax());
+        Assert.assertEquals(0, snapshot.getP99());
+    }
+
+    @Test
+    public void test_snapshotKeepsLastIntervalUntilExpired() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(TimeUnit.MILLISECONDS.toNanos(200));
+        histogram.record(100);
+        // 周期未到期时返回上一个完整周期的快照，本周期的记录保留
+        Assert.assertEquals(0, histogram.snapshot().getCount());
+        Thread.sleep(250);
+        LatencySnapshotVO snapshot = histogram.snapshot();
+        Assert.assertEquals(1, snapshot.getCount());
+        Assert.assertSame(snapshot, histogram.snapshot());
+    }
+
+    @Test
+    public void test_concurrentRecord() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(0);
+        int threads = 4;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i % 2000);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        LatencySnapshotVO snapshot = histogram.snapshot();
+        Assert.assertEquals((long) threads * perThread, snapshot.getCount());
+        Assert.assertEquals(1999, snapshot.getMax());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        Assert.assertTrue("期望约 " + expected + " 实际 " + actual, actual >= expected && actual - expected <= expected / 8);
+    }
+
+}
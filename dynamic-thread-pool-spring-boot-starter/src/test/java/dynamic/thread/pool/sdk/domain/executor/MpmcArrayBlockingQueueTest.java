@@ -0,0 +1,82 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MpmcArrayBlockingQueueTest {
+
+    @Test
+    public void test_capacityRoundsUpToPowerOfTwo() {
+        Assert.assertEquals(2, new MpmcArrayBlockingQueue<Integer>(1).getCapacity());
+        Assert.assertEquals(64, new MpmcArrayBlockingQueue<Integer>(64).getCapacity());
+        Assert.assertEquals(128, new MpmcArrayBlockingQueue<Integer>(100).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidCapacity() {
+        new MpmcArrayBlockingQueue<Integer>(0);
+    }
+
+    @Test
+    public void test_offerAndPollInOrder() throws InterruptedException {
+        MpmcArrayBlockingQueue<Integer> queue = new MpmcArrayBlockingQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertFalse(queue.offer(4, 10, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertEquals(Integer.valueOf(0), queue.peek());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void test_removeLeavesTombstone() {
+        MpmcArrayBlockingQueue<Integer> queue = new MpmcArrayBlockingQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            queue.offer(i);
+        }
+        Assert.assertTrue(queue.remove(1));
+        Assert.assertFalse(queue.remove(1));
+        Assert.assertFalse(queue.contains(1));
+        Assert.assertEquals(3, queue.size());
+        // 墓碑被消费前仍占用槽位
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertFalse(queue.offer(4));
+
+        Iterator<Integer> iterator = queue.iterator();
+        Assert.assertEquals(Integer.valueOf(0), iterator.next());
+        iterator.remove();
+        Assert.assertEquals(2, queue.size());
+
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals(2, queue.drainTo(drained));
+        Assert.assertEquals(Arrays.asList(2, 3), drained);
+        Assert.assertEquals(0, queue.size());
+        Assert.assertEquals(4, queue.remainingCapacity());
+    }
+
+    @Test
+    public void test_concurrentCountAndCapacity() throws InterruptedException {
+        MpmcArrayBlockingQueue<Integer> queue = new MpmcArrayBlockingQueue<>(64);
+        new BlockingQueueStress(queue, 64, 3, 20_000, 2, false).run();
+    }
+
+    @Test
+    public void test_concurrentRemove() throws InterruptedException {
+        MpmcArrayBlockingQueue<Integer> queue = new MpmcArrayBlockingQueue<>(64);
+        new BlockingQueueStress(queue, 64, 3, 20_000, 2, true).run();
+    }
+
+}
@@ -0,0 +1,190 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MultiLaneBlockingQueueTest {
+
+    @Test
+    public void test_strictDequeue() {
+        MultiLaneBlockingQueue<Task> queue = newQueue(new int[]{10, 10, 10}, MultiLaneBlockingQueue.DEFAULT_WEIGHTS, MultiLaneBlockingQueue.DequeueMode.STRICT);
+        queue.offer(new Task(TaskPriority.LOW, 1));
+        queue.offer(new Task(TaskPriority.NORMAL, 2));
+        queue.offer(new Task(TaskPriority.HIGH, 3));
+        queue.offer(new Task(TaskPriority.HIGH, 4));
+        queue.offer(new Task(null, 5));
+
+        Assert.assertEquals(3, queue.peek().id);
+        int[] order = new int[5];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = queue.poll().id;
+        }
+        // 高优先级通道先出队，通道内先进先出，未标记优先级按 NORMAL
+        Assert.assertArrayEquals(new int[]{3, 4, 2, 5, 1}, order);
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void test_weightedDequeue() {
+        MultiLaneBlockingQueue<Task> queue = newQueue(new int[]{100, 100, 100}, new int[]{6, 3, 1}, MultiLaneBlockingQueue.DequeueMode.WEIGHTED);
+        fill(queue, TaskPriority.HIGH, 60);
+        fill(queue, TaskPriority.NORMAL, 60);
+        fill(queue, TaskPriority.LOW, 60);
+
+        // 所有通道非空时每 10 次出队按 6:3:1 分配，低优先级通道不会饿死
+        for (int round = 0; round < 5; round++) {
+            int[] counts = new int[MultiLaneBlockingQueue.LANE_COUNT];
+            for (int i = 0; i < 10; i++) {
+                counts[queue.poll().priority.ordinal()]++;
+            }
+            Assert.assertArrayEquals(new int[]{6, 3, 1}, counts);
+        }
+    }
+
+    @Test
+    public void test_weightedSkipsEmptyAndZeroWeightLanes() {
+        MultiLaneBlockingQueue<Task> queue = newQueue(new int[]{10, 10, 10}, new int[]{1, 1, 0}, MultiLaneBlockingQueue.DequeueMode.WEIGHTED);
+        fill(queue, TaskPriority.LOW, 2);
+        fill(queue, TaskPriority.NORMAL, 2);
+
+        // 权重为 0 的通道只在其他通道都为空时出队
+        Assert.assertEquals(TaskPriority.NORMAL, queue.poll().priority);
+        Assert.assertEquals(TaskPriority.NORMAL, queue.poll().priority);
+        Assert.assertEquals(TaskPriority.LOW, queue.poll().priority);
+        Assert.assertEquals(TaskPriority.LOW, queue.poll().priority);
+    }
+
+    @Test
+    public void test_laneCapacity() {
+        MultiLaneBlockingQueue<Task> queue = newQueue(new int[]{1, 2, 1}, MultiLaneBlockingQueue.DEFAULT_WEIGHTS, MultiLaneBlockingQueue.DequeueMode.WEIGHTED);
+        Assert.assertEquals(4, queue.getCapacity());
+        Assert.assertTrue(queue.offer(new Task(TaskPriority.LOW, 1)));
+        // 某个通道满时只拒绝该通道的新任务
+        Assert.assertFalse(queue.offer(new Task(TaskPriority.LOW, 2)));
+        Assert.assertTrue(queue.offer(new Task(TaskPriority.HIGH, 3)));
+        Assert.assertTrue(queue.offer(new Task(TaskPriority.NORMAL, 4)));
+        Assert.assertTrue(queue.offer(new Task(TaskPriority.NORMAL, 5)));
+        Assert.assertFalse(queue.offer(new Task(TaskPriority.NORMAL, 6)));
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertArrayEquals(new int[]{1, 2, 1}, queue.getLaneSizes());
+    }
+
+    @Test
+    public void test_shrinkAndGrowLaneCapacity() throws InterruptedException {
+        MultiLaneBlockingQueue<Task> queue = newQueue(new int[]{3, 3, 3}, MultiLaneBlockingQueue.DEFAULT_WEIGHTS, MultiLaneBlockingQueue.DequeueMode.STRICT);
+        fill(queue, TaskPriority.LOW, 3);
+        queue.setLaneCapacities(new int[]{3, 3, 1});
+        // 调小容量不丢弃已入队的任务
+        Assert.assertEquals(3, queue.getLaneSize(TaskPriority.LOW));
+        Assert.assertFalse(queue.offer(new Task(TaskPriority.LOW, 100)));
+
+        CountDownLatch done = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(new Task(TaskPriority.LOW, 101));
+                done.countDown();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        producer.start();
+        Assert.assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        // 调大容量唤醒阻塞在该通道上的生产者
+        queue.setLaneCapacities(new int[]{3, 3, 4});
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(4, queue.getLaneSize(TaskPriority.LOW));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidLaneConfig() {
+        newQueue(new int[]{1, 1}, MultiLaneBlockingQueue.DEFAULT_WEIGHTS, MultiLaneBlockingQueue.DequeueMode.WEIGHTED);
+    }
+
+    @Test
+    public void test_remove() {
+        MultiLaneBlockingQueue<Task> queue = newQueue(new int[]{2, 2, 2}, MultiLaneBlockingQueue.DEFAULT_WEIGHTS, MultiLaneBlockingQueue.DequeueMode.STRICT);
+        Task high = new Task(TaskPriority.HIGH, 1);
+        Task normal1 = new Task(TaskPriority.NORMAL, 2);
+        Task normal2 = new Task(TaskPriority.NORMAL, 3);
+        Task low = new Task(TaskPriority.LOW, 4);
+        queue.offer(high);
+        queue.offer(normal1);
+        queue.offer(normal2);
+        queue.offer(low);
+        Assert.assertFalse(queue.offer(new Task(TaskPriority.NORMAL, 5)));
+
+        Assert.assertTrue(queue.remove(normal1));
+        Assert.assertFalse(queue.remove(normal1));
+        Assert.assertFalse(queue.contains(normal1));
+        Assert.assertEquals(3, queue.size());
+        // 移除后释放该通道的容量
+        Assert.assertTrue(queue.offer(new Task(TaskPriority.NORMAL, 5)));
+
+        Iterator<Task> iterator = queue.iterator();
+        Assert.assertSame(high, iterator.next());
+        iterator.remove();
+        Assert.assertFalse(queue.contains(high));
+
+        List<Integer> order = new ArrayList<>();
+        Task task;
+        while (null != (task = queue.poll())) {
+            order.add(task.id);
+        }
+        Assert.assertEquals(Arrays.asList(3, 5, 4), order);
+        Assert.assertEquals(0, queue.size());
+        Assert.assertEquals(6, queue.remainingCapacity());
+    }
+
+    @Test
+    public void test_drainTo() {
+        MultiLaneBlockingQueue<Task> queue = newQueue(new int[]{5, 5, 5}, MultiLaneBlockingQueue.DEFAULT_WEIGHTS, MultiLaneBlockingQueue.DequeueMode.STRICT);
+        fill(queue, TaskPriority.LOW, 2);
+        fill(queue, TaskPriority.HIGH, 2);
+        List<Task> drained = new ArrayList<>();
+        Assert.assertEquals(3, queue.drainTo(drained, 3));
+        Assert.assertEquals(TaskPriority.HIGH, drained.get(0).priority);
+        Assert.assertEquals(TaskPriority.LOW, drained.get(2).priority);
+        Assert.assertEquals(1, queue.drainTo(drained));
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    private static MultiLaneBlockingQueue<Task> newQueue(int[] capacities, int[] weights, MultiLaneBlockingQueue.DequeueMode mode) {
+        return new MultiLaneBlockingQueue<>(capacities, weights, mode, DynamicThreadPoolExecutor.DEFAULT_METRICS_INTERVAL_MILLIS);
+    }
+
+    private static void fill(MultiLaneBlockingQueue<Task> queue, TaskPriority priority, int n) {
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(queue.offer(new Task(priority, i)));
+        }
+    }
+
+    private static class Task implements Runnable, PrioritizedTask {
+
+        private final TaskPriority priority;
+
+        private final int id;
+
+        private Task(TaskPriority priority, int id) {
+            this.priority = priority;
+            this.id = id;
+        }
+
+        @Override
+        public TaskPriority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public void run() {
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ResizableCapacityBlockingQueueTest {
+
+    @Test
+    public void test_offerRespectsCapacity() {
+        ResizableCapacityBlockingQueue<Integer> queue = new ResizableCapacityBlockingQueue<>(2);
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertFalse(queue.offer(3));
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertEquals(Integer.valueOf(1), queue.poll());
+        Assert.assertEquals(Integer.valueOf(2), queue.poll());
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidCapacity() {
+        new ResizableCapacityBlockingQueue<Integer>(1).setCapacity(0);
+    }
+
+    @Test
+    public void test_shrinkKeepsQueuedItems() {
+        ResizableCapacityBlockingQueue<Integer> queue = new ResizableCapacityBlockingQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        queue.setCapacity(2);
+        // 调小容量不丢弃已入队的任务，消化到新容量以下之前拒绝入队
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertFalse(queue.offer(4));
+        queue.poll();
+        queue.poll();
+        Assert.assertFalse(queue.offer(4));
+        queue.poll();
+        Assert.assertTrue(queue.offer(4));
+        Assert.assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void test_growWakesBlockedProducer() throws InterruptedException {
+        ResizableCapacityBlockingQueue<Integer> queue = new ResizableCapacityBlockingQueue<>(1);
+        queue.put(0);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(1);
+                done.countDown();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        producer.start();
+        Assert.assertFalse(done.await(100, TimeUnit.MILLISECONDS));
+        queue.setCapacity(2);
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void test_timedOfferAndPoll() throws InterruptedException {
+        ResizableCapacityBlockingQueue<Integer> queue = new ResizableCapacityBlockingQueue<>(1);
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(queue.offer(1, 10, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Integer.valueOf(1), queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void test_removeAndDrain() {
+        ResizableCapacityBlockingQueue<Integer> queue = new ResizableCapacityBlockingQueue<>(5);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        Assert.assertTrue(queue.remove(2));
+        Assert.assertFalse(queue.remove(2));
+        Assert.assertEquals(4, queue.size());
+        Assert.assertEquals(1, queue.remainingCapacity());
+
+        Iterator<Integer> iterator = queue.iterator();
+        Assert.assertEquals(Integer.valueOf(0), iterator.next());
+        iterator.remove();
+        Assert.assertEquals(3, queue.size());
+
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals(2, queue.drainTo(drained, 2));
+        Assert.assertEquals(3, drained.size() + queue.size());
+        Assert.assertEquals(1, queue.drainTo(drained));
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertEquals(5, queue.remainingCapacity());
+    }
+
+    @Test
+    public void test_concurrentProducersAndConsumers() throws InterruptedException {
+        int capacity = 64;
+        int producers = 3;
+        int perProducer = 20_000;
+        ResizableCapacityBlockingQueue<Integer> queue = new ResizableCapacityBlockingQueue<>(capacity);
+        AtomicBoolean overCapacity = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    try {
+                        queue.put(i);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (queue.size() > capacity) {
+                        overCapacity.set(true);
+                    }
+                }
+            }));
+        }
+        long[] consumed = new long[1];
+        Thread consumer = new Thread(() -> {
+            for (int i = 0; i < producers * perProducer; i++) {
+                try {
+                    queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                consumed[0]++;
+            }
+        });
+        threads.add(consumer);
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        Assert.assertEquals((long) producers * perProducer, consumed[0]);
+        Assert.assertFalse(overCapacity.get());
+        Assert.assertEquals(0, queue.size());
+        Assert.assertEquals(capacity, queue.remainingCapacity());
+    }
+
+}
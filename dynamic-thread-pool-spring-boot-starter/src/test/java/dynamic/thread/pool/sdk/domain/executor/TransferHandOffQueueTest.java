@@ -0,0 +1,84 @@
+package dynamic.thread.pool.sdk.domain.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TransferHandOffQueueTest {
+
+    @Test
+    public void test_offerRespectsCapacity() {
+        TransferHandOffQueue<Integer> queue = new TransferHandOffQueue<>(2);
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertFalse(queue.offer(3));
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertEquals(Integer.valueOf(1), queue.poll());
+        Assert.assertEquals(1, queue.remainingCapacity());
+    }
+
+    @Test
+    public void test_resizeCapacity() throws InterruptedException {
+        TransferHandOffQueue<Integer> queue = new TransferHandOffQueue<>(3);
+        for (int i = 0; i < 3; i++) {
+            queue.offer(i);
+        }
+        queue.setCapacity(1);
+        // 调小容量不丢弃已入队的任务
+        Assert.assertEquals(3, queue.size());
+        Assert.assertFalse(queue.offer(3));
+        Assert.assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+        queue.setCapacity(4);
+        Assert.assertTrue(queue.offer(3));
+        Assert.assertEquals(4, queue.size());
+    }
+
+    @Test
+    public void test_handOffToWaitingConsumer() throws InterruptedException {
+        TransferHandOffQueue<Integer> queue = new TransferHandOffQueue<>(1);
+        AtomicReference<Integer> taken = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            try {
+                taken.set(queue.take());
+                done.countDown();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        consumer.start();
+        Thread.sleep(50);
+        Assert.assertTrue(queue.offer(7));
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Integer.valueOf(7), taken.get());
+        Assert.assertEquals(0, queue.size());
+        Assert.assertEquals(1, queue.remainingCapacity());
+    }
+
+    @Test
+    public void test_remove() {
+        TransferHandOffQueue<Integer> queue = new TransferHandOffQueue<>(2);
+        queue.offer(1);
+        queue.offer(2);
+        Assert.assertTrue(queue.remove(1));
+        Assert.assertFalse(queue.remove(1));
+        Assert.assertEquals(1, queue.size());
+        Assert.assertTrue(queue.offer(3));
+    }
+
+    @Test
+    public void test_concurrentCountAndCapacity() throws InterruptedException {
+        TransferHandOffQueue<Integer> queue = new TransferHandOffQueue<>(64);
+        new BlockingQueueStress(queue, 64, 3, 20_000, 2, false).run();
+    }
+
+    @Test
+    public void test_concurrentRemove() throws InterruptedException {
+        TransferHandOffQueue<Integer> queue = new TransferHandOffQueue<>(64);
+        new BlockingQueueStress(queue, 64, 3, 20_000, 2, true).run();
+    }
+
+}
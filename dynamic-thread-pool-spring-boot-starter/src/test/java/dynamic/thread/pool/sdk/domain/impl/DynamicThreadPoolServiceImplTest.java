@@ -0,0 +1,127 @@
+package dynamic.thread.pool.sdk.domain.impl;
+
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigBatchEntity;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class DynamicThreadPoolServiceImplTest {
+
+    private static final String APP_NAME = "app";
+
+    private final Map<String, ThreadPoolExecutor> executorMap = new LinkedHashMap<>();
+
+    private DynamicThreadPoolServiceImpl dynamicThreadPoolService;
+
+    @Before
+    public void init() {
+        executorMap.put("pool1", newExecutor());
+        executorMap.put("pool2", newExecutor());
+        dynamicThreadPoolService = new DynamicThreadPoolServiceImpl(APP_NAME, executorMap);
+    }
+
+    @After
+    public void destroy() {
+        for (ThreadPoolExecutor executor : executorMap.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_staleVersionSkipped() {
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 3, 8, 2)));
+        // 低于已应用版本的变更为过期变更
+        Assert.assertFalse(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 5, 8, 1)));
+        Assert.assertEquals(3, executorMap.get("pool1").getCorePoolSize());
+        Assert.assertEquals(2, dynamicThreadPoolService.queryThreadPoolConfigByName("pool1").getConfigVersion());
+
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 6, 8, 3)));
+        Assert.assertEquals(6, executorMap.get("pool1").getCorePoolSize());
+        Assert.assertEquals(3, dynamicThreadPoolService.queryThreadPoolConfigByName("pool1").getConfigVersion());
+    }
+
+    @Test
+    public void test_duplicateVersionSkipped() {
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 3, 8, 2)));
+        // 与已应用版本相同的变更为重复投递，内容不同也不应用
+        Assert.assertFalse(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 4, 8, 2)));
+        Assert.assertEquals(3, executorMap.get("pool1").getCorePoolSize());
+    }
+
+    @Test
+    public void test_versionZeroAlwaysApplied() {
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 3, 8, 5)));
+        // 版本为 0 为旧版本管理端下发的变更，总是应用且不改变已应用版本
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 4, 8, 0)));
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 5, 8, 0)));
+        Assert.assertEquals(5, executorMap.get("pool1").getCorePoolSize());
+        Assert.assertEquals(5, dynamicThreadPoolService.queryThreadPoolConfigByName("pool1").getConfigVersion());
+        Assert.assertFalse(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 6, 8, 5)));
+    }
+
+    @Test
+    public void test_versionsTrackedPerThreadPool() {
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 3, 8, 10)));
+        // 版本按线程池分别记录
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool2", 3, 8, 1)));
+    }
+
+    @Test
+    public void test_batchSkipsStaleEntries() {
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 3, 8, 4)));
+        // 批量变更中过期的线程池跳过，其余照常应用
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfigBatch(batch(config("pool1", 5, 8, 3), config("pool2", 5, 8, 3))));
+        Assert.assertEquals(3, executorMap.get("pool1").getCorePoolSize());
+        Assert.assertEquals(5, executorMap.get("pool2").getCorePoolSize());
+        // 全部过期时整批不应用
+        Assert.assertFalse(dynamicThreadPoolService.updateThreadPoolConfigBatch(batch(config("pool1", 6, 8, 4), config("pool2", 6, 8, 3))));
+        Assert.assertEquals(5, executorMap.get("pool2").getCorePoolSize());
+    }
+
+    @Test
+    public void test_restoreSkipsStaleVersion() {
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 3, 8, 4)));
+        // 对账开始时间晚于实时变更，只由版本决定是否跳过
+        long startMillis = System.currentTimeMillis() + 60_000;
+        int applied = dynamicThreadPoolService.restoreThreadPoolConfig(Arrays.asList(config("pool1", 5, 8, 2), config("pool2", 5, 8, 2)), startMillis);
+        Assert.assertEquals(1, applied);
+        Assert.assertEquals(3, executorMap.get("pool1").getCorePoolSize());
+        Assert.assertEquals(5, executorMap.get("pool2").getCorePoolSize());
+    }
+
+    @Test
+    public void test_unregisterResetsVersion() {
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 3, 8, 4)));
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) dynamicThreadPoolService.unregisterThreadPool("pool1");
+        Assert.assertTrue(dynamicThreadPoolService.registerThreadPool("pool1", executor));
+        // 重新注册的线程池从头记录版本
+        Assert.assertTrue(dynamicThreadPoolService.updateThreadPoolConfig(config("pool1", 4, 8, 1)));
+        Assert.assertEquals(4, executor.getCorePoolSize());
+    }
+
+    private static ThreadPoolConfigEntity config(String threadPoolName, int corePoolSize, int maximumPoolSize, long configVersion) {
+        ThreadPoolConfigEntity entity = new ThreadPoolConfigEntity(APP_NAME, threadPoolName);
+        entity.setCorePoolSize(corePoolSize);
+        entity.setMaximumPoolSize(maximumPoolSize);
+        entity.setConfigVersion(configVersion);
+        return entity;
+    }
+
+    private static ThreadPoolConfigBatchEntity batch(ThreadPoolConfigEntity... threadPoolConfigEntities) {
+        return new ThreadPoolConfigBatchEntity(APP_NAME, "batch", Arrays.asList(threadPoolConfigEntities));
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        return new ThreadPoolExecutor(2, 8, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10));
+    }
+
+}
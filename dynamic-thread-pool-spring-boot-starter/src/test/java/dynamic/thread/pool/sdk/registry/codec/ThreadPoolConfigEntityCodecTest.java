@@ -0,0 +1,190 @@
+package dynamic.thread.pool.sdk.registry.codec;
+
+import com.alibaba.fastjson.JSON;
+import dynamic.thread.pool.sdk.domain.model.entity.ThreadPoolConfigEntity;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static dynamic.thread.pool.sdk.registry.codec.ThreadPoolConfigEntityCodec.*;
+
+public class ThreadPoolConfigEntityCodecTest {
+
+    @Test
+    public void test_roundTripAllFields() {
+        ThreadPoolConfigEntity entity = fullEntity("threadPoolExecutor01");
+        byte[] data = ThreadPoolConfigEntityCodec.encode(entity);
+        Assert.assertTrue(ThreadPoolConfigEntityCodec.isBinary(data));
+        Assert.assertEquals(entity, ThreadPoolConfigEntityCodec.decodeEntity(data));
+    }
+
+    @Test
+    public void test_roundTripDefaults() {
+        ThreadPoolConfigEntity entity = new ThreadPoolConfigEntity("app", "pool");
+        Assert.assertEquals(entity, ThreadPoolConfigEntityCodec.decodeEntity(ThreadPoolConfigEntityCodec.encode(entity)));
+        Assert.assertEquals(new ThreadPoolConfigEntity(), ThreadPoolConfigEntityCodec.decodeEntity(ThreadPoolConfigEntityCodec.encode(new ThreadPoolConfigEntity())));
+    }
+
+    @Test
+    public void test_roundTripList() {
+        List<ThreadPoolConfigEntity> entities = Arrays.asList(fullEntity("p1"), new ThreadPoolConfigEntity("app", "p2"), fullEntity("p3"));
+        Object decoded = ThreadPoolConfigEntityCodec.decode(ThreadPoolConfigEntityCodec.encodeList(entities));
+        Assert.assertEquals(entities, decoded);
+    }
+
+    @Test
+    public void test_decodeJsonFallback() {
+        ThreadPoolConfigEntity entity = fullEntity("threadPoolExecutor01");
+        byte[] json = JSON.toJSONString(entity).getBytes(StandardCharsets.UTF_8);
+        Assert.assertFalse(ThreadPoolConfigEntityCodec.isBinary(json));
+        Assert.assertEquals(entity, ThreadPoolConfigEntityCodec.decodeEntity(json));
+        Assert.assertNull(ThreadPoolConfigEntityCodec.decodeEntity(new byte[0]));
+    }
+
+    @Test
+    public void test_skipUnknownFields() {
+        // 模拟新版本写入的报文：已知字段之间穿插四种线路类型的未知字段
+        PayloadBuilder payload = new PayloadBuilder(KIND_ENTITY, "app", "pool", "future");
+        payload.string(FIELD_APP_NAME, 0)
+                .varint(99, -12345)
+                .string(100, 2)
+                .bytes(101, new byte[]{1, 2, 3, 4, 5})
+                .fixed64(102, Double.doubleToRawLongBits(3.14))
+                .string(FIELD_THREAD_POOL_NAME, 1)
+                .varint(FIELD_CORE_POOL_SIZE, 7)
+                .bytes(FIELD_MAXIMUM_POOL_SIZE, new byte[]{9})
+                .end();
+
+        ThreadPoolConfigEntity expected = new ThreadPoolConfigEntity("app", "pool");
+        expected.setCorePoolSize(7);
+        Assert.assertEquals(expected, ThreadPoolConfigEntityCodec.decodeEntity(payload.toByteArray()));
+    }
+
+    @Test
+    public void test_skipUnknownFieldsInList() {
+        PayloadBuilder payload = new PayloadBuilder(KIND_LIST, "app", "p1", "p2");
+        payload.raw(2);
+        payload.string(FIELD_APP_NAME, 0).string(FIELD_THREAD_POOL_NAME, 1).bytes(200, new byte[]{0, 0}).end();
+        payload.varint(201, 1).string(FIELD_APP_NAME, 0).string(FIELD_THREAD_POOL_NAME, 2).end();
+
+        Object decoded = ThreadPoolConfigEntityCodec.decode(payload.toByteArray());
+        Assert.assertEquals(Arrays.asList(new ThreadPoolConfigEntity("app", "p1"), new ThreadPoolConfigEntity("app", "p2")), decoded);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_unsupportedKind() {
+        ThreadPoolConfigEntityCodec.decode(new PayloadBuilder((byte) 9).toByteArray());
+    }
+
+    private static ThreadPoolConfigEntity fullEntity(String threadPoolName) {
+        return ThreadPoolConfigEntity.builder()
+                .appName("dynamic-thread-pool-test-app")
+                .threadPoolName(threadPoolName)
+                .corePoolSize(20)
+                .maximumPoolSize(50)
+                .activeCount(12)
+                .poolSize(20)
+                .queueType("MultiLaneBlockingQueue")
+                .queueSize(345)
+                .remainingCapacity(4655)
+                .queueCapacity(5000)
+                .completedTaskCount(987654321012L)
+                .autoScaleEnabled(true)
+                .autoScaleMinPoolSize(4)
+                .autoScaleMaxPoolSize(64)
+                .queueWaitTimeP50(120)
+                .queueWaitTimeP90(860)
+                .queueWaitTimeP99(4300)
+                .queueWaitTimeMax(15000)
+                .executeTimeP50(2300)
+                .executeTimeP90(9100)
+                .executeTimeP99(31000)
+                .executeTimeMax(120000)
+                .stuckTaskCount(2)
+                .cpuUsage(37.5)
+                .contentionRatio(0.125)
+                .allocationRate(12.75)
+                .configVersion(-1)
+                .executorType("ThreadPoolExecutor")
+                .stealCount(42)
+                .queuedSubmissionCount(3)
+                .runningThreadCount(5)
+                .scheduleLag(-8)
+                .laneDequeueMode("WEIGHTED")
+                .laneWeights("6,3,1")
+                .laneCapacities("100,200,300")
+                .laneQueueSizes("1,2,3")
+                .laneQueueWaitTimeP99("10,20,30")
+                .build();
+    }
+
+    /**
+     * 按报文格式手工拼装，用于构造当前版本不会写出的字段
+     */
+    private static class PayloadBuilder {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PayloadBuilder(byte kind, String... strings) {
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(kind);
+            raw(strings.length);
+            for (String s : strings) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                raw(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+
+        PayloadBuilder varint(int field, long value) {
+            raw((long) field << 2 | WIRE_VARINT);
+            raw((value << 1) ^ (value >> 63));
+            return this;
+        }
+
+        PayloadBuilder string(int field, int index) {
+            raw((long) field << 2 | WIRE_STRING);
+            raw(index);
+            return this;
+        }
+
+        PayloadBuilder bytes(int field, byte[] bytes) {
+            raw((long) field << 2 | WIRE_BYTES);
+            raw(bytes.length);
+            out.write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        PayloadBuilder fixed64(int field, long value) {
+            raw((long) field << 2 | WIRE_FIXED64);
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (value >>> (i << 3)));
+            }
+            return this;
+        }
+
+        PayloadBuilder end() {
+            raw(0);
+            return this;
+        }
+
+        void raw(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+    }
+
+}